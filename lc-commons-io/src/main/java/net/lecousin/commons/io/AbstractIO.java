@@ -1,37 +1,93 @@
 package net.lecousin.commons.io;
 
 import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
-import net.lecousin.commons.events.SingleEvent;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Abstract class for an IO, implementing the close event.
+ * <p>
+ * The close state is a single volatile field: nothing is allocated until a listener is registered with
+ * {@link #onClose(Runnable)}, and the listeners are called in the order they were registered.
+ * </p>
  */
+@Slf4j
 public abstract class AbstractIO implements IO {
-	
-	/** Close event. */
-	protected SingleEvent<IO> closeEvent = new SingleEvent<>();
+
+	private static final Object CLOSED = new Object();
+	private static final VarHandle CLOSE_STATE;
+
+	static {
+		try {
+			CLOSE_STATE = MethodHandles.lookup().findVarHandle(AbstractIO.class, "closeState", Object.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/** Null while open without listener, a {@link CloseListener} chain while open with listeners, or CLOSED. */
+	private volatile Object closeState;
 
 	/** Close internal resources.
 	 * @throws IOException
 	 */
 	protected abstract void closeInternal() throws IOException;
-	
+
 	@Override
 	public final void close() throws IOException {
 		if (isClosed()) return;
 		closeInternal();
-		closeEvent.emit(this);
+		Object state = CLOSE_STATE.getAndSet(this, CLOSED);
+		if (state instanceof CloseListener last)
+			callListeners(last);
 	}
-	
+
 	@Override
 	public boolean isClosed() {
-		return closeEvent.isEmitted();
+		return CLOSE_STATE.getVolatile(this) == CLOSED;
 	}
-	
+
 	@Override
 	public void onClose(Runnable listener) {
-		closeEvent.listen(listener);
+		do {
+			Object state = CLOSE_STATE.getVolatile(this);
+			if (state == CLOSED) break;
+			if (CLOSE_STATE.compareAndSet(this, state, new CloseListener(listener, (CloseListener) state)))
+				return;
+		} while (true);
+		listener.run();
 	}
-	
+
+	/**
+	 * Remove the listeners registered with {@link #onClose(Runnable)} without calling them,
+	 * so an IO being reused does not notify the listeners of its previous user.
+	 * @return false if this IO is already closed
+	 */
+	protected boolean clearCloseListeners() {
+		do {
+			Object state = CLOSE_STATE.getVolatile(this);
+			if (state == CLOSED) return false;
+			if (state == null || CLOSE_STATE.compareAndSet(this, state, null)) return true;
+		} while (true);
+	}
+
+	private static void callListeners(CloseListener last) {
+		// the chain starts with the last registered listener
+		CloseListener first = null;
+		for (CloseListener l = last; l != null; l = l.next)
+			first = new CloseListener(l.listener, first);
+		for (CloseListener l = first; l != null; l = l.next) {
+			try {
+				l.listener.run();
+			} catch (Exception e) {
+				log.error("Close listener error", e);
+			}
+		}
+	}
+
+	private record CloseListener(Runnable listener, CloseListener next) {
+	}
+
 }
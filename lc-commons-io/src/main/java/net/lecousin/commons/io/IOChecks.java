@@ -27,6 +27,8 @@ public final class IOChecks {
 	public static final String FIELD_POS = "pos";
 	/** Parameter buffer. */
 	public static final String FIELD_BUFFER = "buffer";
+	/** Parameter buffers. */
+	public static final String FIELD_BUFFERS = "buffers";
 	
 	private static final String LENGTH = ".length";
 
@@ -129,6 +131,37 @@ public final class IOChecks {
 		Objects.requireNonNull(buffer, FIELD_BUFFER);
 	}
 	
+	/**
+	 * Checks the I/O is not closed, then that the given array of buffers and its elements are not null.
+	 * @param io the IO
+	 * @param buffers buffers
+	 * @param <T> type of buffer
+	 * @throws ClosedChannelException if the IO is closed
+	 * @throws NullPointerException if buffers or one of its elements is null
+	 */
+	public static <T extends Buffer> void checkBuffersOperation(IO io, T[] buffers) throws ClosedChannelException {
+		if (io.isClosed()) throw new ClosedChannelException();
+		Objects.requireNonNull(buffers, FIELD_BUFFERS);
+		for (T buffer : buffers) Objects.requireNonNull(buffer, FIELD_BUFFERS);
+	}
+	
+	/**
+	 * Checks the I/O is not closed, the position is not negative, then that the given array of buffers and its elements are not null.
+	 * @param io the IO
+	 * @param pos position
+	 * @param buffers buffers
+	 * @param <T> type of buffer
+	 * @throws ClosedChannelException if the IO is closed
+	 * @throws NullPointerException if buffers or one of its elements is null
+	 * @throws NegativeValueException if pos is negative
+	 */
+	public static <T extends Buffer> void checkBuffersOperation(IO io, long pos, T[] buffers) throws ClosedChannelException {
+		if (io.isClosed()) throw new ClosedChannelException();
+		NegativeValueException.check(pos, FIELD_POS);
+		Objects.requireNonNull(buffers, FIELD_BUFFERS);
+		for (T buffer : buffers) Objects.requireNonNull(buffer, FIELD_BUFFERS);
+	}
+	
 	/**
 	 * Check array parameters.
 	 * @param buf buffer
@@ -171,6 +171,42 @@ public interface BytesIO extends IO {
 			readBytesFully(buf, 0, buf.length);
 		}
 		
+		/**
+		 * Read <i>some</i> bytes into the given buffers, in order (scattering read).
+		 * At least one byte is read, but the buffers are not necessarily filled,
+		 * if no more byte can be read because the end is reached -1 is returned.
+		 * <p>
+		 * An IO able to fill several buffers in a single operation, such as a file, reads into all of them at once.
+		 * By default, only the first buffer having remaining space is used.
+		 * </p>
+		 * 
+		 * @param buffers the buffers to fill
+		 * @return number of bytes read, or -1 if the end is reached
+		 * @throws ClosedChannelException if this IO is already closed
+		 * @throws IOException in case an error occurred while reading
+		 */
+		default long readBytes(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			for (ByteBuffer b : buffers)
+				if (b.hasRemaining()) return readBytes(b);
+			return 0;
+		}
+		
+		/**
+		 * Read bytes to fill all the given buffers, in order (scattering read).<br/>
+		 * Compared to {@link #readBytes(ByteBuffer[])} this method ensures that all the buffers are filled, or
+		 * EOFException is thrown.
+		 * 
+		 * @param buffers the buffers to fill
+		 * @throws ClosedChannelException if this IO is already closed
+		 * @throws EOFException if the buffers cannot be filled because it would reached the end
+		 * @throws IOException in case an error occurred while reading
+		 */
+		default void readBytesFully(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			for (ByteBuffer b : buffers) readBytesFully(b);
+		}
+		
 		/**
 		 * Write all remaining bytes from this I/O to the given writable.
 		 * @param to output
@@ -339,6 +375,50 @@ public interface BytesIO extends IO {
 				readBytesFullyAt(pos, buf, 0, buf.length);
 			}
 			
+			/**
+			 * Read <i>some</i> bytes at the given position into the given buffers, in order (scattering read).
+			 * At least one byte is read, but the buffers are not necessarily filled,
+			 * if no more byte can be read because the end is reached -1 is returned.
+			 * <p>
+			 * By default, only the first buffer having remaining space is used.
+			 * </p>
+			 * 
+			 * @param pos position
+			 * @param buffers the buffers to fill
+			 * @return number of bytes read, or -1 if the end is reached
+			 * @throws ClosedChannelException if this IO is already closed
+			 * @throws NegativeValueException if pos is negative
+			 * @throws IOException in case an error occurred while reading
+			 */
+			default long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+				IOChecks.checkBuffersOperation(this, pos, buffers);
+				for (ByteBuffer b : buffers)
+					if (b.hasRemaining()) return readBytesAt(pos, b);
+				return 0;
+			}
+			
+			/**
+			 * Read bytes at the given position to fill all the given buffers, in order (scattering read).<br/>
+			 * Compared to {@link #readBytesAt(long, ByteBuffer[])} this method ensures that all the buffers are filled, or
+			 * EOFException is thrown.
+			 * 
+			 * @param pos position
+			 * @param buffers the buffers to fill
+			 * @throws ClosedChannelException if this IO is already closed
+			 * @throws EOFException if the buffers cannot be filled because it would reached the end
+			 * @throws NegativeValueException if pos is negative
+			 * @throws IOException in case an error occurred while reading
+			 */
+			default void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+				IOChecks.checkBuffersOperation(this, pos, buffers);
+				long p = pos;
+				for (ByteBuffer b : buffers) {
+					int nb = b.remaining();
+					readBytesFullyAt(p, b);
+					p += nb;
+				}
+			}
+			
 			/** @return a Readable view of this IO. */
 			default BytesIO.Readable asReadableBytesIO() {
 				return new BytesIOView.Readable(this);
@@ -462,7 +542,42 @@ public interface BytesIO extends IO {
 		default void writeBytesFully(List<ByteBuffer> buffers) throws IOException {
 			if (isClosed()) throw new ClosedChannelException();
 			Objects.requireNonNull(buffers);
-			for (var b : buffers) writeBytesFully(b);
+			writeBytesFully(buffers.toArray(new ByteBuffer[buffers.size()]));
+		}
+		
+		/**
+		 * Write <i>some</i> bytes from the given buffers, in order (gathering write).
+		 * At least one byte is written, but the buffers are not necessarily fully written,
+		 * if no more byte can be written because the end is reached -1 is returned.
+		 * <p>
+		 * An IO able to write several buffers in a single operation, such as a file, writes all of them at once.
+		 * By default, only the first buffer having remaining bytes is written.
+		 * </p>
+		 * 
+		 * @param buffers the buffers to write
+		 * @return number of bytes written, or -1 if the end is reached
+		 * @throws ClosedChannelException if this IO is already closed
+		 * @throws IOException in case an error occurred while writing
+		 */
+		default long writeBytes(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			for (ByteBuffer b : buffers)
+				if (b.hasRemaining()) return writeBytes(b);
+			return 0;
+		}
+		
+		/**
+		 * Write all bytes from all the given buffers, in order (gathering write).<br/>
+		 * If it cannot write all bytes because end is reached, EOFException is thrown.
+		 * 
+		 * @param buffers the buffers to write
+		 * @throws ClosedChannelException if this IO is already closed
+		 * @throws EOFException if all bytes cannot be written because end is reached
+		 * @throws IOException in case an error occurred while writing
+		 */
+		default void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			for (ByteBuffer b : buffers) writeBytesFully(b);
 		}
 		
 		/**
@@ -665,8 +780,46 @@ public interface BytesIO extends IO {
 				if (isClosed()) throw new ClosedChannelException();
 				NegativeValueException.check(pos, IOChecks.FIELD_POS);
 				Objects.requireNonNull(buffers);
+				writeBytesFullyAt(pos, buffers.toArray(new ByteBuffer[buffers.size()]));
+			}
+			
+			/**
+			 * Write <i>some</i> bytes at the given position from the given buffers, in order (gathering write).
+			 * At least one byte is written, but the buffers are not necessarily fully written,
+			 * if no more byte can be written because the end is reached -1 is returned.
+			 * <p>
+			 * By default, only the first buffer having remaining bytes is written.
+			 * </p>
+			 * 
+			 * @param pos position
+			 * @param buffers the buffers to write
+			 * @return number of bytes written, or -1 if the end is reached
+			 * @throws ClosedChannelException if this IO is already closed
+			 * @throws NegativeValueException if pos is negative
+			 * @throws IOException in case an error occurred while writing
+			 */
+			default long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+				IOChecks.checkBuffersOperation(this, pos, buffers);
+				for (ByteBuffer b : buffers)
+					if (b.hasRemaining()) return writeBytesAt(pos, b);
+				return 0;
+			}
+			
+			/**
+			 * Write all bytes at the given position from all the given buffers, in order (gathering write).<br/>
+			 * If it cannot write all bytes because end is reached, EOFException is thrown.
+			 * 
+			 * @param pos position
+			 * @param buffers the buffers to write
+			 * @throws ClosedChannelException if this IO is already closed
+			 * @throws NegativeValueException if pos is negative
+			 * @throws EOFException if all bytes cannot be written because end is reached
+			 * @throws IOException in case an error occurred while writing
+			 */
+			default void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+				IOChecks.checkBuffersOperation(this, pos, buffers);
 				long p = pos;
-				for (var b : buffers) {
+				for (ByteBuffer b : buffers) {
 					int nb = b.remaining();
 					writeBytesFullyAt(p, b);
 					p += nb;
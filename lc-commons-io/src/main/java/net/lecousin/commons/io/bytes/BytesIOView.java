@@ -71,6 +71,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 			io.readBytesFully(buf);
 		}
 
+		@Override
+		public long readBytes(ByteBuffer[] buffers) throws IOException {
+			return io.readBytes(buffers);
+		}
+
+		@Override
+		public void readBytesFully(ByteBuffer[] buffers) throws IOException {
+			io.readBytesFully(buffers);
+		}
+
 		@Override
 		public long skipUpTo(long toSkip) throws IOException {
 			return io.skipUpTo(toSkip);
@@ -133,6 +143,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 				io.readBytesFully(buf);
 			}
 
+			@Override
+			public long readBytes(ByteBuffer[] buffers) throws IOException {
+				return io.readBytes(buffers);
+			}
+
+			@Override
+			public void readBytesFully(ByteBuffer[] buffers) throws IOException {
+				io.readBytesFully(buffers);
+			}
+
 			@Override
 			public long skipUpTo(long toSkip) throws IOException {
 				return io.skipUpTo(toSkip);
@@ -205,6 +225,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 			public void readBytesFullyAt(long pos, byte[] buf) throws IOException {
 				io.readBytesFullyAt(pos, buf);
 			}
+
+			@Override
+			public long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+				return io.readBytesAt(pos, buffers);
+			}
+
+			@Override
+			public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+				io.readBytesFullyAt(pos, buffers);
+			}
 			
 		}
 		
@@ -272,6 +302,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 			io.writeBytesFully(buffers);
 		}
 
+		@Override
+		public long writeBytes(ByteBuffer[] buffers) throws IOException {
+			return io.writeBytes(buffers);
+		}
+
+		@Override
+		public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+			io.writeBytesFully(buffers);
+		}
+
 		@Override
 		public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
 			io.writeBytesFully(buf, off, len);
@@ -344,6 +384,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 				io.writeBytesFully(buffers);
 			}
 
+			@Override
+			public long writeBytes(ByteBuffer[] buffers) throws IOException {
+				return io.writeBytes(buffers);
+			}
+
+			@Override
+			public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+				io.writeBytesFully(buffers);
+			}
+
 			@Override
 			public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
 				io.writeBytesFully(buf, off, len);
@@ -408,6 +458,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 			public void writeBytesFullyAt(long pos, List<ByteBuffer> buffers) throws IOException {
 				io.writeBytesFullyAt(pos, buffers);
 			}
+
+			@Override
+			public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+				return io.writeBytesAt(pos, buffers);
+			}
+
+			@Override
+			public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+				io.writeBytesFullyAt(pos, buffers);
+			}
 			
 			
 			/** Writable and Seekable and Resizable view of a BytesIO. */
@@ -477,6 +537,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 					io.writeBytesFully(buffers);
 				}
 
+				@Override
+				public long writeBytes(ByteBuffer[] buffers) throws IOException {
+					return io.writeBytes(buffers);
+				}
+
+				@Override
+				public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+					io.writeBytesFully(buffers);
+				}
+
 				@Override
 				public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
 					io.writeBytesFully(buf, off, len);
@@ -541,6 +611,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 				public void writeBytesFullyAt(long pos, List<ByteBuffer> buffers) throws IOException {
 					io.writeBytesFullyAt(pos, buffers);
 				}
+
+				@Override
+				public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+					return io.writeBytesAt(pos, buffers);
+				}
+
+				@Override
+				public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+					io.writeBytesFullyAt(pos, buffers);
+				}
 			} 
 		}
 
@@ -618,6 +698,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 			io.readBytesFully(buf);
 		}
 
+		@Override
+		public long readBytes(ByteBuffer[] buffers) throws IOException {
+			return io.readBytes(buffers);
+		}
+
+		@Override
+		public void readBytesFully(ByteBuffer[] buffers) throws IOException {
+			io.readBytesFully(buffers);
+		}
+
 		@Override
 		public long skipUpTo(long toSkip) throws IOException {
 			return io.skipUpTo(toSkip);
@@ -677,6 +767,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 		public void readBytesFullyAt(long pos, byte[] buf) throws IOException {
 			io.readBytesFullyAt(pos, buf);
 		}
+
+		@Override
+		public long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+			return io.readBytesAt(pos, buffers);
+		}
+
+		@Override
+		public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+			io.readBytesFullyAt(pos, buffers);
+		}
 	
 
 		@Override
@@ -714,6 +814,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 			io.writeBytesFully(buffers);
 		}
 
+		@Override
+		public long writeBytes(ByteBuffer[] buffers) throws IOException {
+			return io.writeBytes(buffers);
+		}
+
+		@Override
+		public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+			io.writeBytesFully(buffers);
+		}
+
 		@Override
 		public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
 			io.writeBytesFully(buf, off, len);
@@ -763,6 +873,16 @@ public abstract class BytesIOView<T extends BytesIO> extends IOView<T> {
 		public void writeBytesFullyAt(long pos, List<ByteBuffer> buffers) throws IOException {
 			io.writeBytesFullyAt(pos, buffers);
 		}
+
+		@Override
+		public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+			return io.writeBytesAt(pos, buffers);
+		}
+
+		@Override
+		public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+			io.writeBytesFullyAt(pos, buffers);
+		}
 	}
 
 }
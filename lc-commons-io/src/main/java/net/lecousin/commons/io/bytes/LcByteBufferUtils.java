@@ -19,6 +19,16 @@ public final class LcByteBufferUtils {
 		return r;
 	}
 	
+	/** Calculate the total remaining bytes from the given buffers, which may exceed Integer.MAX_VALUE.
+	 * @param buffers buffers
+	 * @return total number of remaining bytes
+	 */
+	public static long remainingLong(ByteBuffer... buffers) {
+		long r = 0;
+		for (ByteBuffer b : buffers) r += b.remaining();
+		return r;
+	}
+	
 	/** Concatenate the remaining bytes from all the given buffers.
 	 * @param buffers buffers to concatenate
 	 * @return a byte array containing all remaining bytes from all the buffers in order
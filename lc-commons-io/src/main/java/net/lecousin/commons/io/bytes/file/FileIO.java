@@ -19,9 +19,20 @@ import net.lecousin.commons.io.AbstractIO;
 import net.lecousin.commons.io.IO;
 import net.lecousin.commons.io.IOChecks;
 import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.LcByteBufferUtils;
+import net.lecousin.commons.io.bytes.utils.AdaptiveBufferSize;
 
 /**
  * File BytesIO.
+ * <p>
+ * The buffers returned by readBuffer grow while the file is read sequentially, and are never larger than the remaining bytes.
+ * </p>
+ * <p>
+ * Operations on several buffers are done with a single scattering read or gathering write on the file channel.
+ * As the file channel does not provide such operations at a given position, the operations at a given position
+ * on several buffers are done with one positional operation per buffer, so they never move the channel's position
+ * and can be used concurrently with other positional operations.
+ * </p>
  */
 // CHECKSTYLE DISABLE: MagicNumber
 public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable {
@@ -30,6 +41,7 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 	private boolean canAppend;
 	private long size;
 	private long position;
+	private AdaptiveBufferSize bufferSize = new AdaptiveBufferSize(8192, 256 * 1024);
 	
 	protected FileIO(FileChannel channel, boolean canAppend) {
 		this.channel = channel;
@@ -74,6 +86,7 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		case START: default: p = offset; break;
 		}
 		if (p < 0) throw new IllegalArgumentException("Cannot move beyond the start: " + p);
+		if (p != position) bufferSize.reset();
 		if (p > size) {
 			if (!canAppend) throw new EOFException();
 			channel.position(p - 1);
@@ -117,11 +130,61 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		return channel.read(buffer, pos);
 	}
 	
+	protected long readBytes(ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, buffers);
+		long nb = channel.read(buffers);
+		if (nb > 0) position += nb;
+		return nb;
+	}
+	
+	protected void readBytesFully(ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, buffers);
+		long remaining = LcByteBufferUtils.remainingLong(buffers);
+		while (remaining > 0) {
+			long nb = channel.read(buffers);
+			if (nb <= 0) throw new EOFException();
+			position += nb;
+			remaining -= nb;
+		}
+	}
+	
+	protected long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long total = 0;
+		for (ByteBuffer b : buffers) {
+			if (!b.hasRemaining()) continue;
+			int nb = channel.read(b, pos + total);
+			if (nb < 0) return total > 0 ? total : -1;
+			total += nb;
+			if (b.hasRemaining()) break;
+		}
+		return total;
+	}
+	
+	protected void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		for (ByteBuffer b : buffers)
+			while (b.hasRemaining()) {
+				int nb = channel.read(b, pos);
+				if (nb <= 0) throw new EOFException();
+				pos += nb;
+			}
+	}
+	
 	protected Optional<ByteBuffer> readBuffer() throws IOException {
-		ByteBuffer b = ByteBuffer.allocate(8192);
+		long remaining = size - position;
+		if (remaining <= 0) {
+			// the file may have been extended by another process
+			size = Math.max(size, channel.size());
+			remaining = size - position;
+			if (remaining <= 0) return Optional.empty();
+		}
+		int len = bufferSize.getSize(remaining, true);
+		ByteBuffer b = ByteBuffer.allocate(len);
 		int nb = channel.read(b);
 		if (nb <= 0) return Optional.empty();
 		position += nb;
+		bufferSize.update(len, nb);
 		return Optional.of(b.flip());
 	}
 	
@@ -238,6 +301,64 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		}
 	}
 	
+	protected long writeBytes(ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, buffers);
+		long total = LcByteBufferUtils.remainingLong(buffers);
+		if (total == 0) return 0;
+		if (!canAppend && position + total > size)
+			return writeBytes(firstNonEmpty(buffers));
+		long nb = channel.write(buffers);
+		if (nb <= 0) return -1;
+		position += nb;
+		if (position > size) size = position;
+		return nb;
+	}
+	
+	private static ByteBuffer firstNonEmpty(ByteBuffer[] buffers) {
+		for (ByteBuffer b : buffers)
+			if (b.hasRemaining()) return b;
+		return null;
+	}
+	
+	protected void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, buffers);
+		long remaining = LcByteBufferUtils.remainingLong(buffers);
+		if (remaining == 0) return;
+		if (!canAppend && position + remaining > size) throw new EOFException();
+		while (remaining > 0) {
+			long nb = channel.write(buffers);
+			if (nb <= 0) throw new EOFException();
+			position += nb;
+			if (position > size) size = position;
+			remaining -= nb;
+		}
+	}
+	
+	protected long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long total = 0;
+		for (ByteBuffer b : buffers) {
+			if (!b.hasRemaining()) continue;
+			int nb = writeBytesAt(pos + total, b);
+			if (nb < 0) return total > 0 ? total : -1;
+			total += nb;
+			if (b.hasRemaining()) break;
+		}
+		return total;
+	}
+	
+	protected void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long remaining = LcByteBufferUtils.remainingLong(buffers);
+		if (remaining == 0) return;
+		if (!canAppend && pos + remaining > size) throw new EOFException();
+		for (ByteBuffer b : buffers) {
+			int nb = b.remaining();
+			writeBytesFullyAt(pos, b);
+			pos += nb;
+		}
+	}
+	
 	// --- Resizable ---
 	
 	protected void setSize(long newSize) throws IOException {
@@ -297,6 +418,14 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		@Override
 		public int readBytesAt(long pos, ByteBuffer buffer) throws IOException { return super.readBytesAt(pos, buffer); }
 		@Override
+		public long readBytes(ByteBuffer[] buffers) throws IOException { return super.readBytes(buffers); }
+		@Override
+		public void readBytesFully(ByteBuffer[] buffers) throws IOException { super.readBytesFully(buffers); }
+		@Override
+		public long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException { return super.readBytesAt(pos, buffers); }
+		@Override
+		public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException { super.readBytesFullyAt(pos, buffers); }
+		@Override
 		public Optional<ByteBuffer> readBuffer() throws IOException { return super.readBuffer(); }
 		@Override
 		public long skipUpTo(long toSkip) throws IOException { return super.skipUpTo(toSkip); }
@@ -350,6 +479,14 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		public void writeBytesFully(ByteBuffer buffer) throws IOException { super.writeBytesFully(buffer); }
 		@Override
 		public void writeBytesFullyAt(long pos, ByteBuffer buffer) throws IOException { super.writeBytesFullyAt(pos, buffer); }
+		@Override
+		public long writeBytes(ByteBuffer[] buffers) throws IOException { return super.writeBytes(buffers); }
+		@Override
+		public void writeBytesFully(ByteBuffer[] buffers) throws IOException { super.writeBytesFully(buffers); }
+		@Override
+		public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException { return super.writeBytesAt(pos, buffers); }
+		@Override
+		public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException { super.writeBytesFullyAt(pos, buffers); }
 		
 		/** Write-only and appendable FileIO. */
 		public static class Appendable extends FileIO.Writable implements BytesIO.Writable.Seekable.Appendable {
@@ -494,6 +631,14 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		@Override
 		public int readBytesAt(long pos, ByteBuffer buffer) throws IOException { return super.readBytesAt(pos, buffer); }
 		@Override
+		public long readBytes(ByteBuffer[] buffers) throws IOException { return super.readBytes(buffers); }
+		@Override
+		public void readBytesFully(ByteBuffer[] buffers) throws IOException { super.readBytesFully(buffers); }
+		@Override
+		public long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException { return super.readBytesAt(pos, buffers); }
+		@Override
+		public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException { super.readBytesFullyAt(pos, buffers); }
+		@Override
 		public Optional<ByteBuffer> readBuffer() throws IOException { return super.readBuffer(); }
 		@Override
 		public long skipUpTo(long toSkip) throws IOException { return super.skipUpTo(toSkip); }
@@ -512,6 +657,14 @@ public abstract class FileIO extends AbstractIO implements BytesIO, IO.Seekable
 		public void writeBytesFully(ByteBuffer buffer) throws IOException { super.writeBytesFully(buffer); }
 		@Override
 		public void writeBytesFullyAt(long pos, ByteBuffer buffer) throws IOException { super.writeBytesFullyAt(pos, buffer); }
+		@Override
+		public long writeBytes(ByteBuffer[] buffers) throws IOException { return super.writeBytes(buffers); }
+		@Override
+		public void writeBytesFully(ByteBuffer[] buffers) throws IOException { super.writeBytesFully(buffers); }
+		@Override
+		public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException { return super.writeBytesAt(pos, buffers); }
+		@Override
+		public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException { super.writeBytesFullyAt(pos, buffers); }
 
 		/** Read-Write Appendable FileIO. */
 		public static class Appendable extends FileIO.ReadWrite implements BytesIO.ReadWrite.Appendable {
@@ -4,6 +4,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteOrder;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
 import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.IntBinaryOperator;
@@ -20,6 +21,8 @@ import net.lecousin.commons.io.bytes.data.BytesDataIO;
 // CHECKSTYLE DISABLE: MagicNumber
 public class ByteArrayDataIO extends ByteArrayIO implements BytesDataIO.ReadWrite.Resizable {
 
+	private static final ThreadLocal<ArrayDeque<ByteArrayDataIO>> POOL = ThreadLocal.withInitial(() -> new ArrayDeque<>(POOL_SIZE));
+
 	protected BytesData data;
 	
 	protected ByteArrayDataIO(ByteArray bytes, BytesData data, Optional<IntBinaryOperator> extensionStrategy) {
@@ -44,6 +47,36 @@ public class ByteArrayDataIO extends ByteArrayIO implements BytesDataIO.ReadWrit
 		this(bytes, ByteOrder.LITTLE_ENDIAN);
 	}
 	
+	/**
+	 * Get a ByteArrayDataIO from the pool of the current thread, or a new one if the pool is empty.
+	 * Once not used anymore, it should be given back using {@link #release()}.
+	 * @param bytes byte array
+	 * @param order byte order
+	 * @return the ByteArrayDataIO
+	 */
+	public static ByteArrayDataIO acquire(ByteArray bytes, ByteOrder order) {
+		ByteArrayDataIO io = poll(POOL.get());
+		if (io == null) return new ByteArrayDataIO(bytes, order);
+		io.reuse(bytes);
+		io.setByteOrder(order);
+		return io;
+	}
+
+	/**
+	 * Get a ByteArrayDataIO with Little-Endian order from the pool of the current thread, or a new one if the pool is empty.
+	 * Once not used anymore, it should be given back using {@link #release()}.
+	 * @param bytes byte array
+	 * @return the ByteArrayDataIO
+	 */
+	public static ByteArrayDataIO acquire(ByteArray bytes) {
+		return acquire(bytes, ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	protected void recycle() {
+		if (getClass() == ByteArrayDataIO.class) offer(POOL.get(), this);
+	}
+
 	@Override
 	public ByteOrder getByteOrder() {
 		return data.getByteOrder();
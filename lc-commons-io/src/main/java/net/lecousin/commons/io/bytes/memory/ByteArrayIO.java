@@ -4,6 +4,7 @@ import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.function.IntBinaryOperator;
@@ -13,12 +14,25 @@ import net.lecousin.commons.exceptions.NegativeValueException;
 import net.lecousin.commons.io.AbstractIO;
 import net.lecousin.commons.io.IOChecks;
 import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.LcByteBufferUtils;
 
 /**
  * BytesIO based on a ByteArray.
+ * <p>
+ * To avoid creating a new instance for each byte array, an instance can be re-targeted using {@link #reset(ByteArray)},
+ * or obtained from a pool of the current thread using {@link #acquire(ByteArray)} and given back using {@link #release()}.
+ * </p>
+ * <p>
+ * Operations on several buffers copy directly between the byte array and each buffer, without intermediate copy.
+ * </p>
  */
 public class ByteArrayIO extends AbstractIO implements BytesIO.ReadWrite.Resizable {
 
+	/** Maximum number of released instances kept by each thread. */
+	protected static final int POOL_SIZE = 4;
+
+	private static final ThreadLocal<ArrayDeque<ByteArrayIO>> POOL = ThreadLocal.withInitial(() -> new ArrayDeque<>(POOL_SIZE));
+
 	protected ByteArray bytes;
 	private Optional<IntBinaryOperator> extensionStrategy;
 	
@@ -35,6 +49,70 @@ public class ByteArrayIO extends AbstractIO implements BytesIO.ReadWrite.Resizab
 		this(bytes, Optional.empty());
 	}
 	
+	/**
+	 * Get a ByteArrayIO from the pool of the current thread, or a new one if the pool is empty.
+	 * Once not used anymore, it should be given back using {@link #release()}.
+	 * @param bytes byte array
+	 * @return the ByteArrayIO
+	 */
+	public static ByteArrayIO acquire(ByteArray bytes) {
+		ByteArrayIO io = poll(POOL.get());
+		if (io == null) return new ByteArrayIO(bytes);
+		io.reuse(bytes);
+		return io;
+	}
+
+	/**
+	 * Re-target this IO to another byte array, so it can be reused instead of creating a new instance.
+	 * @param newBytes the new byte array
+	 * @throws ClosedChannelException if this IO is closed
+	 */
+	public void reset(ByteArray newBytes) throws ClosedChannelException {
+		if (isClosed()) throw new ClosedChannelException();
+		this.bytes = Objects.requireNonNull(newBytes, "bytes");
+	}
+
+	/**
+	 * Release this IO: it is detached from its byte array so any further operation fails, and it is given back
+	 * to the pool of the current thread so it can be returned by {@link #acquire(ByteArray)}.
+	 * Contrary to {@link #close()}, the IO can then be re-targeted using {@link #reset(ByteArray)},
+	 * and the close listeners are removed without being called. Releasing a closed IO does nothing.
+	 */
+	public void release() {
+		if (!clearCloseListeners()) return;
+		bytes = null;
+		recycle();
+	}
+
+	/**
+	 * Prepare an IO taken from a pool for a new user: it is attached to the given byte array,
+	 * and the state left by the previous user is removed.
+	 * @param newBytes the byte array
+	 */
+	protected void reuse(ByteArray newBytes) {
+		this.bytes = Objects.requireNonNull(newBytes, "bytes");
+		this.extensionStrategy = Optional.empty();
+		clearCloseListeners();
+	}
+
+	/** Give back this IO to the pool of the current thread, if it is the type of IO pooled by this class. */
+	protected void recycle() {
+		if (getClass() == ByteArrayIO.class) offer(POOL.get(), this);
+	}
+
+	protected static <T extends ByteArrayIO> T poll(ArrayDeque<T> pool) {
+		T io;
+		do {
+			io = pool.pollLast();
+			// an IO may have been closed after being released
+		} while (io != null && io.isClosed());
+		return io;
+	}
+
+	protected static <T extends ByteArrayIO> void offer(ArrayDeque<T> pool, T io) {
+		if (pool.size() < POOL_SIZE && !pool.contains(io)) pool.addLast(io);
+	}
+
 	@Override
 	protected void closeInternal() throws IOException {
 		bytes = null;
@@ -187,6 +265,60 @@ public class ByteArrayIO extends AbstractIO implements BytesIO.ReadWrite.Resizab
 		System.arraycopy(bytes.getArray(), bytes.getArrayStartOffset() + (int) pos, buf, off, len);
 	}
 	
+	@Override
+	public long readBytes(ByteBuffer[] buffers) throws IOException {
+		if (bytes == null) throw new ClosedChannelException();
+		IOChecks.checkBuffersOperation(this, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return 0;
+		int available = bytes.remaining();
+		if (available == 0) return -1;
+		int len = copyToBuffers(bytes.getPosition(), (int) Math.min(r, available), buffers);
+		bytes.moveForward(len);
+		return len;
+	}
+	
+	@Override
+	public void readBytesFully(ByteBuffer[] buffers) throws IOException {
+		if (bytes == null) throw new ClosedChannelException();
+		IOChecks.checkBuffersOperation(this, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return;
+		if (r > bytes.remaining()) throw new EOFException();
+		bytes.moveForward(copyToBuffers(bytes.getPosition(), (int) r, buffers));
+	}
+	
+	@Override
+	public long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return 0;
+		if (pos >= bytes.getSize()) return -1;
+		return copyToBuffers((int) pos, (int) Math.min(r, bytes.getSize() - pos), buffers);
+	}
+	
+	@Override
+	public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return;
+		if (pos + r > bytes.getSize()) throw new EOFException();
+		copyToBuffers((int) pos, (int) r, buffers);
+	}
+	
+	/** Copy <code>len</code> bytes from the given position in the byte array to the buffers, in order. */
+	private int copyToBuffers(int pos, int len, ByteBuffer[] buffers) {
+		byte[] array = bytes.getArray();
+		int off = bytes.getArrayStartOffset() + pos;
+		int done = 0;
+		for (int i = 0; i < buffers.length && done < len; ++i) {
+			int l = Math.min(buffers[i].remaining(), len - done);
+			buffers[i].put(array, off + done, l);
+			done += l;
+		}
+		return done;
+	}
+	
 	@Override
 	public byte readByte() throws IOException {
 		if (bytes == null) throw new ClosedChannelException();
@@ -312,6 +444,62 @@ public class ByteArrayIO extends AbstractIO implements BytesIO.ReadWrite.Resizab
 		System.arraycopy(buf, off, bytes.getArray(), bytes.getArrayStartOffset() + (int) pos, len);
 	}
 	
+	@Override
+	public long writeBytes(ByteBuffer[] buffers) throws IOException {
+		if (bytes == null) throw new ClosedChannelException();
+		IOChecks.checkBuffersOperation(this, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return 0;
+		int len = bytes.remaining();
+		if (len < r && extendCapacity(bytes.getPosition() + r)) len = (int) r;
+		if (len == 0) return -1;
+		len = copyFromBuffers(bytes.getPosition(), (int) Math.min(r, len), buffers);
+		bytes.moveForward(len);
+		return len;
+	}
+	
+	@Override
+	public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+		if (bytes == null) throw new ClosedChannelException();
+		IOChecks.checkBuffersOperation(this, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return;
+		if (r > bytes.remaining() && !extendCapacity(bytes.getPosition() + r)) throw new EOFException();
+		bytes.moveForward(copyFromBuffers(bytes.getPosition(), (int) r, buffers));
+	}
+	
+	@Override
+	public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return 0;
+		if (pos + r > bytes.getSize()) extendCapacity(pos + r);
+		if (pos >= bytes.getSize()) return -1;
+		return copyFromBuffers((int) pos, (int) Math.min(r, bytes.getSize() - pos), buffers);
+	}
+	
+	@Override
+	public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+		IOChecks.checkBuffersOperation(this, pos, buffers);
+		long r = LcByteBufferUtils.remainingLong(buffers);
+		if (r == 0) return;
+		if (pos + r > bytes.getSize() && !extendCapacity(pos + r)) throw new EOFException();
+		copyFromBuffers((int) pos, (int) r, buffers);
+	}
+	
+	/** Copy <code>len</code> bytes from the buffers, in order, to the given position in the byte array. */
+	private int copyFromBuffers(int pos, int len, ByteBuffer[] buffers) {
+		byte[] array = bytes.getArray();
+		int off = bytes.getArrayStartOffset() + pos;
+		int done = 0;
+		for (int i = 0; i < buffers.length && done < len; ++i) {
+			int l = Math.min(buffers[i].remaining(), len - done);
+			buffers[i].get(array, off + done, l);
+			done += l;
+		}
+		return done;
+	}
+	
 	@Override
 	public void writeByte(byte value) throws IOException {
 		if (bytes == null) throw new ClosedChannelException();
@@ -0,0 +1,286 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.lecousin.commons.exceptions.LimitExceededException;
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+
+/**
+ * Sequence of bytes made of several segments, without copying them (rope).
+ * <p>
+ * Appending a segment is done in constant time, and does not copy the bytes: the segment is kept as a reference,
+ * so any modification of the underlying array or buffer is visible in the chain.
+ * A chain can be sliced without copying, read across segments boundaries using {@link #asBytesDataIO()},
+ * or exported as an array of ByteBuffer for gathering writes.
+ * </p>
+ * <p>
+ * It is not thread-safe.
+ * </p>
+ */
+public class ByteChain {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private ByteBuffer[] segments;
+	private long[] starts;
+	private int nbSegments = 0;
+	private long size = 0;
+
+	/** Constructor. */
+	public ByteChain() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/** Constructor.
+	 * @param expectedSegments expected number of segments
+	 */
+	public ByteChain(int expectedSegments) {
+		NegativeValueException.check(expectedSegments, "expectedSegments");
+		int capacity = Math.max(1, expectedSegments);
+		segments = new ByteBuffer[capacity];
+		starts = new long[capacity];
+	}
+
+	/** Create a chain from the given segments.
+	 * @param segments segments
+	 * @return the chain
+	 */
+	public static ByteChain of(ByteArray... segments) {
+		ByteChain chain = new ByteChain(segments.length);
+		for (ByteArray segment : segments)
+			chain.append(segment);
+		return chain;
+	}
+
+	/** @return the total number of bytes. */
+	public long size() {
+		return size;
+	}
+
+	/** @return true if this chain does not contain any byte. */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/** @return the number of segments. */
+	public int getNbSegments() {
+		return nbSegments;
+	}
+
+	/** Append the remaining bytes of the given buffer, without copying them.
+	 * The position of the given buffer is not modified.
+	 * @param buffer buffer
+	 * @return this
+	 */
+	public ByteChain append(ByteBuffer buffer) {
+		Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+		if (!buffer.hasRemaining()) return this;
+		addSegment(buffer.slice());
+		return this;
+	}
+
+	/** Append the remaining bytes (from its position to its end) of the given ByteArray, without copying them.
+	 * @param bytes bytes
+	 * @return this
+	 */
+	public ByteChain append(ByteArray bytes) {
+		Objects.requireNonNull(bytes, "bytes");
+		if (bytes.remaining() == 0) return this;
+		addSegment(bytes.toByteBuffer().slice());
+		return this;
+	}
+
+	/** Append bytes from the given array, without copying them.
+	 * @param buf array
+	 * @param off offset of the first byte
+	 * @param len number of bytes
+	 * @return this
+	 */
+	public ByteChain append(byte[] buf, int off, int len) {
+		IOChecks.checkArray(buf, off, len);
+		if (len == 0) return this;
+		addSegment(ByteBuffer.wrap(buf, off, len).slice());
+		return this;
+	}
+
+	/** Append the given array, without copying it.
+	 * @param buf array
+	 * @return this
+	 */
+	public ByteChain append(byte[] buf) {
+		return append(buf, 0, buf.length);
+	}
+
+	/** Append the segments of the given chain, without copying the bytes.
+	 * @param chain chain to append
+	 * @return this
+	 */
+	public ByteChain append(ByteChain chain) {
+		int nb = chain.nbSegments;
+		for (int i = 0; i < nb; ++i)
+			addSegment(chain.segments[i]);
+		return this;
+	}
+
+	private void addSegment(ByteBuffer segment) {
+		if (nbSegments == segments.length) {
+			int newCapacity = segments.length + Math.max(INITIAL_CAPACITY, segments.length >> 1);
+			segments = Arrays.copyOf(segments, newCapacity);
+			starts = Arrays.copyOf(starts, newCapacity);
+		}
+		segments[nbSegments] = segment;
+		starts[nbSegments] = size;
+		nbSegments++;
+		size += segment.limit();
+	}
+
+	/** Return the index of the segment containing the given position, which must be between 0 and size - 1.
+	 * @param pos position
+	 * @return index of the segment
+	 */
+	int segmentIndex(long pos) {
+		int i = Arrays.binarySearch(starts, 0, nbSegments, pos);
+		return i >= 0 ? i : -i - 2;
+	}
+
+	ByteBuffer segment(int index) {
+		return segments[index];
+	}
+
+	long segmentStart(int index) {
+		return starts[index];
+	}
+
+	/** Return the byte at the given position.
+	 * @param pos position
+	 * @return the byte
+	 * @throws NegativeValueException if pos is negative
+	 * @throws LimitExceededException if pos is not less than the size
+	 */
+	public byte get(long pos) {
+		LimitExceededException.checkWithNonNegative(pos, size - 1, IOChecks.FIELD_POS, "size - 1");
+		int i = segmentIndex(pos);
+		return segments[i].get((int) (pos - starts[i]));
+	}
+
+	/** Copy bytes into the given array.
+	 * @param pos position of the first byte to copy
+	 * @param buf destination array
+	 * @param off offset in the destination array
+	 * @param len number of bytes to copy
+	 * @throws NegativeValueException if pos, off or len is negative
+	 * @throws LimitExceededException if off + len &gt; buf.length, or pos + len &gt; size
+	 */
+	public void get(long pos, byte[] buf, int off, int len) {
+		IOChecks.checkArray(buf, off, len);
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		LimitExceededException.check(pos + len, size, "pos + len", "size");
+		if (len > 0)
+			copyTo(pos, buf, off, len);
+	}
+
+	/** Copy bytes into the given array, the caller must ensure the bytes are available. */
+	void copyTo(long pos, byte[] buf, int off, int len) {
+		int i = segmentIndex(pos);
+		int segmentPos = (int) (pos - starts[i]);
+		while (len > 0) {
+			ByteBuffer segment = segments[i];
+			int nb = Math.min(len, segment.limit() - segmentPos);
+			segment.get(segmentPos, buf, off, nb);
+			off += nb;
+			len -= nb;
+			i++;
+			segmentPos = 0;
+		}
+	}
+
+	/** Copy bytes into the given buffer, the caller must ensure the bytes are available. */
+	void copyTo(long pos, ByteBuffer buffer, int len) {
+		int i = segmentIndex(pos);
+		int segmentPos = (int) (pos - starts[i]);
+		while (len > 0) {
+			ByteBuffer segment = segments[i];
+			int nb = Math.min(len, segment.limit() - segmentPos);
+			buffer.put(buffer.position(), segment, segmentPos, nb);
+			buffer.position(buffer.position() + nb);
+			len -= nb;
+			i++;
+			segmentPos = 0;
+		}
+	}
+
+	/** Create a new chain containing a part of this chain, without copying the bytes.
+	 * @param start position of the first byte
+	 * @param length number of bytes
+	 * @return the new chain
+	 * @throws NegativeValueException if start or length is negative
+	 * @throws LimitExceededException if start + length &gt; size
+	 */
+	public ByteChain slice(long start, long length) {
+		NegativeValueException.check(start, "start");
+		NegativeValueException.check(length, "length");
+		LimitExceededException.check(start + length, size, "start + length", "size");
+		if (length == 0) return new ByteChain(1);
+		int first = segmentIndex(start);
+		int last = segmentIndex(start + length - 1);
+		ByteChain chain = new ByteChain(last - first + 1);
+		long end = start + length;
+		for (int i = first; i <= last; ++i) {
+			ByteBuffer segment = segments[i];
+			int from = (int) Math.max(0, start - starts[i]);
+			int to = (int) Math.min(segment.limit(), end - starts[i]);
+			chain.addSegment(from == 0 && to == segment.limit() ? segment : segment.slice(from, to - from));
+		}
+		return chain;
+	}
+
+	/** Return the segments as buffers, typically for a gathering write.
+	 * The returned buffers share the content of this chain, but have their own position and limit.
+	 * @return the buffers
+	 */
+	public ByteBuffer[] toByteBuffers() {
+		ByteBuffer[] buffers = new ByteBuffer[nbSegments];
+		for (int i = 0; i < nbSegments; ++i)
+			buffers[i] = segments[i].duplicate();
+		return buffers;
+	}
+
+	/** Copy the content of this chain into a new array.
+	 * @return the array
+	 * @throws LimitExceededException if the size exceeds the maximum size of an array
+	 */
+	public byte[] toByteArray() {
+		LimitExceededException.check(size, Integer.MAX_VALUE, "size", "Integer.MAX_VALUE");
+		byte[] array = new byte[(int) size];
+		if (size > 0)
+			copyTo(0, array, 0, array.length);
+		return array;
+	}
+
+	/** Write the content of this chain into the given IO.
+	 * @param io IO to write to
+	 * @throws IOException in case an error occurred while writing
+	 */
+	public void writeTo(BytesIO.Writable io) throws IOException {
+		io.writeBytesFully(Arrays.asList(toByteBuffers()));
+	}
+
+	/** @return a BytesDataIO reading this chain, default to Little-Endian. */
+	public ByteChainDataIO asBytesDataIO() {
+		return new ByteChainDataIO(this);
+	}
+
+	/** @return a BytesDataIO reading this chain, with the given byte order.
+	 * @param order byte order
+	 */
+	public ByteChainDataIO asBytesDataIO(ByteOrder order) {
+		return new ByteChainDataIO(this, order);
+	}
+
+}
@@ -0,0 +1,291 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.AbstractIO;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.data.BytesData;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+
+/**
+ * BytesDataIO reading a {@link ByteChain}, across its segments.
+ * <p>
+ * Data spanning several segments are decoded from a small internal buffer, other operations directly
+ * access the segments. The chain must not be modified while reading.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public class ByteChainDataIO extends AbstractIO implements BytesDataIO.Readable.Seekable {
+
+	private ByteChain chain;
+	private BytesData data;
+	private long position = 0;
+	private final byte[] dataBuffer = new byte[8];
+
+	/**
+	 * Constructor with a specified byte order.
+	 * @param chain chain to read
+	 * @param order byte order
+	 */
+	public ByteChainDataIO(ByteChain chain, ByteOrder order) {
+		this.chain = Objects.requireNonNull(chain, "chain");
+		this.data = BytesData.of(order);
+	}
+
+	/**
+	 * Constructor with default Little-Endian order.
+	 * @param chain chain to read
+	 */
+	public ByteChainDataIO(ByteChain chain) {
+		this(chain, ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	protected void closeInternal() throws IOException {
+		chain = null;
+	}
+
+	@Override
+	public ByteOrder getByteOrder() {
+		return data.getByteOrder();
+	}
+
+	@Override
+	public void setByteOrder(ByteOrder order) {
+		data = BytesData.of(order);
+	}
+
+	@Override
+	public long position() throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		return position;
+	}
+
+	@Override
+	public long size() throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		return chain.size();
+	}
+
+	@Override
+	public long seek(SeekFrom from, long offset) throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		long p;
+		switch (Objects.requireNonNull(from, "from")) {
+		case CURRENT: p = position + offset; break;
+		case END: p = chain.size() - offset; break;
+		case START: default: p = offset; break;
+		}
+		if (p < 0) throw new IllegalArgumentException("Cannot seek beyond the start: " + p);
+		if (p > chain.size()) throw new EOFException();
+		position = p;
+		return p;
+	}
+
+	@Override
+	public long skipUpTo(long toSkip) throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip == 0) return 0;
+		long r = chain.size() - position;
+		if (r <= 0) return -1;
+		long nb = Math.min(toSkip, r);
+		position += nb;
+		return nb;
+	}
+
+	// --- bytes ---
+
+	@Override
+	public byte readByte() throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		if (position >= chain.size()) throw new EOFException();
+		return chain.get(position++);
+	}
+
+	@Override
+	public byte readByteAt(long pos) throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos >= chain.size()) throw new EOFException();
+		return chain.get(pos);
+	}
+
+	@Override
+	public Optional<ByteBuffer> readBuffer() throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		if (position >= chain.size()) return Optional.empty();
+		int i = chain.segmentIndex(position);
+		ByteBuffer segment = chain.segment(i);
+		int segmentPos = (int) (position - chain.segmentStart(i));
+		int len = segment.limit() - segmentPos;
+		position += len;
+		return Optional.of(segment.slice(segmentPos, len));
+	}
+
+	@Override
+	public int readBytes(ByteBuffer buffer) throws IOException {
+		int nb = readBytesAt(position, buffer);
+		if (nb > 0) position += nb;
+		return nb;
+	}
+
+	@Override
+	public int readBytes(byte[] buf, int off, int len) throws IOException {
+		int nb = readBytesAt(position, buf, off, len);
+		if (nb > 0) position += nb;
+		return nb;
+	}
+
+	@Override
+	public int readBytesAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		int r = buffer.remaining();
+		if (r == 0) return 0;
+		if (pos >= chain.size()) return -1;
+		int len = (int) Math.min(r, chain.size() - pos);
+		chain.copyTo(pos, buffer, len);
+		return len;
+	}
+
+	@Override
+	public int readBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return 0;
+		if (pos >= chain.size()) return -1;
+		len = (int) Math.min(len, chain.size() - pos);
+		chain.copyTo(pos, buf, off, len);
+		return len;
+	}
+
+	@Override
+	public void readBytesFully(ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, position, buffer);
+		int len = buffer.remaining();
+		readBytesFullyAt(position, buffer);
+		position += len;
+	}
+
+	@Override
+	public void readBytesFully(byte[] buf, int off, int len) throws IOException {
+		readBytesFullyAt(position, buf, off, len);
+		position += len;
+	}
+
+	@Override
+	public void readBytesFullyAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		int r = buffer.remaining();
+		if (r == 0) return;
+		if (pos + r > chain.size()) throw new EOFException();
+		chain.copyTo(pos, buffer, r);
+	}
+
+	@Override
+	public void readBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return;
+		if (pos + len > chain.size()) throw new EOFException();
+		chain.copyTo(pos, buf, off, len);
+	}
+
+	// --- data ---
+
+	private <T extends Number> T readDataAt(long pos, int nbBytes, BiFunction<byte[], Integer, T> reader) throws IOException {
+		if (chain == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos + nbBytes > chain.size()) throw new EOFException();
+		int i = chain.segmentIndex(pos);
+		ByteBuffer segment = chain.segment(i);
+		int segmentPos = (int) (pos - chain.segmentStart(i));
+		if (segment.hasArray() && segmentPos + nbBytes <= segment.limit())
+			return reader.apply(segment.array(), segment.arrayOffset() + segmentPos);
+		chain.copyTo(pos, dataBuffer, 0, nbBytes);
+		return reader.apply(dataBuffer, 0);
+	}
+
+	private <T extends Number> T readData(int nbBytes, BiFunction<byte[], Integer, T> reader) throws IOException {
+		T value = readDataAt(position, nbBytes, reader);
+		position += nbBytes;
+		return value;
+	}
+
+	@Override
+	public int readUnsigned2Bytes() throws IOException {
+		return readData(2, data::readUnsigned2Bytes);
+	}
+
+	@Override
+	public int readUnsigned2BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 2, data::readUnsigned2Bytes);
+	}
+
+	@Override
+	public int readUnsigned3Bytes() throws IOException {
+		return readData(3, data::readUnsigned3Bytes);
+	}
+
+	@Override
+	public int readUnsigned3BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 3, data::readUnsigned3Bytes);
+	}
+
+	@Override
+	public long readUnsigned4Bytes() throws IOException {
+		return readData(4, data::readUnsigned4Bytes);
+	}
+
+	@Override
+	public long readUnsigned4BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 4, data::readUnsigned4Bytes);
+	}
+
+	@Override
+	public long readUnsigned5Bytes() throws IOException {
+		return readData(5, data::readUnsigned5Bytes);
+	}
+
+	@Override
+	public long readUnsigned5BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 5, data::readUnsigned5Bytes);
+	}
+
+	@Override
+	public long readUnsigned6Bytes() throws IOException {
+		return readData(6, data::readUnsigned6Bytes);
+	}
+
+	@Override
+	public long readUnsigned6BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 6, data::readUnsigned6Bytes);
+	}
+
+	@Override
+	public long readUnsigned7Bytes() throws IOException {
+		return readData(7, data::readUnsigned7Bytes);
+	}
+
+	@Override
+	public long readUnsigned7BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 7, data::readUnsigned7Bytes);
+	}
+
+	@Override
+	public long readSigned8Bytes() throws IOException {
+		return readData(8, data::readSigned8Bytes);
+	}
+
+	@Override
+	public long readSigned8BytesAt(long pos) throws IOException {
+		return readDataAt(pos, 8, data::readSigned8Bytes);
+	}
+
+}
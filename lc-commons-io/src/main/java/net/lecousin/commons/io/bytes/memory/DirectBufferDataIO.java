@@ -0,0 +1,390 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntBinaryOperator;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+
+/**
+ * BytesDataIO based on a ByteBuffer, by default a direct ByteBuffer so the data is stored outside of the heap.
+ * <p>
+ * Numbers of 2, 4 and 8 bytes are read and written using the ByteBuffer methods in the byte order of this IO,
+ * which are intrinsics when the byte order is the native order of the platform ({@link ByteOrder#nativeOrder()}).
+ * Numbers of 3, 5, 6 and 7 bytes are composed of 4, 2 and 1 byte(s) parts.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public class DirectBufferDataIO extends DirectBufferIO implements BytesDataIO.ReadWrite.Resizable {
+
+	private ByteOrder byteOrder;
+
+	protected DirectBufferDataIO(ByteBuffer buffer, int size, ByteOrder order, Optional<IntBinaryOperator> extensionStrategy) {
+		super(buffer, size, extensionStrategy);
+		setByteOrder(order);
+	}
+
+	/**
+	 * Constructor using the remaining bytes of the given buffer as content, without copy.
+	 * @param buffer the buffer, typically a direct buffer
+	 * @param order byte order
+	 */
+	public DirectBufferDataIO(ByteBuffer buffer, ByteOrder order) {
+		this(buffer.slice(), buffer.remaining(), order, Optional.empty());
+	}
+
+	/**
+	 * Constructor allocating a new direct buffer, filled with zeros.
+	 * @param size size of the IO
+	 * @param order byte order
+	 */
+	public DirectBufferDataIO(int size, ByteOrder order) {
+		this(ByteBuffer.allocateDirect(size), order);
+	}
+
+	/**
+	 * Constructor allocating a new direct buffer, filled with zeros, and using the native byte order.
+	 * @param size size of the IO
+	 */
+	public DirectBufferDataIO(int size) {
+		this(size, ByteOrder.nativeOrder());
+	}
+
+	@Override
+	public ByteOrder getByteOrder() {
+		return byteOrder;
+	}
+
+	@Override
+	public void setByteOrder(ByteOrder order) {
+		byteOrder = Objects.requireNonNull(order, "order");
+		if (buffer != null) buffer.order(order);
+	}
+
+	// --- Readable ---
+
+	protected int readIndex(int nbBytes) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		if (nbBytes > size - position) throw new EOFException();
+		int index = position;
+		position += nbBytes;
+		return index;
+	}
+
+	protected int readIndexAt(long pos, int nbBytes) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos + nbBytes > size) throw new EOFException();
+		return (int) pos;
+	}
+
+	private long getUnsigned(int index, int nbBytes) {
+		switch (nbBytes) {
+		case 1: return buffer.get(index) & 0xFFL;
+		case 2: return buffer.getShort(index) & 0xFFFFL;
+		case 4: return buffer.getInt(index) & 0xFFFFFFFFL;
+		default:
+			int first = nbBytes > 4 ? 4 : 2;
+			long a = getUnsigned(index, first);
+			long b = getUnsigned(index + first, nbBytes - first);
+			if (ByteOrder.LITTLE_ENDIAN.equals(byteOrder)) return a | (b << (first * 8));
+			return (a << ((nbBytes - first) * 8)) | b;
+		}
+	}
+
+	@Override
+	public short readSigned2Bytes() throws IOException {
+		int index = readIndex(2);
+		return buffer.getShort(index);
+	}
+
+	@Override
+	public short readSigned2BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 2);
+		return buffer.getShort(index);
+	}
+
+	@Override
+	public int readUnsigned2Bytes() throws IOException {
+		int index = readIndex(2);
+		return buffer.getShort(index) & 0xFFFF;
+	}
+
+	@Override
+	public int readUnsigned2BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 2);
+		return buffer.getShort(index) & 0xFFFF;
+	}
+
+	@Override
+	public int readUnsigned3Bytes() throws IOException {
+		int index = readIndex(3);
+		return (int) getUnsigned(index, 3);
+	}
+
+	@Override
+	public int readUnsigned3BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 3);
+		return (int) getUnsigned(index, 3);
+	}
+
+	@Override
+	public int readSigned4Bytes() throws IOException {
+		int index = readIndex(4);
+		return buffer.getInt(index);
+	}
+
+	@Override
+	public int readSigned4BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 4);
+		return buffer.getInt(index);
+	}
+
+	@Override
+	public long readUnsigned4Bytes() throws IOException {
+		int index = readIndex(4);
+		return buffer.getInt(index) & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public long readUnsigned4BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 4);
+		return buffer.getInt(index) & 0xFFFFFFFFL;
+	}
+
+	@Override
+	public long readUnsigned5Bytes() throws IOException {
+		int index = readIndex(5);
+		return getUnsigned(index, 5);
+	}
+
+	@Override
+	public long readUnsigned5BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 5);
+		return getUnsigned(index, 5);
+	}
+
+	@Override
+	public long readUnsigned6Bytes() throws IOException {
+		int index = readIndex(6);
+		return getUnsigned(index, 6);
+	}
+
+	@Override
+	public long readUnsigned6BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 6);
+		return getUnsigned(index, 6);
+	}
+
+	@Override
+	public long readUnsigned7Bytes() throws IOException {
+		int index = readIndex(7);
+		return getUnsigned(index, 7);
+	}
+
+	@Override
+	public long readUnsigned7BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 7);
+		return getUnsigned(index, 7);
+	}
+
+	@Override
+	public long readSigned8Bytes() throws IOException {
+		int index = readIndex(8);
+		return buffer.getLong(index);
+	}
+
+	@Override
+	public long readSigned8BytesAt(long pos) throws IOException {
+		int index = readIndexAt(pos, 8);
+		return buffer.getLong(index);
+	}
+
+	// --- Writable ---
+
+	/** Get the index where to write, extending the capacity if needed: the buffer must be accessed after this call. */
+	protected int writeIndex(int nbBytes) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		if (nbBytes > size - position && !extendCapacity((long) position + nbBytes)) throw new EOFException();
+		int index = position;
+		position += nbBytes;
+		return index;
+	}
+
+	/** Get the index where to write, extending the capacity if needed: the buffer must be accessed after this call. */
+	protected int writeIndexAt(long pos, int nbBytes) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos + nbBytes > size && !extendCapacity(pos + nbBytes)) throw new EOFException();
+		return (int) pos;
+	}
+
+	private void putUnsigned(int index, int nbBytes, long value) {
+		switch (nbBytes) {
+		case 1: buffer.put(index, (byte) value); break;
+		case 2: buffer.putShort(index, (short) value); break;
+		case 4: buffer.putInt(index, (int) value); break;
+		default:
+			int first = nbBytes > 4 ? 4 : 2;
+			if (ByteOrder.LITTLE_ENDIAN.equals(byteOrder)) {
+				putUnsigned(index, first, value);
+				putUnsigned(index + first, nbBytes - first, value >>> (first * 8));
+			} else {
+				putUnsigned(index, first, value >>> ((nbBytes - first) * 8));
+				putUnsigned(index + first, nbBytes - first, value);
+			}
+			break;
+		}
+	}
+
+	@Override
+	public void writeSigned2Bytes(short value) throws IOException {
+		int index = writeIndex(2);
+		buffer.putShort(index, value);
+	}
+
+	@Override
+	public void writeSigned2BytesAt(long pos, short value) throws IOException {
+		int index = writeIndexAt(pos, 2);
+		buffer.putShort(index, value);
+	}
+
+	@Override
+	public void writeUnsigned2Bytes(int value) throws IOException {
+		int index = writeIndex(2);
+		buffer.putShort(index, (short) value);
+	}
+
+	@Override
+	public void writeUnsigned2BytesAt(long pos, int value) throws IOException {
+		int index = writeIndexAt(pos, 2);
+		buffer.putShort(index, (short) value);
+	}
+
+	@Override
+	public void writeUnsigned3Bytes(int value) throws IOException {
+		int index = writeIndex(3);
+		putUnsigned(index, 3, value);
+	}
+
+	@Override
+	public void writeUnsigned3BytesAt(long pos, int value) throws IOException {
+		int index = writeIndexAt(pos, 3);
+		putUnsigned(index, 3, value);
+	}
+
+	@Override
+	public void writeSigned4Bytes(int value) throws IOException {
+		int index = writeIndex(4);
+		buffer.putInt(index, value);
+	}
+
+	@Override
+	public void writeSigned4BytesAt(long pos, int value) throws IOException {
+		int index = writeIndexAt(pos, 4);
+		buffer.putInt(index, value);
+	}
+
+	@Override
+	public void writeUnsigned4Bytes(long value) throws IOException {
+		int index = writeIndex(4);
+		buffer.putInt(index, (int) value);
+	}
+
+	@Override
+	public void writeUnsigned4BytesAt(long pos, long value) throws IOException {
+		int index = writeIndexAt(pos, 4);
+		buffer.putInt(index, (int) value);
+	}
+
+	@Override
+	public void writeUnsigned5Bytes(long value) throws IOException {
+		int index = writeIndex(5);
+		putUnsigned(index, 5, value);
+	}
+
+	@Override
+	public void writeUnsigned5BytesAt(long pos, long value) throws IOException {
+		int index = writeIndexAt(pos, 5);
+		putUnsigned(index, 5, value);
+	}
+
+	@Override
+	public void writeUnsigned6Bytes(long value) throws IOException {
+		int index = writeIndex(6);
+		putUnsigned(index, 6, value);
+	}
+
+	@Override
+	public void writeUnsigned6BytesAt(long pos, long value) throws IOException {
+		int index = writeIndexAt(pos, 6);
+		putUnsigned(index, 6, value);
+	}
+
+	@Override
+	public void writeUnsigned7Bytes(long value) throws IOException {
+		int index = writeIndex(7);
+		putUnsigned(index, 7, value);
+	}
+
+	@Override
+	public void writeUnsigned7BytesAt(long pos, long value) throws IOException {
+		int index = writeIndexAt(pos, 7);
+		putUnsigned(index, 7, value);
+	}
+
+	@Override
+	public void writeSigned8Bytes(long value) throws IOException {
+		int index = writeIndex(8);
+		buffer.putLong(index, value);
+	}
+
+	@Override
+	public void writeSigned8BytesAt(long pos, long value) throws IOException {
+		int index = writeIndexAt(pos, 8);
+		buffer.putLong(index, value);
+	}
+
+	/** Appendable DirectBufferDataIO. */
+	public static class Appendable extends DirectBufferDataIO implements BytesIO.ReadWrite.AppendableResizable {
+
+		/**
+		 * Constructor using the remaining bytes of the given buffer as initial content, without copy.
+		 * @param buffer the buffer, typically a direct buffer
+		 * @param order byte order
+		 * @param extensionStrategy take the current size and the additional requested size in parameter
+		 *   and returns the new capacity to be allocated.
+		 */
+		public Appendable(ByteBuffer buffer, ByteOrder order, IntBinaryOperator extensionStrategy) {
+			super(buffer.slice(), buffer.remaining(), order, Optional.of(extensionStrategy));
+		}
+
+		/**
+		 * Constructor with default extension strategy, using the remaining bytes of the given buffer as initial content.
+		 * @param buffer the buffer, typically a direct buffer
+		 * @param order byte order
+		 */
+		public Appendable(ByteBuffer buffer, ByteOrder order) {
+			this(buffer, order, ByteArrayIO.Appendable.DEFAULT_EXTENSION_STRATEGY);
+		}
+
+		/**
+		 * Constructor allocating a new empty direct buffer, with default extension strategy.
+		 * @param initialCapacity capacity of the direct buffer to allocate
+		 * @param order byte order
+		 */
+		public Appendable(int initialCapacity, ByteOrder order) {
+			super(ByteBuffer.allocateDirect(initialCapacity), 0, order, Optional.of(ByteArrayIO.Appendable.DEFAULT_EXTENSION_STRATEGY));
+		}
+
+	}
+
+}
@@ -0,0 +1,410 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.IntBinaryOperator;
+
+import net.lecousin.commons.exceptions.LimitExceededException;
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.AbstractIO;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+
+/**
+ * BytesIO based on a ByteBuffer, by default a direct ByteBuffer so the data is stored outside of the heap,
+ * and does not have to be traversed or moved by the garbage collector.
+ * <p>
+ * The buffers returned by {@link #readBuffer()} and {@link #toByteBuffer()} share the memory of this IO,
+ * so the data can be written to a file, for example using {@link #transferFully(BytesIO.Writable)}
+ * to a FileIO, without being copied into a temporary direct buffer.
+ * </p>
+ * <p>
+ * The content starts at index 0 of the underlying buffer, and the capacity of the buffer may be greater than the size.
+ * When the capacity is not enough, an appendable IO allocates a new direct buffer and copies the content.
+ * </p>
+ */
+public class DirectBufferIO extends AbstractIO implements BytesIO.ReadWrite.Resizable {
+
+	private static final int ZEROS_SIZE = 4096;
+	private static final byte[] ZEROS = new byte[ZEROS_SIZE];
+
+	protected ByteBuffer buffer;
+	protected int size;
+	protected int position = 0;
+	private Optional<IntBinaryOperator> extensionStrategy;
+
+	protected DirectBufferIO(ByteBuffer buffer, int size, Optional<IntBinaryOperator> extensionStrategy) {
+		this.buffer = buffer;
+		this.size = size;
+		this.extensionStrategy = extensionStrategy;
+	}
+
+	/**
+	 * Constructor using the remaining bytes of the given buffer as content, without copy.
+	 * @param buffer the buffer, typically a direct buffer
+	 */
+	public DirectBufferIO(ByteBuffer buffer) {
+		this(buffer.slice(), buffer.remaining(), Optional.empty());
+	}
+
+	/**
+	 * Constructor allocating a new direct buffer, filled with zeros.
+	 * @param size size of the IO
+	 */
+	public DirectBufferIO(int size) {
+		this(ByteBuffer.allocateDirect(size));
+	}
+
+	/** @return a buffer sharing the memory of this IO, containing the bytes from 0 to the current size. */
+	public ByteBuffer toByteBuffer() {
+		return buffer.slice(0, size);
+	}
+
+	@Override
+	protected void closeInternal() throws IOException {
+		buffer = null;
+	}
+
+	@Override
+	public long position() throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		return position;
+	}
+
+	@Override
+	public long size() throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		return size;
+	}
+
+	@Override
+	public void setSize(long newSize) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(newSize, "newSize");
+		LimitExceededException.check(newSize, Integer.MAX_VALUE, "newSize", "Integer.MAX_VALUE");
+		if (newSize > buffer.capacity()) reallocate((int) newSize);
+		else if (newSize > size) clear(size, (int) newSize);
+		size = (int) newSize;
+		if (position > size) position = size;
+	}
+
+	protected boolean extendCapacity(long newSize) {
+		if (extensionStrategy.isEmpty()) return false;
+		LimitExceededException.check(newSize, Integer.MAX_VALUE, "newSize", "Integer.MAX_VALUE");
+		if (newSize > buffer.capacity()) {
+			int capacity = extensionStrategy.get().applyAsInt(size, (int) (newSize - size));
+			reallocate(Math.max(capacity, (int) newSize));
+		} else {
+			clear(size, (int) newSize);
+		}
+		size = (int) newSize;
+		return true;
+	}
+
+	private void reallocate(int capacity) {
+		ByteBuffer b = ByteBuffer.allocateDirect(capacity).order(buffer.order());
+		b.put(0, buffer, 0, size);
+		buffer = b;
+	}
+
+	/** Fill with zeros bytes beyond the size which become part of the content, as they may remain from a previous shrink. */
+	private void clear(int from, int to) {
+		for (int i = from; i < to; i += ZEROS_SIZE)
+			buffer.put(i, ZEROS, 0, Math.min(ZEROS_SIZE, to - i));
+	}
+
+	@Override
+	public long seek(SeekFrom from, long offset) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		long p;
+		switch (Objects.requireNonNull(from, "from")) {
+		case CURRENT: p = position + offset; break;
+		case END: p = size - offset; break;
+		case START: default: p = offset; break;
+		}
+		if (p < 0) throw new IllegalArgumentException("Cannot seek beyond the start: " + p);
+		if (p > size && !extendCapacity(p)) throw new EOFException();
+		position = (int) p;
+		return p;
+	}
+
+	// --- Readable ---
+
+	@Override
+	public byte readByte() throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		if (position == size) throw new EOFException();
+		return buffer.get(position++);
+	}
+
+	@Override
+	public byte readByteAt(long pos) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos >= size) throw new EOFException();
+		return buffer.get((int) pos);
+	}
+
+	@Override
+	public Optional<ByteBuffer> readBuffer() throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		int len = size - position;
+		if (len == 0) return Optional.empty();
+		ByteBuffer result = buffer.slice(position, len);
+		position = size;
+		return Optional.of(result);
+	}
+
+	@Override
+	public int readBytes(ByteBuffer dst) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		Objects.requireNonNull(dst, IOChecks.FIELD_BUFFER);
+		int r = dst.remaining();
+		if (r == 0) return 0;
+		if (position == size) return -1;
+		int len = Math.min(r, size - position);
+		copyTo(position, dst, len);
+		position += len;
+		return len;
+	}
+
+	@Override
+	public int readBytes(byte[] buf, int off, int len) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		IOChecks.checkArray(buf, off, len);
+		if (len == 0) return 0;
+		if (position == size) return -1;
+		len = Math.min(len, size - position);
+		buffer.get(position, buf, off, len);
+		position += len;
+		return len;
+	}
+
+	@Override
+	public int readBytesAt(long pos, ByteBuffer dst) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, dst);
+		int r = dst.remaining();
+		if (r == 0) return 0;
+		if (pos >= size) return -1;
+		int len = Math.min(r, size - (int) pos);
+		copyTo((int) pos, dst, len);
+		return len;
+	}
+
+	@Override
+	public int readBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return 0;
+		if (pos >= size) return -1;
+		len = Math.min(len, size - (int) pos);
+		buffer.get((int) pos, buf, off, len);
+		return len;
+	}
+
+	@Override
+	public void readBytesFully(ByteBuffer dst) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		Objects.requireNonNull(dst, IOChecks.FIELD_BUFFER);
+		int r = dst.remaining();
+		if (r == 0) return;
+		if (r > size - position) throw new EOFException();
+		copyTo(position, dst, r);
+		position += r;
+	}
+
+	@Override
+	public void readBytesFully(byte[] buf, int off, int len) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		IOChecks.checkArray(buf, off, len);
+		if (len == 0) return;
+		if (len > size - position) throw new EOFException();
+		buffer.get(position, buf, off, len);
+		position += len;
+	}
+
+	@Override
+	public void readBytesFullyAt(long pos, ByteBuffer dst) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, dst);
+		int r = dst.remaining();
+		if (r == 0) return;
+		if (pos + r > size) throw new EOFException();
+		copyTo((int) pos, dst, r);
+	}
+
+	@Override
+	public void readBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return;
+		if (pos + len > size) throw new EOFException();
+		buffer.get((int) pos, buf, off, len);
+	}
+
+	private void copyTo(int index, ByteBuffer dst, int len) {
+		dst.put(dst.position(), buffer, index, len);
+		dst.position(dst.position() + len);
+	}
+
+	@Override
+	public long skipUpTo(long toSkip) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip == 0) return 0;
+		if (position == size) return -1;
+		int nb = (int) Math.min(toSkip, size - position);
+		position += nb;
+		return nb;
+	}
+
+	@Override
+	public void skipFully(long toSkip) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (position + toSkip > size) throw new EOFException();
+		position += (int) toSkip;
+	}
+
+	// --- Writable ---
+
+	@Override
+	public void flush() throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+	}
+
+	@Override
+	public void writeByte(byte value) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		if (position == size && !extendCapacity(size + 1L)) throw new EOFException();
+		buffer.put(position++, value);
+	}
+
+	@Override
+	public void writeByteAt(long pos, byte value) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos >= size && !extendCapacity(pos + 1)) throw new EOFException();
+		buffer.put((int) pos, value);
+	}
+
+	@Override
+	public int writeBytes(ByteBuffer src) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		Objects.requireNonNull(src, IOChecks.FIELD_BUFFER);
+		int r = src.remaining();
+		if (r == 0) return 0;
+		if (position == size && !extendCapacity((long) position + r)) return -1;
+		int len = Math.min(r, size - position);
+		copyFrom(position, src, len);
+		position += len;
+		return len;
+	}
+
+	@Override
+	public int writeBytes(byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, buf, off, len);
+		if (len == 0) return 0;
+		if (position == size && !extendCapacity((long) position + len)) return -1;
+		len = Math.min(len, size - position);
+		buffer.put(position, buf, off, len);
+		position += len;
+		return len;
+	}
+
+	@Override
+	public int writeBytesAt(long pos, ByteBuffer src) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, src);
+		int r = src.remaining();
+		if (r == 0) return 0;
+		if (pos >= size && !extendCapacity(pos + r)) return -1;
+		int len = Math.min(r, size - (int) pos);
+		copyFrom((int) pos, src, len);
+		return len;
+	}
+
+	@Override
+	public int writeBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return 0;
+		if (pos >= size && !extendCapacity(pos + len)) return -1;
+		len = Math.min(len, size - (int) pos);
+		buffer.put((int) pos, buf, off, len);
+		return len;
+	}
+
+	@Override
+	public void writeBytesFully(ByteBuffer src) throws IOException {
+		if (buffer == null) throw new ClosedChannelException();
+		Objects.requireNonNull(src, IOChecks.FIELD_BUFFER);
+		int r = src.remaining();
+		if (r == 0) return;
+		if (r > size - position && !extendCapacity((long) position + r)) throw new EOFException();
+		copyFrom(position, src, r);
+		position += r;
+	}
+
+	@Override
+	public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, buf, off, len);
+		if (len == 0) return;
+		if (len > size - position && !extendCapacity((long) position + len)) throw new EOFException();
+		buffer.put(position, buf, off, len);
+		position += len;
+	}
+
+	@Override
+	public void writeBytesFullyAt(long pos, ByteBuffer src) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, src);
+		int r = src.remaining();
+		if (r == 0) return;
+		if (pos + r > size && !extendCapacity(pos + r)) throw new EOFException();
+		copyFrom((int) pos, src, r);
+	}
+
+	@Override
+	public void writeBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return;
+		if (pos + len > size && !extendCapacity(pos + len)) throw new EOFException();
+		buffer.put((int) pos, buf, off, len);
+	}
+
+	private void copyFrom(int index, ByteBuffer src, int len) {
+		buffer.put(index, src, src.position(), len);
+		src.position(src.position() + len);
+	}
+
+	/** Appendable DirectBufferIO. */
+	public static class Appendable extends DirectBufferIO implements BytesIO.ReadWrite.AppendableResizable {
+
+		/**
+		 * Constructor using the remaining bytes of the given buffer as initial content, without copy.
+		 * @param buffer the buffer, typically a direct buffer
+		 * @param extensionStrategy take the current size and the additional requested size in parameter
+		 *   and returns the new capacity to be allocated.
+		 */
+		public Appendable(ByteBuffer buffer, IntBinaryOperator extensionStrategy) {
+			super(buffer.slice(), buffer.remaining(), Optional.of(extensionStrategy));
+		}
+
+		/**
+		 * Constructor with default extension strategy, using the remaining bytes of the given buffer as initial content.
+		 * @param buffer the buffer, typically a direct buffer
+		 */
+		public Appendable(ByteBuffer buffer) {
+			this(buffer, ByteArrayIO.Appendable.DEFAULT_EXTENSION_STRATEGY);
+		}
+
+		/**
+		 * Constructor allocating a new empty direct buffer, with default extension strategy.
+		 * @param initialCapacity capacity of the direct buffer to allocate
+		 */
+		public Appendable(int initialCapacity) {
+			super(ByteBuffer.allocateDirect(initialCapacity), 0, Optional.of(ByteArrayIO.Appendable.DEFAULT_EXTENSION_STRATEGY));
+		}
+
+	}
+
+}
@@ -0,0 +1,635 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+import net.lecousin.commons.exceptions.LimitExceededException;
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.AbstractIO;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.data.BytesData;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+
+/**
+ * In-memory BytesDataIO storing its content in fixed-size byte arrays (segments), supporting sizes greater than 2GB.
+ * <p>
+ * Growing only allocates the new segments, the existing content is never copied. Reducing the size releases
+ * the segments beyond the new size. Operations spanning several segments are split, and numbers spanning
+ * 2 segments are decoded from a small internal buffer.
+ * </p>
+ * <p>
+ * Writing beyond the end automatically extends the size. It is not thread-safe.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public class SegmentedByteArrayDataIO extends AbstractIO implements BytesDataIO.ReadWrite.AppendableResizable {
+
+	/** Default size of segments: 64KB. */
+	public static final int DEFAULT_SEGMENT_SIZE = 1 << 16;
+
+	private static final int INITIAL_SEGMENTS_CAPACITY = 16;
+
+	private final int segmentShift;
+	private final int segmentMask;
+	private byte[][] segments;
+	private int nbSegments = 0;
+	private long size = 0;
+	private long position = 0;
+	private BytesData data;
+	private final byte[] dataBuffer = new byte[8];
+
+	/**
+	 * Constructor.
+	 * @param segmentSize size of each segment, which must be a power of 2
+	 * @param order byte order
+	 */
+	public SegmentedByteArrayDataIO(int segmentSize, ByteOrder order) {
+		if (segmentSize <= 0 || Integer.bitCount(segmentSize) != 1)
+			throw new IllegalArgumentException("segmentSize must be a power of 2: " + segmentSize);
+		this.segmentShift = Integer.numberOfTrailingZeros(segmentSize);
+		this.segmentMask = segmentSize - 1;
+		this.segments = new byte[INITIAL_SEGMENTS_CAPACITY][];
+		this.data = BytesData.of(order);
+	}
+
+	/**
+	 * Constructor with default segment size and Little-Endian order.
+	 */
+	public SegmentedByteArrayDataIO() {
+		this(DEFAULT_SEGMENT_SIZE, ByteOrder.LITTLE_ENDIAN);
+	}
+
+	@Override
+	protected void closeInternal() throws IOException {
+		segments = null;
+	}
+
+	/** @return the size of segments. */
+	public int getSegmentSize() {
+		return segmentMask + 1;
+	}
+
+	/** @return the number of segments currently allocated. */
+	public int getNbSegments() {
+		return nbSegments;
+	}
+
+	@Override
+	public ByteOrder getByteOrder() {
+		return data.getByteOrder();
+	}
+
+	@Override
+	public void setByteOrder(ByteOrder order) {
+		data = BytesData.of(order);
+	}
+
+	@Override
+	public long position() throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		return position;
+	}
+
+	@Override
+	public long size() throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		return size;
+	}
+
+	@Override
+	public void setSize(long newSize) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(newSize, "newSize");
+		if (newSize >= size) {
+			extendTo(newSize);
+			return;
+		}
+		int needed = segmentsNeeded(newSize);
+		for (int i = needed; i < nbSegments; ++i) segments[i] = null;
+		nbSegments = needed;
+		int end = (int) (newSize & segmentMask);
+		// clear the rest of the last segment, so bytes are zeros when the size is extended again
+		if (end != 0) Arrays.fill(segments[needed - 1], end, segmentMask + 1, (byte) 0);
+		size = newSize;
+		if (position > size) position = size;
+	}
+
+	private int segmentsNeeded(long newSize) {
+		long needed = (newSize + segmentMask) >>> segmentShift;
+		LimitExceededException.check(needed, Integer.MAX_VALUE - 8L, "number of segments", "maximum array size");
+		return (int) needed;
+	}
+
+	private void extendTo(long newSize) {
+		if (newSize <= size) return;
+		int needed = segmentsNeeded(newSize);
+		if (needed > segments.length)
+			segments = Arrays.copyOf(segments, (int) Math.min(Math.max(needed, segments.length * 2L), Integer.MAX_VALUE - 8L));
+		while (nbSegments < needed) segments[nbSegments++] = new byte[segmentMask + 1];
+		size = newSize;
+	}
+
+	@Override
+	public long seek(SeekFrom from, long offset) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		long p;
+		switch (Objects.requireNonNull(from, "from")) {
+		case CURRENT: p = position + offset; break;
+		case END: p = size - offset; break;
+		case START: default: p = offset; break;
+		}
+		if (p < 0) throw new IllegalArgumentException("Cannot seek beyond the start: " + p);
+		extendTo(p);
+		position = p;
+		return p;
+	}
+
+	@Override
+	public long skipUpTo(long toSkip) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip == 0) return 0;
+		long r = size - position;
+		if (r <= 0) return -1;
+		long nb = Math.min(toSkip, r);
+		position += nb;
+		return nb;
+	}
+
+	@Override
+	public void skipFully(long toSkip) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip > size - position) throw new EOFException();
+		position += toSkip;
+	}
+
+	// --- copy between segments and buffers ---
+
+	private void copyTo(long pos, byte[] buf, int off, int len) {
+		while (len > 0) {
+			int segmentPos = (int) (pos & segmentMask);
+			int nb = Math.min(len, segmentMask + 1 - segmentPos);
+			System.arraycopy(segments[(int) (pos >>> segmentShift)], segmentPos, buf, off, nb);
+			pos += nb;
+			off += nb;
+			len -= nb;
+		}
+	}
+
+	private void copyTo(long pos, ByteBuffer buffer, int len) {
+		while (len > 0) {
+			int segmentPos = (int) (pos & segmentMask);
+			int nb = Math.min(len, segmentMask + 1 - segmentPos);
+			buffer.put(segments[(int) (pos >>> segmentShift)], segmentPos, nb);
+			pos += nb;
+			len -= nb;
+		}
+	}
+
+	private void copyFrom(long pos, byte[] buf, int off, int len) {
+		while (len > 0) {
+			int segmentPos = (int) (pos & segmentMask);
+			int nb = Math.min(len, segmentMask + 1 - segmentPos);
+			System.arraycopy(buf, off, segments[(int) (pos >>> segmentShift)], segmentPos, nb);
+			pos += nb;
+			off += nb;
+			len -= nb;
+		}
+	}
+
+	private void copyFrom(long pos, ByteBuffer buffer, int len) {
+		while (len > 0) {
+			int segmentPos = (int) (pos & segmentMask);
+			int nb = Math.min(len, segmentMask + 1 - segmentPos);
+			buffer.get(segments[(int) (pos >>> segmentShift)], segmentPos, nb);
+			pos += nb;
+			len -= nb;
+		}
+	}
+
+	// --- Readable ---
+
+	@Override
+	public byte readByte() throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		if (position >= size) throw new EOFException();
+		byte b = segments[(int) (position >>> segmentShift)][(int) (position & segmentMask)];
+		position++;
+		return b;
+	}
+
+	@Override
+	public byte readByteAt(long pos) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos >= size) throw new EOFException();
+		return segments[(int) (pos >>> segmentShift)][(int) (pos & segmentMask)];
+	}
+
+	@Override
+	public Optional<ByteBuffer> readBuffer() throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		if (position >= size) return Optional.empty();
+		int segmentPos = (int) (position & segmentMask);
+		int len = (int) Math.min(segmentMask + 1L - segmentPos, size - position);
+		ByteBuffer buffer = ByteBuffer.wrap(segments[(int) (position >>> segmentShift)], segmentPos, len).slice();
+		position += len;
+		return Optional.of(buffer);
+	}
+
+	@Override
+	public int readBytes(ByteBuffer buffer) throws IOException {
+		int nb = readBytesAt(position, buffer);
+		if (nb > 0) position += nb;
+		return nb;
+	}
+
+	@Override
+	public int readBytes(byte[] buf, int off, int len) throws IOException {
+		int nb = readBytesAt(position, buf, off, len);
+		if (nb > 0) position += nb;
+		return nb;
+	}
+
+	@Override
+	public int readBytesAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		int r = buffer.remaining();
+		if (r == 0) return 0;
+		if (pos >= size) return -1;
+		int len = (int) Math.min(r, size - pos);
+		copyTo(pos, buffer, len);
+		return len;
+	}
+
+	@Override
+	public int readBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return 0;
+		if (pos >= size) return -1;
+		len = (int) Math.min(len, size - pos);
+		copyTo(pos, buf, off, len);
+		return len;
+	}
+
+	@Override
+	public void readBytesFully(ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, position, buffer);
+		int len = buffer.remaining();
+		readBytesFullyAt(position, buffer);
+		position += len;
+	}
+
+	@Override
+	public void readBytesFully(byte[] buf, int off, int len) throws IOException {
+		readBytesFullyAt(position, buf, off, len);
+		position += len;
+	}
+
+	@Override
+	public void readBytesFullyAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		int r = buffer.remaining();
+		if (r == 0) return;
+		if (pos + r > size) throw new EOFException();
+		copyTo(pos, buffer, r);
+	}
+
+	@Override
+	public void readBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		if (len == 0) return;
+		if (pos + len > size) throw new EOFException();
+		copyTo(pos, buf, off, len);
+	}
+
+	/** Return the segment containing the <code>nbBytes</code> bytes at the given position, or null if they are on several segments. */
+	private byte[] getDataSegment(long pos, int nbBytes) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		if (pos + nbBytes > size) throw new EOFException();
+		if ((pos & segmentMask) + nbBytes > segmentMask + 1) return null;
+		return segments[(int) (pos >>> segmentShift)];
+	}
+
+	/** Copy bytes located on several segments. */
+	private byte[] readAcrossSegments(long pos, int nbBytes) {
+		copyTo(pos, dataBuffer, 0, nbBytes);
+		return dataBuffer;
+	}
+
+	@Override
+	public int readUnsigned2Bytes() throws IOException {
+		int value = readUnsigned2BytesAt(position);
+		position += 2;
+		return value;
+	}
+
+	@Override
+	public int readUnsigned2BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 2);
+		if (segment != null) return data.readUnsigned2Bytes(segment, (int) (pos & segmentMask));
+		return data.readUnsigned2Bytes(readAcrossSegments(pos, 2), 0);
+	}
+
+	@Override
+	public int readUnsigned3Bytes() throws IOException {
+		int value = readUnsigned3BytesAt(position);
+		position += 3;
+		return value;
+	}
+
+	@Override
+	public int readUnsigned3BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 3);
+		if (segment != null) return data.readUnsigned3Bytes(segment, (int) (pos & segmentMask));
+		return data.readUnsigned3Bytes(readAcrossSegments(pos, 3), 0);
+	}
+
+	@Override
+	public long readUnsigned4Bytes() throws IOException {
+		long value = readUnsigned4BytesAt(position);
+		position += 4;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned4BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 4);
+		if (segment != null) return data.readUnsigned4Bytes(segment, (int) (pos & segmentMask));
+		return data.readUnsigned4Bytes(readAcrossSegments(pos, 4), 0);
+	}
+
+	@Override
+	public long readUnsigned5Bytes() throws IOException {
+		long value = readUnsigned5BytesAt(position);
+		position += 5;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned5BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 5);
+		if (segment != null) return data.readUnsigned5Bytes(segment, (int) (pos & segmentMask));
+		return data.readUnsigned5Bytes(readAcrossSegments(pos, 5), 0);
+	}
+
+	@Override
+	public long readUnsigned6Bytes() throws IOException {
+		long value = readUnsigned6BytesAt(position);
+		position += 6;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned6BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 6);
+		if (segment != null) return data.readUnsigned6Bytes(segment, (int) (pos & segmentMask));
+		return data.readUnsigned6Bytes(readAcrossSegments(pos, 6), 0);
+	}
+
+	@Override
+	public long readUnsigned7Bytes() throws IOException {
+		long value = readUnsigned7BytesAt(position);
+		position += 7;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned7BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 7);
+		if (segment != null) return data.readUnsigned7Bytes(segment, (int) (pos & segmentMask));
+		return data.readUnsigned7Bytes(readAcrossSegments(pos, 7), 0);
+	}
+
+	@Override
+	public long readSigned8Bytes() throws IOException {
+		long value = readSigned8BytesAt(position);
+		position += 8;
+		return value;
+	}
+
+	@Override
+	public long readSigned8BytesAt(long pos) throws IOException {
+		byte[] segment = getDataSegment(pos, 8);
+		if (segment != null) return data.readSigned8Bytes(segment, (int) (pos & segmentMask));
+		return data.readSigned8Bytes(readAcrossSegments(pos, 8), 0);
+	}
+
+	// --- Writable ---
+
+	@Override
+	public void flush() throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+	}
+
+	@Override
+	public void writeByte(byte value) throws IOException {
+		writeByteAt(position, value);
+		position++;
+	}
+
+	@Override
+	public void writeByteAt(long pos, byte value) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		extendTo(pos + 1);
+		segments[(int) (pos >>> segmentShift)][(int) (pos & segmentMask)] = value;
+	}
+
+	@Override
+	public int writeBytes(ByteBuffer buffer) throws IOException {
+		int nb = writeBytesAt(position, buffer);
+		position += nb;
+		return nb;
+	}
+
+	@Override
+	public int writeBytes(byte[] buf, int off, int len) throws IOException {
+		int nb = writeBytesAt(position, buf, off, len);
+		position += nb;
+		return nb;
+	}
+
+	@Override
+	public int writeBytesAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		int r = buffer.remaining();
+		writeBytesFullyAt(pos, buffer);
+		return r;
+	}
+
+	@Override
+	public int writeBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+		writeBytesFullyAt(pos, buf, off, len);
+		return len;
+	}
+
+	@Override
+	public void writeBytesFully(ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, position, buffer);
+		int len = buffer.remaining();
+		writeBytesFullyAt(position, buffer);
+		position += len;
+	}
+
+	@Override
+	public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
+		writeBytesFullyAt(position, buf, off, len);
+		position += len;
+	}
+
+	@Override
+	public void writeBytesFullyAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		int r = buffer.remaining();
+		extendTo(pos + r);
+		copyFrom(pos, buffer, r);
+	}
+
+	@Override
+	public void writeBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+		IOChecks.checkArrayOperation(this, pos, buf, off, len);
+		extendTo(pos + len);
+		copyFrom(pos, buf, off, len);
+	}
+
+	/**
+	 * Extend the size to write <code>nbBytes</code> bytes at the given position, and return the segment containing them,
+	 * or null if they are on several segments.
+	 */
+	private byte[] getDataSegmentForWrite(long pos, int nbBytes) throws IOException {
+		if (segments == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		extendTo(pos + nbBytes);
+		if ((pos & segmentMask) + nbBytes > segmentMask + 1) return null;
+		return segments[(int) (pos >>> segmentShift)];
+	}
+
+	@Override
+	public void writeUnsigned2Bytes(int value) throws IOException {
+		writeUnsigned2BytesAt(position, value);
+		position += 2;
+	}
+
+	@Override
+	public void writeUnsigned2BytesAt(long pos, int value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 2);
+		if (segment != null) {
+			data.writeUnsigned2Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeUnsigned2Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 2);
+	}
+
+	@Override
+	public void writeUnsigned3Bytes(int value) throws IOException {
+		writeUnsigned3BytesAt(position, value);
+		position += 3;
+	}
+
+	@Override
+	public void writeUnsigned3BytesAt(long pos, int value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 3);
+		if (segment != null) {
+			data.writeUnsigned3Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeUnsigned3Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 3);
+	}
+
+	@Override
+	public void writeUnsigned4Bytes(long value) throws IOException {
+		writeUnsigned4BytesAt(position, value);
+		position += 4;
+	}
+
+	@Override
+	public void writeUnsigned4BytesAt(long pos, long value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 4);
+		if (segment != null) {
+			data.writeUnsigned4Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeUnsigned4Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 4);
+	}
+
+	@Override
+	public void writeUnsigned5Bytes(long value) throws IOException {
+		writeUnsigned5BytesAt(position, value);
+		position += 5;
+	}
+
+	@Override
+	public void writeUnsigned5BytesAt(long pos, long value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 5);
+		if (segment != null) {
+			data.writeUnsigned5Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeUnsigned5Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 5);
+	}
+
+	@Override
+	public void writeUnsigned6Bytes(long value) throws IOException {
+		writeUnsigned6BytesAt(position, value);
+		position += 6;
+	}
+
+	@Override
+	public void writeUnsigned6BytesAt(long pos, long value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 6);
+		if (segment != null) {
+			data.writeUnsigned6Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeUnsigned6Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 6);
+	}
+
+	@Override
+	public void writeUnsigned7Bytes(long value) throws IOException {
+		writeUnsigned7BytesAt(position, value);
+		position += 7;
+	}
+
+	@Override
+	public void writeUnsigned7BytesAt(long pos, long value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 7);
+		if (segment != null) {
+			data.writeUnsigned7Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeUnsigned7Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 7);
+	}
+
+	@Override
+	public void writeSigned8Bytes(long value) throws IOException {
+		writeSigned8BytesAt(position, value);
+		position += 8;
+	}
+
+	@Override
+	public void writeSigned8BytesAt(long pos, long value) throws IOException {
+		byte[] segment = getDataSegmentForWrite(pos, 8);
+		if (segment != null) {
+			data.writeSigned8Bytes(segment, (int) (pos & segmentMask), value);
+			return;
+		}
+		data.writeSigned8Bytes(dataBuffer, 0, value);
+		copyFrom(pos, dataBuffer, 0, 8);
+	}
+
+}
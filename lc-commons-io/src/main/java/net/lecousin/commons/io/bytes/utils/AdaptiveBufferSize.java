@@ -0,0 +1,77 @@
+package net.lecousin.commons.io.bytes.utils;
+
+/**
+ * Size of the buffers to allocate when reading data, adapting to the amount of data each read gives.
+ * <p>
+ * The size starts at an initial value, doubles each time a buffer of this size is completely filled, up to a maximum,
+ * and is divided by 2 each time less than half of a buffer is filled, down to the initial value.
+ * This gives large buffers for a source able to provide a lot of data at once, such as a file read sequentially,
+ * while keeping small buffers for a source providing data in small chunks.
+ * </p>
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class AdaptiveBufferSize {
+
+	private final int initialSize;
+	private final int maxSize;
+	private int size;
+
+	/**
+	 * Constructor.
+	 * @param initialSize initial and minimum size
+	 * @param maxSize maximum size
+	 */
+	public AdaptiveBufferSize(int initialSize, int maxSize) {
+		if (initialSize <= 0) throw new IllegalArgumentException("initialSize must be positive: " + initialSize);
+		if (maxSize < initialSize) throw new IllegalArgumentException("maxSize must be greater or equal to initialSize: " + maxSize);
+		this.initialSize = initialSize;
+		this.maxSize = maxSize;
+		this.size = initialSize;
+	}
+
+	/** @return the size to use for the next buffer. */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Return the size to use for the next buffer, given a number of bytes known to be available, for example
+	 * the remaining bytes of a file or the available bytes of a stream.
+	 * @param available number of bytes available, or a negative value if unknown
+	 * @param exact true if the available bytes are the exact number of bytes remaining, in which case the size is not
+	 *   greater than this number, false if this is only a hint of bytes that can be read immediately, in which case
+	 *   the size is increased up to the maximum to read them at once
+	 * @return the size to allocate
+	 */
+	public int getSize(long available, boolean exact) {
+		if (available < 0) return size;
+		if (exact) return (int) Math.min(size, available);
+		return (int) Math.max(size, Math.min(available, maxSize));
+	}
+
+	/** @return the maximum size. */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Adapt the size, given the result of a read.
+	 * @param bufferSize size of the buffer used
+	 * @param read number of bytes read into the buffer
+	 */
+	public void update(int bufferSize, int read) {
+		if (read >= bufferSize) {
+			if (bufferSize >= size) size = (int) Math.min((long) size * 2, maxSize);
+		} else if (read < size / 2) {
+			size = Math.max(initialSize, size / 2);
+		}
+	}
+
+	/** Go back to the initial size, for example when the position changes and reads are not sequential anymore. */
+	public void reset() {
+		size = initialSize;
+	}
+
+}
@@ -12,11 +12,19 @@ import net.lecousin.commons.io.AbstractIO;
 import net.lecousin.commons.io.IOChecks;
 import net.lecousin.commons.io.bytes.BytesIO;
 
-/** Readable BytesIO from an InputStream. */
+/**
+ * Readable BytesIO from an InputStream.
+ * <p>
+ * The size of buffers returned by {@link #readBuffer()} adapts to the number of bytes the stream gives at once,
+ * and to the number of bytes it announces as available.
+ * </p>
+ */
 public class BytesIOFromInputStream extends AbstractIO implements BytesIO.Readable {
 
 	private InputStream stream;
 	private boolean closeStreamOnClose;
+	private AdaptiveBufferSize bufferSize = new AdaptiveBufferSize(READ_BUFFER_SIZE, READ_BUFFER_MAX_SIZE);
+	private byte[] skipBuffer = null;
 	
 	/** Constructor.
 	 * 
@@ -30,6 +38,7 @@ public class BytesIOFromInputStream extends AbstractIO implements BytesIO.Readab
 	
 	private static final int SKIP_MAX_BUFFER_SIZE = 8192;
 	private static final int READ_BUFFER_SIZE = 4096;
+	private static final int READ_BUFFER_MAX_SIZE = 64 * 1024;
 	
 	/** @return the input stream wrapped by this IO. */
 	public InputStream getUnderlyingStream() {
@@ -40,6 +49,7 @@ public class BytesIOFromInputStream extends AbstractIO implements BytesIO.Readab
 	protected void closeInternal() throws IOException {
 		if (closeStreamOnClose) stream.close();
 		stream = null;
+		skipBuffer = null;
 	}
 	
 	@Override
@@ -85,19 +95,26 @@ public class BytesIOFromInputStream extends AbstractIO implements BytesIO.Readab
 		if (stream == null) throw new ClosedChannelException();
 		NegativeValueException.check(toSkip, "toSkip");
 		if (toSkip == 0) return 0;
-		// because some implementations (ie. FileInputStream) may return a value greater than the size, we cannot rely on it
-		int nb = (int) Math.min(SKIP_MAX_BUFFER_SIZE, toSkip);
-		int real = stream.read(new byte[nb]);
+		// because some implementations (ie. FileInputStream) may skip beyond the end, we use skip only on available bytes
+		int available = stream.available();
+		if (available > 0) {
+			long skipped = stream.skip(Math.min(available, toSkip));
+			if (skipped > 0) return skipped;
+		}
+		if (skipBuffer == null) skipBuffer = new byte[SKIP_MAX_BUFFER_SIZE];
+		int real = stream.read(skipBuffer, 0, (int) Math.min(SKIP_MAX_BUFFER_SIZE, toSkip));
 		return real > 0 ? real : -1;
 	}
 	
 	@Override
 	public Optional<ByteBuffer> readBuffer() throws IOException {
 		if (stream == null) throw new ClosedChannelException();
-		byte[] b = new byte[READ_BUFFER_SIZE];
+		int len = bufferSize.getSize(stream.available(), false);
+		byte[] b = new byte[len];
 		int nb = stream.read(b);
-		if (nb > 0) return Optional.of(ByteBuffer.wrap(b, 0, nb));
-		return Optional.empty();
+		if (nb <= 0) return Optional.empty();
+		bufferSize.update(len, nb);
+		return Optional.of(ByteBuffer.wrap(b, 0, nb));
 	}
 	
 }
@@ -10,9 +10,13 @@ import java.util.Optional;
 import net.lecousin.commons.exceptions.NegativeValueException;
 import net.lecousin.commons.io.IOChecks;
 import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.LcByteBufferUtils;
 import net.lecousin.commons.io.utils.AbstractCompositeIO;
 
-/** BytesIO aggregating of multiple IOs. */
+/** BytesIO aggregating of multiple IOs.<br/>
+ * Operations on several buffers are forwarded to the underlying IO containing the position, so they are done
+ * in a single operation when this IO supports it.
+ */
 public interface CompositeBytesIO {
 
 	/** Create a CompositeBytesIO Read and Write.
@@ -221,6 +225,99 @@ public interface CompositeBytesIO {
 			return ((BytesIO.Writable.Seekable) e.io).writeBytesAt(pos - e.startPosition, buf, off, len);
 		}
 		
+		@Override
+		public long readBytes(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			if (LcByteBufferUtils.remainingLong(buffers) == 0) return 0;
+			return doOperationOnPosition(() -> {
+				long nb = ((BytesIO.Readable) cursor.io).readBytes(buffers);
+				if (nb < 0) throw new EOFException();
+				position += nb;
+				cursor.ioPosition += nb;
+				return nb;
+			}, -1L);
+		}
+		
+		@Override
+		public void readBytesFully(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			long remaining = LcByteBufferUtils.remainingLong(buffers);
+			while (remaining > 0) {
+				long nb = readBytes(buffers);
+				if (nb <= 0) throw new EOFException();
+				remaining -= nb;
+			}
+		}
+		
+		@Override
+		public long writeBytes(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			if (LcByteBufferUtils.remainingLong(buffers) == 0) return 0;
+			return doOperationOnPosition(() -> {
+				long nb = ((BytesIO.Writable) cursor.io).writeBytes(buffers);
+				if (nb < 0) throw new EOFException();
+				position += nb;
+				cursor.ioPosition += nb;
+				return nb;
+			}, -1L);
+		}
+		
+		@Override
+		public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, buffers);
+			long remaining = LcByteBufferUtils.remainingLong(buffers);
+			while (remaining > 0) {
+				long nb = writeBytes(buffers);
+				if (nb <= 0) throw new EOFException();
+				remaining -= nb;
+			}
+		}
+		
+		@Override
+		public long readBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, pos, buffers);
+			if (LcByteBufferUtils.remainingLong(buffers) == 0) return 0;
+			if (pos >= size) return -1;
+			Element e = getElementForPosition(pos);
+			return ((BytesIO.Readable.Seekable) e.io).readBytesAt(pos - e.startPosition, buffers);
+		}
+		
+		@Override
+		public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, pos, buffers);
+			long remaining = LcByteBufferUtils.remainingLong(buffers);
+			long p = pos;
+			while (remaining > 0) {
+				long nb = readBytesAt(p, buffers);
+				if (nb <= 0) throw new EOFException();
+				p += nb;
+				remaining -= nb;
+			}
+		}
+		
+		@Override
+		public long writeBytesAt(long pos, ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, pos, buffers);
+			if (LcByteBufferUtils.remainingLong(buffers) == 0) return 0;
+			if (pos >= size) return -1;
+			Element e = getElementForPosition(pos);
+			return ((BytesIO.Writable.Seekable) e.io).writeBytesAt(pos - e.startPosition, buffers);
+		}
+		
+		@Override
+		public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+			IOChecks.checkBuffersOperation(this, pos, buffers);
+			long remaining = LcByteBufferUtils.remainingLong(buffers);
+			if (pos + remaining > size) throw new EOFException();
+			long p = pos;
+			while (remaining > 0) {
+				long nb = writeBytesAt(p, buffers);
+				if (nb <= 0) throw new EOFException();
+				p += nb;
+				remaining -= nb;
+			}
+		}
+		
 		@Override
 		public Optional<ByteBuffer> readBuffer() throws IOException {
 			if (isClosed()) throw new ClosedChannelException();
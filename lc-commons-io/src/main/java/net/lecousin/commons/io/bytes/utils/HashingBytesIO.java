@@ -0,0 +1,281 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.zip.Checksum;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.utils.AbstractDecoratorIO;
+
+/**
+ * Pass-through BytesIO updating a hash (a {@link Checksum} such as CRC32C, or a {@link MessageDigest} such as SHA-256)
+ * with the bytes read from or written to the underlying IO, so the data does not need to be read twice.
+ * <p>
+ * The hash is updated from the ByteBuffers given to, or returned by, the underlying IO, so intrinsics such as
+ * {@link java.util.zip.CRC32C#update(ByteBuffer)} apply to both heap and direct buffers.
+ * Bytes skipped on a Readable are read to be included in the hash.
+ * </p>
+ */
+public interface HashingBytesIO {
+
+	/**
+	 * Create a Readable updating the given checksum.
+	 * @param io IO to read
+	 * @param checksum checksum to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static HashingBytesIO.Readable<Checksum> readable(BytesIO.Readable io, Checksum checksum, boolean closeIoOnClose) {
+		return new Readable<>(io, checksum, Checksum::update, closeIoOnClose);
+	}
+
+	/**
+	 * Create a Readable updating the given digest.
+	 * @param io IO to read
+	 * @param digest digest to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static HashingBytesIO.Readable<MessageDigest> readable(BytesIO.Readable io, MessageDigest digest, boolean closeIoOnClose) {
+		return new Readable<>(io, digest, MessageDigest::update, closeIoOnClose);
+	}
+
+	/**
+	 * Create a Writable updating the given checksum.
+	 * @param io IO to write to
+	 * @param checksum checksum to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static HashingBytesIO.Writable<Checksum> writable(BytesIO.Writable io, Checksum checksum, boolean closeIoOnClose) {
+		return new Writable<>(io, checksum, Checksum::update, closeIoOnClose);
+	}
+
+	/**
+	 * Create a Writable updating the given digest.
+	 * @param io IO to write to
+	 * @param digest digest to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static HashingBytesIO.Writable<MessageDigest> writable(BytesIO.Writable io, MessageDigest digest, boolean closeIoOnClose) {
+		return new Writable<>(io, digest, MessageDigest::update, closeIoOnClose);
+	}
+
+	/**
+	 * Update a hash with the bytes of a buffer between 2 positions, leaving the position and limit of the buffer unchanged.
+	 * @param <H> type of hash
+	 * @param hash hash to update
+	 * @param updater function updating the hash with the remaining bytes of a buffer
+	 * @param buffer buffer
+	 * @param from start position
+	 * @param to end position
+	 */
+	static <H> void update(H hash, BiConsumer<H, ByteBuffer> updater, ByteBuffer buffer, int from, int to) {
+		if (to <= from) return;
+		int p = buffer.position();
+		int l = buffer.limit();
+		buffer.limit(to);
+		buffer.position(from);
+		updater.accept(hash, buffer);
+		buffer.limit(l);
+		buffer.position(p);
+	}
+
+	/** @return the hash being updated, which may be a Checksum or a MessageDigest. */
+	Object getHash();
+
+	/** Base class, updating the hash.
+	 * @param <H> type of hash
+	 * @param <I> type of IO
+	 */
+	abstract class AbstractHashingBytesIO<H, I extends BytesIO> extends AbstractDecoratorIO<I> implements HashingBytesIO {
+
+		protected final H hash;
+		protected final BiConsumer<H, ByteBuffer> updater;
+		private final ByteBuffer singleByte = ByteBuffer.allocate(1);
+
+		protected AbstractHashingBytesIO(I io, H hash, BiConsumer<H, ByteBuffer> updater, boolean closeIoOnClose) {
+			super(io, closeIoOnClose);
+			this.hash = Objects.requireNonNull(hash, "hash");
+			this.updater = Objects.requireNonNull(updater, "updater");
+		}
+
+		@Override
+		public H getHash() {
+			return hash;
+		}
+
+		protected void update(byte b) {
+			singleByte.clear();
+			singleByte.put(b).flip();
+			updater.accept(hash, singleByte);
+		}
+
+		protected void update(byte[] buf, int off, int len) {
+			if (len > 0) updater.accept(hash, ByteBuffer.wrap(buf, off, len));
+		}
+
+		protected void update(ByteBuffer buffer, int from, int to) {
+			HashingBytesIO.update(hash, updater, buffer, from, to);
+		}
+	}
+
+	/** Readable updating a hash with the bytes read.
+	 * @param <H> type of hash
+	 */
+	class Readable<H> extends AbstractHashingBytesIO<H, BytesIO.Readable> implements BytesIO.Readable {
+
+		private static final int SKIP_BUFFER_SIZE = 8192;
+
+		private byte[] skipBuffer = null;
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param hash hash to update
+		 * @param updater function updating the hash with the remaining bytes of a buffer
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Readable(BytesIO.Readable io, H hash, BiConsumer<H, ByteBuffer> updater, boolean closeIoOnClose) {
+			super(io, hash, updater, closeIoOnClose);
+		}
+
+		@Override
+		public byte readByte() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			byte b = io.readByte();
+			update(b);
+			return b;
+		}
+
+		@Override
+		public int readBytes(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int p = buffer.position();
+			int nb = io.readBytes(buffer);
+			if (nb > 0) update(buffer, p, p + nb);
+			return nb;
+		}
+
+		@Override
+		public int readBytes(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			int nb = io.readBytes(buf, off, len);
+			if (nb > 0) update(buf, off, nb);
+			return nb;
+		}
+
+		@Override
+		public void readBytesFully(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int p = buffer.position();
+			io.readBytesFully(buffer);
+			update(buffer, p, buffer.position());
+		}
+
+		@Override
+		public void readBytesFully(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			io.readBytesFully(buf, off, len);
+			update(buf, off, len);
+		}
+
+		@Override
+		public Optional<ByteBuffer> readBuffer() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Optional<ByteBuffer> buffer = io.readBuffer();
+			buffer.ifPresent(b -> update(b, b.position(), b.limit()));
+			return buffer;
+		}
+
+		@Override
+		public long skipUpTo(long toSkip) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			NegativeValueException.check(toSkip, "toSkip");
+			if (toSkip == 0) return 0;
+			if (skipBuffer == null) skipBuffer = new byte[SKIP_BUFFER_SIZE];
+			return readBytes(skipBuffer, 0, (int) Math.min(SKIP_BUFFER_SIZE, toSkip));
+		}
+
+		@Override
+		protected void closeInternal() throws IOException {
+			super.closeInternal();
+			skipBuffer = null;
+		}
+	}
+
+	/** Writable updating a hash with the bytes written.
+	 * @param <H> type of hash
+	 */
+	class Writable<H> extends AbstractHashingBytesIO<H, BytesIO.Writable> implements BytesIO.Writable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param hash hash to update
+		 * @param updater function updating the hash with the remaining bytes of a buffer
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Writable(BytesIO.Writable io, H hash, BiConsumer<H, ByteBuffer> updater, boolean closeIoOnClose) {
+			super(io, hash, updater, closeIoOnClose);
+		}
+
+		@Override
+		public void writeByte(byte value) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			io.writeByte(value);
+			update(value);
+		}
+
+		@Override
+		public int writeBytes(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int p = buffer.position();
+			int nb = io.writeBytes(buffer);
+			if (nb > 0) update(buffer, p, p + nb);
+			return nb;
+		}
+
+		@Override
+		public int writeBytes(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			int nb = io.writeBytes(buf, off, len);
+			if (nb > 0) update(buf, off, nb);
+			return nb;
+		}
+
+		@Override
+		public void writeBytesFully(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int p = buffer.position();
+			io.writeBytesFully(buffer);
+			update(buffer, p, buffer.position());
+		}
+
+		@Override
+		public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			io.writeBytesFully(buf, off, len);
+			update(buf, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			io.flush();
+		}
+	}
+
+}
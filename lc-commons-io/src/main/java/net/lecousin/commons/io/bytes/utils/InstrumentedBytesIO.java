@@ -0,0 +1,539 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Objects;
+import java.util.Optional;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.IO;
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.utils.AbstractDecoratorIO;
+import net.lecousin.commons.io.utils.IOMetrics;
+import net.lecousin.commons.io.utils.IOMetrics.Operation;
+
+/**
+ * BytesIO recording {@link IOMetrics} of the operations on an underlying IO: bytes read and written,
+ * number of calls, latency and size of each operation.
+ * <p>
+ * Operations not overridden, such as vectored operations, use the default implementations and are recorded
+ * as the operations they are made of.
+ * </p>
+ * <p>
+ * A seekable IO instrumented with {@link #readableSeekable(BytesIO.Readable.Seekable, IOMetrics, boolean)} or
+ * {@link #writableSeekable(BytesIO.Writable.Seekable, IOMetrics, boolean)} remains seekable, and its positional operations
+ * and seeks are recorded too.
+ * </p>
+ */
+public interface InstrumentedBytesIO {
+
+	/**
+	 * Create an instrumented Readable.
+	 * @param io IO to read
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static InstrumentedBytesIO.Readable readable(BytesIO.Readable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new Readable(io, metrics, closeIoOnClose);
+	}
+
+	/**
+	 * Create an instrumented Writable.
+	 * @param io IO to write to
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static InstrumentedBytesIO.Writable writable(BytesIO.Writable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new Writable(io, metrics, closeIoOnClose);
+	}
+
+	/**
+	 * Create an instrumented Readable.Seekable.
+	 * @param io IO to read
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable.Seekable
+	 */
+	static InstrumentedBytesIO.ReadableSeekable readableSeekable(BytesIO.Readable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new ReadableSeekable(io, metrics, closeIoOnClose);
+	}
+
+	/**
+	 * Create an instrumented Writable.Seekable.
+	 * @param io IO to write to
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable.Seekable
+	 */
+	static InstrumentedBytesIO.WritableSeekable writableSeekable(BytesIO.Writable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new WritableSeekable(io, metrics, closeIoOnClose);
+	}
+
+	/** @return the metrics being recorded. */
+	IOMetrics getMetrics();
+
+	/** Base class.
+	 * @param <I> type of IO
+	 */
+	abstract class AbstractInstrumentedBytesIO<I extends BytesIO> extends AbstractDecoratorIO<I> implements InstrumentedBytesIO {
+
+		protected final IOMetrics metrics;
+
+		protected AbstractInstrumentedBytesIO(I io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, closeIoOnClose);
+			this.metrics = Objects.requireNonNull(metrics, "metrics");
+		}
+
+		@Override
+		public IOMetrics getMetrics() {
+			return metrics;
+		}
+
+		protected long seek(IO.Seekable seekable, SeekFrom from, long offset) throws IOException {
+			long start = System.nanoTime();
+			try {
+				long p = seekable.seek(from, offset);
+				metrics.recordSuccess(Operation.SEEK, start, 0, 0);
+				return p;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.SEEK, start);
+				throw e;
+			}
+		}
+	}
+
+	/** Instrumented Readable. */
+	class Readable extends AbstractInstrumentedBytesIO<BytesIO.Readable> implements BytesIO.Readable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Readable(BytesIO.Readable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		@Override
+		public byte readByte() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			long start = System.nanoTime();
+			try {
+				byte b = io.readByte();
+				metrics.recordSuccess(Operation.READ_BYTE, start, 1, 1);
+				return b;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTE, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int readBytes(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				int nb = io.readBytes(buffer);
+				metrics.recordSuccess(Operation.READ_BYTES, start, requested, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int readBytes(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			long start = System.nanoTime();
+			try {
+				int nb = io.readBytes(buf, off, len);
+				metrics.recordSuccess(Operation.READ_BYTES, start, len, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void readBytesFully(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				io.readBytesFully(buffer);
+				metrics.recordSuccess(Operation.READ_BYTES_FULLY, start, requested, requested);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES_FULLY, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void readBytesFully(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			long start = System.nanoTime();
+			try {
+				io.readBytesFully(buf, off, len);
+				metrics.recordSuccess(Operation.READ_BYTES_FULLY, start, len, len);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES_FULLY, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public Optional<ByteBuffer> readBuffer() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			long start = System.nanoTime();
+			try {
+				Optional<ByteBuffer> buffer = io.readBuffer();
+				int nb = buffer.map(ByteBuffer::remaining).orElse(0);
+				metrics.recordSuccess(Operation.READ_BUFFER, start, nb, nb);
+				return buffer;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BUFFER, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public long skipUpTo(long toSkip) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			NegativeValueException.check(toSkip, "toSkip");
+			long start = System.nanoTime();
+			try {
+				long nb = io.skipUpTo(toSkip);
+				metrics.recordSuccess(Operation.SKIP, start, toSkip, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.SKIP, start);
+				throw e;
+			}
+		}
+	}
+
+	/** Instrumented Writable. */
+	class Writable extends AbstractInstrumentedBytesIO<BytesIO.Writable> implements BytesIO.Writable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Writable(BytesIO.Writable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		@Override
+		public void writeByte(byte value) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			long start = System.nanoTime();
+			try {
+				io.writeByte(value);
+				metrics.recordSuccess(Operation.WRITE_BYTE, start, 1, 1);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTE, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int writeBytes(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				int nb = io.writeBytes(buffer);
+				metrics.recordSuccess(Operation.WRITE_BYTES, start, requested, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int writeBytes(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			long start = System.nanoTime();
+			try {
+				int nb = io.writeBytes(buf, off, len);
+				metrics.recordSuccess(Operation.WRITE_BYTES, start, len, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void writeBytesFully(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				io.writeBytesFully(buffer);
+				metrics.recordSuccess(Operation.WRITE_BYTES_FULLY, start, requested, requested);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES_FULLY, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, buf, off, len);
+			long start = System.nanoTime();
+			try {
+				io.writeBytesFully(buf, off, len);
+				metrics.recordSuccess(Operation.WRITE_BYTES_FULLY, start, len, len);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES_FULLY, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			long start = System.nanoTime();
+			try {
+				io.flush();
+				metrics.recordSuccess(Operation.FLUSH, start, 0, 0);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.FLUSH, start);
+				throw e;
+			}
+		}
+	}
+
+	/** Instrumented Readable.Seekable. */
+	class ReadableSeekable extends Readable implements BytesIO.Readable.Seekable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public ReadableSeekable(BytesIO.Readable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		private BytesIO.Readable.Seekable seekable() throws ClosedChannelException {
+			if (io == null) throw new ClosedChannelException();
+			return (BytesIO.Readable.Seekable) io;
+		}
+
+		@Override
+		public long position() throws IOException {
+			return seekable().position();
+		}
+
+		@Override
+		public long size() throws IOException {
+			return seekable().size();
+		}
+
+		@Override
+		public long seek(SeekFrom from, long offset) throws IOException {
+			return seek(seekable(), from, offset);
+		}
+
+		@Override
+		public byte readByteAt(long pos) throws IOException {
+			BytesIO.Readable.Seekable s = seekable();
+			long start = System.nanoTime();
+			try {
+				byte b = s.readByteAt(pos);
+				metrics.recordSuccess(Operation.READ_BYTE_AT, start, 1, 1);
+				return b;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTE_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int readBytesAt(long pos, ByteBuffer buffer) throws IOException {
+			BytesIO.Readable.Seekable s = seekable();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				int nb = s.readBytesAt(pos, buffer);
+				metrics.recordSuccess(Operation.READ_BYTES_AT, start, requested, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int readBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, pos, buf, off, len);
+			BytesIO.Readable.Seekable s = seekable();
+			long start = System.nanoTime();
+			try {
+				int nb = s.readBytesAt(pos, buf, off, len);
+				metrics.recordSuccess(Operation.READ_BYTES_AT, start, len, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void readBytesFullyAt(long pos, ByteBuffer buffer) throws IOException {
+			BytesIO.Readable.Seekable s = seekable();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				s.readBytesFullyAt(pos, buffer);
+				metrics.recordSuccess(Operation.READ_BYTES_FULLY_AT, start, requested, requested);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES_FULLY_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void readBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, pos, buf, off, len);
+			BytesIO.Readable.Seekable s = seekable();
+			long start = System.nanoTime();
+			try {
+				s.readBytesFullyAt(pos, buf, off, len);
+				metrics.recordSuccess(Operation.READ_BYTES_FULLY_AT, start, len, len);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.READ_BYTES_FULLY_AT, start);
+				throw e;
+			}
+		}
+	}
+
+	/** Instrumented Writable.Seekable. */
+	class WritableSeekable extends Writable implements BytesIO.Writable.Seekable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public WritableSeekable(BytesIO.Writable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		private BytesIO.Writable.Seekable seekable() throws ClosedChannelException {
+			if (io == null) throw new ClosedChannelException();
+			return (BytesIO.Writable.Seekable) io;
+		}
+
+		@Override
+		public long position() throws IOException {
+			return seekable().position();
+		}
+
+		@Override
+		public long size() throws IOException {
+			return seekable().size();
+		}
+
+		@Override
+		public long seek(SeekFrom from, long offset) throws IOException {
+			return seek(seekable(), from, offset);
+		}
+
+		@Override
+		public void writeByteAt(long pos, byte value) throws IOException {
+			BytesIO.Writable.Seekable s = seekable();
+			long start = System.nanoTime();
+			try {
+				s.writeByteAt(pos, value);
+				metrics.recordSuccess(Operation.WRITE_BYTE_AT, start, 1, 1);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTE_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int writeBytesAt(long pos, ByteBuffer buffer) throws IOException {
+			BytesIO.Writable.Seekable s = seekable();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				int nb = s.writeBytesAt(pos, buffer);
+				metrics.recordSuccess(Operation.WRITE_BYTES_AT, start, requested, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public int writeBytesAt(long pos, byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, pos, buf, off, len);
+			BytesIO.Writable.Seekable s = seekable();
+			long start = System.nanoTime();
+			try {
+				int nb = s.writeBytesAt(pos, buf, off, len);
+				metrics.recordSuccess(Operation.WRITE_BYTES_AT, start, len, nb);
+				return nb;
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void writeBytesFullyAt(long pos, ByteBuffer buffer) throws IOException {
+			BytesIO.Writable.Seekable s = seekable();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			int requested = buffer.remaining();
+			long start = System.nanoTime();
+			try {
+				s.writeBytesFullyAt(pos, buffer);
+				metrics.recordSuccess(Operation.WRITE_BYTES_FULLY_AT, start, requested, requested);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES_FULLY_AT, start);
+				throw e;
+			}
+		}
+
+		@Override
+		public void writeBytesFullyAt(long pos, byte[] buf, int off, int len) throws IOException {
+			IOChecks.checkArrayOperation(this, pos, buf, off, len);
+			BytesIO.Writable.Seekable s = seekable();
+			long start = System.nanoTime();
+			try {
+				s.writeBytesFullyAt(pos, buf, off, len);
+				metrics.recordSuccess(Operation.WRITE_BYTES_FULLY_AT, start, len, len);
+			} catch (IOException | RuntimeException e) {
+				metrics.recordError(Operation.WRITE_BYTES_FULLY_AT, start);
+				throw e;
+			}
+		}
+	}
+
+}
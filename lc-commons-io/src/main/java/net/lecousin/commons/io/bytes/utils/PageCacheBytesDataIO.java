@@ -0,0 +1,657 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.AbstractIO;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.data.BytesData;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+
+/**
+ * Readable seekable BytesDataIO caching the content of an underlying IO in pages of a fixed size,
+ * so scattered small reads, such as a parser jumping between headers and indexes of a file,
+ * are served from memory instead of issuing an operation on the underlying IO for each read.
+ * <p>
+ * The number of pages is limited, and pages are evicted using a {@link Eviction} policy.
+ * When read-ahead is enabled and a missing page directly follows the last pages loaded, the next pages are
+ * loaded with the same operation, each page having its own array so evicting a page frees its memory. Reads of at least {@link #BYPASS_PAGES} pages go directly to the underlying IO.
+ * </p>
+ * <p>
+ * The content of the underlying IO is expected not to change while this IO is used.
+ * This class is not thread-safe, see {@link Concurrent} for a variant allowing concurrent positional reads.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public class PageCacheBytesDataIO extends AbstractIO implements BytesDataIO.Readable.Seekable {
+
+	/** Reads of at least this number of pages bypass the cache. */
+	public static final int BYPASS_PAGES = 4;
+
+	/** Eviction policy. */
+	public enum Eviction {
+		/** Evict the least recently used page. */
+		LRU,
+		/** Second chance algorithm: evict the next page, in circular order, not used since it was last considered. */
+		CLOCK
+	}
+
+	private BytesIO.Readable.Seekable io;
+	private final boolean closeIoOnClose;
+	private final int pageShift;
+	private final int pageMask;
+	private final int maxPages;
+	private final int readAheadPages;
+	private final boolean concurrent;
+	private final PageTable table;
+	private final Map<Long, CompletableFuture<Page>> loading;
+	private BytesData data;
+	private long position = 0;
+	private volatile long size = -1;
+	private volatile long nextSequentialPage = -1;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder waits = new LongAdder();
+
+	protected PageCacheBytesDataIO(
+		BytesIO.Readable.Seekable io, int pageSize, int maxPages, Eviction eviction, int readAheadPages, ByteOrder order,
+		boolean closeIoOnClose, boolean concurrent
+	) {
+		if (pageSize <= 0 || Integer.bitCount(pageSize) != 1) throw new IllegalArgumentException("pageSize must be a power of 2: " + pageSize);
+		if (maxPages <= 0) throw new IllegalArgumentException("maxPages must be positive: " + maxPages);
+		NegativeValueException.check(readAheadPages, "readAheadPages");
+		this.io = Objects.requireNonNull(io, "io");
+		this.closeIoOnClose = closeIoOnClose;
+		this.pageShift = Integer.numberOfTrailingZeros(pageSize);
+		this.pageMask = pageSize - 1;
+		this.maxPages = maxPages;
+		this.readAheadPages = readAheadPages;
+		this.concurrent = concurrent;
+		this.table = Objects.requireNonNull(eviction, "eviction") == Eviction.CLOCK ? new ClockTable(maxPages) : new LruTable(maxPages);
+		this.loading = concurrent ? new HashMap<>() : null;
+		this.data = BytesData.of(order);
+	}
+
+	/**
+	 * Constructor.
+	 * @param io IO to read
+	 * @param pageSize size of the pages, which must be a power of 2
+	 * @param maxPages maximum number of pages in the cache
+	 * @param eviction eviction policy
+	 * @param readAheadPages number of pages to load in addition to a missing page when reading sequentially, 0 to disable read-ahead
+	 * @param order byte order
+	 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+	 */
+	public PageCacheBytesDataIO(
+		BytesIO.Readable.Seekable io, int pageSize, int maxPages, Eviction eviction, int readAheadPages, ByteOrder order, boolean closeIoOnClose
+	) {
+		this(io, pageSize, maxPages, eviction, readAheadPages, order, closeIoOnClose, false);
+	}
+
+	/**
+	 * Constructor with LRU eviction, without read-ahead, and with Little-Endian order.
+	 * @param io IO to read
+	 * @param pageSize size of the pages, which must be a power of 2
+	 * @param maxPages maximum number of pages in the cache
+	 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+	 */
+	public PageCacheBytesDataIO(BytesIO.Readable.Seekable io, int pageSize, int maxPages, boolean closeIoOnClose) {
+		this(io, pageSize, maxPages, Eviction.LRU, 0, ByteOrder.LITTLE_ENDIAN, closeIoOnClose);
+	}
+
+	/**
+	 * Page cache allowing several threads to use the positional operations (readByteAt, readBytesAt...) at the same time.
+	 * <p>
+	 * Accesses to the pages are synchronized, while pages are loaded outside of the lock, so the underlying IO must support
+	 * concurrent positional reads, as FileIO does. When several threads miss the same page, it is loaded only once
+	 * and the other threads wait for it, including a page being loaded as read-ahead of another one.
+	 * Operations using the current position remain not thread-safe.
+	 * </p>
+	 */
+	public static class Concurrent extends PageCacheBytesDataIO {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read, supporting concurrent positional reads
+		 * @param pageSize size of the pages, which must be a power of 2
+		 * @param maxPages maximum number of pages in the cache
+		 * @param eviction eviction policy
+		 * @param readAheadPages number of pages to load in addition to a missing page when reading sequentially, 0 to disable read-ahead
+		 * @param order byte order
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Concurrent(
+			BytesIO.Readable.Seekable io, int pageSize, int maxPages, Eviction eviction, int readAheadPages, ByteOrder order, boolean closeIoOnClose
+		) {
+			super(io, pageSize, maxPages, eviction, readAheadPages, order, closeIoOnClose, true);
+		}
+
+		/**
+		 * Constructor with LRU eviction, without read-ahead, and with Little-Endian order.
+		 * @param io IO to read, supporting concurrent positional reads
+		 * @param pageSize size of the pages, which must be a power of 2
+		 * @param maxPages maximum number of pages in the cache
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Concurrent(BytesIO.Readable.Seekable io, int pageSize, int maxPages, boolean closeIoOnClose) {
+			this(io, pageSize, maxPages, Eviction.LRU, 0, ByteOrder.LITTLE_ENDIAN, closeIoOnClose);
+		}
+	}
+
+	@Override
+	protected void closeInternal() throws IOException {
+		if (closeIoOnClose) io.close();
+		io = null;
+		if (concurrent) {
+			synchronized (table) {
+				table.clear();
+			}
+		} else {
+			table.clear();
+		}
+	}
+
+	/** @return the size of the pages. */
+	public int getPageSize() {
+		return pageMask + 1;
+	}
+
+	/** @return the maximum number of pages in the cache. */
+	public int getMaxPages() {
+		return maxPages;
+	}
+
+	/** @return the number of pages found in the cache. */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/** @return the number of pages loaded from the underlying IO because they were not in the cache. */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/** @return the number of times a page was not in the cache, but being loaded by another thread which was waited for. */
+	public long getWaits() {
+		return waits.sum();
+	}
+
+	@Override
+	public ByteOrder getByteOrder() {
+		return data.getByteOrder();
+	}
+
+	@Override
+	public void setByteOrder(ByteOrder order) {
+		data = BytesData.of(order);
+	}
+
+	// --- pages ---
+
+	/** A page of the cache. */
+	private static final class Page {
+		private final long index;
+		private final byte[] bytes;
+		private final int length;
+		private boolean referenced = false;
+
+		private Page(long index, byte[] bytes) {
+			this.index = index;
+			this.bytes = bytes;
+			this.length = bytes.length;
+		}
+	}
+
+	/** Storage of pages, implementing an eviction policy. */
+	private interface PageTable {
+		Page get(long index);
+
+		/** Check if a page is present, without considering it as used. */
+		boolean contains(long index);
+
+		/** Add a page if not yet present, and return the page present in the table. */
+		Page add(Page page);
+
+		void clear();
+	}
+
+	/** LRU eviction, using a LinkedHashMap in access order. */
+	private static final class LruTable extends LinkedHashMap<Long, Page> implements PageTable {
+		private static final long serialVersionUID = 1L;
+
+		private final int maxPages;
+
+		private LruTable(int maxPages) {
+			super(16, 0.75f, true);
+			this.maxPages = maxPages;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Long, Page> eldest) {
+			return size() > maxPages;
+		}
+
+		@Override
+		public Page get(long index) {
+			return super.get(index);
+		}
+
+		@Override
+		public boolean contains(long index) {
+			return containsKey(index);
+		}
+
+		@Override
+		public Page add(Page page) {
+			Page existing = super.get(page.index);
+			if (existing != null) return existing;
+			put(page.index, page);
+			return page;
+		}
+	}
+
+	/** CLOCK eviction, using a circular array of pages with a reference bit. */
+	private static final class ClockTable implements PageTable {
+		private final Page[] slots;
+		private final Map<Long, Integer> slotIndexes = new HashMap<>();
+		private int hand = 0;
+
+		private ClockTable(int maxPages) {
+			slots = new Page[maxPages];
+		}
+
+		@Override
+		public Page get(long index) {
+			Integer slot = slotIndexes.get(index);
+			if (slot == null) return null;
+			Page page = slots[slot];
+			page.referenced = true;
+			return page;
+		}
+
+		@Override
+		public boolean contains(long index) {
+			return slotIndexes.containsKey(index);
+		}
+
+		@Override
+		public Page add(Page page) {
+			Page existing = get(page.index);
+			if (existing != null) return existing;
+			while (slots[hand] != null && slots[hand].referenced) {
+				slots[hand].referenced = false;
+				hand = (hand + 1) % slots.length;
+			}
+			if (slots[hand] != null) slotIndexes.remove(slots[hand].index);
+			slots[hand] = page;
+			slotIndexes.put(page.index, hand);
+			hand = (hand + 1) % slots.length;
+			return page;
+		}
+
+		@Override
+		public void clear() {
+			Arrays.fill(slots, null);
+			slotIndexes.clear();
+			hand = 0;
+		}
+	}
+
+	private Page[] store(Page[] pages) {
+		if (concurrent) {
+			synchronized (table) {
+				return storeInTable(pages);
+			}
+		}
+		return storeInTable(pages);
+	}
+
+	private Page[] storeInTable(Page[] pages) {
+		for (int i = 0; i < pages.length; ++i)
+			pages[i] = table.add(pages[i]);
+		return pages;
+	}
+
+	/** Return the page, or null if it is beyond the end. */
+	private Page getPage(long index) throws IOException {
+		if (concurrent) return getPageConcurrent(index);
+		Page page = table.get(index);
+		if (page != null) {
+			hits.increment();
+			return page;
+		}
+		long s = size();
+		if ((index << pageShift) >= s) return null;
+		return load(index, pagesToLoad(index, s), s)[0];
+	}
+
+	private Page getPageConcurrent(long index) throws IOException {
+		long s = size();
+		if ((index << pageShift) >= s) return null;
+		CompletableFuture<Page> pending;
+		CompletableFuture<Page>[] batch = null;
+		synchronized (table) {
+			Page page = table.get(index);
+			if (page != null) {
+				hits.increment();
+				return page;
+			}
+			pending = loading.get(index);
+			if (pending == null) batch = registerLoading(index, pagesToLoad(index, s));
+		}
+		if (batch != null) return loadShared(index, batch, s);
+		// another thread is loading the page
+		waits.increment();
+		try {
+			return pending.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioe) throw ioe;
+			throw new IOException("Error loading page " + index, e.getCause());
+		}
+	}
+
+	/**
+	 * Register the pages to load, so other threads missing one of them wait for it instead of loading it again.
+	 * Read-ahead pages are registered up to the first one already present or being loaded. Must be called while
+	 * holding the lock on the table.
+	 */
+	@SuppressWarnings("unchecked")
+	private CompletableFuture<Page>[] registerLoading(long index, int nbPages) {
+		int nb = 1;
+		while (nb < nbPages && !table.contains(index + nb) && !loading.containsKey(index + nb)) nb++;
+		CompletableFuture<Page>[] batch = new CompletableFuture[nb];
+		for (int i = 0; i < nb; ++i) {
+			batch[i] = new CompletableFuture<>();
+			loading.put(index + i, batch[i]);
+		}
+		return batch;
+	}
+
+	private Page loadShared(long index, CompletableFuture<Page>[] batch, long s) throws IOException {
+		try {
+			Page[] pages = load(index, batch.length, s);
+			for (int i = 0; i < batch.length; ++i)
+				batch[i].complete(pages[i]);
+			return pages[0];
+		} catch (IOException | RuntimeException e) {
+			for (CompletableFuture<Page> pending : batch)
+				pending.completeExceptionally(e);
+			throw e;
+		} finally {
+			synchronized (table) {
+				for (int i = 0; i < batch.length; ++i)
+					loading.remove(index + i);
+			}
+		}
+	}
+
+	/** Return the number of pages to load for a missing page: the page and the read-ahead pages, up to the end. */
+	private int pagesToLoad(long index, long s) {
+		long nbPages = 1;
+		if (readAheadPages > 0 && index == nextSequentialPage) nbPages = Math.min(1L + readAheadPages, maxPages);
+		return (int) Math.min(nbPages, (s - (index << pageShift) + pageMask) >>> pageShift);
+	}
+
+	/** Load pages with a single vectored read, each page in its own array, and store them. */
+	private Page[] load(long index, int nbPages, long s) throws IOException {
+		misses.increment();
+		long start = index << pageShift;
+		ByteBuffer[] buffers = new ByteBuffer[nbPages];
+		for (int i = 0; i < nbPages; ++i)
+			buffers[i] = ByteBuffer.allocate((int) Math.min(pageMask + 1L, s - start - ((long) i << pageShift)));
+		if (nbPages == 1) io.readBytesFullyAt(start, buffers[0]);
+		else io.readBytesFullyAt(start, buffers);
+		nextSequentialPage = index + nbPages;
+		Page[] pages = new Page[nbPages];
+		for (int i = 0; i < nbPages; ++i)
+			pages[i] = new Page(index + i, buffers[i].array());
+		return store(pages);
+	}
+
+	// --- Seekable ---
+
+	@Override
+	public long size() throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		long s = size;
+		if (s < 0) {
+			s = io.size();
+			size = s;
+		}
+		return s;
+	}
+
+	@Override
+	public long position() throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		return position;
+	}
+
+	@Override
+	public long seek(SeekFrom from, long offset) throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		long p;
+		switch (Objects.requireNonNull(from, "from")) {
+		case CURRENT: p = position + offset; break;
+		case END: p = size() - offset; break;
+		case START: default: p = offset; break;
+		}
+		if (p < 0) throw new IllegalArgumentException("Cannot seek beyond the start: " + p);
+		if (p > size()) throw new EOFException();
+		position = p;
+		return p;
+	}
+
+	@Override
+	public long skipUpTo(long toSkip) throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip == 0) return 0;
+		long r = size() - position;
+		if (r <= 0) return -1;
+		long nb = Math.min(toSkip, r);
+		position += nb;
+		return nb;
+	}
+
+	@Override
+	public void skipFully(long toSkip) throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip > size() - position) throw new EOFException();
+		position += toSkip;
+	}
+
+	// --- Readable ---
+
+	@Override
+	public byte readByte() throws IOException {
+		byte b = readByteAt(position);
+		position++;
+		return b;
+	}
+
+	@Override
+	public byte readByteAt(long pos) throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		Page page = getPage(pos >>> pageShift);
+		int inPage = (int) (pos & pageMask);
+		if (page == null || inPage >= page.length) throw new EOFException();
+		return page.bytes[inPage];
+	}
+
+	@Override
+	public Optional<ByteBuffer> readBuffer() throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		Page page = getPage(position >>> pageShift);
+		int inPage = (int) (position & pageMask);
+		if (page == null || inPage >= page.length) return Optional.empty();
+		int len = page.length - inPage;
+		// copy, so the page cannot be modified by the caller
+		byte[] copy = Arrays.copyOfRange(page.bytes, inPage, page.length);
+		position += len;
+		return Optional.of(ByteBuffer.wrap(copy));
+	}
+
+	@Override
+	public int readBytes(ByteBuffer buffer) throws IOException {
+		int nb = readBytesAt(position, buffer);
+		if (nb > 0) position += nb;
+		return nb;
+	}
+
+	@Override
+	public int readBytesAt(long pos, ByteBuffer buffer) throws IOException {
+		IOChecks.checkBufferOperation(this, pos, buffer);
+		if (!buffer.hasRemaining()) return 0;
+		if (buffer.remaining() >= (long) BYPASS_PAGES << pageShift) return io.readBytesAt(pos, buffer);
+		long p = pos;
+		int done = 0;
+		while (buffer.hasRemaining()) {
+			Page page = getPage(p >>> pageShift);
+			int inPage = (int) (p & pageMask);
+			if (page == null || inPage >= page.length) break;
+			int len = Math.min(buffer.remaining(), page.length - inPage);
+			buffer.put(page.bytes, inPage, len);
+			p += len;
+			done += len;
+		}
+		return done > 0 ? done : -1;
+	}
+
+	/** Return the page containing the <code>nbBytes</code> bytes at the given position, or null if they are on several pages. */
+	private Page getDataPage(long pos, int nbBytes) throws IOException {
+		if (io == null) throw new ClosedChannelException();
+		NegativeValueException.check(pos, IOChecks.FIELD_POS);
+		int inPage = (int) (pos & pageMask);
+		if (inPage + nbBytes > pageMask + 1) return null;
+		Page page = getPage(pos >>> pageShift);
+		if (page == null || inPage + nbBytes > page.length) throw new EOFException();
+		return page;
+	}
+
+	/** Copy bytes located on several pages. */
+	private byte[] readAcrossPages(long pos, int nbBytes) throws IOException {
+		byte[] b = new byte[nbBytes];
+		readBytesFullyAt(pos, b);
+		return b;
+	}
+
+	@Override
+	public int readUnsigned2Bytes() throws IOException {
+		int value = readUnsigned2BytesAt(position);
+		position += 2;
+		return value;
+	}
+
+	@Override
+	public int readUnsigned2BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 2);
+		if (page != null) return data.readUnsigned2Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readUnsigned2Bytes(readAcrossPages(pos, 2), 0);
+	}
+
+	@Override
+	public int readUnsigned3Bytes() throws IOException {
+		int value = readUnsigned3BytesAt(position);
+		position += 3;
+		return value;
+	}
+
+	@Override
+	public int readUnsigned3BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 3);
+		if (page != null) return data.readUnsigned3Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readUnsigned3Bytes(readAcrossPages(pos, 3), 0);
+	}
+
+	@Override
+	public long readUnsigned4Bytes() throws IOException {
+		long value = readUnsigned4BytesAt(position);
+		position += 4;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned4BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 4);
+		if (page != null) return data.readUnsigned4Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readUnsigned4Bytes(readAcrossPages(pos, 4), 0);
+	}
+
+	@Override
+	public long readUnsigned5Bytes() throws IOException {
+		long value = readUnsigned5BytesAt(position);
+		position += 5;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned5BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 5);
+		if (page != null) return data.readUnsigned5Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readUnsigned5Bytes(readAcrossPages(pos, 5), 0);
+	}
+
+	@Override
+	public long readUnsigned6Bytes() throws IOException {
+		long value = readUnsigned6BytesAt(position);
+		position += 6;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned6BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 6);
+		if (page != null) return data.readUnsigned6Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readUnsigned6Bytes(readAcrossPages(pos, 6), 0);
+	}
+
+	@Override
+	public long readUnsigned7Bytes() throws IOException {
+		long value = readUnsigned7BytesAt(position);
+		position += 7;
+		return value;
+	}
+
+	@Override
+	public long readUnsigned7BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 7);
+		if (page != null) return data.readUnsigned7Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readUnsigned7Bytes(readAcrossPages(pos, 7), 0);
+	}
+
+	@Override
+	public long readSigned8Bytes() throws IOException {
+		long value = readSigned8BytesAt(position);
+		position += 8;
+		return value;
+	}
+
+	@Override
+	public long readSigned8BytesAt(long pos) throws IOException {
+		Page page = getDataPage(pos, 8);
+		if (page != null) return data.readSigned8Bytes(page.bytes, (int) (pos & pageMask));
+		return data.readSigned8Bytes(readAcrossPages(pos, 8), 0);
+	}
+
+}
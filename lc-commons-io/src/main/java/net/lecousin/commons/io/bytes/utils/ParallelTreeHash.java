@@ -0,0 +1,134 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import net.lecousin.commons.executors.LcExecutors;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.utils.ClaimOnceTask;
+
+/**
+ * Compute a tree hash of a seekable BytesIO, hashing chunks in parallel using the CPU executor.
+ * <p>
+ * The content is split into chunks of a fixed size, the digest of each chunk (leaf) is computed in parallel,
+ * and the result is the digest of the concatenation of the leaves digests, in order.
+ * An empty content has a single empty chunk.
+ * As in RFC 6962, a leaf digest is computed on the byte 0x00 followed by the chunk, and the root digest on the
+ * byte 0x01 followed by the leaves digests, so a leaf cannot be given as the concatenation of leaves digests
+ * to obtain the same root (second preimage).
+ * This is not the same value as the digest of the whole content, and the same value is obtained
+ * by any implementation using the same algorithm, chunk size and prefixes.
+ * </p>
+ * <p>
+ * Reads on the IO are synchronized on it, so only the hashing is done in parallel. A chunk not yet started
+ * by the executor when its digest is needed is hashed by the calling thread.
+ * </p>
+ */
+public class ParallelTreeHash {
+
+	private static final byte[] LEAF_PREFIX = { 0x00 };
+	private static final byte[] NODE_PREFIX = { 0x01 };
+
+	private final String algorithm;
+	private final int chunkSize;
+	private final int maxPendingChunks;
+
+	/**
+	 * Constructor.
+	 * @param algorithm name of the MessageDigest algorithm, such as SHA-256
+	 * @param chunkSize size of the chunks
+	 * @param maxPendingChunks maximum number of chunks being hashed at the same time, limiting the memory used
+	 * @throws NoSuchAlgorithmException if the algorithm is not supported
+	 */
+	public ParallelTreeHash(String algorithm, int chunkSize, int maxPendingChunks) throws NoSuchAlgorithmException {
+		if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		if (maxPendingChunks <= 0) throw new IllegalArgumentException("maxPendingChunks must be positive: " + maxPendingChunks);
+		MessageDigest.getInstance(algorithm);
+		this.algorithm = algorithm;
+		this.chunkSize = chunkSize;
+		this.maxPendingChunks = maxPendingChunks;
+	}
+
+	/**
+	 * Constructor with 2 pending chunks per available processor.
+	 * @param algorithm name of the MessageDigest algorithm, such as SHA-256
+	 * @param chunkSize size of the chunks
+	 * @throws NoSuchAlgorithmException if the algorithm is not supported
+	 */
+	public ParallelTreeHash(String algorithm, int chunkSize) throws NoSuchAlgorithmException {
+		this(algorithm, chunkSize, Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * Compute the tree hash of the content of the given IO.
+	 * @param io IO to hash
+	 * @return the tree hash
+	 * @throws IOException in case of error reading the IO
+	 */
+	public byte[] hash(BytesIO.Readable.Seekable io) throws IOException {
+		long size = io.size();
+		long nbChunks = Math.max(1, (size + chunkSize - 1) / chunkSize);
+		MessageDigest root = newDigest();
+		root.update(NODE_PREFIX);
+		Deque<Chunk> pending = new ArrayDeque<>();
+		long next = 0;
+		try {
+			for (long i = 0; i < nbChunks; ++i) {
+				while (pending.size() < maxPendingChunks && next < nbChunks) {
+					long start = next * chunkSize;
+					Chunk c = new Chunk(io, start, (int) Math.min(chunkSize, size - start));
+					pending.add(c);
+					next++;
+					LcExecutors.getCpu().execute(c);
+				}
+				root.update(pending.removeFirst().get());
+			}
+		} finally {
+			for (Chunk c : pending) c.cancel();
+		}
+		return root.digest();
+	}
+
+	private MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(algorithm);
+		} catch (NoSuchAlgorithmException e) {
+			// checked in the constructor
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/** A chunk, hashed by a task, or by the caller if the task did not start yet when the chunk is needed. */
+	private final class Chunk extends ClaimOnceTask<byte[]> {
+		private final BytesIO.Readable.Seekable io;
+		private final long start;
+		private final int length;
+
+		private Chunk(BytesIO.Readable.Seekable io, long start, int length) {
+			this.io = io;
+			this.start = start;
+			this.length = length;
+		}
+
+		@Override
+		protected byte[] compute() throws IOException {
+			byte[] buf = new byte[length];
+			synchronized (io) {
+				io.readBytesFullyAt(start, buf);
+			}
+			MessageDigest digest = newDigest();
+			digest.update(LEAF_PREFIX);
+			digest.update(buf);
+			return digest.digest();
+		}
+
+		@Override
+		protected String getDescription() {
+			return "hashing chunk at " + start;
+		}
+	}
+
+}
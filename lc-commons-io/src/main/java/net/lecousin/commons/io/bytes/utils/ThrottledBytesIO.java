@@ -0,0 +1,178 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.util.Objects;
+import java.util.Optional;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.IOChecks;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.utils.AbstractDecoratorIO;
+import net.lecousin.commons.io.utils.IOThrottle;
+
+/**
+ * BytesIO limiting the throughput of an underlying IO using an {@link IOThrottle}.
+ * <p>
+ * Each operation waits, blocking the calling thread, until the throttle allows it, and operations on a buffer
+ * and skips are limited to the burst of the throttle. Skipped bytes are counted as transferred bytes, so skipping cannot
+ * be used to bypass the throttle.
+ * The throttle may be shared by several IOs.
+ * </p>
+ */
+public interface ThrottledBytesIO {
+
+	/**
+	 * Create a throttled Readable.
+	 * @param io IO to read
+	 * @param throttle throttle to apply
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static ThrottledBytesIO.Readable readable(BytesIO.Readable io, IOThrottle throttle, boolean closeIoOnClose) {
+		return new Readable(io, throttle, closeIoOnClose);
+	}
+
+	/**
+	 * Create a throttled Writable.
+	 * @param io IO to write to
+	 * @param throttle throttle to apply
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static ThrottledBytesIO.Writable writable(BytesIO.Writable io, IOThrottle throttle, boolean closeIoOnClose) {
+		return new Writable(io, throttle, closeIoOnClose);
+	}
+
+	/** @return the throttle applied. */
+	IOThrottle getThrottle();
+
+	/** Base class.
+	 * @param <I> type of IO
+	 */
+	abstract class AbstractThrottledBytesIO<I extends BytesIO> extends AbstractDecoratorIO<I> implements ThrottledBytesIO {
+
+		protected final IOThrottle throttle;
+
+		protected AbstractThrottledBytesIO(I io, IOThrottle throttle, boolean closeIoOnClose) {
+			super(io, closeIoOnClose);
+			this.throttle = Objects.requireNonNull(throttle, "throttle");
+		}
+
+		@Override
+		public IOThrottle getThrottle() {
+			return throttle;
+		}
+
+		protected int limitBuffer(ByteBuffer buffer) {
+			int limit = buffer.limit();
+			buffer.limit(buffer.position() + throttle.limit(buffer.remaining()));
+			return limit;
+		}
+	}
+
+	/** Throttled Readable. */
+	class Readable extends AbstractThrottledBytesIO<BytesIO.Readable> implements BytesIO.Readable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param throttle throttle to apply
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Readable(BytesIO.Readable io, IOThrottle throttle, boolean closeIoOnClose) {
+			super(io, throttle, closeIoOnClose);
+		}
+
+		@Override
+		public byte readByte() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			throttle.await();
+			byte b = io.readByte();
+			throttle.consume(1);
+			return b;
+		}
+
+		@Override
+		public int readBytes(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			throttle.await();
+			int limit = limitBuffer(buffer);
+			int nb;
+			try {
+				nb = io.readBytes(buffer);
+			} finally {
+				buffer.limit(limit);
+			}
+			throttle.consume(Math.max(nb, 0));
+			return nb;
+		}
+
+		@Override
+		public Optional<ByteBuffer> readBuffer() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			throttle.await();
+			Optional<ByteBuffer> buffer = io.readBuffer();
+			throttle.consume(buffer.map(ByteBuffer::remaining).orElse(0));
+			return buffer;
+		}
+
+		@Override
+		public long skipUpTo(long toSkip) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			NegativeValueException.check(toSkip, "toSkip");
+			if (toSkip == 0) return 0;
+			throttle.await();
+			long nb = io.skipUpTo(throttle.limit((int) Math.min(toSkip, Integer.MAX_VALUE)));
+			throttle.consume(Math.max(nb, 0));
+			return nb;
+		}
+	}
+
+	/** Throttled Writable. */
+	class Writable extends AbstractThrottledBytesIO<BytesIO.Writable> implements BytesIO.Writable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param throttle throttle to apply
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Writable(BytesIO.Writable io, IOThrottle throttle, boolean closeIoOnClose) {
+			super(io, throttle, closeIoOnClose);
+		}
+
+		@Override
+		public void writeByte(byte value) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			throttle.await();
+			io.writeByte(value);
+			throttle.consume(1);
+		}
+
+		@Override
+		public int writeBytes(ByteBuffer buffer) throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			Objects.requireNonNull(buffer, IOChecks.FIELD_BUFFER);
+			throttle.await();
+			int limit = limitBuffer(buffer);
+			int nb;
+			try {
+				nb = io.writeBytes(buffer);
+			} finally {
+				buffer.limit(limit);
+			}
+			throttle.consume(Math.max(nb, 0));
+			return nb;
+		}
+
+		@Override
+		public void flush() throws IOException {
+			if (io == null) throw new ClosedChannelException();
+			io.flush();
+		}
+	}
+
+}
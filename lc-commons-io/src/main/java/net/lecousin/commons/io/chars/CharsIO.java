@@ -16,6 +16,7 @@ import net.lecousin.commons.io.IOChecks;
 import net.lecousin.commons.io.bytes.BytesIO;
 import net.lecousin.commons.io.chars.memory.CharArray;
 import net.lecousin.commons.io.chars.memory.ReadableSeekableCharsIOFromCharSequence;
+import net.lecousin.commons.io.chars.utils.ParallelReadableCharsIOFromBytesIO;
 import net.lecousin.commons.io.chars.utils.ReadableCharsIOFromBytesIO;
 
 /**
@@ -763,4 +764,19 @@ public interface CharsIO extends IO {
 		return new ReadableCharsIOFromBytesIO(bytes, charset, closeIoOnClose);
 	}
 	
+	/**
+	 * Create a CharsIO from a seekable BytesIO, decoding segments of bytes in parallel if the charset allows it
+	 * (see {@link ParallelReadableCharsIOFromBytesIO}), else decoding sequentially like {@link #fromBytesIO(BytesIO.Readable, Charset, boolean)}.
+	 * @param bytes BytesIO
+	 * @param charset charset to use
+	 * @param closeIoOnClose if true the BytesIO will be closed when the CharsIO is closed
+	 * @return the CharsIO
+	 * @throws IOException in case the position or size of the BytesIO cannot be obtained
+	 */
+	static CharsIO.Readable fromBytesIOParallel(BytesIO.Readable.Seekable bytes, Charset charset, boolean closeIoOnClose) throws IOException {
+		if (ParallelReadableCharsIOFromBytesIO.isSupported(charset))
+			return new ParallelReadableCharsIOFromBytesIO(bytes, charset, closeIoOnClose);
+		return fromBytesIO(bytes, charset, closeIoOnClose);
+	}
+	
 }
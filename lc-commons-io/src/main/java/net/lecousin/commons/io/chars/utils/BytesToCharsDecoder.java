@@ -0,0 +1,205 @@
+package net.lecousin.commons.io.chars.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+import net.lecousin.commons.io.bytes.BytesIO;
+
+/**
+ * Decode the bytes read from a BytesIO into characters, filling buffers provided by the caller so they can be reused.
+ * <p>
+ * ISO-8859-1 is decoded directly, and for US-ASCII and UTF-8 the runs of ASCII characters are decoded directly,
+ * without going through the CharsetDecoder. A character encoded on several bytes split between 2 buffers read
+ * from the BytesIO is correctly decoded.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public class BytesToCharsDecoder {
+
+	/** Default size for a buffer of characters. */
+	public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+	private final BytesIO.Readable bytes;
+	private final CharsetDecoder decoder;
+	private final boolean latin1;
+	private final boolean asciiCompatible;
+	private final float maxCharsPerByte;
+	private ByteBuffer input = EMPTY;
+	private boolean end = false;
+	private boolean flushed = false;
+	private CharBuffer pending = null;
+
+	/**
+	 * Constructor.
+	 * @param bytes input
+	 * @param charset charset to use to decode bytes
+	 */
+	public BytesToCharsDecoder(BytesIO.Readable bytes, Charset charset) {
+		this.bytes = bytes;
+		this.decoder = charset.newDecoder();
+		this.latin1 = StandardCharsets.ISO_8859_1.equals(charset);
+		this.asciiCompatible = StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset);
+		this.maxCharsPerByte = decoder.maxCharsPerByte();
+	}
+
+	/**
+	 * Decode characters into the given buffer, from its position. At least one character is decoded
+	 * if the buffer has remaining space and the end is not reached.
+	 * @param output buffer to fill
+	 * @return false if the end is reached and no character has been decoded
+	 * @throws IOException in case of an error reading bytes or an invalid input
+	 */
+	public boolean decode(CharBuffer output) throws IOException {
+		if (!output.hasRemaining()) return !flushed || hasPending();
+		int start = output.position();
+		if (hasPending()) {
+			do {
+				output.put(pending.get());
+			} while (pending.hasRemaining() && output.hasRemaining());
+			return true;
+		}
+		do {
+			if (input.hasRemaining()) {
+				decodeInput(output);
+				if (output.position() > start) return true;
+			}
+			if (end) break;
+			// no more bytes, or only the beginning of a character
+			readInput();
+		} while (true);
+		flush(output);
+		return output.position() > start;
+	}
+
+	/**
+	 * Decode characters from the next available bytes into a new buffer, sized to contain them.
+	 * @return the buffer, or empty if the end is reached
+	 * @throws IOException in case of an error reading bytes or an invalid input
+	 */
+	public Optional<CharBuffer> decodeBuffer() throws IOException {
+		if (hasPending()) {
+			CharBuffer output = CharBuffer.allocate(pending.remaining());
+			output.put(pending).flip();
+			return Optional.of(output);
+		}
+		do {
+			if (input.hasRemaining()) {
+				CharBuffer output = CharBuffer.allocate((int) Math.ceil(input.remaining() * (double) maxCharsPerByte) + 2);
+				decodeInput(output);
+				if (output.position() > 0) {
+					if (end) flush(output);
+					return Optional.of(output.flip());
+				}
+			}
+			if (end) {
+				CharBuffer output = CharBuffer.allocate(2);
+				flush(output);
+				output.flip();
+				return output.hasRemaining() ? Optional.of(output) : Optional.empty();
+			}
+			readInput();
+		} while (true);
+	}
+
+	/** Read the next buffer, keeping the remaining bytes of an incomplete character. */
+	private void readInput() throws IOException {
+		Optional<ByteBuffer> next = bytes.readBuffer();
+		if (next.isEmpty()) {
+			end = true;
+		} else if (input.hasRemaining()) {
+			ByteBuffer merged = ByteBuffer.allocate(input.remaining() + next.get().remaining());
+			merged.put(input).put(next.get()).flip();
+			input = merged;
+		} else {
+			input = next.get();
+		}
+	}
+
+	private void decodeInput(CharBuffer output) throws IOException {
+		if (latin1) {
+			decodeLatin1(input, output);
+			return;
+		}
+		if (asciiCompatible) {
+			decodeAscii(input, output);
+			if (!input.hasRemaining() || !output.hasRemaining()) return;
+		}
+		int start = output.position();
+		CoderResult result = decoder.decode(input, output, end);
+		if (result.isError()) result.throwException();
+		if (result.isOverflow() && output.position() == start) {
+			// not enough space for a character producing several chars (surrogate pair)
+			if (pending == null) pending = CharBuffer.allocate(2);
+			pending.clear();
+			result = decoder.decode(input, pending, end);
+			if (result.isError()) result.throwException();
+			pending.flip();
+			while (pending.hasRemaining() && output.hasRemaining())
+				output.put(pending.get());
+		}
+	}
+
+	private boolean hasPending() {
+		return pending != null && pending.hasRemaining();
+	}
+
+	private void flush(CharBuffer output) throws IOException {
+		if (flushed) return;
+		CoderResult result = decoder.decode(input, output, true);
+		if (result.isError()) result.throwException();
+		decoder.flush(output);
+		flushed = true;
+	}
+
+	static void decodeLatin1(ByteBuffer in, CharBuffer out) {
+		int n = Math.min(in.remaining(), out.remaining());
+		if (in.hasArray() && out.hasArray()) {
+			byte[] src = in.array();
+			int sp = in.arrayOffset() + in.position();
+			char[] dst = out.array();
+			int dp = out.arrayOffset() + out.position();
+			for (int i = 0; i < n; ++i)
+				dst[dp + i] = (char) (src[sp + i] & 0xFF);
+			in.position(in.position() + n);
+			out.position(out.position() + n);
+			return;
+		}
+		for (int i = 0; i < n; ++i)
+			out.put((char) (in.get() & 0xFF));
+	}
+
+	static void decodeAscii(ByteBuffer in, CharBuffer out) {
+		int n = Math.min(in.remaining(), out.remaining());
+		int i = 0;
+		if (in.hasArray() && out.hasArray()) {
+			byte[] src = in.array();
+			int sp = in.arrayOffset() + in.position();
+			char[] dst = out.array();
+			int dp = out.arrayOffset() + out.position();
+			for (; i < n; ++i) {
+				byte b = src[sp + i];
+				if (b < 0) break;
+				dst[dp + i] = (char) b;
+			}
+		} else {
+			int sp = in.position();
+			int dp = out.position();
+			for (; i < n; ++i) {
+				byte b = in.get(sp + i);
+				if (b < 0) break;
+				out.put(dp + i, (char) b);
+			}
+		}
+		in.position(in.position() + i);
+		out.position(out.position() + i);
+	}
+
+}
@@ -0,0 +1,244 @@
+package net.lecousin.commons.io.chars.utils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.executors.LcExecutors;
+import net.lecousin.commons.io.AbstractIO;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.chars.CharsIO;
+import net.lecousin.commons.io.utils.ClaimOnceTask;
+
+/**
+ * Decode bytes into characters in parallel, from the current position of a seekable BytesIO to its end.
+ * <p>
+ * The input is split into segments, decoded by tasks on the CPU executor, and the characters are given in order.
+ * This is only possible with a charset where a segment can be decoded without knowing the previous bytes:
+ * ISO-8859-1, US-ASCII and UTF-8 are supported, for UTF-8 the boundaries between segments are moved to the beginning
+ * of a character.
+ * </p>
+ * <p>
+ * At most <code>maxPendingSegments</code> segments are decoded in advance, so the memory used is bounded to around
+ * 3 times <code>segmentSize * maxPendingSegments</code> bytes (the bytes read, and the decoded characters).
+ * The BytesIO is read using positional reads, synchronized on it, so it must not be used while decoding.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public class ParallelReadableCharsIOFromBytesIO extends AbstractIO implements CharsIO.Readable {
+
+	/** Default size of a segment, in bytes. */
+	public static final int DEFAULT_SEGMENT_SIZE = 1024 * 1024;
+
+	private static final CharBuffer EMPTY = CharBuffer.allocate(0);
+
+	private final BytesIO.Readable.Seekable bytes;
+	private final Charset charset;
+	private final boolean utf8;
+	private final long start;
+	private final long end;
+	private final int segmentSize;
+	private final int maxPendingSegments;
+	private final boolean closeIoOnClose;
+	private final Deque<Segment> pending = new ArrayDeque<>();
+	private long nbSegments;
+	private long nextSegment = 0;
+	private CharBuffer currentBuffer = EMPTY;
+
+	/**
+	 * Constructor.
+	 * @param bytes input
+	 * @param charset charset to use to decode bytes, which must be supported (see {@link #isSupported(Charset)})
+	 * @param closeIoOnClose if true the BytesIO will be closed together with this IO
+	 * @param segmentSize size in bytes of a segment
+	 * @param maxPendingSegments maximum number of segments decoded in advance
+	 * @throws IOException in case the position or size of the BytesIO cannot be obtained
+	 */
+	public ParallelReadableCharsIOFromBytesIO(
+		BytesIO.Readable.Seekable bytes, Charset charset, boolean closeIoOnClose, int segmentSize, int maxPendingSegments
+	) throws IOException {
+		if (!isSupported(charset)) throw new IllegalArgumentException("Charset " + charset + " cannot be decoded in parallel");
+		if (segmentSize <= 0) throw new IllegalArgumentException("segmentSize must be positive: " + segmentSize);
+		if (maxPendingSegments <= 0) throw new IllegalArgumentException("maxPendingSegments must be positive: " + maxPendingSegments);
+		this.bytes = bytes;
+		this.charset = charset;
+		this.utf8 = StandardCharsets.UTF_8.equals(charset);
+		this.closeIoOnClose = closeIoOnClose;
+		this.segmentSize = segmentSize;
+		this.maxPendingSegments = maxPendingSegments;
+		this.start = bytes.position();
+		this.end = bytes.size();
+		this.nbSegments = (end - start + segmentSize - 1) / segmentSize;
+		schedule();
+	}
+
+	/**
+	 * Constructor with a default segment size, and a maximum of pending segments based on the number of processors.
+	 * @param bytes input
+	 * @param charset charset to use to decode bytes, which must be supported (see {@link #isSupported(Charset)})
+	 * @param closeIoOnClose if true the BytesIO will be closed together with this IO
+	 * @throws IOException in case the position or size of the BytesIO cannot be obtained
+	 */
+	public ParallelReadableCharsIOFromBytesIO(BytesIO.Readable.Seekable bytes, Charset charset, boolean closeIoOnClose) throws IOException {
+		this(bytes, charset, closeIoOnClose, DEFAULT_SEGMENT_SIZE, Runtime.getRuntime().availableProcessors() + 1);
+	}
+
+	/**
+	 * Return true if the given charset can be decoded in parallel.
+	 * @param charset charset
+	 * @return true for ISO-8859-1, US-ASCII and UTF-8
+	 */
+	public static boolean isSupported(Charset charset) {
+		return StandardCharsets.UTF_8.equals(charset) || StandardCharsets.US_ASCII.equals(charset) || StandardCharsets.ISO_8859_1.equals(charset);
+	}
+
+	@Override
+	protected void closeInternal() throws IOException {
+		for (Segment s : pending) s.cancel();
+		pending.clear();
+		nbSegments = 0;
+		currentBuffer = null;
+		if (closeIoOnClose) {
+			synchronized (bytes) {
+				bytes.close();
+			}
+		}
+	}
+
+	private void schedule() {
+		while (pending.size() < maxPendingSegments && nextSegment < nbSegments) {
+			Segment s = new Segment(nextSegment++);
+			pending.add(s);
+			LcExecutors.getCpu().execute(s);
+		}
+	}
+
+	private boolean needData() throws IOException {
+		do {
+			Segment s = pending.poll();
+			if (s == null) return false;
+			schedule();
+			currentBuffer = s.get();
+		} while (!currentBuffer.hasRemaining());
+		return true;
+	}
+
+	@Override
+	public char readChar() throws IOException {
+		if (isClosed()) throw new ClosedChannelException();
+		if (!currentBuffer.hasRemaining() && !needData()) throw new EOFException();
+		return currentBuffer.get();
+	}
+
+	@Override
+	public Optional<CharBuffer> readBuffer() throws IOException {
+		if (isClosed()) throw new ClosedChannelException();
+		if (!currentBuffer.hasRemaining() && !needData()) return Optional.empty();
+		// each segment is decoded into a new buffer, so it can be given
+		Optional<CharBuffer> result = Optional.of(currentBuffer);
+		currentBuffer = EMPTY;
+		return result;
+	}
+
+	@Override
+	public int readChars(CharBuffer buffer) throws IOException {
+		if (isClosed()) throw new ClosedChannelException();
+		int br = buffer.remaining();
+		if (br == 0) return 0;
+		if (!currentBuffer.hasRemaining() && !needData()) return -1;
+		int r = currentBuffer.remaining();
+		if (r <= br) {
+			buffer.put(currentBuffer);
+			return r;
+		}
+		int l = currentBuffer.limit();
+		currentBuffer.limit(currentBuffer.position() + br);
+		buffer.put(currentBuffer);
+		currentBuffer.limit(l);
+		return br;
+	}
+
+	@Override
+	public long skipUpTo(long toSkip) throws IOException {
+		if (isClosed()) throw new ClosedChannelException();
+		NegativeValueException.check(toSkip, "toSkip");
+		if (toSkip == 0) return 0;
+		if (!currentBuffer.hasRemaining() && !needData()) return -1;
+		int r = currentBuffer.remaining();
+		if (toSkip >= r) {
+			currentBuffer.position(currentBuffer.position() + r);
+			return r;
+		}
+		currentBuffer.position(currentBuffer.position() + (int) toSkip);
+		return toSkip;
+	}
+
+	private CharBuffer decodeSegment(long index) throws IOException {
+		long from = start + index * segmentSize;
+		long to = Math.min(from + segmentSize, end);
+		// for UTF-8, read up to 3 more bytes to find the beginning of the next character
+		int extra = utf8 ? (int) Math.min(3, end - to) : 0;
+		ByteBuffer input = ByteBuffer.allocate((int) (to - from) + extra);
+		synchronized (bytes) {
+			if (isClosed()) throw new ClosedChannelException();
+			bytes.readBytesFullyAt(from, input);
+		}
+		input.flip();
+		if (utf8) {
+			int first = index == 0 ? 0 : skipContinuationBytes(input, 0);
+			int last = to == end ? input.limit() : skipContinuationBytes(input, (int) (to - from));
+			input.limit(last);
+			input.position(first);
+		}
+		CharBuffer output = CharBuffer.allocate(input.remaining());
+		if (StandardCharsets.ISO_8859_1.equals(charset)) {
+			BytesToCharsDecoder.decodeLatin1(input, output);
+		} else {
+			BytesToCharsDecoder.decodeAscii(input, output);
+			if (input.hasRemaining()) {
+				CharsetDecoder decoder = charset.newDecoder();
+				CoderResult result = decoder.decode(input, output, true);
+				if (result.isError()) result.throwException();
+				decoder.flush(output);
+			}
+		}
+		return output.flip();
+	}
+
+	/** Return the position of the first byte which is not a UTF-8 continuation byte, looking at most 3 bytes. */
+	private static int skipContinuationBytes(ByteBuffer input, int pos) {
+		int max = Math.min(pos + 3, input.limit());
+		while (pos < max && (input.get(pos) & 0xC0) == 0x80) pos++;
+		return pos;
+	}
+
+	/** A segment, decoded by a task, or by the reader if the task did not start yet when the segment is needed. */
+	private final class Segment extends ClaimOnceTask<CharBuffer> {
+		private final long index;
+
+		private Segment(long index) {
+			this.index = index;
+		}
+
+		@Override
+		protected CharBuffer compute() throws IOException {
+			return decodeSegment(index);
+		}
+
+		@Override
+		protected String getDescription() {
+			return "decoding segment " + index;
+		}
+	}
+
+}
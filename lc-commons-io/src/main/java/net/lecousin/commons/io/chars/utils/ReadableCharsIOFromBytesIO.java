@@ -2,12 +2,9 @@ package net.lecousin.commons.io.chars.utils;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
 import java.nio.channels.ClosedChannelException;
 import java.nio.charset.Charset;
-import java.nio.charset.CharsetDecoder;
-import java.nio.charset.CoderResult;
 import java.util.Optional;
 
 import net.lecousin.commons.exceptions.NegativeValueException;
@@ -17,16 +14,16 @@ import net.lecousin.commons.io.chars.CharsIO;
 
 /**
  * Decode bytes into characters.
+ * <p>
+ * Decoding is done by a {@link BytesToCharsDecoder} into a single buffer reused along the reads,
+ * or directly into the caller's buffer when using {@link #readChars(CharBuffer)}.
+ * </p>
  */
-// CHECKSTYLE DISABLE: MagicNumber
 public class ReadableCharsIOFromBytesIO extends AbstractIO implements CharsIO.Readable {
 
 	private BytesIO.Readable bytes;
-	private CharsetDecoder decoder;
-	private ByteBuffer currentInput = ByteBuffer.allocate(0);
+	private BytesToCharsDecoder decoder;
 	private CharBuffer currentBuffer = CharBuffer.allocate(0);
-	private int outputRatio;
-	private boolean end = false;
 	private boolean closeIoOnClose;
 	
 	/**
@@ -37,8 +34,7 @@ public class ReadableCharsIOFromBytesIO extends AbstractIO implements CharsIO.Re
 	 */
 	public ReadableCharsIOFromBytesIO(BytesIO.Readable bytes, Charset charset, boolean closeIoOnClose) {
 		this.bytes = bytes;
-		this.decoder = charset.newDecoder();
-		outputRatio = (int) Math.floor(decoder.averageCharsPerByte()) + 1;
+		this.decoder = new BytesToCharsDecoder(bytes, charset);
 		this.closeIoOnClose = closeIoOnClose;
 	}
 	
@@ -46,32 +42,17 @@ public class ReadableCharsIOFromBytesIO extends AbstractIO implements CharsIO.Re
 	protected void closeInternal() throws IOException {
 		if (closeIoOnClose) bytes.close();
 		bytes = null;
+		decoder = null;
+		currentBuffer = null;
 	}
 	
 	private boolean needData() throws IOException {
-		if (end) return false;
-		if (currentInput.hasRemaining()) {
-			currentBuffer = CharBuffer.allocate(outputRatio * currentInput.remaining() + 1);
-			if (decoder.decode(currentInput, currentBuffer, false) == CoderResult.OVERFLOW) {
-				outputRatio++;
-				return needData();
-			}
-			if (currentBuffer.position() > 0) {
-				currentBuffer.flip();
-				return true;
-			}
-		}
-		var optBuffer = bytes.readBuffer();
-		if (optBuffer.isEmpty()) {
-			currentBuffer = CharBuffer.allocate(256);
-			decoder.decode(ByteBuffer.allocate(0), currentBuffer, true);
-			decoder.flush(currentBuffer);
-			currentBuffer.flip();
-			end = true;
-			return currentBuffer.hasRemaining();
-		}
-		currentInput = optBuffer.get();
-		return needData();
+		if (currentBuffer.capacity() == 0)
+			currentBuffer = CharBuffer.allocate(BytesToCharsDecoder.DEFAULT_BUFFER_SIZE);
+		currentBuffer.clear();
+		boolean result = decoder.decode(currentBuffer);
+		currentBuffer.flip();
+		return result;
 	}
 	
 	@Override
@@ -84,10 +65,12 @@ public class ReadableCharsIOFromBytesIO extends AbstractIO implements CharsIO.Re
 	@Override
 	public Optional<CharBuffer> readBuffer() throws IOException {
 		if (bytes == null) throw new ClosedChannelException();
-		if (!currentBuffer.hasRemaining() && !needData()) return Optional.empty();
-		Optional<CharBuffer> result = Optional.of(currentBuffer);
-		currentBuffer = CharBuffer.allocate(0);
-		return result;
+		if (!currentBuffer.hasRemaining())
+			return decoder.decodeBuffer();
+		// the internal buffer is reused, so we need to give a copy
+		CharBuffer result = CharBuffer.allocate(currentBuffer.remaining());
+		result.put(currentBuffer).flip();
+		return Optional.of(result);
 	}
 	
 	@Override
@@ -95,7 +78,11 @@ public class ReadableCharsIOFromBytesIO extends AbstractIO implements CharsIO.Re
 		if (bytes == null) throw new ClosedChannelException();
 		int br = buffer.remaining();
 		if (br == 0) return 0;
-		if (!currentBuffer.hasRemaining() && !needData()) return -1;
+		if (!currentBuffer.hasRemaining()) {
+			int start = buffer.position();
+			if (!decoder.decode(buffer)) return -1;
+			return buffer.position() - start;
+		}
 		int r = currentBuffer.remaining();
 		if (r <= br) {
 			buffer.put(currentBuffer);
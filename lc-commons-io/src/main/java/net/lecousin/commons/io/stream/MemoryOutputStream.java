@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.memory.ByteChain;
 
 /** An OutputStream that keep data in memory, into ByteArray. */
 public class MemoryOutputStream extends OutputStream {
@@ -73,4 +74,13 @@ public class MemoryOutputStream extends OutputStream {
 		return list;
 	}
 	
+	/** @return all buffers as a ByteChain, without copying them. */
+	public ByteChain toByteChain() {
+		ByteChain chain = new ByteChain(buffers.size());
+		for (ByteArray ba : buffers)
+			chain.append(ba.flip());
+		buffers.clear();
+		return chain;
+	}
+	
 }
@@ -0,0 +1,126 @@
+package net.lecousin.commons.io.text;
+
+import java.nio.CharBuffer;
+
+/**
+ * Utilities for text parsers, to find the next special character in a run of characters
+ * and to append the characters in between at once instead of one by one.
+ * <p>
+ * When a CharBuffer is backed by an array, the search is done directly on the array with a tight loop
+ * the JIT compiler can unroll, instead of going through the buffer accessors.
+ * </p>
+ */
+public final class CharScanning {
+
+	private CharScanning() {
+		// no instance
+	}
+
+	/** Search the first occurrence of one of the given characters.
+	 * @param chars characters to search in
+	 * @param from index of the first character to check
+	 * @param to index after the last character to check
+	 * @param c1 character to search
+	 * @param c2 character to search
+	 * @return index of the first matching character, or -1
+	 */
+	public static int indexOfAny(char[] chars, int from, int to, char c1, char c2) {
+		for (int i = from; i < to; ++i) {
+			char c = chars[i];
+			if (c == c1 || c == c2) return i;
+		}
+		return -1;
+	}
+
+	/** Search the first occurrence of one of the given characters.
+	 * @param chars characters to search in
+	 * @param from index of the first character to check
+	 * @param to index after the last character to check
+	 * @param c1 character to search
+	 * @param c2 character to search
+	 * @param c3 character to search
+	 * @param c4 character to search
+	 * @return index of the first matching character, or -1
+	 */
+	@SuppressWarnings("java:S107")
+	public static int indexOfAny(char[] chars, int from, int to, char c1, char c2, char c3, char c4) {
+		for (int i = from; i < to; ++i) {
+			char c = chars[i];
+			if (c == c1 || c == c2 || c == c3 || c == c4) return i;
+		}
+		return -1;
+	}
+
+	/** Search the first occurrence of the given character in the remaining characters of the buffer,
+	 * without changing its position.
+	 * @param buffer buffer
+	 * @param c character to search
+	 * @return number of characters before the first matching one from the current position, or -1
+	 */
+	public static int indexOf(CharBuffer buffer, char c) {
+		return indexOfAny(buffer, c, c);
+	}
+
+	/** Search the first occurrence of one of the given characters in the remaining characters of the buffer,
+	 * without changing its position.
+	 * @param buffer buffer
+	 * @param c1 character to search
+	 * @param c2 character to search
+	 * @return number of characters before the first matching one from the current position, or -1
+	 */
+	public static int indexOfAny(CharBuffer buffer, char c1, char c2) {
+		int pos = buffer.position();
+		int lim = buffer.limit();
+		if (buffer.hasArray()) {
+			int offset = buffer.arrayOffset();
+			int i = indexOfAny(buffer.array(), offset + pos, offset + lim, c1, c2);
+			return i < 0 ? -1 : i - offset - pos;
+		}
+		for (int i = pos; i < lim; ++i) {
+			char c = buffer.get(i);
+			if (c == c1 || c == c2) return i - pos;
+		}
+		return -1;
+	}
+
+	/** Search the first occurrence of one of the given characters in the remaining characters of the buffer,
+	 * without changing its position.
+	 * @param buffer buffer
+	 * @param c1 character to search
+	 * @param c2 character to search
+	 * @param c3 character to search
+	 * @param c4 character to search
+	 * @return number of characters before the first matching one from the current position, or -1
+	 */
+	public static int indexOfAny(CharBuffer buffer, char c1, char c2, char c3, char c4) {
+		int pos = buffer.position();
+		int lim = buffer.limit();
+		if (buffer.hasArray()) {
+			int offset = buffer.arrayOffset();
+			int i = indexOfAny(buffer.array(), offset + pos, offset + lim, c1, c2, c3, c4);
+			return i < 0 ? -1 : i - offset - pos;
+		}
+		for (int i = pos; i < lim; ++i) {
+			char c = buffer.get(i);
+			if (c == c1 || c == c2 || c == c3 || c == c4) return i - pos;
+		}
+		return -1;
+	}
+
+	/** Append characters from the buffer to the output, and move the position of the buffer.
+	 * @param buffer buffer
+	 * @param length number of characters to append, or -1 to append all remaining characters
+	 * @param output output
+	 */
+	public static void appendRun(CharBuffer buffer, int length, StringBuilder output) {
+		int len = length < 0 ? buffer.remaining() : length;
+		if (len == 0) return;
+		int pos = buffer.position();
+		if (buffer.hasArray())
+			output.append(buffer.array(), buffer.arrayOffset() + pos, len);
+		else
+			output.append(buffer, 0, len);
+		buffer.position(pos + len);
+	}
+
+}
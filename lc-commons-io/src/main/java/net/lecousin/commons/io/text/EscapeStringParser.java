@@ -13,15 +13,19 @@ public class EscapeStringParser implements TextParser<String> {
 	@Override
 	public void parse(CharBuffer chars) {
 		while (chars.hasRemaining()) {
-			char c = chars.get();
 			if (escape) {
-				s.append(c);
+				s.append(chars.get());
 				escape = false;
-			} else if (c == '\\') {
-				escape = true;
-			} else {
-				s.append(c);
+				continue;
 			}
+			int i = CharScanning.indexOf(chars, '\\');
+			if (i < 0) {
+				CharScanning.appendRun(chars, -1, s);
+				return;
+			}
+			CharScanning.appendRun(chars, i, s);
+			chars.get();
+			escape = true;
 		}
 	}
 	
@@ -1,7 +1,7 @@
 package net.lecousin.commons.io.text;
 
 import java.nio.CharBuffer;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
 
@@ -25,7 +25,7 @@ public class PropertiesParser<T> implements TextParser.Emitter<Property<T>> {
 	private boolean commentLine = false;
 	private boolean escape = false;
 	
-	private final List<Property<T>> properties = new LinkedList<>();
+	private final List<Property<T>> properties = new ArrayList<>();
 	@Getter
 	private final Event<Property<T>> event = new Event<>();
 	
@@ -67,35 +67,39 @@ public class PropertiesParser<T> implements TextParser.Emitter<Property<T>> {
 	
 	private void parseName(CharBuffer chars) {
 		while (chars.hasRemaining()) {
-			char c = chars.get();
 			if (name.length() == 0) {
-				if (Character.isWhitespace(c))
+				char c = chars.get(chars.position());
+				if (Character.isWhitespace(c)) {
+					chars.get();
 					continue;
+				}
 				if (c == '#') {
+					chars.get();
 					commentLine = true;
 					parse(chars);
 					return;
 				}
 			}
 			if (escape) {
-				name.append(c);
+				name.append(chars.get());
 				escape = false;
 				continue;
 			}
+			int i = CharScanning.indexOfAny(chars, '\\', '=', '\r', '\n');
+			if (i < 0) {
+				CharScanning.appendRun(chars, -1, name);
+				return;
+			}
+			CharScanning.appendRun(chars, i, name);
+			char c = chars.get();
 			if (c == '\\') {
 				escape = true;
-				continue;
-			}
-			if (c == '=') {
+			} else if (c == '=') {
 				valueParser = valueParserSupplier.get();
 				return;
-			}
-			if (c == '\r') continue;
-			if (c == '\n') {
+			} else if (c == '\n') {
 				endOfProperty();
-				continue;
 			}
-			name.append(c);
 		}
 	}
 	
@@ -125,11 +129,9 @@ public class PropertiesParser<T> implements TextParser.Emitter<Property<T>> {
 			endOfProperty();
 			return;
 		}
-		int i;
-		for (i = 0; i < r; ++i) {
-			c = chars.charAt(i);
-			if (c == '\n' || c == '\r') break;
-		}
+		int i = CharScanning.indexOfAny(chars, '\n', '\r');
+		if (i < 0) i = r;
+		else c = chars.charAt(i);
 		int l = chars.limit();
 		chars.limit(chars.position() + i);
 		valueParser.parse(chars);
@@ -141,12 +143,13 @@ public class PropertiesParser<T> implements TextParser.Emitter<Property<T>> {
 	}
 	
 	private void skipLine(CharBuffer chars) {
-		while (chars.hasRemaining()) {
-			if (chars.get() == '\n') {
-				commentLine = false;
-				return;
-			}
+		int i = CharScanning.indexOf(chars, '\n');
+		if (i < 0) {
+			chars.position(chars.limit());
+			return;
 		}
+		chars.position(chars.position() + i + 1);
+		commentLine = false;
 	}
 	
 	@Override
@@ -0,0 +1,284 @@
+package net.lecousin.commons.io.text;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import net.lecousin.commons.executors.LcExecutors;
+import net.lecousin.commons.io.chars.CharsIO;
+
+/**
+ * Properties parser delivering each property to a {@link Visitor}, without allocating objects for each property.
+ * <p>
+ * It follows the same syntax as {@link PropertiesParser#simple()}, but the name and value are given as
+ * {@link CharSequence} views: when they do not contain any escape character they directly point to the input,
+ * else they are decoded into a buffer reused for the next properties. In both cases they are only valid during
+ * the call to the visitor, which must copy them (for example using toString) to keep them.
+ * </p>
+ * <p>
+ * A large input can be parsed in parallel using {@link #scanParallel(CharSequence, int, Visitor)}:
+ * it is split into chunks at line boundaries, and each chunk is parsed by a different task.
+ * </p>
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class PropertiesScanner {
+
+	/** Minimum size of a chunk when parsing in parallel. */
+	public static final int MIN_PARALLEL_CHUNK_SIZE = 64 * 1024;
+
+	/** Receive the properties. */
+	@FunctionalInterface
+	public interface Visitor {
+
+		/** Called for each property.
+		 * @param name name of the property, only valid during this call
+		 * @param value value of the property, only valid during this call
+		 */
+		void property(CharSequence name, CharSequence value);
+
+	}
+
+	/** Parse the given characters.
+	 * @param input input
+	 * @param visitor visitor receiving the properties
+	 */
+	public static void scan(CharSequence input, Visitor visitor) {
+		new Scanner(visitor).scan(input, 0, input.length(), true);
+	}
+
+	/** Parse the remaining characters of the given buffer, which is fully consumed.
+	 * @param input input
+	 * @param visitor visitor receiving the properties
+	 */
+	public static void scan(CharBuffer input, Visitor visitor) {
+		new Scanner(visitor).scan(input, 0, input.remaining(), true);
+		input.position(input.limit());
+	}
+
+	/** Parse the content of the given IO.
+	 * Complete lines of each buffer read are parsed in place, only a line spanning several buffers is copied.
+	 * @param input input
+	 * @param visitor visitor receiving the properties
+	 * @throws IOException in case an error occurred while reading
+	 */
+	public static void scan(CharsIO.Readable input, Visitor visitor) throws IOException {
+		Scanner scanner = new Scanner(visitor);
+		StringBuilder pending = new StringBuilder();
+		Optional<CharBuffer> b;
+		while ((b = input.readBuffer()).isPresent()) {
+			CharBuffer buffer = b.get();
+			int len = buffer.remaining();
+			int end = lastLineEnd(buffer, 0, len, pending.isEmpty() ? 0 : pending.charAt(pending.length() - 1));
+			if (end < 0) {
+				pending.append(buffer);
+				continue;
+			}
+			if (pending.isEmpty()) {
+				scanner.scan(buffer, 0, end, false);
+			} else {
+				pending.append(buffer, 0, end);
+				scanner.scan(pending, 0, pending.length(), false);
+				pending.setLength(0);
+			}
+			pending.append(buffer, end, len);
+		}
+		scanner.scan(pending, 0, pending.length(), true);
+	}
+
+	/** Parse the given characters in parallel, using the CPU executor.
+	 * The visitor is called concurrently by several threads, and the properties are not received in order.
+	 * @param input input, which must not be modified until the returned future is done
+	 * @param maxChunks maximum number of chunks to parse in parallel
+	 * @param visitor visitor receiving the properties, which must be thread-safe
+	 * @return future completed when all properties have been received
+	 */
+	public static CompletableFuture<Void> scanParallel(CharSequence input, int maxChunks, Visitor visitor) {
+		int len = input.length();
+		int nbChunks = Math.max(1, Math.min(maxChunks, len / MIN_PARALLEL_CHUNK_SIZE));
+		@SuppressWarnings("unchecked")
+		CompletableFuture<Void>[] futures = new CompletableFuture[nbChunks];
+		int start = 0;
+		for (int i = 0; i < nbChunks; ++i) {
+			int end;
+			if (i == nbChunks - 1) {
+				end = len;
+			} else {
+				int target = Math.max(start, (int) ((long) len * (i + 1) / nbChunks));
+				end = nextLineEnd(input, target, len);
+			}
+			CompletableFuture<Void> future = new CompletableFuture<>();
+			futures[i] = future;
+			final int chunkStart = start;
+			final int chunkEnd = end;
+			LcExecutors.getCpu().execute(() -> {
+				try {
+					new Scanner(visitor).scan(input, chunkStart, chunkEnd, true);
+					future.complete(null);
+				} catch (Exception e) {
+					future.completeExceptionally(e);
+				}
+			});
+			start = end;
+		}
+		return CompletableFuture.allOf(futures);
+	}
+
+	/** Return the position after the last line feed which is a boundary between 2 properties, or -1. */
+	private static int lastLineEnd(CharSequence s, int start, int end, char previous) {
+		for (int i = end - 1; i >= start; --i) {
+			if (s.charAt(i) == '\n' && (i > start ? s.charAt(i - 1) : previous) != '\\')
+				return i + 1;
+		}
+		return -1;
+	}
+
+	/** Return the position after the first line feed from the given position which is a boundary between 2 properties, or end. */
+	private static int nextLineEnd(CharSequence s, int pos, int end) {
+		for (int i = pos; i < end; ++i) {
+			// a line feed not preceded by an escape character always ends a property
+			if (s.charAt(i) == '\n' && (i == 0 || s.charAt(i - 1) != '\\'))
+				return i + 1;
+		}
+		return end;
+	}
+
+	private static final class Scanner {
+		private final Visitor visitor;
+		private final View nameView = new View();
+		private final View valueView = new View();
+		private final StringBuilder nameBuffer = new StringBuilder();
+		private final StringBuilder valueBuffer = new StringBuilder();
+
+		private Scanner(Visitor visitor) {
+			this.visitor = visitor;
+		}
+
+		@SuppressWarnings("java:S3776")
+		private void scan(CharSequence s, int start, int end, boolean endOfInput) {
+			int i = start;
+			while (i < end) {
+				char c = s.charAt(i);
+				if (Character.isWhitespace(c)) {
+					i++;
+					continue;
+				}
+				if (c == '#') {
+					while (i < end && s.charAt(i) != '\n') i++;
+					continue;
+				}
+				// name
+				int nameStart = i;
+				boolean escape = false;
+				boolean decode = false;
+				for (; i < end; ++i) {
+					c = s.charAt(i);
+					if (escape) {
+						escape = false;
+					} else if (c == '\\') {
+						escape = true;
+						decode = true;
+					} else if (c == '\r') {
+						decode = true;
+					} else if (c == '=' || c == '\n') {
+						break;
+					}
+				}
+				CharSequence name = decode ? decodeName(s, nameStart, i) : nameView.set(s, nameStart, i);
+				if (i == end) {
+					if (endOfInput && name.length() > 0) visitor.property(name, "");
+					return;
+				}
+				if (c == '\n') {
+					visitor.property(name, "");
+					i++;
+					continue;
+				}
+				// value
+				int valueStart = ++i;
+				decode = false;
+				for (; i < end; ++i) {
+					c = s.charAt(i);
+					if (c == '\n') break;
+					if (c == '\\' || c == '\r') decode = true;
+				}
+				if (i < end || (endOfInput && name.length() > 0))
+					visitor.property(name, decode ? decodeValue(s, valueStart, i) : valueView.set(s, valueStart, i));
+				i++;
+			}
+		}
+
+		private CharSequence decodeName(CharSequence s, int start, int end) {
+			nameBuffer.setLength(0);
+			boolean escape = false;
+			for (int i = start; i < end; ++i) {
+				char c = s.charAt(i);
+				if (escape) {
+					nameBuffer.append(c);
+					escape = false;
+				} else if (c == '\\') {
+					escape = true;
+				} else if (c != '\r') {
+					nameBuffer.append(c);
+				}
+			}
+			return nameBuffer;
+		}
+
+		private CharSequence decodeValue(CharSequence s, int start, int end) {
+			valueBuffer.setLength(0);
+			boolean escape = false;
+			for (int i = start; i < end; ++i) {
+				char c = s.charAt(i);
+				if (c == '\r') continue;
+				if (escape) {
+					valueBuffer.append(c);
+					escape = false;
+				} else if (c == '\\') {
+					escape = true;
+				} else {
+					valueBuffer.append(c);
+				}
+			}
+			if (escape) valueBuffer.append('\\');
+			return valueBuffer;
+		}
+	}
+
+	/** Reusable view on a part of a CharSequence. */
+	private static final class View implements CharSequence {
+		private CharSequence chars;
+		private int start;
+		private int end;
+
+		private View set(CharSequence s, int from, int to) {
+			chars = s;
+			start = from;
+			end = to;
+			return this;
+		}
+
+		@Override
+		public int length() {
+			return end - start;
+		}
+
+		@Override
+		public char charAt(int index) {
+			return chars.charAt(start + index);
+		}
+
+		@Override
+		public CharSequence subSequence(int s, int e) {
+			return chars.subSequence(start + s, start + e);
+		}
+
+		@Override
+		public String toString() {
+			return chars.subSequence(start, end).toString();
+		}
+	}
+
+}
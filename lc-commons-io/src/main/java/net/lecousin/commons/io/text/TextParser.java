@@ -11,6 +11,7 @@ import java.util.function.Function;
 import net.lecousin.commons.events.Event;
 import net.lecousin.commons.io.bytes.BytesIO;
 import net.lecousin.commons.io.chars.CharsIO;
+import net.lecousin.commons.io.chars.utils.BytesToCharsDecoder;
 
 /**
  * Interface for a text parser.
@@ -20,6 +21,12 @@ public interface TextParser<T> {
 
 	/**
 	 * Parse new characters.
+	 * <p>
+	 * The given buffer belongs to the caller, and may be reused to give the next characters once this method
+	 * returns: an implementation must consume the characters it needs before returning, and must not keep a
+	 * reference to the buffer. For example, {@link #parse(BytesIO.Readable, Charset, boolean)} decodes all
+	 * the characters into a single buffer.
+	 * </p>
 	 * @param chars characters to parse
 	 */
 	void parse(CharBuffer chars);
@@ -65,6 +72,10 @@ public interface TextParser<T> {
 	
 	/**
 	 * Parse from a BytesIO, using a specific Charset.
+	 * <p>
+	 * The characters are decoded into a single buffer, cleared and given again to {@link #parse(CharBuffer)}
+	 * for each new chunk of characters.
+	 * </p>
 	 * @param input input
 	 * @param charset charset to use to decode the input into characters
 	 * @param closeIo if true, the BytesIO will be closed at the end
@@ -72,8 +83,16 @@ public interface TextParser<T> {
 	 * @throws IOException in case an error occurs while reading on the input
 	 */
 	default T parse(BytesIO.Readable input, Charset charset, boolean closeIo) throws IOException {
-		try (var io = CharsIO.fromBytesIO(input, charset, closeIo)) {
-			return parse(io);
+		try {
+			// characters are decoded directly into a single buffer, reused as parse(CharBuffer) must not keep it
+			BytesToCharsDecoder decoder = new BytesToCharsDecoder(input, charset);
+			CharBuffer buffer = CharBuffer.allocate(BytesToCharsDecoder.DEFAULT_BUFFER_SIZE);
+			while (decoder.decode(buffer.clear())) {
+				parse(buffer.flip());
+			}
+			return endOfInput();
+		} finally {
+			if (closeIo) input.close();
 		}
 	}
 	
@@ -0,0 +1,305 @@
+package net.lecousin.commons.io.text.i18n;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+import net.lecousin.commons.io.text.PropertiesParser;
+import net.lecousin.commons.io.text.PropertiesParser.Property;
+import net.lecousin.commons.io.text.TextParser;
+import net.lecousin.commons.io.text.placeholder.arguments.ArgumentsPlaceholder.Compiled;
+
+/**
+ * Pre-compiled i18n resources, to avoid loading and parsing the resource files at startup.
+ * <p>
+ * A binary bundle contains, for each namespace and locale, the messages of the resource files already merged
+ * with their fallback chain, sorted by key. It is generated using {@link #write(BytesDataIO.Writable, Collection, Collection)},
+ * typically during the build, then loaded using {@link #load(Path)} which maps the file in memory: only the table
+ * of namespaces and locales is read when loading, a message is decoded and compiled on its first use.
+ * Once loaded, it is used by registering it with {@link I18nResourceBundle#addBinaryBundle(I18nBinaryBundle)}.
+ * </p>
+ * <p>
+ * The format is made of a header (magic number, version, number of tables, then for each table its name and offset),
+ * followed by the tables. A table contains the number of entries, the offset of each entry, then the entries which
+ * are a key and a message, both as a length-prefixed UTF-8 string.
+ * Messages are stored with their placeholders, because placeholder functions are extensible and cannot be serialized.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public final class I18nBinaryBundle {
+
+	private static final int MAGIC = 0x4E383149;
+	private static final int VERSION = 1;
+
+	private final ByteBuffer buffer;
+	private final Map<String, Table> tables;
+
+	private I18nBinaryBundle(ByteBuffer buffer, Map<String, Table> tables) {
+		this.buffer = buffer;
+		this.tables = tables;
+	}
+
+	/** Load a binary bundle from a file, by mapping it in memory.
+	 *
+	 * @param file file to load
+	 * @return the bundle
+	 * @throws IOException in case the file cannot be read or is not a valid bundle
+	 */
+	public static I18nBinaryBundle load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	/** Load a binary bundle from the remaining bytes of the given buffer. The buffer must not be modified after.
+	 *
+	 * @param buffer content of the bundle
+	 * @return the bundle
+	 * @throws IOException in case it is not a valid bundle
+	 */
+	public static I18nBinaryBundle load(ByteBuffer buffer) throws IOException {
+		ByteBuffer b = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			if (b.getInt(0) != MAGIC) {
+				b.order(ByteOrder.BIG_ENDIAN);
+				if (b.getInt(0) != MAGIC) throw new IOException("Invalid i18n binary bundle");
+			}
+			int version = b.getInt(4);
+			if (version != VERSION) throw new IOException("Unsupported i18n binary bundle version: " + version);
+			int nb = b.getInt(8);
+			Map<String, Table> tables = new HashMap<>();
+			int pos = 12;
+			for (int i = 0; i < nb; ++i) {
+				int len = b.getInt(pos);
+				String name = decodeString(b, pos + 4, len);
+				pos += 4 + len;
+				int offset = b.getInt(pos);
+				pos += 4;
+				tables.put(name, new Table(b, offset, checkTable(b, offset)));
+			}
+			return new I18nBinaryBundle(b, tables);
+		} catch (IndexOutOfBoundsException e) {
+			throw new EOFException("Truncated i18n binary bundle");
+		}
+	}
+
+	/** @return the size in bytes of this bundle. */
+	public int size() {
+		return buffer.limit();
+	}
+
+	/** Check if this bundle contains the messages for the given namespace and locale.
+	 *
+	 * @param namespace namespace
+	 * @param locale locale
+	 * @return true if it contains it
+	 */
+	public boolean contains(String namespace, Locale locale) {
+		return tables.containsKey(I18nResourceBundle.getBundleKey(namespace, locale));
+	}
+
+	Function<String, Compiled> getTable(String bundleKey) {
+		return tables.get(bundleKey);
+	}
+
+	/** Load the resource files of the given namespaces and locales, and write them as a binary bundle.
+	 *
+	 * @param output where to write the bundle
+	 * @param namespaces namespaces to include
+	 * @param locales locales to include
+	 * @throws IOException in case a resource file cannot be read, or an error occurs while writing
+	 */
+	public static void write(BytesDataIO.Writable output, Collection<String> namespaces, Collection<Locale> locales) throws IOException {
+		TreeMap<String, List<byte[][]>> tables = new TreeMap<>();
+		for (String namespace : namespaces)
+			for (Locale locale : locales)
+				tables.put(I18nResourceBundle.getBundleKey(namespace, locale), encodeTable(loadSources(namespace, locale)));
+		List<byte[]> names = new ArrayList<>(tables.size());
+		int headerSize = 12;
+		for (String name : tables.keySet()) {
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			names.add(bytes);
+			headerSize += 8 + bytes.length;
+		}
+		output.writeInteger(MAGIC);
+		output.writeInteger(VERSION);
+		output.writeInteger(tables.size());
+		int offset = headerSize;
+		int index = 0;
+		for (List<byte[][]> table : tables.values()) {
+			output.writeInteger(names.get(index).length);
+			output.writeBytesFully(names.get(index));
+			output.writeInteger(offset);
+			offset += tableSize(table);
+			index++;
+		}
+		offset = headerSize;
+		for (List<byte[][]> table : tables.values()) {
+			output.writeInteger(table.size());
+			int entryOffset = offset + 4 + 4 * table.size();
+			for (byte[][] entry : table) {
+				output.writeInteger(entryOffset);
+				entryOffset += 8 + entry[0].length + entry[1].length;
+			}
+			for (byte[][] entry : table) {
+				output.writeInteger(entry[0].length);
+				output.writeBytesFully(entry[0]);
+				output.writeInteger(entry[1].length);
+				output.writeBytesFully(entry[1]);
+			}
+			offset += tableSize(table);
+		}
+	}
+
+	private static List<byte[][]> encodeTable(Map<String, String> messages) {
+		List<byte[][]> entries = new ArrayList<>(messages.size());
+		for (Map.Entry<String, String> e : messages.entrySet())
+			entries.add(new byte[][] { e.getKey().getBytes(StandardCharsets.UTF_8), e.getValue().getBytes(StandardCharsets.UTF_8) });
+		entries.sort((e1, e2) -> Arrays.compareUnsigned(e1[0], e2[0]));
+		return entries;
+	}
+
+	private static int tableSize(List<byte[][]> table) {
+		int size = 4 + 4 * table.size();
+		for (byte[][] entry : table)
+			size += 8 + entry[0].length + entry[1].length;
+		return size;
+	}
+
+	/** Load the messages with their placeholders, from the most generic to the most specific file. */
+	private static Map<String, String> loadSources(String namespace, Locale locale) throws IOException {
+		Map<String, String> messages = new HashMap<>();
+		List<String> filenames = I18nResourceBundle.getFilenames(locale, namespace);
+		for (int i = filenames.size() - 1; i >= 0; --i) {
+			for (URL url : I18nResourceBundle.findResources(filenames.get(i))) {
+				try (var input = url.openStream()) {
+					for (Property<String> p : new PropertiesParser<>(SourceParser::new).parse(input, StandardCharsets.UTF_8, false))
+						messages.put(p.getName(), p.getValue());
+				}
+			}
+		}
+		return messages;
+	}
+
+	/** Check a table and its entries fit in the bundle, so messages can be decoded later without error, and return its number of entries. */
+	private static int checkTable(ByteBuffer b, int offset) throws IOException {
+		if (offset < 12 || offset > b.limit() - 4) throw new IOException("Invalid table offset in i18n binary bundle: " + offset);
+		int nbEntries = b.getInt(offset);
+		if (nbEntries < 0 || nbEntries > (b.limit() - offset - 4) / 4)
+			throw new IOException("Invalid number of entries in i18n binary bundle: " + nbEntries);
+		for (int i = 0; i < nbEntries; ++i) {
+			int entry = b.getInt(offset + 4 + 4 * i);
+			if (entry < 12) throw new IOException("Invalid entry offset in i18n binary bundle: " + entry);
+			// key, then message
+			checkString(b, checkString(b, entry));
+		}
+		return nbEntries;
+	}
+
+	/** Check a length-prefixed string fits in the bundle, and return the position following it. */
+	private static int checkString(ByteBuffer b, int pos) throws IOException {
+		if (pos > b.limit() - 4) throw new IOException("Invalid entry offset in i18n binary bundle: " + pos);
+		int len = b.getInt(pos);
+		if (len < 0 || len > b.limit() - pos - 4) throw new IOException("Invalid string length in i18n binary bundle: " + len);
+		return pos + 4 + len;
+	}
+
+	private static String decodeString(ByteBuffer b, int pos, int len) throws IOException {
+		if (len < 0 || len > b.limit() - pos)
+			throw new IOException("Invalid string length in i18n binary bundle: " + len);
+		byte[] bytes = new byte[len];
+		b.get(pos, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/** Keep a message as it is in the resource file, so it can be parsed later. */
+	private static final class SourceParser implements TextParser<String> {
+		private final StringBuilder source = new StringBuilder();
+
+		@Override
+		public void parse(CharBuffer chars) {
+			source.append(chars);
+			chars.position(chars.limit());
+		}
+
+		@Override
+		public String endOfInput() {
+			return source.toString();
+		}
+	}
+
+	/** Table of messages for a namespace and a locale, decoded and compiled on demand. */
+	private static final class Table implements Function<String, Compiled> {
+		private final ByteBuffer buffer;
+		private final int offset;
+		private final AtomicReferenceArray<Compiled> compiled;
+
+		private Table(ByteBuffer buffer, int offset, int nbEntries) {
+			this.buffer = buffer;
+			this.offset = offset;
+			this.compiled = new AtomicReferenceArray<>(nbEntries);
+		}
+
+		@Override
+		public Compiled apply(String key) {
+			int index = indexOf(key.getBytes(StandardCharsets.UTF_8));
+			if (index < 0) return null;
+			Compiled c = compiled.get(index);
+			if (c != null) return c;
+			int entry = buffer.getInt(offset + 4 + 4 * index);
+			entry += 4 + buffer.getInt(entry);
+			TextParser<Compiled> parser = Compiled.parser();
+			try {
+				parser.parse(CharBuffer.wrap(decodeString(buffer, entry + 4, buffer.getInt(entry))));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			c = parser.endOfInput();
+			return compiled.compareAndSet(index, null, c) ? c : compiled.get(index);
+		}
+
+		private int indexOf(byte[] key) {
+			int low = 0;
+			int high = compiled.length() - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int cmp = compareKey(buffer.getInt(offset + 4 + 4 * mid), key);
+				if (cmp < 0) low = mid + 1;
+				else if (cmp > 0) high = mid - 1;
+				else return mid;
+			}
+			return -1;
+		}
+
+		private int compareKey(int entry, byte[] key) {
+			int len = buffer.getInt(entry);
+			int pos = entry + 4;
+			int n = Math.min(len, key.length);
+			for (int i = 0; i < n; ++i) {
+				int cmp = Byte.compareUnsigned(buffer.get(pos + i), key[i]);
+				if (cmp != 0) return cmp;
+			}
+			return len - key.length;
+		}
+	}
+
+}
@@ -1,9 +1,18 @@
 package net.lecousin.commons.io.text.i18n;
 
+import java.io.IOException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -13,11 +22,15 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.lecousin.commons.cache.MapExpireCache;
+import net.lecousin.commons.exceptions.NegativeValueException;
 import net.lecousin.commons.executors.LcExecutors;
 import net.lecousin.commons.io.text.PropertiesParser;
 import net.lecousin.commons.io.text.PropertiesParser.Property;
@@ -31,17 +44,37 @@ import net.lecousin.commons.io.text.placeholder.arguments.ArgumentsPlaceholder.C
  * <li>namespace_language_country</li>
  * <li>namespace_language_countr_variant</li>
  * </ul>
+ * <p>
+ * Each resource file is parsed once and kept in memory. For a given namespace and locale, the files of the
+ * fallback chain are merged into a single immutable table with interned keys, so a translation needs a single lookup.
+ * Namespaces can be loaded eagerly using {@link #preload(Collection, Collection)}, or pre-compiled
+ * into an {@link I18nBinaryBundle} which is registered using {@link #addBinaryBundle(I18nBinaryBundle)}.
+ * </p>
+ * <p>
+ * Resources are not reloaded, unless {@link #reload()} is called or the hot reload is enabled using
+ * {@link #setHotReload(boolean)}: resource files located on the file system are then watched,
+ * and reloaded on the next translation after they are modified.
+ * </p>
  */
 // CHECKSTYLE DISABLE: MagicNumber
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 @Slf4j
 public final class I18nResourceBundle {
 
-	private static final Set<String> EMPTY_FILES = new HashSet<>();
-	private static final Map<String, CompletableFuture<Optional<Map<String, Compiled>>>> LOADING = new HashMap<>();
-	private static final MapExpireCache<String, Map<String, Compiled>> MAP = new MapExpireCache<>(Duration.ofMinutes(5), Duration.ofMinutes(2));
+	private static final Map<String, CompletableFuture<Optional<Map<String, Compiled>>>> FILES = new ConcurrentHashMap<>();
+	private static final Map<BundleKey, CompletableFuture<Function<String, Compiled>>> BUNDLES = new ConcurrentHashMap<>();
+	private static final List<I18nBinaryBundle> BINARY_BUNDLES = new CopyOnWriteArrayList<>();
+	private static final Map<Path, String> DIRECTORIES = new ConcurrentHashMap<>();
+	private static final Object HOT_RELOAD_LOCK = new Object();
+	private static WatchService watchService = null;
+	private static volatile I18nResultCache resultCache = null;
+	private static final AtomicInteger GENERATION = new AtomicInteger();
+	
+	private record BundleKey(String namespace, Locale locale) {
+	}
 	
 	/** Translate.
+	 * If the bundle is already loaded, the translation is done synchronously, else this method waits for the bundle to be loaded.
 	 * 
 	 * @param locale locale to translate to
 	 * @param namespace namespace
@@ -50,6 +83,8 @@ public final class I18nResourceBundle {
 	 * @return the translated string
 	 */
 	public static String get(Locale locale, String namespace, String key, Object[] arguments) {
+		String result = getNow(locale, namespace, key, arguments);
+		if (result != null) return result;
 		try {
 			return getAsync(locale, namespace, key, arguments).get();
 		} catch (InterruptedException e) {
@@ -70,21 +105,138 @@ public final class I18nResourceBundle {
 	 * @return the translated string
 	 */
 	public static CompletableFuture<String> getAsync(Locale locale, String namespace, String key, Object[] arguments) {
+		String result = getNow(locale, namespace, key, arguments);
+		if (result != null) return CompletableFuture.completedFuture(result);
 		List<Object> resolved = resolveArguments(locale, arguments);
-		CompletableFuture<String> result = new CompletableFuture<>();
-		getPlaceholders(getFilenames(locale, namespace), key)
-		.thenAccept(placeholders -> {
-			if (placeholders.isEmpty()) {
-				log.warn("Key {} does not exist in namespace {} for locale {}", key, namespace, locale);
-				result.complete("[" + namespace + "#" + key + "]");
-			} else {
-				result.complete(placeholders.get().resolve(resolved));
-			}
-		});
+		return getBundle(locale, namespace).thenApply(bundle -> translate(bundle, locale, namespace, key, resolved));
+	}
+	
+	/** Translate synchronously if the bundle is already loaded, using the result cache if enabled.
+	 * 
+	 * @param locale locale to translate to
+	 * @param namespace namespace
+	 * @param key key in the namespace file
+	 * @param arguments arguments used in placeholders
+	 * @return the translated string, or null if the bundle is not yet loaded
+	 */
+	static String getNow(Locale locale, String namespace, String key, Object[] arguments) {
+		// get the cache before the bundle, so a result computed from a discarded bundle goes to a discarded cache
+		I18nResultCache cache = resultCache;
+		CompletableFuture<Function<String, Compiled>> future = BUNDLES.get(new BundleKey(namespace, locale));
+		if (future == null || !future.isDone() || future.isCompletedExceptionally()) return null;
+		Function<String, Compiled> bundle = future.join();
+		if (cache == null || !I18nResultCache.isCacheable(arguments))
+			return translate(bundle, locale, namespace, key, resolveArguments(locale, arguments));
+		I18nResultCache.Key cacheKey = I18nResultCache.lookupKey(locale, namespace, key, arguments);
+		String result = cache.get(cacheKey);
+		if (result == null) {
+			result = translate(bundle, locale, namespace, key, Arrays.asList(arguments));
+			cache.put(cacheKey, result);
+		}
 		return result;
 	}
 	
-	private static List<String> getFilenames(Locale locale, String namespace) {
+	private static String translate(Function<String, Compiled> bundle, Locale locale, String namespace, String key, List<Object> arguments) {
+		Compiled placeholders = bundle.apply(key);
+		if (placeholders == null) {
+			log.warn("Key {} does not exist in namespace {} for locale {}", key, namespace, locale);
+			return "[" + namespace + "#" + key + "]";
+		}
+		return placeholders.resolve(arguments);
+	}
+	
+	/** Enable a shared cache of translated strings, so a translation with the same locale, namespace, key and arguments
+	 * is not resolved again. Only translations where all arguments are immutable values (strings, numbers, booleans,
+	 * characters, enums or null) are cached.
+	 * 
+	 * @param maxEntries maximum number of translations to keep, or 0 to disable the cache
+	 */
+	public static void setResultCacheSize(int maxEntries) {
+		NegativeValueException.check(maxEntries, "maxEntries");
+		resultCache = maxEntries == 0 ? null : new I18nResultCache(maxEntries);
+	}
+	
+	/** @return a counter incremented each time loaded resources are discarded, to invalidate any translation kept in memory. */
+	static int getGeneration() {
+		return GENERATION.get();
+	}
+	
+	/** Load the given namespaces for the given locales, in parallel.
+	 * 
+	 * @param namespaces namespaces to load
+	 * @param locales locales to load
+	 * @return a future completed once everything is loaded
+	 */
+	public static CompletableFuture<Void> preload(Collection<String> namespaces, Collection<Locale> locales) {
+		List<CompletableFuture<Function<String, Compiled>>> futures = new ArrayList<>(namespaces.size() * locales.size());
+		for (String namespace : namespaces)
+			for (Locale locale : locales)
+				futures.add(getBundle(locale, namespace));
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
+	}
+	
+	/** Use a pre-compiled binary bundle: the namespaces and locales it contains are not loaded from the resource files anymore.
+	 * 
+	 * @param bundle binary bundle
+	 */
+	public static void addBinaryBundle(I18nBinaryBundle bundle) {
+		BINARY_BUNDLES.add(bundle);
+		invalidate();
+	}
+	
+	/** Stop using a pre-compiled binary bundle.
+	 * 
+	 * @param bundle binary bundle
+	 */
+	public static void removeBinaryBundle(I18nBinaryBundle bundle) {
+		BINARY_BUNDLES.remove(bundle);
+		invalidate();
+	}
+	
+	/** Discard everything that has been loaded, so resources will be loaded again on the next translation. */
+	public static void reload() {
+		FILES.clear();
+		invalidate();
+	}
+	
+	private static void invalidate() {
+		BUNDLES.clear();
+		GENERATION.incrementAndGet();
+		I18nResultCache cache = resultCache;
+		if (cache != null) resultCache = new I18nResultCache(cache.getMaxEntries());
+	}
+	
+	/** Enable or disable the hot reload of resource files located on the file system.
+	 * 
+	 * @param enabled true to enable, false to disable
+	 * @throws IOException in case the file system cannot be watched
+	 */
+	public static void setHotReload(boolean enabled) throws IOException {
+		synchronized (HOT_RELOAD_LOCK) {
+			if (enabled == (watchService != null)) return;
+			if (!enabled) {
+				watchService.close();
+				watchService = null;
+				return;
+			}
+			WatchService service = FileSystems.getDefault().newWatchService();
+			watchService = service;
+			for (Path dir : DIRECTORIES.keySet())
+				watch(dir);
+			Thread t = new Thread(() -> watchChanges(service), "I18n resources hot reload");
+			t.setDaemon(true);
+			t.start();
+		}
+	}
+	
+	/** @return true if the hot reload is enabled. */
+	public static boolean isHotReload() {
+		synchronized (HOT_RELOAD_LOCK) {
+			return watchService != null;
+		}
+	}
+	
+	static List<String> getFilenames(Locale locale, String namespace) {
 		String baseFilename = "i18n/" + namespace;
 		List<String> filenames = new ArrayList<>(4);
 		if (!locale.getLanguage().isEmpty()) {
@@ -104,6 +256,13 @@ public final class I18nResourceBundle {
 	}
 	
 	private static List<Object> resolveArguments(Locale locale, Object[] arguments) {
+		boolean hasI18n = false;
+		for (Object arg : arguments)
+			if (arg instanceof I18nString) {
+				hasI18n = true;
+				break;
+			}
+		if (!hasI18n) return Arrays.asList(arguments);
 		List<Object> resolved = new ArrayList<>(arguments.length);
 		for (int i = 0; i < arguments.length; ++i) {
 			Object arg = arguments[i];
@@ -114,77 +273,43 @@ public final class I18nResourceBundle {
 		return resolved;
 	}
 	
-	private static CompletableFuture<Optional<Compiled>> getPlaceholders(List<String> filenames, String key) {
-		CompletableFuture<Optional<Compiled>> result = new CompletableFuture<>();
-		getPlaceholders(filenames, key, 0, result);
-		return result;
+	private static CompletableFuture<Function<String, Compiled>> getBundle(Locale locale, String namespace) {
+		BundleKey bundleKey = new BundleKey(namespace, locale);
+		CompletableFuture<Function<String, Compiled>> bundle = BUNDLES.get(bundleKey);
+		if (bundle != null) return bundle;
+		return BUNDLES.computeIfAbsent(bundleKey, k -> {
+			String binaryKey = getBundleKey(namespace, locale);
+			for (I18nBinaryBundle binary : BINARY_BUNDLES) {
+				Function<String, Compiled> table = binary.getTable(binaryKey);
+				if (table != null) return CompletableFuture.completedFuture(table);
+			}
+			return loadBundle(getFilenames(locale, namespace));
+		});
 	}
 	
-	private static void getPlaceholders(List<String> filenames, String key, int index, CompletableFuture<Optional<Compiled>> result) {
-		getPlaceholders(filenames.get(index), key)
-			.thenAccept(placeholders -> {
-				if (placeholders.isPresent())
-					result.complete(placeholders);
-				else if (index < filenames.size() - 1)
-					getPlaceholders(filenames, key, index + 1, result);
-				else
-					result.complete(Optional.empty());
-			});
+	static String getBundleKey(String namespace, Locale locale) {
+		return namespace + '#' + locale;
 	}
 	
-	private static CompletableFuture<Optional<Compiled>> getPlaceholders(String filename, String key) {
-		CompletableFuture<Optional<Map<String, Compiled>>> future;
-		boolean toLoad = false;
-		synchronized (EMPTY_FILES) {
-			if (EMPTY_FILES.contains(filename)) return CompletableFuture.completedFuture(Optional.empty());
-			var opt = MAP.get(filename);
-			if (opt.isPresent()) return CompletableFuture.completedFuture(Optional.ofNullable(opt.get().get(key)));
-			future = LOADING.get(filename);
-			if (future == null) {
-				future = new CompletableFuture<>();
-				LOADING.put(filename, future);
-				toLoad = true;
-			}
-		}
-		CompletableFuture<Optional<Compiled>> result = new CompletableFuture<>();
-		if (toLoad) {
-			final CompletableFuture<Optional<Map<String, Compiled>>> f = future;
-			parse(filename).thenAccept(parsingResult -> {
-				synchronized (EMPTY_FILES) {
-					if (parsingResult.isEmpty()) EMPTY_FILES.add(filename);
-					else MAP.put(filename, parsingResult.get());
-					LOADING.remove(filename);
-				}
-				f.complete(parsingResult);
-				result.complete(parsingResult.flatMap(r -> Optional.ofNullable(r.get(key))));
+	private static CompletableFuture<Function<String, Compiled>> loadBundle(List<String> filenames) {
+		List<CompletableFuture<Optional<Map<String, Compiled>>>> files = new ArrayList<>(filenames.size());
+		for (String filename : filenames)
+			files.add(FILES.computeIfAbsent(filename, I18nResourceBundle::parse));
+		return CompletableFuture.allOf(files.toArray(new CompletableFuture[files.size()]))
+			.thenApply(v -> {
+				// from the most generic to the most specific, so specific values override generic ones
+				Map<String, Compiled> merged = new HashMap<>();
+				for (int i = files.size() - 1; i >= 0; --i)
+					files.get(i).join().ifPresent(merged::putAll);
+				return Map.copyOf(merged)::get;
 			});
-			return result;
-		}
-		future.thenAccept(parsingResult -> result.complete(parsingResult.flatMap(r -> Optional.ofNullable(r.get(key)))));
-		return result;
 	}
 	
 	@SuppressWarnings({"java:S2142", "java:S2112"})
 	private static CompletableFuture<Optional<Map<String, Compiled>>> parse(String filename) {
 		CompletableFuture<Optional<Map<String, Compiled>>> result = new CompletableFuture<>();
 		LcExecutors.getNonCpu().execute(() -> {
-			Set<URL> urls = new HashSet<>();
-			try {
-				Enumeration<URL> resources = ClassLoader.getSystemResources(filename);
-				while (resources.hasMoreElements()) {
-					urls.add(resources.nextElement());
-				}
-			} catch (Exception e) {
-				log.warn("Error looking for resource {} using the system class loader", filename, e);
-			}
-			try {
-				Enumeration<URL> resources = I18nResourceBundle.class.getClassLoader().getResources(filename);
-				while (resources.hasMoreElements()) {
-					urls.add(resources.nextElement());
-				}
-			} catch (Exception e) {
-				log.warn("Error looking for resource {} using the I18nResourceBundle class loader", filename, e);
-			}
+			Set<URL> urls = findResources(filename);
 			if (urls.isEmpty()) {
 				result.complete(Optional.empty());
 				return;
@@ -195,6 +320,7 @@ public final class I18nResourceBundle {
 			for (int i = 0; i < list.size(); ++i) {
 				CompletableFuture<List<Property<Compiled>>> future = new CompletableFuture<>();
 				final int index = i;
+				registerDirectory(list.get(index), filename);
 				LcExecutors.getNonCpu().execute(() -> {
 					try (var input = list.get(index).openStream()) {
 						future.complete(
@@ -213,7 +339,7 @@ public final class I18nResourceBundle {
 					Map<String, Compiled> properties = new HashMap<>();
 					for (var future : futures) {
 						try {
-							future.get().forEach(p -> properties.put(p.getName(), p.getValue()));
+							future.get().forEach(p -> properties.put(p.getName().intern(), p.getValue()));
 						} catch (Exception e) {
 							// ignore
 						}
@@ -224,4 +350,76 @@ public final class I18nResourceBundle {
 		return result;
 	}
 	
+	static Set<URL> findResources(String filename) {
+		Set<URL> urls = new HashSet<>();
+		try {
+			Enumeration<URL> resources = ClassLoader.getSystemResources(filename);
+			while (resources.hasMoreElements()) {
+				urls.add(resources.nextElement());
+			}
+		} catch (Exception e) {
+			log.warn("Error looking for resource {} using the system class loader", filename, e);
+		}
+		try {
+			Enumeration<URL> resources = I18nResourceBundle.class.getClassLoader().getResources(filename);
+			while (resources.hasMoreElements()) {
+				urls.add(resources.nextElement());
+			}
+		} catch (Exception e) {
+			log.warn("Error looking for resource {} using the I18nResourceBundle class loader", filename, e);
+		}
+		return urls;
+	}
+	
+	private static void registerDirectory(URL url, String filename) {
+		if (!"file".equals(url.getProtocol())) return;
+		Path path;
+		try {
+			path = Path.of(url.toURI());
+		} catch (Exception e) {
+			return;
+		}
+		Path dir = path.getParent();
+		String prefix = filename.substring(0, filename.length() - path.getFileName().toString().length());
+		if (dir == null || DIRECTORIES.putIfAbsent(dir, prefix) != null) return;
+		synchronized (HOT_RELOAD_LOCK) {
+			if (watchService != null)
+				watch(dir);
+		}
+	}
+	
+	private static void watch(Path dir) {
+		try {
+			dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+		} catch (IOException e) {
+			log.warn("Unable to watch directory {}", dir, e);
+		}
+	}
+	
+	private static void watchChanges(WatchService service) {
+		do {
+			WatchKey key;
+			try {
+				key = service.take();
+			} catch (ClosedWatchServiceException e) {
+				return;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			String prefix = DIRECTORIES.get((Path) key.watchable());
+			for (WatchEvent<?> event : key.pollEvents()) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					reload();
+				} else if (prefix != null) {
+					String filename = prefix + event.context();
+					log.info("I18n resource {} changed, it will be reloaded", filename);
+					FILES.remove(filename);
+					invalidate();
+				}
+			}
+			key.reset();
+		} while (true);
+	}
+	
 }
@@ -0,0 +1,87 @@
+package net.lecousin.commons.io.text.i18n;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of translated strings, keyed by locale, namespace, key and arguments.
+ * <p>
+ * Entries are stored in a current map, which becomes the previous map once it is full: an entry found in the
+ * previous map is moved back to the current one, and the entries which were not used are discarded on the next rotation.
+ * This gives a behavior close to a LRU, without any bookkeeping on each access.
+ * </p>
+ */
+final class I18nResultCache {
+
+	private final int maxEntries;
+	private final int maxEntriesPerGeneration;
+	private volatile Map<Key, String> current = new ConcurrentHashMap<>();
+	private volatile Map<Key, String> previous = Map.of();
+
+	I18nResultCache(int maxEntries) {
+		this.maxEntries = maxEntries;
+		this.maxEntriesPerGeneration = Math.max(1, maxEntries / 2);
+	}
+
+	int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/** Key of a cached result. */
+	record Key(Locale locale, String namespace, String key, List<Object> arguments) {
+		private Key copy() {
+			return new Key(locale, namespace, key, Arrays.asList(arguments.toArray()));
+		}
+	}
+
+	/** Return true if the result of a translation with the given arguments can be cached, which means
+	 * all arguments are immutable values with a correct equals method.
+	 * @param arguments arguments
+	 * @return true if the result can be cached
+	 */
+	static boolean isCacheable(Object[] arguments) {
+		for (Object arg : arguments)
+			if (!isCacheable(arg)) return false;
+		return true;
+	}
+
+	private static boolean isCacheable(Object arg) {
+		return arg == null || arg instanceof String || arg instanceof Integer || arg instanceof Long
+			|| arg instanceof Boolean || arg instanceof Character || arg instanceof Short || arg instanceof Byte
+			|| arg instanceof Double || arg instanceof Float || arg instanceof BigInteger || arg instanceof BigDecimal
+			|| arg instanceof Enum;
+	}
+
+	/** Create a key to look up in the cache, the arguments must not be modified while the key is used. */
+	static Key lookupKey(Locale locale, String namespace, String key, Object[] arguments) {
+		return new Key(locale, namespace, key, Arrays.asList(arguments));
+	}
+
+	String get(Key key) {
+		String value = current.get(key);
+		if (value != null) return value;
+		value = previous.get(key);
+		if (value != null) put(key, value);
+		return value;
+	}
+
+	/** Store a result, the key is copied so the arguments of a lookup key can be modified after. */
+	void put(Key key, String value) {
+		Map<Key, String> map = current;
+		map.put(key.copy(), value);
+		if (map.size() >= maxEntriesPerGeneration) {
+			synchronized (this) {
+				if (current == map) {
+					previous = map;
+					current = new ConcurrentHashMap<>();
+				}
+			}
+		}
+	}
+
+}
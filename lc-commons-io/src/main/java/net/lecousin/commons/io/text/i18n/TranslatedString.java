@@ -5,12 +5,22 @@ import java.util.concurrent.CompletableFuture;
 
 /**
  * A translatable string, using I18nResourceBundle.
+ * <p>
+ * When all arguments are immutable values (strings, numbers, booleans, characters, enums or null), the last
+ * translation is kept in this instance, so localizing it again into the same locale costs nothing
+ * until resources are reloaded.
+ * </p>
  */
 public class TranslatedString implements I18nString {
 
 	private final String namespace;
 	private final String key;
 	private final Object[] arguments;
+	private final boolean cacheable;
+	private volatile Translation last = null;
+	
+	private record Translation(Locale locale, int generation, String value) {
+	}
 	
 	/**
 	 * Constructor. See {@link I18nResourceBundle#get(Locale, String, String, Object[])}.
@@ -21,17 +31,35 @@ public class TranslatedString implements I18nString {
 	public TranslatedString(String namespace, String key, Object... arguments) {
 		this.namespace = namespace;
 		this.key = key;
-		this.arguments = arguments;
+		this.arguments = arguments.clone();
+		this.cacheable = I18nResultCache.isCacheable(arguments);
 	}
 	
 	@Override
 	public String localize(Locale locale) {
-		return I18nResourceBundle.get(locale, namespace, key, arguments);
+		if (!cacheable) return I18nResourceBundle.get(locale, namespace, key, arguments);
+		String value = getLast(locale);
+		if (value != null) return value;
+		int generation = I18nResourceBundle.getGeneration();
+		value = I18nResourceBundle.getNow(locale, namespace, key, arguments);
+		if (value == null) return I18nResourceBundle.get(locale, namespace, key, arguments);
+		last = new Translation(locale, generation, value);
+		return value;
 	}
 	
 	@Override
 	public CompletableFuture<String> localizeAsync(Locale locale) {
+		if (cacheable) {
+			String value = getLast(locale);
+			if (value != null) return CompletableFuture.completedFuture(value);
+		}
 		return I18nResourceBundle.getAsync(locale, namespace, key, arguments);
 	}
 	
+	private String getLast(Locale locale) {
+		Translation t = last;
+		if (t != null && t.generation == I18nResourceBundle.getGeneration() && t.locale.equals(locale)) return t.value;
+		return null;
+	}
+	
 }
@@ -0,0 +1,37 @@
+package net.lecousin.commons.io.text.placeholder;
+
+import java.util.List;
+
+/**
+ * Placeholder element choosing between 2 lists of elements depending on a condition.
+ * <p>
+ * Exposing the condition and the branches allows a {@link PlaceholderTemplate} to flatten them into its program.
+ * </p>
+ * @param <T> type of input to resolve this placeholder element
+ */
+public interface ConditionalPlaceholderElement<T> extends PlaceholderElement<T> {
+
+	/** Evaluate the condition.
+	 * @param resolveWith input
+	 * @return true to use the true elements, false to use the false elements
+	 */
+	boolean test(T resolveWith);
+
+	/** @return the elements to resolve when the condition is true. */
+	List<PlaceholderElement<? super T>> getTrueElements();
+
+	/** @return the elements to resolve when the condition is false. */
+	List<PlaceholderElement<? super T>> getFalseElements();
+
+	@Override
+	default String resolve(T resolveWith) {
+		return PlaceholderElement.resolveList(test(resolveWith) ? getTrueElements() : getFalseElements(), resolveWith);
+	}
+
+	@Override
+	default void resolve(T resolveWith, StringBuilder output) {
+		for (PlaceholderElement<? super T> element : test(resolveWith) ? getTrueElements() : getFalseElements())
+			element.resolve(resolveWith, output);
+	}
+
+}
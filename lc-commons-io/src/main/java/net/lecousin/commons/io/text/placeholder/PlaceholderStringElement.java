@@ -19,6 +19,11 @@ public class PlaceholderStringElement implements PlaceholderElement<Object> {
 		return string;
 	}
 	
+	@Override
+	public void resolve(Object resolveWith, StringBuilder output) {
+		output.append(string);
+	}
+	
 	@Override
 	public String toString() {
 		return string;
@@ -0,0 +1,451 @@
+package net.lecousin.commons.io.text.placeholder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.chars.CharsIO;
+
+/**
+ * Compiled form of a list of placeholder elements, to render them efficiently many times.
+ * <p>
+ * The elements are flattened into a program of instructions: adjacent strings are merged into literals,
+ * {@link ConditionalPlaceholderElement conditional elements} become branches, and other elements are resolved
+ * directly into the output. Literals are kept as characters and pre-encoded as UTF-8 bytes, and their total length
+ * is used to size the output.
+ * </p>
+ * <p>
+ * When rendering into an IO, the output is produced in chunks of at most {@link #DEFAULT_CHUNK_SIZE} characters or bytes,
+ * so a large document is never fully built in memory. A {@link Renderer} can also be used to pull the output chunk by chunk.
+ * </p>
+ * <p>
+ * A template is immutable and can be rendered concurrently, as long as its elements are.
+ * </p>
+ * @param <T> type of input to resolve the placeholders
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+public final class PlaceholderTemplate<T> {
+
+	private static final byte OP_LITERAL = 0;
+	private static final byte OP_ELEMENT = 1;
+	private static final byte OP_BRANCH_IF_FALSE = 2;
+	private static final byte OP_JUMP = 3;
+
+	private static final int DYNAMIC_LENGTH_ESTIMATE = 16;
+
+	private static final int MIN_CHUNK_SIZE = 256;
+
+	/** Default size of chunks when rendering into an IO. */
+	public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+	private final byte[] opcodes;
+	private final int[] operands;
+	private final int[] targets;
+	private final char[][] literals;
+	private final byte[][] utf8Literals;
+	private final PlaceholderElement<? super T>[] elements;
+	private final int estimatedLength;
+
+	private PlaceholderTemplate(Compiler<T> compiler) {
+		int nb = compiler.nbInstructions;
+		this.opcodes = Arrays.copyOf(compiler.opcodes, nb);
+		this.operands = Arrays.copyOf(compiler.operands, nb);
+		this.targets = Arrays.copyOf(compiler.targets, nb);
+		this.literals = compiler.literals.toArray(new char[compiler.literals.size()][]);
+		this.utf8Literals = new byte[literals.length][];
+		int length = 0;
+		for (int i = 0; i < literals.length; ++i) {
+			utf8Literals[i] = new String(literals[i]).getBytes(StandardCharsets.UTF_8);
+			length += literals[i].length;
+		}
+		@SuppressWarnings("unchecked")
+		PlaceholderElement<? super T>[] array = compiler.elements.toArray(new PlaceholderElement[compiler.elements.size()]);
+		this.elements = array;
+		this.estimatedLength = length + elements.length * DYNAMIC_LENGTH_ESTIMATE;
+	}
+
+	/** Compile the given elements.
+	 * @param <T> type of input to resolve the placeholders
+	 * @param elements elements, typically generated by a {@link PlaceholderTextParser}
+	 * @return the template
+	 */
+	public static <T> PlaceholderTemplate<T> compile(List<? extends PlaceholderElement<? super T>> elements) {
+		Compiler<T> compiler = new Compiler<>();
+		compiler.compile(elements);
+		compiler.flushLiteral();
+		return new PlaceholderTemplate<>(compiler);
+	}
+
+	/** @return the number of instructions in the program. */
+	public int getNbInstructions() {
+		return opcodes.length;
+	}
+
+	/** @return true if this template does not contain any placeholder, and always renders the same string. */
+	public boolean isConstant() {
+		return elements.length == 0 && literals.length <= 1;
+	}
+
+	/** Render this template into a new string.
+	 * @param resolveWith input
+	 * @return generated string
+	 */
+	public String render(T resolveWith) {
+		if (opcodes.length == 1 && opcodes[0] == OP_LITERAL)
+			return new String(literals[0]);
+		StringBuilder s = new StringBuilder(estimatedLength);
+		render(resolveWith, s);
+		return s.toString();
+	}
+
+	/** Render this template and append it to the given output.
+	 * @param resolveWith input
+	 * @param output output
+	 */
+	public void render(T resolveWith, StringBuilder output) {
+		output.ensureCapacity(output.length() + estimatedLength);
+		int pc = 0;
+		while (pc < opcodes.length) {
+			switch (opcodes[pc]) {
+			case OP_LITERAL:
+				output.append(literals[operands[pc]]);
+				break;
+			case OP_ELEMENT:
+				elements[operands[pc]].resolve(resolveWith, output);
+				break;
+			default:
+				pc = jump(pc, resolveWith);
+				continue;
+			}
+			pc++;
+		}
+	}
+
+	/** Render this template into the given writable characters IO, in chunks of {@link #DEFAULT_CHUNK_SIZE} characters.
+	 * @param resolveWith input
+	 * @param output output
+	 * @throws IOException in case an error occurred while writing
+	 */
+	public void render(T resolveWith, CharsIO.Writable output) throws IOException {
+		render(resolveWith, output, DEFAULT_CHUNK_SIZE);
+	}
+
+	/** Render this template into the given writable characters IO, in chunks of the given size.
+	 * @param resolveWith input
+	 * @param output output
+	 * @param chunkSize maximum number of characters written at once
+	 * @throws IOException in case an error occurred while writing
+	 */
+	public void render(T resolveWith, CharsIO.Writable output, int chunkSize) throws IOException {
+		Renderer renderer = renderer(resolveWith);
+		CharBuffer chunk = CharBuffer.allocate(chunkCapacity(chunkSize));
+		while (renderer.fill(chunk) > 0) {
+			output.writeCharsFully(chunk.flip());
+			chunk.clear();
+		}
+	}
+
+	/** Render this template encoded with the given charset into the given writable bytes IO,
+	 * in chunks of {@link #DEFAULT_CHUNK_SIZE} characters.
+	 * @param resolveWith input
+	 * @param output output
+	 * @param charset charset to encode characters
+	 * @throws IOException in case an error occurred while writing
+	 */
+	public void render(T resolveWith, BytesIO.Writable output, Charset charset) throws IOException {
+		render(resolveWith, output, charset, DEFAULT_CHUNK_SIZE);
+	}
+
+	/** Render this template encoded with the given charset into the given writable bytes IO.
+	 * The characters are encoded chunk by chunk, malformed or unmappable characters are replaced
+	 * as done by {@link String#getBytes(Charset)}.
+	 * @param resolveWith input
+	 * @param output output
+	 * @param charset charset to encode characters
+	 * @param chunkSize maximum number of characters encoded at once
+	 * @throws IOException in case an error occurred while writing
+	 */
+	public void render(T resolveWith, BytesIO.Writable output, Charset charset, int chunkSize) throws IOException {
+		CharsetEncoder encoder = charset.newEncoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		Renderer renderer = renderer(resolveWith);
+		// keep room for a surrogate pair, as a high surrogate waits for the next character to be encoded
+		CharBuffer chars = CharBuffer.allocate(Math.max(2, chunkCapacity(chunkSize)));
+		ByteBuffer bytes = ByteBuffer.allocate((int) Math.ceil(chars.capacity() * (double) encoder.maxBytesPerChar()));
+		boolean end;
+		do {
+			end = renderer.fill(chars) < 0;
+			chars.flip();
+			CoderResult result;
+			while ((result = encoder.encode(chars, bytes, end)).isOverflow())
+				flush(bytes, output);
+			if (result.isError()) result.throwException();
+			chars.compact();
+			if (end)
+				while (encoder.flush(bytes).isOverflow())
+					flush(bytes, output);
+			flush(bytes, output);
+		} while (!end);
+	}
+
+	/** Render this template encoded in UTF-8 into the given writable bytes IO, in chunks of {@link #DEFAULT_CHUNK_SIZE} bytes.
+	 * Literals are copied from their pre-encoded bytes, and a literal larger than a chunk is written directly.
+	 * Resolved placeholders are encoded directly into the chunk, unpaired surrogates being replaced by '?'
+	 * as done by {@link String#getBytes(Charset)}.
+	 * @param resolveWith input
+	 * @param output output
+	 * @throws IOException in case an error occurred while writing
+	 */
+	public void renderUtf8(T resolveWith, BytesIO.Writable output) throws IOException {
+		ByteBuffer chunk = ByteBuffer.allocate(chunkCapacity(DEFAULT_CHUNK_SIZE));
+		StringBuilder dynamic = null;
+		int pc = 0;
+		while (pc < opcodes.length) {
+			switch (opcodes[pc]) {
+			case OP_LITERAL:
+				write(utf8Literals[operands[pc]], chunk, output);
+				break;
+			case OP_ELEMENT:
+				if (dynamic == null) dynamic = new StringBuilder(DYNAMIC_LENGTH_ESTIMATE * 2);
+				else dynamic.setLength(0);
+				elements[operands[pc]].resolve(resolveWith, dynamic);
+				writeUtf8(dynamic, chunk, output);
+				break;
+			default:
+				pc = jump(pc, resolveWith);
+				continue;
+			}
+			pc++;
+		}
+		flush(chunk, output);
+	}
+
+	/** Create a renderer, to produce the output chunk by chunk.
+	 * @param resolveWith input
+	 * @return the renderer
+	 */
+	public Renderer renderer(T resolveWith) {
+		return new Renderer(resolveWith);
+	}
+
+	private int chunkCapacity(int chunkSize) {
+		if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		// avoid allocating a large chunk for a small template, while keeping a reasonable size for large resolved values
+		return Math.min(chunkSize, Math.max(estimatedLength, MIN_CHUNK_SIZE));
+	}
+
+	private static void write(byte[] bytes, ByteBuffer chunk, BytesIO.Writable output) throws IOException {
+		if (bytes.length > chunk.remaining()) {
+			flush(chunk, output);
+			if (bytes.length >= chunk.capacity()) {
+				output.writeBytesFully(bytes);
+				return;
+			}
+		}
+		chunk.put(bytes);
+	}
+
+	private static void writeUtf8(CharSequence chars, ByteBuffer chunk, BytesIO.Writable output) throws IOException {
+		byte[] b = chunk.array();
+		int limit = chunk.limit() - 4;
+		int p = chunk.position();
+		int len = chars.length();
+		for (int i = 0; i < len; ++i) {
+			if (p > limit) {
+				chunk.position(p);
+				flush(chunk, output);
+				p = 0;
+			}
+			char c = chars.charAt(i);
+			if (c < 0x80) {
+				b[p++] = (byte) c;
+			} else if (c < 0x800) {
+				b[p++] = (byte) (0xC0 | (c >> 6));
+				b[p++] = (byte) (0x80 | (c & 0x3F));
+			} else if (!Character.isSurrogate(c)) {
+				b[p++] = (byte) (0xE0 | (c >> 12));
+				b[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				b[p++] = (byte) (0x80 | (c & 0x3F));
+			} else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(chars.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, chars.charAt(++i));
+				b[p++] = (byte) (0xF0 | (cp >> 18));
+				b[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				b[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				b[p++] = (byte) (0x80 | (cp & 0x3F));
+			} else {
+				b[p++] = '?';
+			}
+		}
+		chunk.position(p);
+	}
+
+	private static void flush(ByteBuffer chunk, BytesIO.Writable output) throws IOException {
+		chunk.flip();
+		if (chunk.hasRemaining()) output.writeBytesFully(chunk);
+		chunk.clear();
+	}
+
+	/**
+	 * Render a template step by step, filling buffers provided by the caller: the placeholders are resolved only
+	 * when their characters are needed. A renderer is not thread-safe.
+	 */
+	public final class Renderer {
+
+		private final T resolveWith;
+		private int pc = 0;
+		private char[] current = null;
+		private int currentPos = 0;
+		private int currentEnd = 0;
+		private StringBuilder dynamic = null;
+		private char[] dynamicChars = null;
+
+		private Renderer(T resolveWith) {
+			this.resolveWith = resolveWith;
+		}
+
+		/** @return true if all the characters have been rendered. */
+		public boolean isDone() {
+			return currentPos == currentEnd && pc >= opcodes.length;
+		}
+
+		/** Render characters into the given buffer, from its position and until it is full or the end is reached.
+		 * @param output buffer to fill
+		 * @return the number of characters rendered, or -1 if the end was already reached
+		 */
+		public int fill(CharBuffer output) {
+			int start = output.position();
+			while (output.hasRemaining()) {
+				if (currentPos == currentEnd && !next()) break;
+				int n = Math.min(currentEnd - currentPos, output.remaining());
+				output.put(current, currentPos, n);
+				currentPos += n;
+			}
+			int n = output.position() - start;
+			return n == 0 && isDone() ? -1 : n;
+		}
+
+		private boolean next() {
+			while (pc < opcodes.length) {
+				switch (opcodes[pc]) {
+				case OP_LITERAL:
+					setCurrent(literals[operands[pc++]], -1);
+					return true;
+				case OP_ELEMENT:
+					if (dynamic == null) dynamic = new StringBuilder(DYNAMIC_LENGTH_ESTIMATE * 2);
+					else dynamic.setLength(0);
+					elements[operands[pc++]].resolve(resolveWith, dynamic);
+					int len = dynamic.length();
+					if (len == 0) break;
+					if (dynamicChars == null || dynamicChars.length < len) dynamicChars = new char[Math.max(len, DYNAMIC_LENGTH_ESTIMATE * 2)];
+					dynamic.getChars(0, len, dynamicChars, 0);
+					setCurrent(dynamicChars, len);
+					return true;
+				default:
+					pc = jump(pc, resolveWith);
+					break;
+				}
+			}
+			return false;
+		}
+
+		private void setCurrent(char[] chars, int len) {
+			current = chars;
+			currentPos = 0;
+			currentEnd = len < 0 ? chars.length : len;
+		}
+	}
+
+	private int jump(int pc, T resolveWith) {
+		if (opcodes[pc] == OP_JUMP)
+			return operands[pc];
+		@SuppressWarnings("unchecked")
+		ConditionalPlaceholderElement<? super T> condition = (ConditionalPlaceholderElement<? super T>) elements[operands[pc]];
+		return condition.test(resolveWith) ? pc + 1 : targets[pc];
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int pc = 0; pc < opcodes.length; ++pc) {
+			if (s.length() > 0) s.append(", ");
+			switch (opcodes[pc]) {
+			case OP_LITERAL: s.append('"').append(literals[operands[pc]]).append('"'); break;
+			case OP_ELEMENT: s.append(elements[operands[pc]]); break;
+			case OP_JUMP: s.append("jump ").append(operands[pc]); break;
+			default: s.append("if not ").append(elements[operands[pc]]).append(" jump ").append(targets[pc]); break;
+			}
+		}
+		return s.toString();
+	}
+
+	/** Build the program. A branch stores the index of its condition as operand, and the instruction to jump to
+	 * when the condition is false as target.
+	 */
+	private static final class Compiler<T> {
+		private byte[] opcodes = new byte[16];
+		private int[] operands = new int[16];
+		private int[] targets = new int[16];
+		private int nbInstructions = 0;
+		private List<char[]> literals = new ArrayList<>();
+		private List<PlaceholderElement<? super T>> elements = new ArrayList<>();
+		private StringBuilder pendingLiteral = new StringBuilder();
+
+		private void compile(List<? extends PlaceholderElement<? super T>> list) {
+			for (PlaceholderElement<? super T> element : list) {
+				if (element instanceof PlaceholderStringElement s) {
+					pendingLiteral.append(s.getString());
+				} else if (element instanceof ConditionalPlaceholderElement<? super T> c) {
+					flushLiteral();
+					int conditionIndex = addElement(element);
+					int branch = emit(OP_BRANCH_IF_FALSE, conditionIndex);
+					compile(c.getTrueElements());
+					flushLiteral();
+					int jump = emit(OP_JUMP, 0);
+					targets[branch] = nbInstructions;
+					compile(c.getFalseElements());
+					flushLiteral();
+					operands[jump] = nbInstructions;
+				} else {
+					flushLiteral();
+					emit(OP_ELEMENT, addElement(element));
+				}
+			}
+		}
+
+		private int addElement(PlaceholderElement<? super T> element) {
+			elements.add(element);
+			return elements.size() - 1;
+		}
+
+		private void flushLiteral() {
+			if (pendingLiteral.isEmpty()) return;
+			char[] chars = new char[pendingLiteral.length()];
+			pendingLiteral.getChars(0, chars.length, chars, 0);
+			pendingLiteral.setLength(0);
+			literals.add(chars);
+			emit(OP_LITERAL, literals.size() - 1);
+		}
+
+		private int emit(byte opcode, int operand) {
+			if (nbInstructions == opcodes.length) {
+				opcodes = Arrays.copyOf(opcodes, nbInstructions * 2);
+				operands = Arrays.copyOf(operands, nbInstructions * 2);
+				targets = Arrays.copyOf(targets, nbInstructions * 2);
+			}
+			opcodes[nbInstructions] = opcode;
+			operands[nbInstructions] = operand;
+			return nbInstructions++;
+		}
+	}
+
+}
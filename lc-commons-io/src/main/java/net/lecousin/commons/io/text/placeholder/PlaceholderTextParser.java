@@ -4,6 +4,7 @@ import java.nio.CharBuffer;
 import java.util.LinkedList;
 import java.util.List;
 
+import net.lecousin.commons.io.text.CharScanning;
 import net.lecousin.commons.io.text.TextParser;
 
 /**
@@ -64,6 +65,12 @@ public class PlaceholderTextParser<T> implements TextParser<List<PlaceholderElem
 				}
 				continue;
 			}
+			if (startFound == 0 && endFound == 0 && !escape) {
+				// append directly all characters until the next one which may be special
+				int i = CharScanning.indexOfAny(chars, start[0], end[0], '\r', '\\');
+				CharScanning.appendRun(chars, i, str);
+				if (i < 0) return false;
+			}
 			char c = chars.get();
 			if (escape) {
 				str.append(c);
@@ -19,6 +19,16 @@ public class ArgumentIndexPlaceholder implements ArgumentsPlaceholder {
 		return Objects.toString(arguments.get(index - 1));
 	}
 	
+	@Override
+	public void resolve(List<Object> arguments, StringBuilder output) {
+		if (index <= 0 || index > arguments.size()) return;
+		Object arg = arguments.get(index - 1);
+		if (arg instanceof CharSequence s) output.append(s);
+		else if (arg instanceof Integer i) output.append(i.intValue());
+		else if (arg instanceof Long l) output.append(l.longValue());
+		else output.append(arg);
+	}
+	
 	@Override
 	public String toString() {
 		return "{{" + index + "}}";
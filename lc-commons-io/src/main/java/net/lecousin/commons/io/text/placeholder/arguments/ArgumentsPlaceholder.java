@@ -4,6 +4,7 @@ import java.util.List;
 
 import net.lecousin.commons.io.text.TextParser;
 import net.lecousin.commons.io.text.placeholder.PlaceholderElement;
+import net.lecousin.commons.io.text.placeholder.PlaceholderTemplate;
 import net.lecousin.commons.io.text.placeholder.PlaceholderTextParser;
 
 /**
@@ -13,15 +14,14 @@ public interface ArgumentsPlaceholder extends PlaceholderElement<List<Object>> {
 
 	/** Compiled arguments placeholders. */
 	class Compiled {
-		private List<PlaceholderElement<? super List<Object>>> placeholders;
+		private PlaceholderTemplate<List<Object>> template;
 		
 		/** Constructor.
 		 * 
 		 * @param placeholders placeholders
 		 */
 		public Compiled(List<PlaceholderElement<? super List<Object>>> placeholders) {
-			this.placeholders = placeholders;
-			PlaceholderElement.mergeStrings(this.placeholders);
+			this.template = PlaceholderTemplate.compile(placeholders);
 		}
 		
 		/** Resolve with given arguments and generate a string.
@@ -30,7 +30,21 @@ public interface ArgumentsPlaceholder extends PlaceholderElement<List<Object>> {
 		 * @return generated string
 		 */
 		public String resolve(List<Object> arguments) {
-			return PlaceholderElement.resolveList(placeholders, arguments);
+			return template.render(arguments);
+		}
+		
+		/** Resolve with given arguments and append to the given output.
+		 * 
+		 * @param arguments arguments
+		 * @param output output
+		 */
+		public void resolve(List<Object> arguments, StringBuilder output) {
+			template.render(arguments, output);
+		}
+		
+		/** @return the compiled template. */
+		public PlaceholderTemplate<List<Object>> getTemplate() {
+			return template;
 		}
 		
 		/**
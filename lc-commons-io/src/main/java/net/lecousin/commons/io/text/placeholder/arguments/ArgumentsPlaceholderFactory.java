@@ -29,7 +29,7 @@ public class ArgumentsPlaceholderFactory implements PlaceholderElementFactory<Li
 			int colon = str.indexOf(':');
 			// if starts with {{string: => function
 			if (colon > 0) {
-				String name = str.substring(0, colon).toLowerCase();
+				String name = str.substring(0, colon);
 				ArrayList<PlaceholderElement<? super List<Object>>> elements = new ArrayList<>(insideElements);
 				elements.set(0, new PlaceholderStringElement(str.substring(colon + 1)));
 				return FunctionPlaceholderHandler.create(name, elements);
@@ -5,6 +5,7 @@ import java.util.List;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.lecousin.commons.io.text.placeholder.ConditionalPlaceholderElement;
 import net.lecousin.commons.io.text.placeholder.PlaceholderElement;
 import net.lecousin.commons.io.text.placeholder.PlaceholderStringElement;
 
@@ -30,36 +31,54 @@ public class FunctionIf extends FunctionPlaceholderHandler {
 			arguments.add(List.of(new PlaceholderStringElement("")));
 		}
 		List<PlaceholderElement<? super List<Object>>> condition = arguments.get(0);
+		Condition c = createCondition(condition);
+		if (condition.stream().allMatch(PlaceholderStringElement.class::isInstance)) {
+			// constant condition: resolve it now
+			List<PlaceholderElement<? super List<Object>>> value = c.evaluate(List.of()) ? arguments.get(1) : arguments.get(2);
+			if (value.isEmpty()) return new PlaceholderStringElement("");
+			if (value.size() == 1) return value.get(0);
+		}
+		return new IfElement(c, arguments.get(1), arguments.get(2));
+	}
+	
+	private static Condition createCondition(List<PlaceholderElement<? super List<Object>>> condition) {
 		List<List<PlaceholderElement<? super List<Object>>>> list;
-		
 		list = PlaceholderElement.splitByString("<=", condition, 1);
-		if (list.size() == 2) return new IfElement(new LessOrEqualsCondition(list.get(0), list.get(1)), arguments.get(1), arguments.get(2));
+		if (list.size() == 2) return new LessOrEqualsCondition(list.get(0), list.get(1));
 		list = PlaceholderElement.splitByString(">=", condition, 1);
-		if (list.size() == 2) return new IfElement(new GreaterOrEqualsCondition(list.get(0), list.get(1)), arguments.get(1), arguments.get(2));
+		if (list.size() == 2) return new GreaterOrEqualsCondition(list.get(0), list.get(1));
 		list = PlaceholderElement.splitByString("!=", condition, 1);
-		if (list.size() == 2) return new IfElement(new NotEqualsCondition(list.get(0), list.get(1)), arguments.get(1), arguments.get(2));
+		if (list.size() == 2) return new NotEqualsCondition(list.get(0), list.get(1));
 		list = PlaceholderElement.splitByString("=", condition, 1);
-		if (list.size() == 2) return new IfElement(new EqualsCondition(list.get(0), list.get(1)), arguments.get(1), arguments.get(2));
+		if (list.size() == 2) return new EqualsCondition(list.get(0), list.get(1));
 		list = PlaceholderElement.splitByString("<", condition, 1);
-		if (list.size() == 2) return new IfElement(new LessThanCondition(list.get(0), list.get(1)), arguments.get(1), arguments.get(2));
+		if (list.size() == 2) return new LessThanCondition(list.get(0), list.get(1));
 		list = PlaceholderElement.splitByString(">", condition, 1);
-		if (list.size() == 2) return new IfElement(new GreaterThanCondition(list.get(0), list.get(1)), arguments.get(1), arguments.get(2));
-		return new IfElement(new RawCondition(condition), arguments.get(1), arguments.get(2));
+		if (list.size() == 2) return new GreaterThanCondition(list.get(0), list.get(1));
+		return new RawCondition(condition);
 	}
 	
 	/** Placeholder element corresponding to a If function. */
 	@RequiredArgsConstructor
-	public static class IfElement implements ArgumentsPlaceholder {
+	public static class IfElement implements ArgumentsPlaceholder, ConditionalPlaceholderElement<List<Object>> {
 		
 		private final Condition condition;
 		private final List<PlaceholderElement<? super List<Object>>> trueValue;
 		private final List<PlaceholderElement<? super List<Object>>> falseValue;
 		
 		@Override
-		public String resolve(List<Object> arguments) {
-			if (condition.evaluate(arguments))
-				return PlaceholderElement.resolveList(trueValue, arguments);
-			return PlaceholderElement.resolveList(falseValue, arguments);
+		public boolean test(List<Object> arguments) {
+			return condition.evaluate(arguments);
+		}
+		
+		@Override
+		public List<PlaceholderElement<? super List<Object>>> getTrueElements() {
+			return trueValue;
+		}
+		
+		@Override
+		public List<PlaceholderElement<? super List<Object>>> getFalseElements() {
+			return falseValue;
 		}
 	
 		
@@ -1,8 +1,11 @@
 package net.lecousin.commons.io.text.placeholder.arguments;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
 import java.util.ServiceLoader;
 
 import net.lecousin.commons.io.text.placeholder.PlaceholderElement;
@@ -10,42 +13,111 @@ import net.lecousin.commons.io.text.placeholder.PlaceholderStringElement;
 
 /**
  * Abstract class for a function in a placeholder: {{function_name:argument1;argument2;argument3;...}}.
- * Functions can be registered using the ServiceLoader mechanism, in a resource file 
- * META-INF/services/net.lecousin.commons.io.text.placeholder.arguments.FunctionPlaceholderHandler
+ * Functions can be registered using the ServiceLoader mechanism, in a resource file
+ * META-INF/services/net.lecousin.commons.io.text.placeholder.arguments.FunctionPlaceholderHandler,
+ * or using {@link #register(FunctionPlaceholderHandler)}.
+ * <p>
+ * The registry is an immutable map, built on first use and replaced on {@link #register(FunctionPlaceholderHandler)},
+ * {@link #unregister(String)} or {@link #refresh()}, so looking up a function does not need any lock once it is built.
+ * Function names are case insensitive.
+ * </p>
  */
 public abstract class FunctionPlaceholderHandler {
-	
-	private static Map<String, FunctionPlaceholderHandler> functions = null;
 
+	private static final Object REGISTRY_LOCK = new Object();
+	private static final List<FunctionPlaceholderHandler> REGISTERED = new ArrayList<>();
+	private static volatile Map<String, FunctionPlaceholderHandler> functions = null;
+	
 	/** Create a placeholder element, using the given function and content.
-	 * 
+	 *
 	 * @param name function name
 	 * @param content elements after the colon ':'
 	 * @return the generated element
 	 */
 	public static PlaceholderElement<? super List<Object>> create(String name, List<PlaceholderElement<? super List<Object>>> content) {
-		synchronized (FunctionPlaceholderHandler.class) {
-			if (functions == null) {
-				functions = new HashMap<>();
-				ServiceLoader.load(FunctionPlaceholderHandler.class).stream()
-					.map(ServiceLoader.Provider::get)
-					.forEach(handler -> functions.put(handler.getName().toLowerCase(), handler));
-			}
-		}
-		FunctionPlaceholderHandler function = functions.get(name);
+		FunctionPlaceholderHandler function = registry().get(name.toLowerCase(Locale.ROOT));
 		if (function == null) return new PlaceholderStringElement("");
-		List<List<PlaceholderElement<? super List<Object>>>> arguments = PlaceholderElement.splitByCharacter(';', content, Integer.MAX_VALUE);
+		List<List<PlaceholderElement<? super List<Object>>>> split = PlaceholderElement.splitByCharacter(';', content, Integer.MAX_VALUE);
+		// arguments are given once for all to the function, so we can merge consecutive strings and use random access lists
+		List<List<PlaceholderElement<? super List<Object>>>> arguments = new ArrayList<>(split.size());
+		for (List<PlaceholderElement<? super List<Object>>> argument : split) {
+			PlaceholderElement.mergeStrings(argument);
+			arguments.add(new ArrayList<>(argument));
+		}
 		return function.create(arguments);
 	}
 	
+	/** Get a function by its name.
+	 * @param name function name, case insensitive
+	 * @return the function, or empty if no function is registered with this name
+	 */
+	public static Optional<FunctionPlaceholderHandler> get(String name) {
+		return Optional.ofNullable(registry().get(name.toLowerCase(Locale.ROOT)));
+	}
+	
+	/** Register a function, replacing any function with the same name.
+	 * The function is kept when calling {@link #refresh()}.
+	 * @param handler function to register
+	 */
+	public static void register(FunctionPlaceholderHandler handler) {
+		synchronized (REGISTRY_LOCK) {
+			REGISTERED.removeIf(h -> h.getName().equalsIgnoreCase(handler.getName()));
+			REGISTERED.add(handler);
+			Map<String, FunctionPlaceholderHandler> map = new HashMap<>(registry());
+			map.put(handler.getName().toLowerCase(Locale.ROOT), handler);
+			functions = Map.copyOf(map);
+		}
+	}
+	
+	/** Remove a function registered using {@link #register(FunctionPlaceholderHandler)}.
+	 * A function declared with the ServiceLoader mechanism under the same name is available again.
+	 * @param name function name, case insensitive
+	 */
+	public static void unregister(String name) {
+		synchronized (REGISTRY_LOCK) {
+			if (REGISTERED.removeIf(h -> h.getName().equalsIgnoreCase(name)) && functions != null)
+				functions = load();
+		}
+	}
+	
+	/** Rebuild the registry, loading again the functions declared with the ServiceLoader mechanism,
+	 * for example when new modules or class loaders are available, then adding the functions registered
+	 * using {@link #register(FunctionPlaceholderHandler)}.
+	 */
+	public static void refresh() {
+		synchronized (REGISTRY_LOCK) {
+			functions = load();
+		}
+	}
+	
+	private static Map<String, FunctionPlaceholderHandler> registry() {
+		Map<String, FunctionPlaceholderHandler> map = functions;
+		if (map != null) return map;
+		// loaded on first use rather than by the class initializer, because loading instantiates subclasses
+		synchronized (REGISTRY_LOCK) {
+			if (functions == null) functions = load();
+			return functions;
+		}
+	}
+	
+	private static Map<String, FunctionPlaceholderHandler> load() {
+		Map<String, FunctionPlaceholderHandler> map = new HashMap<>();
+		ServiceLoader.load(FunctionPlaceholderHandler.class).stream()
+			.map(ServiceLoader.Provider::get)
+			.forEach(handler -> map.put(handler.getName().toLowerCase(Locale.ROOT), handler));
+		for (FunctionPlaceholderHandler handler : REGISTERED)
+			map.put(handler.getName().toLowerCase(Locale.ROOT), handler);
+		return Map.copyOf(map);
+	}
+	
 	/** @return the name of the function. */
 	public abstract String getName();
 	
 	/** Create an element using the given function arguments.
-	 * 
-	 * @param arguments arguments
+	 *
+	 * @param arguments arguments, where consecutive strings have been merged
 	 * @return generated element
 	 */
 	public abstract PlaceholderElement<? super List<Object>> create(List<List<PlaceholderElement<? super List<Object>>>> arguments);
-	
+
 }
@@ -0,0 +1,33 @@
+package net.lecousin.commons.io.utils;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import net.lecousin.commons.io.AbstractIO;
+import net.lecousin.commons.io.IO;
+
+/**
+ * Abstract class for an IO forwarding its operations to another IO, adding a behavior such as a hash,
+ * a throttle or metrics.
+ * <p>
+ * Once closed, the decorated IO is released, so operations must check it is not null before using it.
+ * </p>
+ * @param <I> type of decorated IO
+ */
+public abstract class AbstractDecoratorIO<I extends IO> extends AbstractIO {
+
+	protected I io;
+	private final boolean closeIoOnClose;
+
+	protected AbstractDecoratorIO(I io, boolean closeIoOnClose) {
+		this.io = Objects.requireNonNull(io, "io");
+		this.closeIoOnClose = closeIoOnClose;
+	}
+
+	@Override
+	protected void closeInternal() throws IOException {
+		if (closeIoOnClose) io.close();
+		io = null;
+	}
+
+}
@@ -0,0 +1,68 @@
+package net.lecousin.commons.io.utils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Task computing a result at most once, either by an executor or by the thread needing the result.
+ * <p>
+ * The task is submitted to an executor, and when its result is needed, {@link #get()} runs it in the calling
+ * thread if the executor did not start it yet, else waits for it to complete. This avoids waiting for a task
+ * still queued behind others, and a task cancelled before it starts is never computed.
+ * </p>
+ * @param <T> type of result
+ */
+public abstract class ClaimOnceTask<T> implements Runnable {
+
+	private final AtomicBoolean started = new AtomicBoolean(false);
+	private final CompletableFuture<T> result = new CompletableFuture<>();
+
+	/**
+	 * Compute the result.
+	 * @return the result
+	 * @throws Exception in case of error
+	 */
+	protected abstract T compute() throws Exception;
+
+	/** @return a description of the task, used in the message of an IOException wrapping an error. */
+	protected abstract String getDescription();
+
+	@Override
+	public void run() {
+		if (!started.compareAndSet(false, true)) return;
+		try {
+			result.complete(compute());
+		} catch (Exception e) {
+			result.completeExceptionally(e);
+		}
+	}
+
+	/** Cancel the task if not yet started, so {@link #get()} throws a ClosedChannelException. */
+	public void cancel() {
+		if (started.compareAndSet(false, true))
+			result.completeExceptionally(new ClosedChannelException());
+	}
+
+	/**
+	 * Return the result, running the task in the calling thread if not yet started.
+	 * @return the result
+	 * @throws IOException in case of error, an error which is not an IOException being wrapped
+	 */
+	public T get() throws IOException {
+		run();
+		try {
+			return result.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioe) throw ioe;
+			throw new IOException("Error " + getDescription(), e.getCause());
+		}
+	}
+
+}
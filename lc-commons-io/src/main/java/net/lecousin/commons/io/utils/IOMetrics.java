@@ -0,0 +1,289 @@
+package net.lecousin.commons.io.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of an IO: bytes read and written, and for each operation the number of calls, errors,
+ * latency and size distributions.
+ * <p>
+ * Counters are {@link LongAdder}s and histogram buckets are striped by thread in {@link AtomicLongArray}s, so recording from
+ * several threads has a low overhead, and reading the values while recording gives a consistent enough view for monitoring.
+ * The metrics of an operation are allocated on its first record, so an IO only pays for the operations it uses.
+ * Metrics are recorded by instrumented IOs, and can be scraped from an {@link IOMetricsRegistry}.
+ * </p>
+ */
+public class IOMetrics {
+
+	/** Instrumented operations. */
+	public enum Operation {
+		/** readByte. */
+		READ_BYTE(false),
+		/** readBytes. */
+		READ_BYTES(false),
+		/** readBytesFully. */
+		READ_BYTES_FULLY(false),
+		/** readBuffer. */
+		READ_BUFFER(false),
+		/** skipUpTo. */
+		SKIP(false),
+		/** writeByte. */
+		WRITE_BYTE(true),
+		/** writeBytes. */
+		WRITE_BYTES(true),
+		/** writeBytesFully. */
+		WRITE_BYTES_FULLY(true),
+		/** flush. */
+		FLUSH(true),
+		/** readByteAt. */
+		READ_BYTE_AT(false),
+		/** readBytesAt. */
+		READ_BYTES_AT(false),
+		/** readBytesFullyAt. */
+		READ_BYTES_FULLY_AT(false),
+		/** writeByteAt. */
+		WRITE_BYTE_AT(true),
+		/** writeBytesAt. */
+		WRITE_BYTES_AT(true),
+		/** writeBytesFullyAt. */
+		WRITE_BYTES_FULLY_AT(true),
+		/** seek, which transfers no byte. */
+		SEEK(false);
+
+		private final boolean write;
+
+		Operation(boolean write) {
+			this.write = write;
+		}
+
+		/** @return true for a write operation, false for a read operation. */
+		public boolean isWrite() {
+			return write;
+		}
+	}
+
+	/** Metrics returned for an operation never recorded. */
+	private static final OperationMetrics NONE = new OperationMetrics();
+
+	private final String name;
+	private final LongAdder bytesRead = new LongAdder();
+	private final LongAdder bytesWritten = new LongAdder();
+	private final AtomicReferenceArray<OperationMetrics> operations = new AtomicReferenceArray<>(Operation.values().length);
+
+	/**
+	 * Constructor.
+	 * @param name name of the metrics, for example the path of a file
+	 */
+	public IOMetrics(String name) {
+		this.name = name;
+	}
+
+	/** @return the name of the metrics. */
+	public String getName() {
+		return name;
+	}
+
+	/** @return the total number of bytes read. */
+	public long getBytesRead() {
+		return bytesRead.sum();
+	}
+
+	/** @return the total number of bytes written. */
+	public long getBytesWritten() {
+		return bytesWritten.sum();
+	}
+
+	/**
+	 * Return the metrics of an operation.
+	 * @param operation the operation
+	 * @return the metrics of the operation
+	 */
+	public OperationMetrics get(Operation operation) {
+		OperationMetrics m = operations.get(operation.ordinal());
+		return m != null ? m : NONE;
+	}
+
+	private OperationMetrics getOrCreate(Operation operation) {
+		OperationMetrics m = operations.get(operation.ordinal());
+		if (m != null) return m;
+		m = new OperationMetrics();
+		if (operations.compareAndSet(operation.ordinal(), null, m)) return m;
+		return operations.get(operation.ordinal());
+	}
+
+	/**
+	 * Record a successful operation.
+	 * @param operation the operation
+	 * @param startNanos value of {@link System#nanoTime()} when the operation started
+	 * @param requested number of bytes requested, for example the remaining bytes of the buffer
+	 * @param transferred number of bytes actually read or written
+	 */
+	public void recordSuccess(Operation operation, long startNanos, long requested, long transferred) {
+		getOrCreate(operation).add(System.nanoTime() - startNanos, requested, transferred);
+		if (transferred > 0) (operation.isWrite() ? bytesWritten : bytesRead).add(transferred);
+	}
+
+	/**
+	 * Record a failed operation.
+	 * @param operation the operation
+	 * @param startNanos value of {@link System#nanoTime()} when the operation started
+	 */
+	public void recordError(Operation operation, long startNanos) {
+		OperationMetrics m = getOrCreate(operation);
+		m.errors.increment();
+		m.latency.add(System.nanoTime() - startNanos);
+	}
+
+	/** Metrics of an operation. */
+	public static class OperationMetrics {
+
+		private final LongAdder count = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final LongAdder requestedBytes = new LongAdder();
+		private final Histogram latency = new Histogram();
+		private final Histogram sizes = new Histogram();
+
+		private void add(long latencyNanos, long requested, long transferred) {
+			count.increment();
+			latency.add(latencyNanos);
+			if (requested > 0) requestedBytes.add(requested);
+			sizes.add(Math.max(transferred, 0));
+		}
+
+		/** @return the number of successful calls. */
+		public long getCount() {
+			return count.sum();
+		}
+
+		/** @return the number of failed calls. */
+		public long getErrors() {
+			return errors.sum();
+		}
+
+		/** @return the latency distribution in nanoseconds, of successful and failed calls. */
+		public Histogram getLatency() {
+			return latency;
+		}
+
+		/** @return the distribution of the number of bytes transferred by successful calls. */
+		public Histogram getSizes() {
+			return sizes;
+		}
+
+		/** @return the total number of bytes requested by successful calls. */
+		public long getRequestedBytes() {
+			return requestedBytes.sum();
+		}
+
+		/** @return the ratio between transferred and requested bytes, 1 meaning buffers are always filled, or 0 if nothing was requested. */
+		public double getUtilization() {
+			long requested = requestedBytes.sum();
+			if (requested == 0) return 0;
+			return (double) sizes.getSum() / requested;
+		}
+	}
+
+	/**
+	 * Histogram of non-negative values, with buckets of power of 2: bucket 0 counts the value 0, and bucket i counts
+	 * values from 2<sup>i-1</sup> to 2<sup>i</sup>-1.
+	 * <p>
+	 * Buckets are striped: each thread records in one of several arrays of buckets, chosen from its id, so threads
+	 * recording similar values do not all update the same counter. A stripe is allocated on its first use, so a
+	 * histogram recorded by a single thread only has one array of buckets. Reading sums the stripes.
+	 * </p>
+	 */
+	public static class Histogram {
+
+		/** Number of buckets. */
+		public static final int NB_BUCKETS = Long.SIZE + 1;
+
+		private static final int MAX_STRIPES = 16;
+		private static final int NB_STRIPES = Math.min(MAX_STRIPES, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+		private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<>(NB_STRIPES);
+		private final LongAdder sum = new LongAdder();
+
+		/** Constructor. */
+		public Histogram() {
+			// stripes are allocated on first use
+		}
+
+		/**
+		 * Record a value, negative values being recorded as 0.
+		 * @param value the value
+		 */
+		public void add(long value) {
+			if (value < 0) value = 0;
+			int index = (int) Thread.currentThread().getId() & (NB_STRIPES - 1);
+			AtomicLongArray stripe = stripes.get(index);
+			if (stripe == null) {
+				stripes.compareAndSet(index, null, new AtomicLongArray(NB_BUCKETS));
+				stripe = stripes.get(index);
+			}
+			stripe.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+			sum.add(value);
+		}
+
+		/** @return the number of recorded values. */
+		public long getCount() {
+			long c = 0;
+			for (long count : getBucketCounts()) c += count;
+			return c;
+		}
+
+		/** @return the sum of recorded values. */
+		public long getSum() {
+			return sum.sum();
+		}
+
+		/** @return the mean of recorded values, or 0 if there is no value. */
+		public double getMean() {
+			long c = getCount();
+			return c == 0 ? 0 : (double) getSum() / c;
+		}
+
+		/** @return the number of values in each bucket. */
+		public long[] getBucketCounts() {
+			long[] counts = new long[NB_BUCKETS];
+			for (int s = 0; s < NB_STRIPES; ++s) {
+				AtomicLongArray stripe = stripes.get(s);
+				if (stripe == null) continue;
+				for (int i = 0; i < NB_BUCKETS; ++i)
+					counts[i] += stripe.get(i);
+			}
+			return counts;
+		}
+
+		/**
+		 * Return the upper bound of a bucket.
+		 * @param bucket index of the bucket
+		 * @return the greatest value counted in the bucket
+		 */
+		public static long getUpperBound(int bucket) {
+			if (bucket == 0) return 0;
+			if (bucket >= Long.SIZE) return Long.MAX_VALUE;
+			return (1L << bucket) - 1;
+		}
+
+		/**
+		 * Return an approximation of a percentile, as the upper bound of the bucket containing it.
+		 * @param percentile percentile between 0 and 1, for example 0.99
+		 * @return the approximated value, or 0 if there is no value
+		 */
+		public long getPercentile(double percentile) {
+			long[] counts = getBucketCounts();
+			long total = 0;
+			for (long c : counts) total += c;
+			if (total == 0) return 0;
+			long threshold = (long) Math.ceil(total * percentile);
+			long cumulated = 0;
+			for (int i = 0; i < NB_BUCKETS; ++i) {
+				cumulated += counts[i];
+				if (cumulated >= threshold && cumulated > 0) return getUpperBound(i);
+			}
+			return Long.MAX_VALUE;
+		}
+	}
+
+}
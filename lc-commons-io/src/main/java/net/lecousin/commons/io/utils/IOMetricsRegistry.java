@@ -0,0 +1,57 @@
+package net.lecousin.commons.io.utils;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link IOMetrics} by name, to scrape the metrics of instrumented IOs.
+ * <p>
+ * Metrics are kept until they are removed, so an IO re-opened with the same name accumulates in the same metrics.
+ * </p>
+ */
+public class IOMetricsRegistry {
+
+	private static final IOMetricsRegistry DEFAULT = new IOMetricsRegistry();
+
+	private final Map<String, IOMetrics> metrics = new ConcurrentHashMap<>();
+
+	/** @return the default registry. */
+	public static IOMetricsRegistry getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Return the metrics with the given name, creating them if they do not exist yet.
+	 * @param name name of the metrics
+	 * @return the metrics
+	 */
+	public IOMetrics register(String name) {
+		return metrics.computeIfAbsent(name, IOMetrics::new);
+	}
+
+	/**
+	 * Return the metrics with the given name.
+	 * @param name name of the metrics
+	 * @return the metrics, or empty if they are not registered
+	 */
+	public Optional<IOMetrics> get(String name) {
+		return Optional.ofNullable(metrics.get(name));
+	}
+
+	/**
+	 * Remove metrics.
+	 * @param name name of the metrics
+	 * @return the removed metrics, or empty if they were not registered
+	 */
+	public Optional<IOMetrics> remove(String name) {
+		return Optional.ofNullable(metrics.remove(name));
+	}
+
+	/** @return a copy of the registered metrics, sorted by name. */
+	public Map<String, IOMetrics> getAll() {
+		return new TreeMap<>(metrics);
+	}
+
+}
@@ -0,0 +1,107 @@
+package net.lecousin.commons.io.utils;
+
+import java.io.InterruptedIOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttle for IO operations, limiting the number of bytes and/or the number of operations per second
+ * using {@link TokenBucket}s.
+ * <p>
+ * Before an operation, {@link #await()} (or {@link #getDelayNanos()} for a non-blocking wait) lets the debt of
+ * previous operations be paid, then {@link #consume(long)} records the operation and the number of bytes
+ * it transferred. The size of an operation should be limited using {@link #limit(int)} so a single operation
+ * does not exceed the allowed burst.
+ * </p>
+ * <p>
+ * A throttle, or its buckets, can be shared by several IOs to apply a global or per-device budget.
+ * </p>
+ */
+public class IOThrottle {
+
+	private final TokenBucket bytes;
+	private final TokenBucket operations;
+
+	/**
+	 * Constructor.
+	 * @param bytes bucket for the number of bytes, or null for no limit on the bytes
+	 * @param operations bucket for the number of operations, or null for no limit on the operations
+	 */
+	public IOThrottle(TokenBucket bytes, TokenBucket operations) {
+		this.bytes = bytes;
+		this.operations = operations;
+	}
+
+	/**
+	 * Create a throttle limiting the number of bytes per second.
+	 * @param ratePerSecond bytes per second
+	 * @param burst maximum number of bytes at once
+	 * @return the throttle
+	 */
+	public static IOThrottle bytesPerSecond(long ratePerSecond, long burst) {
+		return new IOThrottle(new TokenBucket(ratePerSecond, burst), null);
+	}
+
+	/**
+	 * Create a throttle limiting the number of operations per second.
+	 * @param ratePerSecond operations per second
+	 * @param burst maximum number of operations at once
+	 * @return the throttle
+	 */
+	public static IOThrottle operationsPerSecond(long ratePerSecond, long burst) {
+		return new IOThrottle(null, new TokenBucket(ratePerSecond, burst));
+	}
+
+	/** @return the bucket limiting the number of bytes, if any. */
+	public Optional<TokenBucket> getBytesBucket() {
+		return Optional.ofNullable(bytes);
+	}
+
+	/** @return the bucket limiting the number of operations, if any. */
+	public Optional<TokenBucket> getOperationsBucket() {
+		return Optional.ofNullable(operations);
+	}
+
+	/** @return the number of nanoseconds to wait before a new operation can start, 0 if it can start immediately. */
+	public long getDelayNanos() {
+		long delay = bytes != null ? bytes.getDelayNanos() : 0;
+		if (operations != null) delay = Math.max(delay, operations.getDelayNanos());
+		return delay;
+	}
+
+	/**
+	 * Wait until a new operation can start.
+	 * @throws InterruptedIOException if the thread is interrupted while waiting
+	 */
+	public void await() throws InterruptedIOException {
+		long delay;
+		while ((delay = getDelayNanos()) > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(delay);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException();
+			}
+		}
+	}
+
+	/**
+	 * Limit the number of bytes of an operation to the allowed burst.
+	 * @param len requested number of bytes
+	 * @return the number of bytes the operation should be limited to
+	 */
+	public int limit(int len) {
+		if (bytes == null) return len;
+		return (int) Math.min(len, bytes.getCapacity());
+	}
+
+	/**
+	 * Record an operation.
+	 * @param nbBytes number of bytes transferred by the operation
+	 */
+	public void consume(long nbBytes) {
+		if (operations != null) operations.consume(1);
+		if (bytes != null) bytes.consume(nbBytes);
+	}
+
+}
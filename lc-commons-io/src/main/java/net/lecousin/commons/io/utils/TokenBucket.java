@@ -0,0 +1,109 @@
+package net.lecousin.commons.io.utils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket, refilled at a given rate up to a capacity which is the allowed burst.
+ * <p>
+ * Tokens are consumed after an operation, once the amount is known, and the bucket may go in debt:
+ * a new operation should wait for {@link #getDelayNanos()} so that the debt is paid before it starts.
+ * On average the consumption does not exceed the rate, while an operation never waits for its own size.
+ * </p>
+ * <p>
+ * This class is thread-safe, so a single bucket can be shared by several IOs, for example to limit the throughput
+ * of a device. It also measures the consumed tokens, to monitor the observed throughput.
+ * </p>
+ */
+public class TokenBucket {
+
+	private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final long ratePerSecond;
+	private final long capacity;
+	private double tokens;
+	private long lastRefill;
+
+	private long consumed = 0;
+	private long windowStart;
+	private long windowConsumed = 0;
+	private double lastWindowRate = 0;
+
+	/**
+	 * Constructor, the bucket is initially full.
+	 * @param ratePerSecond number of tokens added per second
+	 * @param capacity maximum number of tokens
+	 */
+	public TokenBucket(long ratePerSecond, long capacity) {
+		if (ratePerSecond <= 0) throw new IllegalArgumentException("ratePerSecond must be positive: " + ratePerSecond);
+		if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+		this.ratePerSecond = ratePerSecond;
+		this.capacity = capacity;
+		this.tokens = capacity;
+		this.lastRefill = System.nanoTime();
+		this.windowStart = lastRefill;
+	}
+
+	/** @return the number of tokens added per second. */
+	public long getRatePerSecond() {
+		return ratePerSecond;
+	}
+
+	/** @return the maximum number of tokens. */
+	public long getCapacity() {
+		return capacity;
+	}
+
+	/** @return the number of tokens currently available, negative in case of debt. */
+	public synchronized double getAvailableTokens() {
+		refill(System.nanoTime());
+		return tokens;
+	}
+
+	/** @return the number of nanoseconds to wait before the debt is paid, 0 if there is no debt. */
+	public synchronized long getDelayNanos() {
+		refill(System.nanoTime());
+		if (tokens >= 0) return 0;
+		return (long) Math.ceil(-tokens * NANOS_PER_SECOND / ratePerSecond);
+	}
+
+	/**
+	 * Consume tokens.
+	 * @param nb number of tokens to consume
+	 */
+	public synchronized void consume(long nb) {
+		if (nb <= 0) return;
+		long now = System.nanoTime();
+		refill(now);
+		tokens -= nb;
+		rollWindow(now);
+		windowConsumed += nb;
+		consumed += nb;
+	}
+
+	/** @return the total number of tokens consumed. */
+	public synchronized long getConsumed() {
+		return consumed;
+	}
+
+	/** @return the number of tokens consumed per second, measured on the last complete window of 1 second. */
+	public synchronized double getObservedRate() {
+		rollWindow(System.nanoTime());
+		return lastWindowRate;
+	}
+
+	private void refill(long now) {
+		long elapsed = now - lastRefill;
+		if (elapsed <= 0) return;
+		tokens = Math.min(capacity, tokens + (double) elapsed * ratePerSecond / NANOS_PER_SECOND);
+		lastRefill = now;
+	}
+
+	private void rollWindow(long now) {
+		long elapsed = now - windowStart;
+		if (elapsed < NANOS_PER_SECOND) return;
+		lastWindowRate = (double) windowConsumed * NANOS_PER_SECOND / elapsed;
+		windowStart = now;
+		windowConsumed = 0;
+	}
+
+}
@@ -334,6 +334,59 @@ public abstract class AbstractReadableBytesIOTest implements TestCasesProvider<b
 		assertThrows(ClosedChannelException.class, () -> io.readBytesFully((ByteBuffer) null));
 	}
 	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void readBytesScattering(String displayName, byte[] expected, Function<byte[], BytesIO.Readable> ioSupplier) throws Exception {
+		BytesIO.Readable io = ioSupplier.apply(expected);
+		
+		assertThrows(NullPointerException.class, () -> io.readBytes((ByteBuffer[]) null));
+		assertThat(io.readBytes(new ByteBuffer[0])).isZero();
+		assertThat(io.readBytes(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) })).isZero();
+		
+		int step = expected.length > 10000 ? 1111 : 3;
+		byte[] read = new byte[expected.length];
+		int pos = 0;
+		while (pos < expected.length) {
+			ByteBuffer[] buffers = BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE);
+			long nb = io.readBytes(buffers);
+			assertThat(nb).isPositive();
+			assertThat(BytesIOTestUtils.copyVectored(buffers, read, pos)).isEqualTo(nb);
+			pos += nb;
+		}
+		Assertions.assertArrayEquals(expected, read);
+		assertThat(io.readBytes(BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE))).isEqualTo(-1);
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.readBytes(new ByteBuffer[0]));
+		assertThrows(ClosedChannelException.class, () -> io.readBytes(BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE)));
+	}
+	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void readBytesFullyScattering(String displayName, byte[] expected, Function<byte[], BytesIO.Readable> ioSupplier) throws Exception {
+		BytesIO.Readable io = ioSupplier.apply(expected);
+		
+		assertThrows(NullPointerException.class, () -> io.readBytesFully((ByteBuffer[]) null));
+		io.readBytesFully(new ByteBuffer[0]);
+		io.readBytesFully(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) });
+		
+		int step = expected.length > 10000 ? 1111 : 3;
+		byte[] read = new byte[expected.length];
+		int pos = 0;
+		while (pos < expected.length) {
+			ByteBuffer[] buffers = BytesIOTestUtils.allocateVectored(step, expected.length - pos);
+			io.readBytesFully(buffers);
+			for (ByteBuffer b : buffers) assertThat(b.hasRemaining()).isFalse();
+			pos += BytesIOTestUtils.copyVectored(buffers, read, pos);
+		}
+		Assertions.assertArrayEquals(expected, read);
+		assertThrows(EOFException.class, () -> io.readBytesFully(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(1) }));
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.readBytesFully(new ByteBuffer[0]));
+		assertThrows(ClosedChannelException.class, () -> io.readBytesFully(BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE)));
+	}
+	
 	@ParameterizedTest(name = "{0}")
 	@ArgumentsSource(RandomContentWithBufferSizeTestCasesProvider.class)
 	void skipUpTo(String displayName, byte[] expected, int skipSize, Function<byte[], BytesIO.Readable> ioSupplier) throws Exception {
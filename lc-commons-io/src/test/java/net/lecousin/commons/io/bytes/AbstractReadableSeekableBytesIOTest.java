@@ -10,6 +10,7 @@ import java.nio.channels.ClosedChannelException;
 import java.util.List;
 import java.util.function.Function;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ArgumentsSource;
@@ -19,6 +20,7 @@ import net.lecousin.commons.exceptions.NegativeValueException;
 import net.lecousin.commons.io.AbstractSeekableIOTest;
 import net.lecousin.commons.io.IO;
 import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.bytes.BytesIOTestUtils.RandomContentTestCasesProvider;
 import net.lecousin.commons.io.bytes.BytesIOTestUtils.RandomContentWithBufferSizeTestCasesProvider;
 import net.lecousin.commons.io.bytes.BytesIOTestUtils.SmallRandomContentTestCasesProvider;
 import net.lecousin.commons.test.TestCase;
@@ -358,6 +360,62 @@ public abstract class AbstractReadableSeekableBytesIOTest implements TestCasesPr
 		assertThrows(ClosedChannelException.class, () -> io.readBytesFullyAt(-1, ByteBuffer.allocate(1)));
 	}
 
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void readBytesAtScattering(String displayName, byte[] expected, Function<byte[], BytesIO.Readable.Seekable> ioSupplier) throws Exception {
+		BytesIO.Readable.Seekable io = ioSupplier.apply(expected);
+		
+		assertThrows(NullPointerException.class, () -> io.readBytesAt(0, (ByteBuffer[]) null));
+		assertThrows(NegativeValueException.class, () -> io.readBytesAt(-1, new ByteBuffer[0]));
+		assertThat(io.readBytesAt(0, new ByteBuffer[] { ByteBuffer.allocate(0) })).isZero();
+		
+		long initialPos = io.position();
+		int step = expected.length > 10000 ? 1111 : 3;
+		byte[] read = new byte[expected.length];
+		int pos = 0;
+		while (pos < expected.length) {
+			ByteBuffer[] buffers = BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE);
+			long nb = io.readBytesAt(pos, buffers);
+			assertThat(nb).isPositive();
+			assertThat(BytesIOTestUtils.copyVectored(buffers, read, pos)).isEqualTo(nb);
+			pos += nb;
+			assertThat(io.position()).isEqualTo(initialPos);
+		}
+		Assertions.assertArrayEquals(expected, read);
+		assertThat(io.readBytesAt(expected.length, BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE))).isEqualTo(-1);
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.readBytesAt(0, new ByteBuffer[0]));
+	}
+	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void readBytesFullyAtScattering(String displayName, byte[] expected, Function<byte[], BytesIO.Readable.Seekable> ioSupplier) throws Exception {
+		BytesIO.Readable.Seekable io = ioSupplier.apply(expected);
+		
+		assertThrows(NullPointerException.class, () -> io.readBytesFullyAt(0, (ByteBuffer[]) null));
+		assertThrows(NegativeValueException.class, () -> io.readBytesFullyAt(-1, new ByteBuffer[0]));
+		io.readBytesFullyAt(0, new ByteBuffer[] { ByteBuffer.allocate(0) });
+		
+		long initialPos = io.position();
+		int step = expected.length > 10000 ? 1111 : 3;
+		int groupSize = LcByteBufferUtils.remaining(BytesIOTestUtils.allocateVectored(step, Integer.MAX_VALUE));
+		byte[] read = new byte[expected.length];
+		// read from the end to the start
+		for (int pos = (expected.length - 1) / groupSize * groupSize; pos >= 0 && expected.length > 0; pos -= groupSize) {
+			ByteBuffer[] buffers = BytesIOTestUtils.allocateVectored(step, expected.length - pos);
+			io.readBytesFullyAt(pos, buffers);
+			for (ByteBuffer b : buffers) assertThat(b.hasRemaining()).isFalse();
+			BytesIOTestUtils.copyVectored(buffers, read, pos);
+			assertThat(io.position()).isEqualTo(initialPos);
+		}
+		Assertions.assertArrayEquals(expected, read);
+		assertThrows(EOFException.class, () -> io.readBytesFullyAt(expected.length, new ByteBuffer[] { ByteBuffer.allocate(1) }));
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.readBytesFullyAt(0, new ByteBuffer[0]));
+	}
+	
 	@ParameterizedTest(name = "{0}")
 	@ArgumentsSource(RandomContentWithBufferSizeTestCasesProvider.class)
 	void seekAndReadFullyByteArray(String displayName, byte[] expected, int bufferSize, Function<byte[], BytesIO.Readable.Seekable> ioSupplier) throws Exception {
@@ -294,6 +294,73 @@ public abstract class AbstractWritableBytesIOTest implements TestCasesProvider<I
 	}
 	
 	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void writeBytesGathering(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<?, ?>> ioSupplier) throws Exception {
+		WritableTestCase<?, ?> ioTuple = ioSupplier.apply(toWrite.length);
+		BytesIO.Writable io = ioTuple.getIo();
+
+		assertThrows(NullPointerException.class, () -> io.writeBytes((ByteBuffer[]) null));
+		assertThat(io.writeBytes(new ByteBuffer[0])).isZero();
+		assertThat(io.writeBytes(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) })).isZero();
+
+		byte[] b;
+		if (io instanceof IO.Writable.Appendable)
+			b = toWrite;
+		else {
+			// we generate a bigger array, so at one point we try to write more than the size
+			b = new byte[toWrite.length + 20];
+			System.arraycopy(toWrite, 0, b, 0, toWrite.length);
+		}
+		int step = toWrite.length > 10000 ? 1111 : 3;
+		for (int i = 0; i < toWrite.length;) {
+			long nb = io.writeBytes(BytesIOTestUtils.wrapVectored(b, i, step));
+			assertThat(nb).isPositive();
+			i += nb;
+		}
+
+		if (!(io instanceof IO.Writable.Appendable))
+			assertThat(io.writeBytes(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(1) })).isEqualTo(-1);
+
+		io.flush();
+		checkWrittenData(io, ioTuple.getObject(), toWrite);
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.writeBytes(new ByteBuffer[0]));
+		assertThrows(ClosedChannelException.class, () -> io.writeBytes(new ByteBuffer[] { ByteBuffer.allocate(1) }));
+	}
+	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void writeBytesFullyGathering(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<?, ?>> ioSupplier) throws Exception {
+		WritableTestCase<?, ?> ioTuple = ioSupplier.apply(toWrite.length);
+		BytesIO.Writable io = ioTuple.getIo();
+
+		assertThrows(NullPointerException.class, () -> io.writeBytesFully((ByteBuffer[]) null));
+		assertThrows(NullPointerException.class, () -> io.writeBytesFully(new ByteBuffer[] { null }));
+		io.writeBytesFully(new ByteBuffer[0]);
+		io.writeBytesFully(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) });
+
+		int step = toWrite.length > 10000 ? 1111 : 3;
+		for (int i = 0; i < toWrite.length;) {
+			ByteBuffer[] buffers = BytesIOTestUtils.wrapVectored(toWrite, i, step);
+			int nb = LcByteBufferUtils.remaining(buffers);
+			io.writeBytesFully(buffers);
+			for (ByteBuffer buffer : buffers) assertThat(buffer.hasRemaining()).isFalse();
+			i += nb;
+		}
+
+		if (!(io instanceof IO.Writable.Appendable))
+			assertThrows(EOFException.class, () -> io.writeBytesFully(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(1) }));
+
+		io.flush();
+		checkWrittenData(io, ioTuple.getObject(), toWrite);
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.writeBytesFully(new ByteBuffer[0]));
+		assertThrows(ClosedChannelException.class, () -> io.writeBytesFully(new ByteBuffer[] { ByteBuffer.allocate(1) }));
+	}
+	
 	@ParameterizedTest(name = "{0}")
 	@ArgumentsSource(RandomContentWithBufferSizeTestCasesProvider.class)
 	void writeByteBuffer(String displayName, byte[] toWrite, int bufferSize, Function<Integer, WritableTestCase<?, ?>> ioSupplier) throws Exception {
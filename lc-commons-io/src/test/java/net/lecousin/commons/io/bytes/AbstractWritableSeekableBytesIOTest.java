@@ -308,6 +308,74 @@ public abstract class AbstractWritableSeekableBytesIOTest implements TestCasesPr
 	}
 	
 	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void writeBytesAtGathering(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<? extends BytesIO.Writable.Seekable, ?>> ioSupplier) throws Exception {
+		WritableTestCase<? extends BytesIO.Writable.Seekable, ?> ioTuple = ioSupplier.apply(toWrite.length);
+		BytesIO.Writable.Seekable io = ioTuple.getIo();
+
+		assertThrows(NullPointerException.class, () -> io.writeBytesAt(0, (ByteBuffer[]) null));
+		assertThrows(NegativeValueException.class, () -> io.writeBytesAt(-1, new ByteBuffer[0]));
+		assertThat(io.writeBytesAt(0, new ByteBuffer[] { ByteBuffer.allocate(0) })).isZero();
+
+		byte[] b;
+		if (io instanceof IO.Writable.Appendable)
+			b = toWrite;
+		else {
+			// we generate a bigger array, so at one point we try to write more than the size
+			b = new byte[toWrite.length + 20];
+			System.arraycopy(toWrite, 0, b, 0, toWrite.length);
+		}
+		long initialPos = io.position();
+		int step = toWrite.length > 10000 ? 1111 : 3;
+		for (int i = 0; i < toWrite.length;) {
+			long nb = io.writeBytesAt(i, BytesIOTestUtils.wrapVectored(b, i, step));
+			assertThat(nb).isPositive();
+			i += nb;
+			assertThat(io.position()).isEqualTo(initialPos);
+		}
+
+		if (!(io instanceof IO.Writable.Appendable))
+			assertThat(io.writeBytesAt(toWrite.length, new ByteBuffer[] { ByteBuffer.allocate(1) })).isEqualTo(-1);
+
+		io.flush();
+		checkWrittenData(io, ioTuple.getObject(), toWrite);
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.writeBytesAt(0, new ByteBuffer[0]));
+	}
+	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void writeBytesFullyAtGathering(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<? extends BytesIO.Writable.Seekable, ?>> ioSupplier) throws Exception {
+		WritableTestCase<? extends BytesIO.Writable.Seekable, ?> ioTuple = ioSupplier.apply(toWrite.length);
+		BytesIO.Writable.Seekable io = ioTuple.getIo();
+
+		assertThrows(NullPointerException.class, () -> io.writeBytesFullyAt(0, (ByteBuffer[]) null));
+		assertThrows(NegativeValueException.class, () -> io.writeBytesFullyAt(-1, new ByteBuffer[0]));
+		io.writeBytesFullyAt(0, new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) });
+
+		long initialPos = io.position();
+		int step = toWrite.length > 10000 ? 1111 : 3;
+		for (int i = 0; i < toWrite.length;) {
+			ByteBuffer[] buffers = BytesIOTestUtils.wrapVectored(toWrite, i, step);
+			int nb = LcByteBufferUtils.remaining(buffers);
+			io.writeBytesFullyAt(i, buffers);
+			for (ByteBuffer buffer : buffers) assertThat(buffer.hasRemaining()).isFalse();
+			i += nb;
+			assertThat(io.position()).isEqualTo(initialPos);
+		}
+
+		if (!(io instanceof IO.Writable.Appendable))
+			assertThrows(EOFException.class, () -> io.writeBytesFullyAt(toWrite.length, new ByteBuffer[] { ByteBuffer.allocate(1) }));
+
+		io.flush();
+		checkWrittenData(io, ioTuple.getObject(), toWrite);
+		
+		io.close();
+		assertThrows(ClosedChannelException.class, () -> io.writeBytesFullyAt(0, new ByteBuffer[0]));
+	}
+	
 	@ParameterizedTest(name = "{0}")
 	@ArgumentsSource(RandomContentTestCasesProvider.class)
 	void writeByteBufferAt(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<? extends BytesIO.Writable.Seekable, ?>> ioSupplier) throws Exception {
@@ -1,5 +1,6 @@
 package net.lecousin.commons.io.bytes;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
@@ -95,4 +96,45 @@ public final class BytesIOTestUtils {
 			super(new RandomContentWithBufferSizeProvider(), new ParameterizedTestUtils.TestCasesArgumentsProvider());
 		}
 	}
+	
+	/** Sizes of a group of buffers used for scattering and gathering operations, like a header, an empty part, a payload and a trailer,
+	 * the total being limited to max. */
+	public static int[] vectoredSizes(int step, int max) {
+		int[] sizes = { step, 0, 2 * step, 1 };
+		int remaining = max;
+		for (int i = 0; i < sizes.length; ++i) {
+			sizes[i] = Math.min(sizes[i], remaining);
+			remaining -= sizes[i];
+		}
+		return sizes;
+	}
+	
+	public static ByteBuffer[] allocateVectored(int step, int max) {
+		int[] sizes = vectoredSizes(step, max);
+		ByteBuffer[] buffers = new ByteBuffer[sizes.length];
+		for (int i = 0; i < sizes.length; ++i) buffers[i] = ByteBuffer.allocate(sizes[i]);
+		return buffers;
+	}
+	
+	public static ByteBuffer[] wrapVectored(byte[] content, int off, int step) {
+		int[] sizes = vectoredSizes(step, content.length - off);
+		ByteBuffer[] buffers = new ByteBuffer[sizes.length];
+		for (int i = 0; i < sizes.length; ++i) {
+			buffers[i] = ByteBuffer.wrap(content, off, sizes[i]);
+			off += sizes[i];
+		}
+		return buffers;
+	}
+	
+	/** Copy the bytes read into the given buffers, to the given array. */
+	public static int copyVectored(ByteBuffer[] buffers, byte[] dest, int off) {
+		int done = 0;
+		for (ByteBuffer b : buffers) {
+			b.flip();
+			int r = b.remaining();
+			b.get(dest, off + done, r);
+			done += r;
+		}
+		return done;
+	}
 }
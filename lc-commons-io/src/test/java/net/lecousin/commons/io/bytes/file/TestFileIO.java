@@ -1,14 +1,25 @@
 package net.lecousin.commons.io.bytes.file;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.io.ByteArrayInputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
 import net.lecousin.commons.io.bytes.AbstractReadWriteBytesIOTest;
 import net.lecousin.commons.io.bytes.AbstractReadableSeekableBytesIOTest;
 import net.lecousin.commons.io.bytes.AbstractWritableBytesIOTest.WritableTestCase;
@@ -155,4 +166,80 @@ public class TestFileIO {
 		}
 	}
 	
+	public static class TestReadBuffer {
+		@Test
+		void testAdaptiveSize() throws Exception {
+			byte[] content = new byte[1024 * 1024 + 123];
+			new Random().nextBytes(content);
+			Path path = Files.createTempFile("test-lc-commons-io-file", "-readbuffer");
+			path.toFile().deleteOnExit();
+			Files.write(path, content);
+			try (FileIO.Readable io = new FileIO.Readable(path)) {
+				List<Integer> sizes = new ArrayList<>();
+				byte[] read = new byte[content.length];
+				int pos = 0;
+				Optional<ByteBuffer> b;
+				while ((b = io.readBuffer()).isPresent()) {
+					int nb = b.get().remaining();
+					sizes.add(nb);
+					b.get().get(read, pos, nb);
+					pos += nb;
+				}
+				assertThat(pos).isEqualTo(content.length);
+				Assertions.assertArrayEquals(content, read);
+				assertThat(sizes.subList(0, 6)).containsExactly(8192, 16384, 32768, 65536, 131072, 262144);
+				assertThat(sizes).allMatch(size -> size <= 262144);
+				assertThat(sizes.get(sizes.size() - 1)).isEqualTo((content.length - 516096) % 262144);
+				
+				io.seek(SeekFrom.START, 10);
+				assertThat(io.readBuffer().get().remaining()).isEqualTo(8192);
+				
+				// the file is extended
+				io.seek(SeekFrom.END, 0);
+				Files.write(path, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND);
+				assertThat(io.readBuffer().get().remaining()).isEqualTo(3);
+				assertThat(io.readBuffer()).isEmpty();
+			}
+		}
+	}
+	
+	public static class TestConcurrentPositional {
+		@Test
+		void testVectoredPositionalReadsDoNotMoveThePosition() throws Exception {
+			byte[] content = new byte[64 * 1024];
+			new Random(1).nextBytes(content);
+			Path path = Files.createTempFile("test-lc-commons-io-file", "-concurrent");
+			path.toFile().deleteOnExit();
+			Files.write(path, content);
+			try (FileIO.Readable io = new FileIO.Readable(path)) {
+				List<CompletableFuture<Void>> readers = new ArrayList<>();
+				for (int t = 0; t < 4; ++t) {
+					long seed = t;
+					readers.add(CompletableFuture.runAsync(() -> {
+						Random rand = new Random(seed);
+						try {
+							for (int i = 0; i < 500; ++i) {
+								int pos = rand.nextInt(content.length - 100);
+								ByteBuffer[] buffers = new ByteBuffer[] { ByteBuffer.allocate(30), ByteBuffer.allocate(40), ByteBuffer.allocate(30) };
+								io.readBytesFullyAt(pos, buffers);
+								for (int j = 0; j < 3; ++j) {
+									Assertions.assertArrayEquals(Arrays.copyOfRange(content, pos, pos + buffers[j].capacity()), buffers[j].array());
+									pos += buffers[j].capacity();
+								}
+							}
+						} catch (Exception e) {
+							throw new IllegalStateException(e);
+						}
+					}));
+				}
+				byte[] b = new byte[16];
+				for (int pos = 0; pos < content.length; pos += b.length) {
+					io.readBytesFully(b);
+					Assertions.assertArrayEquals(Arrays.copyOfRange(content, pos, pos + b.length), b);
+				}
+				CompletableFuture.allOf(readers.toArray(new CompletableFuture[0])).get();
+			}
+		}
+	}
+	
 }
@@ -1,12 +1,18 @@
 package net.lecousin.commons.io.bytes.memory;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.IntBinaryOperator;
 
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 import net.lecousin.commons.io.bytes.AbstractReadWriteBytesIOTest;
 import net.lecousin.commons.io.bytes.AbstractReadableSeekableBytesIOTest;
@@ -35,6 +41,16 @@ public class TestByteArrayIO {
 					byte[] b = new byte[data.length + 329];
 					System.arraycopy(data, 0, b, 111, data.length);
 					return new ByteArray(b, 111, data.length).asBytesIO().asReadableSeekableBytesIO();
+				}),
+				new TestCase<>("Acquired from pool", data -> ByteArrayIO.acquire(new ByteArray(data)).asReadableSeekableBytesIO()),
+				new TestCase<>("Reset", data -> {
+					ByteArrayIO io = new ByteArray(new byte[10]).asBytesIO();
+					try {
+						io.reset(new ByteArray(data));
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+					return io.asReadableSeekableBytesIO();
 				})
 			);
 		}
@@ -65,7 +81,9 @@ public class TestByteArrayIO {
 					byte[] b = new byte[data.length + 329];
 					System.arraycopy(data, 0, b, 111, data.length);
 					return new ByteArray(b, 111, data.length).asBytesDataIO(ByteOrder.BIG_ENDIAN).asReadableSeekableBytesDataIO();
-				})
+				}),
+				new TestCase<>("LE Acquired from pool", data -> ByteArrayDataIO.acquire(new ByteArray(data)).asReadableSeekableBytesDataIO()),
+				new TestCase<>("BE Acquired from pool", data -> ByteArrayDataIO.acquire(new ByteArray(data), ByteOrder.BIG_ENDIAN).asReadableSeekableBytesDataIO())
 			);
 		}
 	}
@@ -349,4 +367,91 @@ public class TestByteArrayIO {
 		}
 	}
 	
+	public static class TestReuse {
+		
+		@Test
+		void testPool() throws Exception {
+			ByteArrayIO io = ByteArrayIO.acquire(new ByteArray(new byte[] { 1, 2, 3 }));
+			assertThat(io.readByte()).isEqualTo((byte) 1);
+			io.release();
+			assertThatThrownBy(io::readByte).isInstanceOf(ClosedChannelException.class);
+			io.release();
+			ByteArrayIO io2 = ByteArrayIO.acquire(new ByteArray(new byte[] { 4, 5 }));
+			assertThat(io2).isSameAs(io);
+			assertThat(io2.position()).isZero();
+			assertThat(io2.size()).isEqualTo(2);
+			assertThat(io2.readByte()).isEqualTo((byte) 4);
+			assertThat(ByteArrayIO.acquire(new ByteArray(new byte[1]))).isNotSameAs(io2);
+			io2.close();
+			io2.release();
+			assertThat(ByteArrayIO.acquire(new ByteArray(new byte[1]))).isNotSameAs(io2);
+			// closed after being released
+			ByteArrayIO io4 = ByteArrayIO.acquire(new ByteArray(new byte[1]));
+			io4.release();
+			io4.close();
+			assertThat(ByteArrayIO.acquire(new ByteArray(new byte[1]))).isNotSameAs(io4);
+			
+			// appendable IOs and data IOs are not given to ByteArrayIO
+			ByteArrayIO.Appendable appendable = new ByteArray(new byte[1]).asAppendableBytesIO();
+			appendable.release();
+			ByteArrayDataIO dataIO = ByteArrayDataIO.acquire(new ByteArray(new byte[1]), ByteOrder.BIG_ENDIAN);
+			dataIO.release();
+			ByteArrayIO io3 = ByteArrayIO.acquire(new ByteArray(new byte[1]));
+			assertThat(io3).isNotSameAs(appendable).isNotSameAs(dataIO).isExactlyInstanceOf(ByteArrayIO.class);
+			ByteArrayDataIO dataIO2 = ByteArrayDataIO.acquire(new ByteArray(new byte[] { 1, 2 }));
+			assertThat(dataIO2).isSameAs(dataIO);
+			assertThat(dataIO2.getByteOrder()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+			assertThat(dataIO2.readUnsigned2Bytes()).isEqualTo(0x0201);
+			
+			// the pool is bounded
+			List<ByteArrayIO> list = new ArrayList<>();
+			for (int i = 0; i < 20; ++i) list.add(ByteArrayIO.acquire(new ByteArray(new byte[1])));
+			list.forEach(ByteArrayIO::release);
+			for (int i = 0; i < 20; ++i) list.remove(ByteArrayIO.acquire(new ByteArray(new byte[1])));
+			assertThat(list).hasSize(20 - ByteArrayIO.POOL_SIZE);
+		}
+		
+		@Test
+		void testReset() throws Exception {
+			ByteArrayIO io = new ByteArray(new byte[] { 1, 2, 3 }).asBytesIO();
+			io.readByte();
+			io.reset(new ByteArray(new byte[] { 7, 8 }));
+			assertThat(io.position()).isZero();
+			assertThat(io.readByte()).isEqualTo((byte) 7);
+			List<Integer> calls = new ArrayList<>();
+			io.onClose(() -> calls.add(1));
+			io.onClose(() -> { throw new IllegalStateException(); });
+			io.onClose(() -> calls.add(2));
+			io.close();
+			assertThat(calls).containsExactly(1, 2);
+			ByteArray array = new ByteArray(new byte[1]);
+			assertThatThrownBy(() -> io.reset(array)).isInstanceOf(ClosedChannelException.class);
+		}
+		
+		@Test
+		void testReleaseRemovesListeners() throws Exception {
+			List<Integer> calls = new ArrayList<>();
+			ByteArrayIO io = ByteArrayIO.acquire(new ByteArray(new byte[1]));
+			io.onClose(() -> calls.add(1));
+			io.release();
+			ByteArrayIO io2 = ByteArrayIO.acquire(new ByteArray(new byte[1]));
+			assertThat(io2).isSameAs(io);
+			io2.onClose(() -> calls.add(2));
+			io2.close();
+			assertThat(calls).containsExactly(2);
+			
+			calls.clear();
+			ByteArrayDataIO dataIO = ByteArrayDataIO.acquire(new ByteArray(new byte[2]), ByteOrder.BIG_ENDIAN);
+			dataIO.onClose(() -> calls.add(1));
+			dataIO.release();
+			// a listener registered after the release is not given to the next user
+			dataIO.onClose(() -> calls.add(3));
+			ByteArrayDataIO dataIO2 = ByteArrayDataIO.acquire(new ByteArray(new byte[] { 1, 2 }));
+			assertThat(dataIO2).isSameAs(dataIO);
+			assertThat(dataIO2.getByteOrder()).isEqualTo(ByteOrder.LITTLE_ENDIAN);
+			dataIO2.close();
+			assertThat(calls).isEmpty();
+		}
+	}
+	
 }
@@ -0,0 +1,122 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.exceptions.LimitExceededException;
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.bytes.data.AbstractReadableSeekableBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+import net.lecousin.commons.io.stream.MemoryOutputStream;
+import net.lecousin.commons.test.TestCase;
+
+public class TestByteChain {
+
+	private static ByteChain split(byte[] content, int segmentSize) {
+		ByteChain chain = new ByteChain(1);
+		for (int pos = 0; pos < content.length; pos += segmentSize)
+			chain.append(content, pos, Math.min(segmentSize, content.length - pos));
+		return chain;
+	}
+
+	public static class TestReadableSeekableBytesDataIO extends AbstractReadableSeekableBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<byte[], BytesDataIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("Single segment LE", content -> new ByteChain().append(content).asBytesDataIO()),
+				new TestCase<>("Segments of 3 bytes BE", content -> split(content, 3).asBytesDataIO(ByteOrder.BIG_ENDIAN)),
+				new TestCase<>("Segments of 5 bytes in direct buffers", content -> {
+					ByteChain chain = new ByteChain();
+					for (int pos = 0; pos < content.length; pos += 5) {
+						int len = Math.min(5, content.length - pos);
+						ByteBuffer b = ByteBuffer.allocateDirect(len);
+						b.put(content, pos, len).flip();
+						chain.append(b);
+					}
+					return chain.asBytesDataIO();
+				}),
+				new TestCase<>("Slice of a larger chain", content -> {
+					ByteChain chain = new ByteChain();
+					chain.append(new byte[7]);
+					chain.append(split(content, 100));
+					chain.append(new ByteArray(new byte[15], 2, 10));
+					return chain.slice(7, content.length).asBytesDataIO(ByteOrder.BIG_ENDIAN);
+				})
+			);
+		}
+	}
+
+	@Test
+	void testChain() throws Exception {
+		byte[] content = new byte[100];
+		for (int i = 0; i < content.length; ++i) content[i] = (byte) i;
+		ByteChain chain = new ByteChain();
+		assertThat(chain.isEmpty()).isTrue();
+		assertThat(chain.toByteArray()).isEmpty();
+		chain.append(content, 0, 10);
+		chain.append(new byte[0]);
+		ByteArray ba = new ByteArray(content, 5, 40);
+		ba.setPosition(5);
+		chain.append(ba);
+		chain.append(ByteBuffer.wrap(content, 45, 55));
+		assertThat(chain.size()).isEqualTo(100);
+		assertThat(chain.getNbSegments()).isEqualTo(3);
+		assertThat(chain.toByteArray()).isEqualTo(content);
+		for (int i = 0; i < 100; ++i)
+			assertThat(chain.get(i)).isEqualTo((byte) i);
+		assertThatThrownBy(() -> chain.get(100)).isInstanceOf(LimitExceededException.class);
+		assertThatThrownBy(() -> chain.get(-1)).isInstanceOf(NegativeValueException.class);
+
+		byte[] buf = new byte[30];
+		chain.get(5, buf, 0, 30);
+		for (int i = 0; i < 30; ++i)
+			assertThat(buf[i]).isEqualTo((byte) (i + 5));
+		assertThatThrownBy(() -> chain.get(90, buf, 0, 20)).isInstanceOf(LimitExceededException.class);
+
+		// slice does not copy
+		ByteChain slice = chain.slice(8, 40);
+		assertThat(slice.size()).isEqualTo(40);
+		assertThat(slice.getNbSegments()).isEqualTo(3);
+		assertThat(slice.get(0)).isEqualTo((byte) 8);
+		content[9] = -1;
+		assertThat(slice.get(1)).isEqualTo((byte) -1);
+		content[9] = 9;
+		assertThat(chain.slice(20, 0).isEmpty()).isTrue();
+		assertThat(chain.slice(10, 35).getNbSegments()).isEqualTo(1);
+		assertThatThrownBy(() -> chain.slice(50, 51)).isInstanceOf(LimitExceededException.class);
+
+		// buffers for gathering writes
+		ByteBuffer[] buffers = slice.toByteBuffers();
+		assertThat(buffers).hasSize(3);
+		assertThat(buffers[0].remaining() + buffers[1].remaining() + buffers[2].remaining()).isEqualTo(40);
+		buffers[0].get();
+		assertThat(slice.toByteBuffers()[0].remaining()).isEqualTo(2);
+
+		ByteArrayIO.Appendable out = new ByteArray(new byte[0]).asAppendableBytesIO();
+		chain.append(slice).writeTo(out);
+		assertThat(out.size()).isEqualTo(140);
+		byte[] written = new byte[140];
+		out.readBytesFullyAt(0, written);
+		assertThat(written).isEqualTo(chain.toByteArray());
+	}
+
+	@Test
+	void testFromMemoryOutputStream() throws Exception {
+		MemoryOutputStream out = new MemoryOutputStream(16);
+		for (int i = 0; i < 50; ++i)
+			out.write(i);
+		out.write(new byte[] { 1, 2, 3 }, 0, 3);
+		ByteChain chain = out.toByteChain();
+		assertThat(chain.size()).isEqualTo(53);
+		assertThat(chain.get(49)).isEqualTo((byte) 49);
+		assertThat(chain.get(52)).isEqualTo((byte) 3);
+		assertThat(chain.asBytesDataIO(ByteOrder.BIG_ENDIAN).readUnsigned2BytesAt(15)).isEqualTo(15 * 256 + 16);
+	}
+
+}
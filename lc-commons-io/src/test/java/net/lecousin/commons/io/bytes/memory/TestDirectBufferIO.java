@@ -0,0 +1,234 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntBinaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.AbstractReadWriteBytesIOTest;
+import net.lecousin.commons.io.bytes.AbstractReadableSeekableBytesIOTest;
+import net.lecousin.commons.io.bytes.AbstractWritableBytesIOTest.WritableTestCase;
+import net.lecousin.commons.io.bytes.AbstractWritableSeekableBytesIOTest;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.data.AbstractReadWriteBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.AbstractReadableSeekableBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.AbstractWritableSeekableBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+import net.lecousin.commons.io.bytes.file.FileIO;
+import net.lecousin.commons.test.TestCase;
+
+public class TestDirectBufferIO {
+
+	private static ByteBuffer direct(byte[] data, int before, int after) {
+		ByteBuffer b = ByteBuffer.allocateDirect(before + data.length + after);
+		b.position(before);
+		b.put(data);
+		b.position(before);
+		b.limit(before + data.length);
+		return b;
+	}
+
+	private static byte[] content(DirectBufferIO io) {
+		ByteBuffer b = io.toByteBuffer();
+		byte[] content = new byte[b.remaining()];
+		b.get(content);
+		return content;
+	}
+
+	public static class TestReadableSeekableBytesIO extends AbstractReadableSeekableBytesIOTest {
+		@Override
+		public List<? extends TestCase<byte[], BytesIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("Exact direct buffer", data -> new DirectBufferIO(direct(data, 0, 0)).asReadableSeekableBytesIO()),
+				new TestCase<>("Direct buffer with start offset", data -> new DirectBufferIO(direct(data, 111, 129)).asReadableSeekableBytesIO()),
+				new TestCase<>("Heap buffer", data -> new DirectBufferIO(ByteBuffer.wrap(data)).asReadableSeekableBytesIO())
+			);
+		}
+	}
+
+	public static class TestReadableSeekableBytesDataIO extends AbstractReadableSeekableBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<byte[], BytesDataIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("LE Exact direct buffer", data -> new DirectBufferDataIO(direct(data, 0, 0), ByteOrder.LITTLE_ENDIAN).asReadableSeekableBytesDataIO()),
+				new TestCase<>("LE Direct buffer with start offset", data -> new DirectBufferDataIO(direct(data, 111, 129), ByteOrder.LITTLE_ENDIAN).asReadableSeekableBytesDataIO()),
+				new TestCase<>("BE Exact direct buffer", data -> new DirectBufferDataIO(direct(data, 0, 0), ByteOrder.BIG_ENDIAN).asReadableSeekableBytesDataIO()),
+				new TestCase<>("BE Direct buffer with start offset", data -> new DirectBufferDataIO(direct(data, 111, 129), ByteOrder.BIG_ENDIAN).asReadableSeekableBytesDataIO())
+			);
+		}
+	}
+
+	public static class TestWritableSeekableBytesIO extends AbstractWritableSeekableBytesIOTest {
+		IntBinaryOperator minimumStrategy = (current, add) -> current + add;
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends BytesIO.Writable.Seekable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>("Allocated", size -> {
+					DirectBufferIO io = new DirectBufferIO(size);
+					return new WritableTestCase<>(io.asNonResizableWritableSeekableBytesIO(), io);
+				}),
+				new TestCase<>("Allocated resizable", size -> {
+					DirectBufferIO io = new DirectBufferIO(size);
+					return new WritableTestCase<>(io, io);
+				}),
+				new TestCase<>("Direct buffer with start offset appendable", size -> {
+					DirectBufferIO io = new DirectBufferIO.Appendable(direct(new byte[size], 111, 129));
+					return new WritableTestCase<>(io.asNonResizableWritableSeekableBytesIO(), io);
+				}),
+				new TestCase<>("Direct buffer appendable strategy=minimum", size -> {
+					DirectBufferIO io = new DirectBufferIO.Appendable(direct(new byte[size], 0, 0), minimumStrategy);
+					return new WritableTestCase<>(io, io);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(BytesIO.Writable.Seekable io, Object object, byte[] expected) throws Exception {
+			assertThat(content((DirectBufferIO) object)).containsExactly(expected);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	public static class TestReadWriteBytesIO extends AbstractReadWriteBytesIOTest {
+		@Override
+		public List<? extends TestCase<Integer, ?>> getTestCases() {
+			return List.of(
+				new TestCase<>("Allocated", size -> new DirectBufferIO(size).asNonResizableReadWriteBytesIO()),
+				new TestCase<>("Allocated resizable", size -> new DirectBufferIO(size)),
+				new TestCase<>("Direct buffer with start offset appendable", size -> new DirectBufferIO.Appendable(direct(new byte[size], 111, 129)).asNonResizableReadWriteBytesIO()),
+				new TestCase<>("Direct buffer appendable resizable", size -> new DirectBufferIO.Appendable(direct(new byte[size], 0, 0)))
+			);
+		}
+	}
+
+	public static class TestWritableSeekableBytesDataIO extends AbstractWritableSeekableBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends BytesDataIO.Writable.Seekable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>("LE Allocated", size -> {
+					DirectBufferDataIO io = new DirectBufferDataIO(size, ByteOrder.LITTLE_ENDIAN);
+					return new WritableTestCase<>(io.asNonResizableWritableSeekableBytesDataIO(), io);
+				}),
+				new TestCase<>("LE Appendable", size -> {
+					DirectBufferDataIO io = new DirectBufferDataIO.Appendable(direct(new byte[size], 111, 129), ByteOrder.LITTLE_ENDIAN);
+					return new WritableTestCase<>(io, io);
+				}),
+				new TestCase<>("BE Allocated", size -> {
+					DirectBufferDataIO io = new DirectBufferDataIO(size, ByteOrder.BIG_ENDIAN);
+					return new WritableTestCase<>(io.asNonResizableWritableSeekableBytesDataIO(), io);
+				}),
+				new TestCase<>("BE Appendable", size -> {
+					DirectBufferDataIO io = new DirectBufferDataIO.Appendable(direct(new byte[size], 0, 0), ByteOrder.BIG_ENDIAN);
+					return new WritableTestCase<>(io, io);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(BytesDataIO.Writable.Seekable io, Object object, byte[] expected) throws Exception {
+			assertThat(content((DirectBufferIO) object)).containsExactly(expected);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	public static class TestReadWriteBytesDataIO extends AbstractReadWriteBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<Integer, ?>> getTestCases() {
+			return List.of(
+				new TestCase<>("LE Allocated", size -> new DirectBufferDataIO(size, ByteOrder.LITTLE_ENDIAN).asNonResizableReadWriteBytesDataIO()),
+				new TestCase<>("LE Allocated resizable", size -> new DirectBufferDataIO(size, ByteOrder.LITTLE_ENDIAN)),
+				new TestCase<>("LE Appendable resizable", size -> new DirectBufferDataIO.Appendable(direct(new byte[size], 111, 129), ByteOrder.LITTLE_ENDIAN)),
+				new TestCase<>("BE Allocated", size -> new DirectBufferDataIO(size, ByteOrder.BIG_ENDIAN).asNonResizableReadWriteBytesDataIO()),
+				new TestCase<>("BE Allocated resizable", size -> new DirectBufferDataIO(size, ByteOrder.BIG_ENDIAN)),
+				new TestCase<>("BE Appendable resizable", size -> new DirectBufferDataIO.Appendable(direct(new byte[size], 0, 0), ByteOrder.BIG_ENDIAN))
+			);
+		}
+	}
+
+	public static class TestDirectBuffer {
+
+		@Test
+		void testTransferToFileIO() throws Exception {
+			byte[] data = new byte[100000];
+			for (int i = 0; i < data.length; ++i) data[i] = (byte) (i % 251);
+			Path path = Files.createTempFile("test", "directbufferio");
+			try {
+				try (DirectBufferIO io = new DirectBufferIO(direct(data, 0, 0));
+					FileIO.Writable.Appendable out = new FileIO.Writable.Appendable(path)) {
+					assertThat(io.toByteBuffer().isDirect()).isTrue();
+					io.transferFully(out);
+				}
+				assertThat(Files.readAllBytes(path)).containsExactly(data);
+			} finally {
+				Files.delete(path);
+			}
+		}
+
+		@Test
+		void testAppendKeepsDirectBufferAndByteOrder() throws Exception {
+			DirectBufferDataIO io = new DirectBufferDataIO.Appendable(4, ByteOrder.BIG_ENDIAN);
+			io.writeSigned4Bytes(0x01020304);
+			io.writeSigned8Bytes(0x05060708090A0B0CL);
+			io.writeUnsigned3Bytes(0x0D0E0F);
+			assertThat(io.size()).isEqualTo(15);
+			assertThat(io.toByteBuffer().isDirect()).isTrue();
+			assertThat(content(io)).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15);
+			io.setByteOrder(ByteOrder.LITTLE_ENDIAN);
+			assertThat(io.readSigned4BytesAt(0)).isEqualTo(0x04030201);
+			assertThat(io.readUnsigned3BytesAt(12)).isEqualTo(0x0F0E0D);
+			io.close();
+			assertThatThrownBy(io::readByte).isInstanceOf(ClosedChannelException.class);
+		}
+
+		@Test
+		void testGrowingSizeExposesZeros() throws Exception {
+			byte[] ones = new byte[10000];
+			Arrays.fill(ones, (byte) 1);
+			try (DirectBufferIO io = new DirectBufferIO(direct(ones, 0, 0))) {
+				io.setSize(10);
+				io.setSize(10000);
+				byte[] expected = new byte[10000];
+				Arrays.fill(expected, 0, 10, (byte) 1);
+				assertThat(content(io)).containsExactly(expected);
+			}
+			try (DirectBufferIO.Appendable io = new DirectBufferIO.Appendable(100)) {
+				io.writeBytesFully(new byte[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 });
+				io.setSize(2);
+				io.writeBytesFullyAt(5, new byte[] { 2 });
+				assertThat(content(io)).containsExactly(1, 1, 0, 0, 0, 2);
+				io.setSize(0);
+				io.writeByteAt(3, (byte) 3);
+				assertThat(content(io)).containsExactly(0, 0, 0, 3);
+			}
+		}
+
+		@Test
+		void testEmptyWriteBeyondSizeDoesNotExtend() throws Exception {
+			try (DirectBufferIO.Appendable io = new DirectBufferIO.Appendable(100)) {
+				io.writeBytesFully(new byte[] { 1, 2 });
+				io.writeBytesFullyAt(50, new byte[0]);
+				io.writeBytesFullyAt(60, new byte[10], 5, 0);
+				io.writeBytesFullyAt(70, ByteBuffer.allocate(0));
+				assertThat(io.size()).isEqualTo(2);
+			}
+		}
+
+		@Test
+		void testNativeOrderByDefault() throws Exception {
+			try (DirectBufferDataIO io = new DirectBufferDataIO(16)) {
+				assertThat(io.getByteOrder()).isEqualTo(ByteOrder.nativeOrder());
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,151 @@
+package net.lecousin.commons.io.bytes.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.bytes.AbstractWritableBytesIOTest.WritableTestCase;
+import net.lecousin.commons.io.bytes.data.AbstractReadWriteBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.AbstractReadableSeekableBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.AbstractWritableSeekableBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+import net.lecousin.commons.test.TestCase;
+
+public class TestSegmentedByteArrayDataIO {
+
+	private static SegmentedByteArrayDataIO create(int segmentSize, ByteOrder order, byte[] data) {
+		try {
+			SegmentedByteArrayDataIO io = new SegmentedByteArrayDataIO(segmentSize, order);
+			io.writeBytesFully(data);
+			io.seek(SeekFrom.START, 0);
+			return io;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static SegmentedByteArrayDataIO create(int segmentSize, ByteOrder order, int size) {
+		try {
+			SegmentedByteArrayDataIO io = new SegmentedByteArrayDataIO(segmentSize, order);
+			io.setSize(size);
+			return io;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static class TestReadableSeekableBytesDataIO extends AbstractReadableSeekableBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<byte[], BytesDataIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("LE segments of 16 bytes", data -> create(16, ByteOrder.LITTLE_ENDIAN, data).asReadableSeekableBytesDataIO()),
+				new TestCase<>("LE segments of 1024 bytes", data -> create(1024, ByteOrder.LITTLE_ENDIAN, data).asReadableSeekableBytesDataIO()),
+				new TestCase<>("BE segments of 16 bytes", data -> create(16, ByteOrder.BIG_ENDIAN, data).asReadableSeekableBytesDataIO()),
+				new TestCase<>("BE default segments", data -> create(SegmentedByteArrayDataIO.DEFAULT_SEGMENT_SIZE, ByteOrder.BIG_ENDIAN, data).asReadableSeekableBytesDataIO())
+			);
+		}
+	}
+
+	public static class TestWritableSeekableBytesDataIO extends AbstractWritableSeekableBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends BytesDataIO.Writable.Seekable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>("LE segments of 16 bytes", size -> {
+					SegmentedByteArrayDataIO io = create(16, ByteOrder.LITTLE_ENDIAN, size);
+					return new WritableTestCase<>(io, io);
+				}),
+				new TestCase<>("BE segments of 1024 bytes", size -> {
+					SegmentedByteArrayDataIO io = create(1024, ByteOrder.BIG_ENDIAN, size);
+					return new WritableTestCase<>(io.asNonResizableWritableSeekableBytesDataIO(), io);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(BytesDataIO.Writable.Seekable io, Object object, byte[] expected) throws Exception {
+			SegmentedByteArrayDataIO segmented = (SegmentedByteArrayDataIO) object;
+			assertThat(segmented.size()).isEqualTo(expected.length);
+			byte[] content = new byte[expected.length];
+			segmented.readBytesFullyAt(0, content);
+			assertThat(content).containsExactly(expected);
+		}
+	}
+
+	@SuppressWarnings("rawtypes")
+	public static class TestReadWriteBytesDataIO extends AbstractReadWriteBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<Integer, ?>> getTestCases() {
+			return List.of(
+				new TestCase<>("LE segments of 16 bytes", size -> create(16, ByteOrder.LITTLE_ENDIAN, size)),
+				new TestCase<>("LE segments of 1024 bytes non resizable", size -> create(1024, ByteOrder.LITTLE_ENDIAN, size).asNonResizableReadWriteBytesDataIO()),
+				new TestCase<>("BE segments of 16 bytes", size -> create(16, ByteOrder.BIG_ENDIAN, size)),
+				new TestCase<>("BE default segments", size -> create(SegmentedByteArrayDataIO.DEFAULT_SEGMENT_SIZE, ByteOrder.BIG_ENDIAN, size))
+			);
+		}
+	}
+
+	public static class TestSegments {
+
+		@Test
+		void testSegmentSizeMustBePowerOf2() {
+			assertThatThrownBy(() -> new SegmentedByteArrayDataIO(0, ByteOrder.LITTLE_ENDIAN)).isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> new SegmentedByteArrayDataIO(100, ByteOrder.LITTLE_ENDIAN)).isInstanceOf(IllegalArgumentException.class);
+			assertThat(new SegmentedByteArrayDataIO(128, ByteOrder.LITTLE_ENDIAN).getSegmentSize()).isEqualTo(128);
+		}
+
+		@Test
+		void testGrowAndShrink() throws Exception {
+			try (SegmentedByteArrayDataIO io = new SegmentedByteArrayDataIO(16, ByteOrder.LITTLE_ENDIAN)) {
+				byte[] data = new byte[100];
+				for (int i = 0; i < data.length; ++i) data[i] = (byte) (i + 1);
+				io.writeBytesFully(data);
+				assertThat(io.getNbSegments()).isEqualTo(7);
+				io.setSize(20);
+				assertThat(io.getNbSegments()).isEqualTo(2);
+				assertThat(io.position()).isEqualTo(20);
+				io.setSize(40);
+				assertThat(io.getNbSegments()).isEqualTo(3);
+				byte[] content = new byte[40];
+				io.readBytesFullyAt(0, content);
+				for (int i = 0; i < 20; ++i) assertThat(content[i]).isEqualTo((byte) (i + 1));
+				for (int i = 20; i < 40; ++i) assertThat(content[i]).isZero();
+				io.setSize(0);
+				assertThat(io.getNbSegments()).isZero();
+			}
+		}
+
+		@Test
+		void testReadBufferGivesSegments() throws Exception {
+			try (SegmentedByteArrayDataIO io = new SegmentedByteArrayDataIO(16, ByteOrder.LITTLE_ENDIAN)) {
+				io.writeBytesFully(new byte[40]);
+				io.seek(SeekFrom.START, 10);
+				assertThat(io.readBuffer()).get().extracting(ByteBuffer::remaining).isEqualTo(6);
+				assertThat(io.readBuffer()).get().extracting(ByteBuffer::remaining).isEqualTo(16);
+				assertThat(io.readBuffer()).get().extracting(ByteBuffer::remaining).isEqualTo(8);
+				assertThat(io.readBuffer()).isEmpty();
+			}
+		}
+
+		@Test
+		void testDataAcrossSegments() throws Exception {
+			try (SegmentedByteArrayDataIO io = new SegmentedByteArrayDataIO(16, ByteOrder.BIG_ENDIAN)) {
+				io.writeSigned8BytesAt(13, 0x0102030405060708L);
+				assertThat(io.size()).isEqualTo(21);
+				assertThat(io.readByteAt(15)).isEqualTo((byte) 3);
+				assertThat(io.readByteAt(16)).isEqualTo((byte) 4);
+				assertThat(io.readSigned8BytesAt(13)).isEqualTo(0x0102030405060708L);
+				assertThat(io.readUnsigned3BytesAt(14)).isEqualTo(0x020304);
+			}
+		}
+
+	}
+
+}
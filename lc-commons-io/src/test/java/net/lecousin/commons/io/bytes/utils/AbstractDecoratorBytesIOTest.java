@@ -0,0 +1,59 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+
+import net.lecousin.commons.io.bytes.AbstractReadableBytesIOTest;
+import net.lecousin.commons.io.bytes.AbstractWritableBytesIOTest;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.test.TestCase;
+
+/** Tests of a BytesIO decorating a ByteArrayIO. */
+public abstract class AbstractDecoratorBytesIOTest {
+
+	public abstract static class Readable extends AbstractReadableBytesIOTest {
+
+		protected abstract String getName();
+
+		protected abstract BytesIO.Readable decorate(BytesIO.Readable io);
+
+		@Override
+		public List<? extends TestCase<byte[], BytesIO.Readable>> getTestCases() {
+			return List.of(
+				new TestCase<>(getName() + " over ByteArrayIO", content -> decorate(new ByteArray(content).asBytesIO().asReadableBytesIO()))
+			);
+		}
+	}
+
+	public abstract static class Writable extends AbstractWritableBytesIOTest {
+
+		protected abstract String getName();
+
+		protected abstract BytesIO.Writable decorate(BytesIO.Writable io);
+
+		/** Check the decorator once the data has been written, by default nothing is checked. */
+		protected void checkDecorator(BytesIO.Writable io, byte[] expected) throws Exception {
+			// nothing by default
+		}
+
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends BytesIO.Writable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>(getName() + " over ByteArrayIO", size -> {
+					ByteArray ba = new ByteArray(new byte[size]);
+					return new WritableTestCase<>(decorate(ba.asBytesIO().asWritableBytesIO()), ba);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(BytesIO.Writable io, Object object, byte[] expected) throws Exception {
+			ByteArray ba = (ByteArray) object;
+			Assertions.assertArrayEquals(expected, ba.getArray());
+			checkDecorator(io, expected);
+		}
+	}
+
+}
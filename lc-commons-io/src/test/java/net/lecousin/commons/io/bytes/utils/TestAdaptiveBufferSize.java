@@ -0,0 +1,56 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class TestAdaptiveBufferSize {
+
+	@Test
+	void testGrowAndShrink() {
+		AdaptiveBufferSize size = new AdaptiveBufferSize(100, 500);
+		assertThat(size.getSize()).isEqualTo(100);
+		size.update(100, 100);
+		assertThat(size.getSize()).isEqualTo(200);
+		size.update(200, 150);
+		assertThat(size.getSize()).isEqualTo(200);
+		size.update(200, 200);
+		size.update(400, 400);
+		assertThat(size.getSize()).isEqualTo(500);
+		size.update(500, 500);
+		assertThat(size.getSize()).isEqualTo(500);
+		// a smaller buffer completely filled does not grow
+		size.update(10, 10);
+		assertThat(size.getSize()).isEqualTo(500);
+		size.update(500, 10);
+		assertThat(size.getSize()).isEqualTo(250);
+		size.update(250, 10);
+		size.update(125, 10);
+		assertThat(size.getSize()).isEqualTo(100);
+		size.update(200, 200);
+		assertThat(size.getSize()).isEqualTo(200);
+		size.reset();
+		assertThat(size.getSize()).isEqualTo(100);
+		assertThat(size.getMaxSize()).isEqualTo(500);
+	}
+
+	@Test
+	void testAvailable() {
+		AdaptiveBufferSize size = new AdaptiveBufferSize(100, 500);
+		assertThat(size.getSize(-1, true)).isEqualTo(100);
+		assertThat(size.getSize(-1, false)).isEqualTo(100);
+		assertThat(size.getSize(10, true)).isEqualTo(10);
+		assertThat(size.getSize(1000, true)).isEqualTo(100);
+		assertThat(size.getSize(10, false)).isEqualTo(100);
+		assertThat(size.getSize(300, false)).isEqualTo(300);
+		assertThat(size.getSize(1000, false)).isEqualTo(500);
+	}
+
+	@Test
+	void testInvalid() {
+		assertThatThrownBy(() -> new AdaptiveBufferSize(0, 10)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new AdaptiveBufferSize(10, 9)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -5,7 +5,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -40,8 +42,33 @@ public class TestBytesIOFromInputStream extends AbstractReadableBytesIOTest {
 						throw new RuntimeException(e);
 					}
 				}
+			),
+			new TestCase<>(
+				"Stream giving small chunks without available bytes",
+				data -> new BytesIOFromInputStream(new SmallChunksInputStream(new ByteArrayInputStream(data)), false)
 			)
 		);
 	}
 	
+	private static class SmallChunksInputStream extends FilterInputStream {
+		private SmallChunksInputStream(InputStream in) {
+			super(in);
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return super.read(b, off, Math.min(len, 100));
+		}
+		
+		@Override
+		public int available() {
+			return 0;
+		}
+		
+		@Override
+		public long skip(long n) throws IOException {
+			return super.skip(Math.min(n, 10));
+		}
+	}
+	
 }
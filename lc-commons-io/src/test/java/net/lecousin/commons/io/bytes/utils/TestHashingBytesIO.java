@@ -0,0 +1,145 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.memory.DirectBufferIO;
+import net.lecousin.commons.test.TestCase;
+
+public class TestHashingBytesIO {
+
+	private static long crc32c(byte[] data) {
+		CRC32C crc = new CRC32C();
+		crc.update(data);
+		return crc.getValue();
+	}
+
+	public static class TestReadable extends AbstractDecoratorBytesIOTest.Readable {
+		@Override
+		protected String getName() {
+			return "CRC32C";
+		}
+
+		@Override
+		protected BytesIO.Readable decorate(BytesIO.Readable io) {
+			return HashingBytesIO.readable(io, new CRC32C(), true);
+		}
+
+		@Override
+		public List<? extends TestCase<byte[], BytesIO.Readable>> getTestCases() {
+			List<TestCase<byte[], BytesIO.Readable>> list = new ArrayList<>(super.getTestCases());
+			list.add(new TestCase<>("SHA-256 over DirectBufferIO", content -> {
+				ByteBuffer b = ByteBuffer.allocateDirect(content.length);
+				b.put(content).flip();
+				try {
+					return HashingBytesIO.readable(new DirectBufferIO(b).asReadableBytesIO(), MessageDigest.getInstance("SHA-256"), true);
+				} catch (Exception e) {
+					throw new IllegalStateException(e);
+				}
+			}));
+			return list;
+		}
+	}
+
+	public static class TestWritable extends AbstractDecoratorBytesIOTest.Writable {
+		@Override
+		protected String getName() {
+			return "CRC32C";
+		}
+
+		@Override
+		protected BytesIO.Writable decorate(BytesIO.Writable io) {
+			return HashingBytesIO.writable(io, new CRC32C(), true);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void checkDecorator(BytesIO.Writable io, byte[] expected) {
+			assertThat(((HashingBytesIO.Writable<Checksum>) io).getHash().getValue()).isEqualTo(crc32c(expected));
+		}
+	}
+
+	public static class TestHash {
+
+		private final byte[] data = new byte[100000];
+
+		TestHash() {
+			new Random(42).nextBytes(data);
+		}
+
+		@Test
+		void testReadWithChecksum() throws Exception {
+			HashingBytesIO.Readable<Checksum> io = HashingBytesIO.readable(new ByteArray(data).asBytesIO().asReadableBytesIO(), new CRC32C(), true);
+			io.readByte();
+			io.readBytesFully(new byte[1000]);
+			io.skipFully(5000);
+			io.readBytesFully(ByteBuffer.allocateDirect(3000));
+			while (io.readBuffer().isPresent());
+			Assertions.assertThrows(EOFException.class, io::readByte);
+			assertThat(io.getHash().getValue()).isEqualTo(crc32c(data));
+			io.close();
+		}
+
+		@Test
+		void testWriteWithDigest() throws Exception {
+			ByteArray ba = new ByteArray(new byte[0]);
+			HashingBytesIO.Writable<MessageDigest> io = HashingBytesIO.writable(ba.asAppendableBytesIO(), MessageDigest.getInstance("SHA-256"), false);
+			io.writeByte(data[0]);
+			io.writeBytesFully(data, 1, 999);
+			ByteBuffer direct = ByteBuffer.allocateDirect(data.length - 1000);
+			direct.put(data, 1000, data.length - 1000).flip();
+			io.writeBytesFully(direct);
+			io.close();
+			assertThat(io.getHash().digest()).isEqualTo(MessageDigest.getInstance("SHA-256").digest(data));
+		}
+
+		@Test
+		void testTreeHash() throws Exception {
+			ParallelTreeHash tree = new ParallelTreeHash("SHA-256", 4096, 3);
+			MessageDigest root = MessageDigest.getInstance("SHA-256");
+			root.update((byte) 1);
+			for (int pos = 0; pos < data.length; pos += 4096) {
+				MessageDigest leaf = MessageDigest.getInstance("SHA-256");
+				leaf.update((byte) 0);
+				leaf.update(data, pos, Math.min(4096, data.length - pos));
+				root.update(leaf.digest());
+			}
+			assertThat(tree.hash(new ByteArray(data).asBytesIO())).isEqualTo(root.digest());
+		}
+
+		@Test
+		void testTreeHashEmpty() throws Exception {
+			ParallelTreeHash tree = new ParallelTreeHash("SHA-256", 4096);
+			MessageDigest root = MessageDigest.getInstance("SHA-256");
+			root.update((byte) 1);
+			root.update(MessageDigest.getInstance("SHA-256").digest(new byte[1]));
+			assertThat(tree.hash(new ByteArray(new byte[0]).asBytesIO())).isEqualTo(root.digest());
+		}
+
+		@Test
+		void testTreeHashError() throws Exception {
+			ParallelTreeHash tree = new ParallelTreeHash("SHA-256", 4096);
+			BytesIO.Readable.Seekable io = new ByteArray(data).asBytesIO();
+			io.close();
+			Assertions.assertThrows(ClosedChannelException.class, () -> tree.hash(io));
+			Assertions.assertThrows(NoSuchAlgorithmException.class, () -> new ParallelTreeHash("unknown", 4096));
+		}
+
+	}
+
+}
@@ -0,0 +1,213 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.bytes.AbstractReadableSeekableBytesIOTest;
+import net.lecousin.commons.io.bytes.AbstractWritableBytesIOTest.WritableTestCase;
+import net.lecousin.commons.io.bytes.AbstractWritableSeekableBytesIOTest;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.utils.IOMetrics;
+import net.lecousin.commons.io.utils.IOMetrics.Histogram;
+import net.lecousin.commons.io.utils.IOMetrics.Operation;
+import net.lecousin.commons.io.utils.IOMetricsRegistry;
+import net.lecousin.commons.test.TestCase;
+
+public class TestInstrumentedBytesIO {
+
+	public static class TestReadable extends AbstractDecoratorBytesIOTest.Readable {
+		@Override
+		protected String getName() {
+			return "InstrumentedBytesIO";
+		}
+
+		@Override
+		protected BytesIO.Readable decorate(BytesIO.Readable io) {
+			return InstrumentedBytesIO.readable(io, new IOMetrics("test"), true);
+		}
+	}
+
+	public static class TestWritable extends AbstractDecoratorBytesIOTest.Writable {
+		@Override
+		protected String getName() {
+			return "InstrumentedBytesIO";
+		}
+
+		@Override
+		protected BytesIO.Writable decorate(BytesIO.Writable io) {
+			return InstrumentedBytesIO.writable(io, new IOMetrics("test"), true);
+		}
+
+		@Override
+		protected void checkDecorator(BytesIO.Writable io, byte[] expected) {
+			assertThat(((InstrumentedBytesIO) io).getMetrics().getBytesWritten()).isEqualTo(expected.length);
+		}
+	}
+
+	public static class TestReadableSeekable extends AbstractReadableSeekableBytesIOTest {
+		@Override
+		public List<? extends TestCase<byte[], BytesIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("InstrumentedBytesIO over ByteArrayIO", data -> InstrumentedBytesIO.readableSeekable(new ByteArray(data).asBytesIO().asReadableSeekableBytesIO(), new IOMetrics("test"), true))
+			);
+		}
+	}
+
+	public static class TestWritableSeekable extends AbstractWritableSeekableBytesIOTest {
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends BytesIO.Writable.Seekable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>("InstrumentedBytesIO over ByteArrayIO", size -> {
+					ByteArray b = new ByteArray(new byte[size]);
+					return new WritableTestCase<>(InstrumentedBytesIO.writableSeekable(b.asBytesIO().asWritableSeekableBytesIO(), new IOMetrics("test"), true), b);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(BytesIO.Writable.Seekable io, Object object, byte[] expected) throws Exception {
+			Assertions.assertArrayEquals(expected, ((ByteArray) object).getArray());
+		}
+	}
+
+	public static class TestMetrics {
+
+		@Test
+		void testReadMetrics() throws Exception {
+			IOMetricsRegistry registry = new IOMetricsRegistry();
+			IOMetrics metrics = registry.register("file");
+			assertThat(registry.register("file")).isSameAs(metrics);
+			InstrumentedBytesIO.Readable io = InstrumentedBytesIO.readable(new ByteArray(new byte[1000]).asBytesIO().asReadableBytesIO(), metrics, true);
+			io.readByte();
+			io.readByte();
+			assertThat(io.readBytes(ByteBuffer.allocate(100))).isEqualTo(100);
+			io.readBytesFully(new byte[200]);
+			assertThat(io.skipUpTo(97)).isEqualTo(97);
+			assertThat(io.readBytes(new byte[1000], 0, 1000)).isEqualTo(601);
+			assertThat(io.readBuffer()).isEmpty();
+			Assertions.assertThrows(EOFException.class, io::readByte);
+			io.close();
+
+			assertThat(metrics.getBytesRead()).isEqualTo(1000);
+			assertThat(metrics.getBytesWritten()).isZero();
+			assertThat(metrics.get(Operation.READ_BYTE).getCount()).isEqualTo(2);
+			assertThat(metrics.get(Operation.READ_BYTE).getErrors()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTE).getLatency().getCount()).isEqualTo(3);
+			IOMetrics.OperationMetrics readBytes = metrics.get(Operation.READ_BYTES);
+			assertThat(readBytes.getCount()).isEqualTo(2);
+			assertThat(readBytes.getRequestedBytes()).isEqualTo(1100);
+			assertThat(readBytes.getSizes().getSum()).isEqualTo(701);
+			assertThat(readBytes.getUtilization()).isEqualTo(701d / 1100);
+			assertThat(readBytes.getSizes().getMean()).isEqualTo(350.5);
+			assertThat(metrics.get(Operation.READ_BYTES_FULLY).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BUFFER).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.SKIP).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.WRITE_BYTES).getCount()).isZero();
+			assertThat(metrics.get(Operation.WRITE_BYTES).getUtilization()).isZero();
+
+			assertThat(registry.getAll()).containsOnlyKeys("file");
+			assertThat(registry.get("file")).containsSame(metrics);
+			assertThat(registry.remove("file")).containsSame(metrics);
+			assertThat(registry.get("file")).isEmpty();
+			assertThat(IOMetricsRegistry.getDefault()).isSameAs(IOMetricsRegistry.getDefault());
+		}
+
+		@Test
+		void testSeekableMetrics() throws Exception {
+			IOMetrics metrics = new IOMetrics("seekable");
+			ByteArray data = new ByteArray(new byte[1000]);
+			InstrumentedBytesIO.ReadableSeekable in = InstrumentedBytesIO.readableSeekable(data.asBytesIO().asReadableSeekableBytesIO(), metrics, true);
+			InstrumentedBytesIO.WritableSeekable out = InstrumentedBytesIO.writableSeekable(data.asBytesIO().asWritableSeekableBytesIO(), metrics, true);
+			out.writeByteAt(10, (byte) 1);
+			out.writeBytesFullyAt(20, new byte[30]);
+			assertThat(out.writeBytesAt(900, ByteBuffer.allocate(200))).isEqualTo(100);
+			assertThat(in.seek(SeekFrom.START, 500)).isEqualTo(500);
+			assertThat(in.readByteAt(10)).isEqualTo((byte) 1);
+			assertThat(in.position()).isEqualTo(500);
+			in.readBytesFullyAt(20, ByteBuffer.allocate(30));
+			assertThat(in.readBytesAt(950, new byte[100], 0, 100)).isEqualTo(50);
+			Assertions.assertThrows(EOFException.class, () -> in.readByteAt(1000));
+			in.close();
+			out.close();
+
+			assertThat(metrics.getBytesWritten()).isEqualTo(131);
+			assertThat(metrics.getBytesRead()).isEqualTo(81);
+			assertThat(metrics.get(Operation.WRITE_BYTE_AT).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.WRITE_BYTES_FULLY_AT).getSizes().getSum()).isEqualTo(30);
+			assertThat(metrics.get(Operation.WRITE_BYTES_AT).getUtilization()).isEqualTo(0.5);
+			assertThat(metrics.get(Operation.SEEK).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.SEEK).getSizes().getSum()).isZero();
+			assertThat(metrics.get(Operation.READ_BYTE_AT).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTE_AT).getErrors()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTES_FULLY_AT).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTES_AT).getSizes().getSum()).isEqualTo(50);
+			assertThat(metrics.get(Operation.READ_BYTE).getCount()).isZero();
+		}
+
+		@Test
+		void testOperationMetricsCreatedOnFirstRecord() {
+			IOMetrics metrics = new IOMetrics("lazy");
+			assertThat(metrics.get(Operation.READ_BYTE)).isSameAs(metrics.get(Operation.WRITE_BYTE));
+			assertThat(metrics.get(Operation.READ_BYTE).getCount()).isZero();
+			metrics.recordSuccess(Operation.READ_BYTE, System.nanoTime(), 1, 1);
+			metrics.recordError(Operation.FLUSH, System.nanoTime());
+			assertThat(metrics.get(Operation.READ_BYTE)).isNotSameAs(metrics.get(Operation.WRITE_BYTE));
+			assertThat(metrics.get(Operation.READ_BYTE).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.FLUSH).getErrors()).isEqualTo(1);
+			assertThat(metrics.get(Operation.WRITE_BYTE).getCount()).isZero();
+			assertThat(metrics.getBytesRead()).isEqualTo(1);
+		}
+
+		@Test
+		void testHistogram() {
+			Histogram h = new Histogram();
+			assertThat(h.getPercentile(0.5)).isZero();
+			assertThat(h.getMean()).isZero();
+			h.add(0);
+			h.add(1);
+			h.add(3);
+			h.add(100);
+			h.add(-5);
+			long[] counts = h.getBucketCounts();
+			assertThat(counts[0]).isEqualTo(2);
+			assertThat(counts[1]).isEqualTo(1);
+			assertThat(counts[2]).isEqualTo(1);
+			assertThat(counts[7]).isEqualTo(1);
+			assertThat(h.getCount()).isEqualTo(5);
+			assertThat(h.getSum()).isEqualTo(104);
+			assertThat(h.getPercentile(0.5)).isEqualTo(1);
+			assertThat(h.getPercentile(1)).isEqualTo(127);
+			assertThat(Histogram.getUpperBound(0)).isZero();
+			assertThat(Histogram.getUpperBound(64)).isEqualTo(Long.MAX_VALUE);
+		}
+
+		@Test
+		void testHistogramFromSeveralThreads() throws Exception {
+			Histogram h = new Histogram();
+			List<CompletableFuture<Void>> threads = new ArrayList<>();
+			for (int t = 0; t < 8; ++t)
+				threads.add(CompletableFuture.runAsync(() -> {
+					for (int i = 0; i < 10000; ++i) h.add(i % 4);
+				}));
+			CompletableFuture.allOf(threads.toArray(new CompletableFuture[0])).get();
+			assertThat(h.getCount()).isEqualTo(80000);
+			assertThat(h.getSum()).isEqualTo(8 * 2500 * 6);
+			long[] counts = h.getBucketCounts();
+			assertThat(counts[0]).isEqualTo(20000);
+			assertThat(counts[1]).isEqualTo(20000);
+			assertThat(counts[2]).isEqualTo(40000);
+		}
+
+	}
+
+}
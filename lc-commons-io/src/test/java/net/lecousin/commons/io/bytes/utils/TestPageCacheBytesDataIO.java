@@ -0,0 +1,287 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.data.AbstractReadableSeekableBytesDataIOTest;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+import net.lecousin.commons.io.bytes.file.FileIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.memory.ByteArrayIO;
+import net.lecousin.commons.io.bytes.utils.PageCacheBytesDataIO.Eviction;
+import net.lecousin.commons.test.TestCase;
+
+public class TestPageCacheBytesDataIO {
+
+	public static class TestReadableSeekable extends AbstractReadableSeekableBytesDataIOTest {
+		@Override
+		public List<? extends TestCase<byte[], BytesDataIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("LRU pages of 16 bytes", data -> new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 16, 4, true)),
+				new TestCase<>("CLOCK pages of 16 bytes with read-ahead, BE", data -> new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 16, 3, Eviction.CLOCK, 2, ByteOrder.BIG_ENDIAN, true)),
+				new TestCase<>("LRU pages of 4 bytes, BE", data -> new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 4, 8, Eviction.LRU, 0, ByteOrder.BIG_ENDIAN, true)),
+				new TestCase<>("Concurrent LRU pages of 1024 bytes with read-ahead", data -> new PageCacheBytesDataIO.Concurrent(new ByteArray(data).asBytesIO(), 1024, 16, Eviction.LRU, 4, ByteOrder.LITTLE_ENDIAN, true))
+			);
+		}
+	}
+
+	public static class TestCache {
+
+		private final byte[] data = new byte[100000];
+
+		TestCache() {
+			new Random(42).nextBytes(data);
+		}
+
+		@Test
+		void testLruHitsAndMisses() throws Exception {
+			PageCacheBytesDataIO io = new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 256, 2, false);
+			assertThat(io.getPageSize()).isEqualTo(256);
+			assertThat(io.getMaxPages()).isEqualTo(2);
+			assertThat(io.readByteAt(10)).isEqualTo(data[10]);
+			assertThat(io.readByteAt(20)).isEqualTo(data[20]);
+			assertThat(io.readByteAt(300)).isEqualTo(data[300]);
+			assertThat(io.getMisses()).isEqualTo(2);
+			assertThat(io.getHits()).isEqualTo(1);
+			// page 1 is the least recently used, so it is evicted
+			io.readByteAt(10);
+			io.readByteAt(600);
+			io.readByteAt(10);
+			io.readByteAt(300);
+			assertThat(io.getMisses()).isEqualTo(4);
+			io.close();
+		}
+
+		@Test
+		void testClockEviction() throws Exception {
+			PageCacheBytesDataIO io = new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 256, 2, Eviction.CLOCK, 0, ByteOrder.LITTLE_ENDIAN, false);
+			io.readByteAt(0);
+			io.readByteAt(256);
+			// page 0 referenced, so page 1 is evicted first
+			io.readByteAt(0);
+			io.readByteAt(512);
+			assertThat(io.getMisses()).isEqualTo(3);
+			io.readByteAt(0);
+			assertThat(io.getMisses()).isEqualTo(3);
+			io.close();
+		}
+
+		@Test
+		void testReadAheadAndBypass() throws Exception {
+			PageCacheBytesDataIO io = new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 256, 16, Eviction.LRU, 3, ByteOrder.LITTLE_ENDIAN, true);
+			byte[] buf = new byte[100];
+			// sequential reads: first page, then second page with 3 pages of read-ahead
+			for (int i = 0; i < 10; ++i) {
+				io.readBytesFully(buf);
+				assertThat(buf).isEqualTo(Arrays.copyOfRange(data, i * 100, i * 100 + 100));
+			}
+			assertThat(io.getMisses()).isEqualTo(2);
+			ByteBuffer large = ByteBuffer.allocate(4096);
+			io.readBytesFullyAt(50000, large);
+			assertThat(large.array()).isEqualTo(Arrays.copyOfRange(data, 50000, 54096));
+			assertThat(io.getMisses()).isEqualTo(2);
+			io.close();
+		}
+
+		@Test
+		void testDataAcrossPages() throws Exception {
+			PageCacheBytesDataIO io = new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 16, 4, Eviction.LRU, 0, ByteOrder.BIG_ENDIAN, true);
+			ByteBuffer expected = ByteBuffer.wrap(data).order(ByteOrder.BIG_ENDIAN);
+			for (int pos = 0; pos < 64; ++pos) {
+				assertThat(io.readLongAt(pos)).isEqualTo(expected.getLong(pos));
+				assertThat(io.readIntegerAt(pos)).isEqualTo(expected.getInt(pos));
+			}
+			Assertions.assertThrows(EOFException.class, () -> io.readLongAt(data.length - 4));
+			io.close();
+		}
+
+		@Test
+		void testConcurrentReaders() throws Exception {
+			PageCacheBytesDataIO.Concurrent io = new PageCacheBytesDataIO.Concurrent(new ByteArray(data).asBytesIO(), 64, 32, true);
+			List<CompletableFuture<Void>> readers = new ArrayList<>();
+			for (int t = 0; t < 4; ++t) {
+				long seed = t;
+				readers.add(CompletableFuture.runAsync(() -> {
+					Random rand = new Random(seed);
+					try {
+						for (int i = 0; i < 5000; ++i) {
+							int pos = rand.nextInt(data.length);
+							assertThat(io.readByteAt(pos)).isEqualTo(data[pos]);
+						}
+					} catch (Exception e) {
+						throw new IllegalStateException(e);
+					}
+				}));
+			}
+			CompletableFuture.allOf(readers.toArray(new CompletableFuture[0])).get();
+			assertThat(io.getHits() + io.getMisses() + io.getWaits()).isEqualTo(20000);
+			io.close();
+		}
+
+		@Test
+		void testConcurrentReadersOnFile() throws Exception {
+			Path path = Files.createTempFile("test-lc-commons-io-pagecache", ".bin");
+			path.toFile().deleteOnExit();
+			Files.write(path, data);
+			ByteBuffer expected = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+			try (PageCacheBytesDataIO.Concurrent io = new PageCacheBytesDataIO.Concurrent(new FileIO.Readable(path), 64, 32, Eviction.LRU, 2, ByteOrder.LITTLE_ENDIAN, true)) {
+				List<CompletableFuture<Void>> readers = new ArrayList<>();
+				for (int t = 0; t < 4; ++t) {
+					long seed = t;
+					readers.add(CompletableFuture.runAsync(() -> {
+						Random rand = new Random(seed);
+						try {
+							for (int i = 0; i < 2000; ++i) {
+								int pos = rand.nextInt(data.length - 1024);
+								switch (i % 3) {
+								case 0:
+									assertThat(io.readByteAt(pos)).isEqualTo(data[pos]);
+									break;
+								case 1:
+									assertThat(io.readLongAt(pos)).isEqualTo(expected.getLong(pos));
+									break;
+								default:
+									ByteBuffer[] buffers = new ByteBuffer[] { ByteBuffer.allocate(100), ByteBuffer.allocate(300), ByteBuffer.allocate(500) };
+									io.readBytesFullyAt(pos, buffers);
+									for (ByteBuffer b : buffers) {
+										assertThat(b.array()).isEqualTo(Arrays.copyOfRange(data, pos, pos + b.capacity()));
+										pos += b.capacity();
+									}
+									break;
+								}
+							}
+						} catch (Exception e) {
+							throw new IllegalStateException(e);
+						}
+					}));
+				}
+				CompletableFuture.allOf(readers.toArray(new CompletableFuture[0])).get();
+			}
+		}
+
+		@Test
+		void testConcurrentMissLoadsOnce() throws Exception {
+			BlockingSource source = new BlockingSource(data);
+			PageCacheBytesDataIO.Concurrent io = new PageCacheBytesDataIO.Concurrent(source, 64, 32, true);
+			source.block();
+			CompletableFuture<Byte> first = CompletableFuture.supplyAsync(() -> readByteAt(io, 10));
+			assertThat(source.loading.await(10, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<Byte> second = readByteAtWhenWaiting(io, 20);
+			source.release.countDown();
+			assertThat(first.get()).isEqualTo(data[10]);
+			assertThat(second.get()).isEqualTo(data[20]);
+			assertThat(source.reads.get()).isEqualTo(1);
+			assertThat(io.getMisses()).isEqualTo(1);
+			assertThat(io.getWaits()).isEqualTo(1);
+			assertThat(io.getHits()).isZero();
+			io.close();
+		}
+
+		@Test
+		void testConcurrentMissOfReadAheadPageLoadsOnce() throws Exception {
+			BlockingSource source = new BlockingSource(data);
+			PageCacheBytesDataIO.Concurrent io = new PageCacheBytesDataIO.Concurrent(source, 64, 32, Eviction.LRU, 3, ByteOrder.LITTLE_ENDIAN, true);
+			assertThat(io.readByteAt(0)).isEqualTo(data[0]);
+			source.block();
+			// page 1 is loaded with pages 2 to 4 as read-ahead
+			CompletableFuture<Byte> first = CompletableFuture.supplyAsync(() -> readByteAt(io, 64));
+			assertThat(source.loading.await(10, TimeUnit.SECONDS)).isTrue();
+			CompletableFuture<Byte> second = readByteAtWhenWaiting(io, 3 * 64 + 5);
+			source.release.countDown();
+			assertThat(first.get()).isEqualTo(data[64]);
+			assertThat(second.get()).isEqualTo(data[3 * 64 + 5]);
+			assertThat(source.reads.get()).isEqualTo(2);
+			assertThat(io.getMisses()).isEqualTo(2);
+			assertThat(io.getWaits()).isEqualTo(1);
+			assertThat(io.readByteAt(4 * 64 + 63)).isEqualTo(data[4 * 64 + 63]);
+			assertThat(io.getHits()).isEqualTo(1);
+			io.close();
+		}
+
+		/** Start a reader, and wait for it to wait for the page being loaded by another thread. */
+		private static CompletableFuture<Byte> readByteAtWhenWaiting(PageCacheBytesDataIO io, long pos) throws InterruptedException {
+			CompletableFuture<Byte> result = new CompletableFuture<>();
+			Thread waiting = new Thread(() -> result.complete(readByteAt(io, pos)));
+			waiting.start();
+			long timeout = System.currentTimeMillis() + 10000;
+			while (waiting.getState() != Thread.State.WAITING && System.currentTimeMillis() < timeout)
+				Thread.sleep(1);
+			assertThat(waiting.getState()).isEqualTo(Thread.State.WAITING);
+			return result;
+		}
+
+		/** Source counting the reads, and blocking them once {@link #block()} is called, until released. */
+		private static final class BlockingSource extends ByteArrayIO {
+			private final AtomicInteger reads = new AtomicInteger();
+			private final CountDownLatch loading = new CountDownLatch(1);
+			private final CountDownLatch release = new CountDownLatch(1);
+			private volatile boolean blocking = false;
+
+			private BlockingSource(byte[] data) {
+				super(new ByteArray(data));
+			}
+
+			private void block() {
+				blocking = true;
+			}
+
+			private void read() {
+				reads.incrementAndGet();
+				if (!blocking) return;
+				loading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+
+			@Override
+			public void readBytesFullyAt(long pos, ByteBuffer buffer) throws IOException {
+				read();
+				super.readBytesFullyAt(pos, buffer);
+			}
+
+			@Override
+			public void readBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+				read();
+				super.readBytesFullyAt(pos, buffers);
+			}
+		}
+
+		private static byte readByteAt(PageCacheBytesDataIO io, long pos) {
+			try {
+				return io.readByteAt(pos);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Test
+		void testInvalidArguments() {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 100, 4, true));
+			Assertions.assertThrows(IllegalArgumentException.class, () -> new PageCacheBytesDataIO(new ByteArray(data).asBytesIO(), 128, 0, true));
+			Assertions.assertThrows(NullPointerException.class, () -> new PageCacheBytesDataIO(null, 128, 4, true));
+		}
+
+	}
+
+}
@@ -0,0 +1,108 @@
+package net.lecousin.commons.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.utils.IOThrottle;
+import net.lecousin.commons.io.utils.TokenBucket;
+
+public class TestThrottledBytesIO {
+
+	private static IOThrottle fastThrottle() {
+		return new IOThrottle(new TokenBucket(1L << 40, 4096), new TokenBucket(1L << 30, 100));
+	}
+
+	public static class TestReadable extends AbstractDecoratorBytesIOTest.Readable {
+		@Override
+		protected String getName() {
+			return "ThrottledBytesIO";
+		}
+
+		@Override
+		protected BytesIO.Readable decorate(BytesIO.Readable io) {
+			return ThrottledBytesIO.readable(io, fastThrottle(), true);
+		}
+	}
+
+	public static class TestWritable extends AbstractDecoratorBytesIOTest.Writable {
+		@Override
+		protected String getName() {
+			return "ThrottledBytesIO";
+		}
+
+		@Override
+		protected BytesIO.Writable decorate(BytesIO.Writable io) {
+			return ThrottledBytesIO.writable(io, fastThrottle(), true);
+		}
+	}
+
+	public static class TestThrottle {
+
+		@Test
+		void testBytesPerSecond() throws Exception {
+			IOThrottle throttle = IOThrottle.bytesPerSecond(100000, 10000);
+			ThrottledBytesIO.Readable io = ThrottledBytesIO.readable(new ByteArray(new byte[50000]).asBytesIO().asReadableBytesIO(), throttle, true);
+			long start = System.nanoTime();
+			io.readBytesFully(new byte[50000]);
+			long elapsed = System.nanoTime() - start;
+			// burst of 10000, then 40000 at 100000/s
+			assertThat(elapsed).isGreaterThanOrEqualTo(300_000_000L);
+			assertThat(throttle.getBytesBucket().get().getConsumed()).isEqualTo(50000);
+			assertThat(throttle.getOperationsBucket()).isEmpty();
+			io.close();
+		}
+
+		@Test
+		void testSharedOperationsPerSecond() throws Exception {
+			IOThrottle throttle = IOThrottle.operationsPerSecond(50, 5);
+			ThrottledBytesIO.Readable in = ThrottledBytesIO.readable(new ByteArray(new byte[20]).asBytesIO().asReadableBytesIO(), throttle, true);
+			ThrottledBytesIO.Writable out = ThrottledBytesIO.writable(new ByteArray(new byte[20]).asBytesIO().asWritableBytesIO(), throttle, true);
+			long start = System.nanoTime();
+			for (int i = 0; i < 10; ++i)
+				out.writeByte(in.readByte());
+			long elapsed = System.nanoTime() - start;
+			// 20 operations: burst of 5, then 15 at 50/s
+			assertThat(elapsed).isGreaterThanOrEqualTo(250_000_000L);
+			TokenBucket ops = throttle.getOperationsBucket().get();
+			assertThat(ops.getConsumed()).isEqualTo(20);
+			assertThat(throttle.limit(123456)).isEqualTo(123456);
+			in.close();
+			out.close();
+		}
+
+		@Test
+		void testSkipConsumesTokens() throws Exception {
+			IOThrottle throttle = IOThrottle.bytesPerSecond(1000000, 100);
+			ThrottledBytesIO.Readable io = ThrottledBytesIO.readable(new ByteArray(new byte[1000]).asBytesIO().asReadableBytesIO(), throttle, true);
+			assertThat(io.skipUpTo(500)).isEqualTo(100);
+			assertThat(throttle.getBytesBucket().get().getConsumed()).isEqualTo(100);
+			io.close();
+		}
+
+		@Test
+		void testObservedRate() throws Exception {
+			TokenBucket bucket = new TokenBucket(1000, 1000);
+			assertThat(bucket.getObservedRate()).isZero();
+			assertThat(bucket.getDelayNanos()).isZero();
+			bucket.consume(1500);
+			assertThat(bucket.getAvailableTokens()).isNegative();
+			assertThat(bucket.getDelayNanos()).isPositive();
+			Thread.sleep(1100);
+			assertThat(bucket.getObservedRate()).isGreaterThan(0);
+			assertThat(bucket.getDelayNanos()).isZero();
+		}
+
+		@Test
+		void testInvalidArguments() {
+			Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 10));
+			Assertions.assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+			Assertions.assertThrows(NullPointerException.class, () -> ThrottledBytesIO.readable(null, fastThrottle(), true));
+		}
+
+	}
+
+}
@@ -0,0 +1,76 @@
+package net.lecousin.commons.io.chars.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.utils.CompositeBytesIO;
+
+class TestBytesToCharsDecoder {
+
+	private static BytesIO.Readable chunks(byte[] bytes, int chunkSize) throws Exception {
+		List<BytesIO.Readable> ios = new LinkedList<>();
+		for (int i = 0; i < bytes.length; i += chunkSize)
+			ios.add(new ByteArray(bytes, i, Math.min(chunkSize, bytes.length - i)).asBytesIO());
+		return CompositeBytesIO.fromReadable(ios, true, true);
+	}
+
+	private static String decode(byte[] bytes, Charset charset, int chunkSize, int bufferSize) throws Exception {
+		BytesToCharsDecoder decoder = new BytesToCharsDecoder(chunks(bytes, chunkSize), charset);
+		StringBuilder s = new StringBuilder();
+		CharBuffer buffer = CharBuffer.allocate(bufferSize);
+		while (decoder.decode(buffer.clear()))
+			s.append(buffer.flip());
+		assertThat(decoder.decode(buffer.clear())).isFalse();
+		return s.toString();
+	}
+
+	private static String decodeBuffers(byte[] bytes, Charset charset, int chunkSize) throws Exception {
+		BytesToCharsDecoder decoder = new BytesToCharsDecoder(chunks(bytes, chunkSize), charset);
+		StringBuilder s = new StringBuilder();
+		Optional<CharBuffer> b;
+		while ((b = decoder.decodeBuffer()).isPresent())
+			s.append(b.get());
+		return s.toString();
+	}
+
+	@Test
+	void testCharsets() throws Exception {
+		String latin1 = "Hello World, été à la plage ÿ";
+		String utf8 = "Hello été € 😀 ascii run at the end";
+		for (int chunkSize : new int[] { 1, 2, 3, 5, 1000 }) {
+			for (int bufferSize : new int[] { 1, 2, 7, 8192 }) {
+				assertThat(decode("Hello World".getBytes(StandardCharsets.US_ASCII), StandardCharsets.US_ASCII, chunkSize, bufferSize)).isEqualTo("Hello World");
+				assertThat(decode(latin1.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1, chunkSize, bufferSize)).isEqualTo(latin1);
+				assertThat(decode(utf8.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, chunkSize, bufferSize)).isEqualTo(utf8);
+				assertThat(decode(utf8.getBytes(StandardCharsets.UTF_16LE), StandardCharsets.UTF_16LE, chunkSize, bufferSize)).isEqualTo(utf8);
+			}
+			assertThat(decodeBuffers(latin1.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.ISO_8859_1, chunkSize)).isEqualTo(latin1);
+			assertThat(decodeBuffers(utf8.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8, chunkSize)).isEqualTo(utf8);
+			assertThat(decodeBuffers(utf8.getBytes(StandardCharsets.UTF_16BE), StandardCharsets.UTF_16BE, chunkSize)).isEqualTo(utf8);
+		}
+		assertThat(decode(new byte[0], StandardCharsets.UTF_8, 1, 16)).isEmpty();
+		assertThat(decodeBuffers(new byte[0], StandardCharsets.UTF_8, 1)).isEmpty();
+	}
+
+	@Test
+	void testInvalidInput() {
+		byte[] truncated = "abc€".getBytes(StandardCharsets.UTF_8);
+		byte[] invalid = new byte[truncated.length - 1];
+		System.arraycopy(truncated, 0, invalid, 0, invalid.length);
+		assertThrows(CharacterCodingException.class, () -> decode(invalid, StandardCharsets.UTF_8, 2, 16));
+		assertThrows(CharacterCodingException.class, () -> decode(new byte[] { 'a', (byte) 0x80 }, StandardCharsets.US_ASCII, 1, 16));
+	}
+
+}
@@ -0,0 +1,98 @@
+package net.lecousin.commons.io.chars.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.bytes.BytesIO;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.chars.AbstractReadableCharsIOTest;
+import net.lecousin.commons.io.chars.CharsIO;
+import net.lecousin.commons.test.TestCase;
+
+public class TestParallelReadableCharsIOFromBytesIO extends AbstractReadableCharsIOTest {
+
+	@Override
+	public List<? extends TestCase<char[], CharsIO.Readable>> getTestCases() {
+		return List.of(
+			new TestCase<>("UTF-8 with default segments", content -> create(content, -1, -1)),
+			new TestCase<>("UTF-8 with around 100 segments", content -> create(content, Math.max(7, content.length / 50), 2)),
+			new TestCase<>("UTF-8 with segments of 4096 bytes", content -> create(content, 4096, 3))
+		);
+	}
+
+	private static CharsIO.Readable create(char[] content, int segmentSize, int maxPending) {
+		Charset charset = StandardCharsets.UTF_8;
+		BytesIO.Readable.Seekable io = new ByteArray(new String(content).getBytes(charset)).asBytesIO();
+		try {
+			if (segmentSize < 0) return new ParallelReadableCharsIOFromBytesIO(io, charset, true);
+			return new ParallelReadableCharsIOFromBytesIO(io, charset, true, segmentSize, maxPending);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static String readAll(CharsIO.Readable io) throws IOException {
+		StringBuilder s = new StringBuilder();
+		CharBuffer buffer = CharBuffer.allocate(100);
+		while (io.readChars(buffer.clear()) > 0)
+			s.append(buffer.flip());
+		return s.toString();
+	}
+
+	@Test
+	void testCharsets() throws Exception {
+		String latin1 = "Hello World, été à la plage ÿ";
+		BytesIO.Readable.Seekable io = new ByteArray(latin1.getBytes(StandardCharsets.ISO_8859_1)).asBytesIO();
+		assertThat(readAll(CharsIO.fromBytesIOParallel(io, StandardCharsets.ISO_8859_1, true))).isEqualTo(latin1);
+		io = new ByteArray(latin1.getBytes(StandardCharsets.ISO_8859_1)).asBytesIO();
+		assertThat(readAll(new ParallelReadableCharsIOFromBytesIO(io, StandardCharsets.ISO_8859_1, true, 3, 2))).isEqualTo(latin1);
+		io = new ByteArray("Hello".getBytes(StandardCharsets.US_ASCII)).asBytesIO();
+		assertThat(readAll(new ParallelReadableCharsIOFromBytesIO(io, StandardCharsets.US_ASCII, true, 2, 1))).isEqualTo("Hello");
+		// not supported: sequential decoding
+		io = new ByteArray(latin1.getBytes(StandardCharsets.UTF_16)).asBytesIO();
+		assertThat(ParallelReadableCharsIOFromBytesIO.isSupported(StandardCharsets.UTF_16)).isFalse();
+		CharsIO.Readable chars = CharsIO.fromBytesIOParallel(io, StandardCharsets.UTF_16, true);
+		assertThat(chars).isInstanceOf(ReadableCharsIOFromBytesIO.class);
+		assertThat(readAll(chars)).isEqualTo(latin1);
+		BytesIO.Readable.Seekable utf16 = new ByteArray(new byte[0]).asBytesIO();
+		assertThrows(IllegalArgumentException.class, () -> new ParallelReadableCharsIOFromBytesIO(utf16, StandardCharsets.UTF_16, true));
+	}
+
+	@Test
+	void testSmallSegments() throws Exception {
+		String s = "a€b😀cé\u0001€€€ end";
+		for (int segmentSize = 1; segmentSize < 10; ++segmentSize) {
+			BytesIO.Readable.Seekable io = new ByteArray(s.getBytes(StandardCharsets.UTF_8)).asBytesIO();
+			assertThat(readAll(new ParallelReadableCharsIOFromBytesIO(io, StandardCharsets.UTF_8, true, segmentSize, 3))).isEqualTo(s);
+		}
+	}
+
+	@Test
+	void testFromCurrentPosition() throws Exception {
+		BytesIO.Readable.Seekable io = new ByteArray("€€€ abcd é".getBytes(StandardCharsets.UTF_8)).asBytesIO();
+		io.seek(SeekFrom.START, 3);
+		assertThat(readAll(new ParallelReadableCharsIOFromBytesIO(io, StandardCharsets.UTF_8, true, 2, 3))).isEqualTo("€€ abcd é");
+	}
+
+	@Test
+	void testInvalidInput() throws Exception {
+		BytesIO.Readable.Seekable io = new ByteArray(new byte[] { 'a', 'b', (byte) 0xFF, 'c' }).asBytesIO();
+		try (CharsIO.Readable chars = new ParallelReadableCharsIOFromBytesIO(io, StandardCharsets.UTF_8, true, 2, 2)) {
+			assertThat(chars.readChar()).isEqualTo('a');
+			assertThat(chars.readChar()).isEqualTo('b');
+			assertThrows(CharacterCodingException.class, chars::readChar);
+		}
+	}
+
+}
@@ -1,10 +1,15 @@
 package net.lecousin.commons.io.chars.utils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedList;
 import java.util.List;
 
+import net.lecousin.commons.io.bytes.BytesIO;
 import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.utils.CompositeBytesIO;
 import net.lecousin.commons.io.chars.AbstractReadableCharsIOTest;
 import net.lecousin.commons.io.chars.CharsIO;
 import net.lecousin.commons.test.TestCase;
@@ -19,8 +24,22 @@ public class TestReadableCharsIOFromBytesIO extends AbstractReadableCharsIOTest
 				byte[] bytes = new String(content).getBytes(charset);
 				ByteArray ba = new ByteArray(bytes);
 				return new ReadableCharsIOFromBytesIO(ba.asBytesIO(), charset, true);
-			})
+			}),
+			new TestCase<>("Using chunks of 7 bytes and UTF-8", content -> chunks(content, StandardCharsets.UTF_8, 7)),
+			new TestCase<>("Using chunks of 3 bytes and UTF-16", content -> chunks(content, StandardCharsets.UTF_16BE, 3))
 		);
 	}
 	
+	private static CharsIO.Readable chunks(char[] content, Charset charset, int chunkSize) {
+		byte[] bytes = new String(content).getBytes(charset);
+		List<BytesIO.Readable> ios = new LinkedList<>();
+		for (int i = 0; i < bytes.length; i += chunkSize)
+			ios.add(new ByteArray(bytes, i, Math.min(chunkSize, bytes.length - i)).asBytesIO());
+		try {
+			return new ReadableCharsIOFromBytesIO(CompositeBytesIO.fromReadable(ios, true, true), charset, true);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 }
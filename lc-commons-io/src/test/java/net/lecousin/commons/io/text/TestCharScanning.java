@@ -0,0 +1,49 @@
+package net.lecousin.commons.io.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.CharBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TestCharScanning {
+
+	private static List<CharBuffer> buffers(String s) {
+		char[] array = ("xx" + s + "yy").toCharArray();
+		return List.of(
+			CharBuffer.wrap(s),
+			CharBuffer.wrap(s.toCharArray()),
+			CharBuffer.wrap(array, 2, s.length()).slice(),
+			CharBuffer.wrap(s.toCharArray()).asReadOnlyBuffer()
+		);
+	}
+
+	@Test
+	void testIndexOfAny() {
+		for (CharBuffer b : buffers("hello {world}\\n")) {
+			assertThat(CharScanning.indexOf(b, 'o')).isEqualTo(4);
+			assertThat(CharScanning.indexOf(b, 'z')).isEqualTo(-1);
+			assertThat(CharScanning.indexOfAny(b, '{', '}')).isEqualTo(6);
+			assertThat(CharScanning.indexOfAny(b, 'z', '\\', '}', 'y')).isEqualTo(12);
+			assertThat(CharScanning.indexOfAny(b, 'z', 'a', 'b', 'c')).isEqualTo(-1);
+			b.position(7);
+			assertThat(CharScanning.indexOf(b, 'o')).isEqualTo(1);
+			assertThat(CharScanning.indexOfAny(b, '{', '}')).isEqualTo(5);
+			assertThat(b.position()).isEqualTo(7);
+			StringBuilder s = new StringBuilder("a");
+			CharScanning.appendRun(b, 3, s);
+			assertThat(s).hasToString("awor");
+			assertThat(b.position()).isEqualTo(10);
+			CharScanning.appendRun(b, 0, s);
+			CharScanning.appendRun(b, -1, s);
+			assertThat(s).hasToString("aworld}\\n");
+			assertThat(b.hasRemaining()).isFalse();
+		}
+		char[] chars = "abcdef".toCharArray();
+		assertThat(CharScanning.indexOfAny(chars, 1, 6, 'a', 'd')).isEqualTo(3);
+		assertThat(CharScanning.indexOfAny(chars, 1, 3, 'a', 'd')).isEqualTo(-1);
+		assertThat(CharScanning.indexOfAny(chars, 0, 6, 'x', 'f', 'y', 'e')).isEqualTo(4);
+	}
+
+}
@@ -0,0 +1,106 @@
+package net.lecousin.commons.io.text;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import net.lecousin.commons.io.chars.CharsIO;
+import net.lecousin.commons.io.chars.memory.CharArray;
+import net.lecousin.commons.io.chars.utils.CompositeCharsIO;
+import net.lecousin.commons.io.text.PropertiesParser.Property;
+
+class TestPropertiesScanner {
+
+	static Stream<String> inputs() {
+		StringBuilder big = new StringBuilder();
+		for (int i = 0; i < 20000; ++i) {
+			if (i % 100 == 0) big.append("# comment ").append(i).append('\n');
+			if (i % 7 == 0) big.append("  ");
+			big.append("key").append(i);
+			if (i % 13 == 0) big.append("\\=x");
+			big.append('=').append("value ").append(i);
+			if (i % 11 == 0) big.append(" \\\\ with escape\\n");
+			if (i % 17 == 0) big.append('\r');
+			big.append('\n');
+			if (i % 23 == 0) big.append("\n\r\n");
+		}
+		big.append("last=no end of line");
+		return Stream.of(
+			"",
+			"abc",
+			"abc=def",
+			"abc=def\n# comment\na\\=b=c\\\\\\d\n",
+			"# comment\r\n\r\nabc=def\r\n\n# comment\n\n=\r\n\n\r\n",
+			"abc=def\nzz\r\n",
+			"abc=d\\",
+			"a\\\nb=c\nd=e\\\nf=g",
+			"=x",
+			big.toString()
+		);
+	}
+
+	private static List<Pair<String, String>> expected(PropertiesParser<String> parser, String input) {
+		parser.parse(CharBuffer.wrap(input));
+		List<Pair<String, String>> list = new ArrayList<>();
+		for (Property<String> p : parser.endOfInput())
+			list.add(Pair.of(p.getName(), p.getValue()));
+		return list;
+	}
+
+	@ParameterizedTest
+	@MethodSource("inputs")
+	void testScan(String input) throws Exception {
+		List<Pair<String, String>> expected = expected(PropertiesParser.simple(), input);
+
+		List<Pair<String, String>> list = new ArrayList<>();
+		PropertiesScanner.scan(input, (name, value) -> list.add(Pair.of(name.toString(), value.toString())));
+		assertThat(list).isEqualTo(expected);
+
+		list.clear();
+		CharBuffer buffer = CharBuffer.wrap("xx" + input).position(2);
+		PropertiesScanner.scan(buffer, (name, value) -> list.add(Pair.of(name.toString(), value.toString())));
+		assertThat(list).isEqualTo(expected);
+		assertThat(buffer.hasRemaining()).isFalse();
+
+		list.clear();
+		PropertiesScanner.scan(new CharArray(input.toCharArray()).asCharsIO(), (name, value) -> list.add(Pair.of(name.toString(), value.toString())));
+		assertThat(list).isEqualTo(expected);
+
+		if (input.length() < 1000) {
+			list.clear();
+			char[] chars = input.toCharArray();
+			List<CharsIO.Readable> ios = new LinkedList<>();
+			for (int i = 0; i < chars.length; ++i)
+				ios.add(new CharArray(chars, i, 1).asCharsIO());
+			PropertiesScanner.scan(CompositeCharsIO.fromReadable(ios, true, true), (name, value) -> list.add(Pair.of(name.toString(), value.toString())));
+			assertThat(list).isEqualTo(expected);
+		} else {
+			list.clear();
+			char[] chars = input.toCharArray();
+			List<CharsIO.Readable> ios = new LinkedList<>();
+			for (int i = 0; i < chars.length; i += 777)
+				ios.add(new CharArray(chars, i, Math.min(777, chars.length - i)).asCharsIO());
+			PropertiesScanner.scan(CompositeCharsIO.fromReadable(ios, true, true), (name, value) -> list.add(Pair.of(name.toString(), value.toString())));
+			assertThat(list).isEqualTo(expected);
+		}
+
+		Map<String, String> map = new ConcurrentHashMap<>();
+		PropertiesScanner.scanParallel(input, 4, (name, value) -> map.put(name.toString(), value.toString())).get(30, TimeUnit.SECONDS);
+		Map<String, String> expectedMap = new HashMap<>();
+		expected.forEach(p -> expectedMap.put(p.getLeft(), p.getRight()));
+		assertThat(map).isEqualTo(expectedMap);
+	}
+
+}
@@ -0,0 +1,173 @@
+package net.lecousin.commons.io.text.i18n;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.memory.ByteArrayDataIO;
+
+@Execution(ExecutionMode.SAME_THREAD)
+class TestI18n3 {
+
+	@Test
+	void testPreload() throws Exception {
+		I18nResourceBundle.preload(List.of("test1", "test2"), List.of(Locale.US, Locale.FRANCE, Locale.ROOT)).get(10, TimeUnit.SECONDS);
+		assertThat(I18nResourceBundle.getAsync(Locale.FRANCE, "test2", "key3", new Object[0])).isCompletedWithValue("france3");
+		assertThat(I18nResourceBundle.getAsync(Locale.US, "test2", "key1", new Object[0])).isCompletedWithValue("default1");
+		assertThat(I18nResourceBundle.getAsync(Locale.ROOT, "test1", "key6", new Object[] { 1, 2 })).isCompletedWithValue("12");
+	}
+
+	@Test
+	void testResultCache() throws Exception {
+		I18nResourceBundle.setResultCacheSize(4);
+		try {
+			TranslatedString s = new TranslatedString("test1", "key6", 1, "a");
+			assertThat(s.localize(Locale.US)).isEqualTo("1a");
+			String v = s.localize(Locale.US);
+			assertThat(s.localize(Locale.US)).isEqualTo("1a").isSameAs(v);
+			assertThat(s.localizeAsync(Locale.US)).isCompletedWithValue("1a");
+			assertThat(s.localize(Locale.FRANCE)).isEqualTo("1a");
+
+			String g = I18nResourceBundle.get(Locale.US, "test1", "key6", new Object[] { 2, 'b' });
+			assertThat(I18nResourceBundle.get(Locale.US, "test1", "key6", new Object[] { 2, 'b' })).isEqualTo("2b").isSameAs(g);
+			for (int i = 0; i < 10; ++i)
+				assertThat(I18nResourceBundle.get(Locale.US, "test1", "key6", new Object[] { i, "c" })).isEqualTo(i + "c");
+
+			StringBuilder mutable = new StringBuilder("x");
+			TranslatedString m = new TranslatedString("test1", "key6", mutable, 2);
+			assertThat(m.localize(Locale.US)).isEqualTo("x2");
+			mutable.append('y');
+			assertThat(m.localize(Locale.US)).isEqualTo("xy2");
+			assertThat(I18nResourceBundle.get(Locale.US, "test1", "key6", new Object[] { new TranslatedString("test1", "key1"), 3 })).isEqualTo("value13");
+
+			I18nResourceBundle.reload();
+			assertThat(s.localize(Locale.US)).isEqualTo("1a").isNotSameAs(v);
+		} finally {
+			I18nResourceBundle.setResultCacheSize(0);
+		}
+	}
+
+	@Test
+	void testHotReload() throws Exception {
+		Path dir = Path.of(I18nResourceBundle.class.getClassLoader().getResource("i18n/test1").toURI()).getParent();
+		Path file = dir.resolve("test3");
+		Files.writeString(file, "key1=first\n", StandardCharsets.UTF_8);
+		try {
+			assertThat(new TranslatedString("test3", "key1").localize(Locale.US)).isEqualTo("first");
+			I18nResourceBundle.setHotReload(true);
+			I18nResourceBundle.setHotReload(true);
+			assertThat(I18nResourceBundle.isHotReload()).isTrue();
+			Files.writeString(file, "key1=second\nkey2={{1}}\n", StandardCharsets.UTF_8);
+			long start = System.currentTimeMillis();
+			while (!"second".equals(new TranslatedString("test3", "key1").localize(Locale.US)) && System.currentTimeMillis() - start < 15000)
+				Thread.sleep(50);
+			assertThat(new TranslatedString("test3", "key1").localize(Locale.US)).isEqualTo("second");
+			assertThat(new TranslatedString("test3", "key2", "x").localize(Locale.US)).isEqualTo("x");
+		} finally {
+			I18nResourceBundle.setHotReload(false);
+			Files.deleteIfExists(file);
+			I18nResourceBundle.reload();
+		}
+		assertThat(I18nResourceBundle.isHotReload()).isFalse();
+		assertThat(new TranslatedString("test3", "key1").localize(Locale.US)).isEqualTo("[test3#key1]");
+		assertThat(new TranslatedString("test1", "key1").localize(Locale.US)).isEqualTo("value1");
+	}
+
+	@Test
+	void testBinaryBundle() throws Exception {
+		for (ByteOrder order : List.of(ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN)) {
+			ByteArrayDataIO.Appendable io = new ByteArray(new byte[0]).asAppendableBytesDataIO(order);
+			I18nBinaryBundle.write(io, List.of("test1", "test2"), List.of(Locale.US, Locale.CANADA_FRENCH, Locale.ROOT));
+			byte[] bytes = new byte[(int) io.size()];
+			io.readBytesFullyAt(0, bytes);
+			Path file = Files.createTempFile("test", ".i18n");
+			try {
+				Files.write(file, bytes);
+				I18nBinaryBundle bundle = I18nBinaryBundle.load(file);
+				assertThat(bundle.size()).isEqualTo(bytes.length);
+				assertThat(bundle.contains("test2", Locale.CANADA_FRENCH)).isTrue();
+				assertThat(bundle.contains("test2", Locale.FRANCE)).isFalse();
+				assertThat(bundle.contains("test3", Locale.US)).isFalse();
+				I18nResourceBundle.addBinaryBundle(bundle);
+				try {
+					assertThat(I18nResourceBundle.getAsync(Locale.CANADA_FRENCH, "test2", "key4", new Object[0])).isCompletedWithValue("frca4");
+					assertThat(I18nResourceBundle.getAsync(Locale.CANADA_FRENCH, "test2", "key3", new Object[0])).isCompletedWithValue("french3");
+					assertThat(I18nResourceBundle.getAsync(Locale.CANADA_FRENCH, "test2", "key1", new Object[0])).isCompletedWithValue("default1");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test2", "key4", new Object[0])).isCompletedWithValue("us4");
+					assertThat(I18nResourceBundle.getAsync(Locale.ROOT, "test2", "key4", new Object[0])).isCompletedWithValue("default4");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "key6", new Object[] { 12, "hello" })).isCompletedWithValue("12hello");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "key6", new Object[] { 1, 2 })).isCompletedWithValue("12");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "key=5", new Object[0])).isCompletedWithValue("value5");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "iamempty", new Object[0])).isCompletedWithValue("");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "key4", new Object[] { "abc" })).isCompletedWithValue("hello {{1}} abc.");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "test_less", new Object[] { 10, 20 }))
+						.isCompletedWithValue("using 10 and 20 the result is less");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "unknown", new Object[0])).isCompletedWithValue("[test1#unknown]");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "a", new Object[0])).isCompletedWithValue("[test1#a]");
+					assertThat(I18nResourceBundle.getAsync(Locale.US, "test1", "zzz", new Object[0])).isCompletedWithValue("[test1#zzz]");
+					// not in the bundle
+					assertThat(I18nResourceBundle.getAsync(Locale.FRANCE, "test2", "key4", new Object[0]).get(10, TimeUnit.SECONDS)).isEqualTo("france4");
+				} finally {
+					I18nResourceBundle.removeBinaryBundle(bundle);
+				}
+			} finally {
+				Files.delete(file);
+			}
+		}
+		assertThatThrownBy(() -> I18nBinaryBundle.load(ByteBuffer.wrap(new byte[16]))).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> I18nBinaryBundle.load(ByteBuffer.wrap(new byte[] { 0x49, 0x31, 0x38, 0x4E, 2, 0, 0, 0, 0, 0, 0, 0 }))).isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> I18nBinaryBundle.load(ByteBuffer.wrap(new byte[] { 0x49, 0x31, 0x38, 0x4E, 1, 0, 0, 0, 1, 0, 0, 0 }))).isInstanceOf(EOFException.class);
+	}
+
+	@Test
+	void testBinaryBundleInvalidLength() throws Exception {
+		ByteArrayDataIO.Appendable io = new ByteArray(new byte[0]).asAppendableBytesDataIO(ByteOrder.LITTLE_ENDIAN);
+		I18nBinaryBundle.write(io, List.of("test1"), List.of(Locale.ROOT));
+		byte[] valid = new byte[(int) io.size()];
+		io.readBytesFullyAt(0, valid);
+		ByteBuffer b = ByteBuffer.wrap(valid).order(ByteOrder.LITTLE_ENDIAN);
+		int tableOffsetPos = 16 + b.getInt(12);
+		int table = b.getInt(tableOffsetPos);
+		int firstEntry = b.getInt(table + 4);
+		// length of the message of key1, stored just before it
+		int message = new String(valid, StandardCharsets.ISO_8859_1).indexOf("value1") - 4;
+		assertThat(I18nBinaryBundle.load(ByteBuffer.wrap(valid)).getTable(I18nResourceBundle.getBundleKey("test1", Locale.ROOT)).apply("key1")).isNotNull();
+		int[][] corruptions = new int[][] {
+			// length of the table name
+			{ 12, -1 },
+			// offset of the table
+			{ tableOffsetPos, 4 }, { tableOffsetPos, valid.length - 2 },
+			// number of entries
+			{ table, -1 }, { table, valid.length },
+			// offset of an entry
+			{ table + 4, -1 }, { table + 4, valid.length - 2 },
+			// length of a key
+			{ firstEntry, -1 }, { firstEntry, valid.length },
+			// length of a message
+			{ message, -1 }, { message, Integer.MAX_VALUE }, { message, valid.length - message - 3 }
+		};
+		for (int[] corruption : corruptions) {
+			byte[] bytes = valid.clone();
+			ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(corruption[0], corruption[1]);
+			assertThatThrownBy(() -> I18nBinaryBundle.load(ByteBuffer.wrap(bytes)))
+				.as("value %d at %d", corruption[1], corruption[0])
+				.isInstanceOf(IOException.class).isNotInstanceOf(EOFException.class);
+		}
+	}
+
+}
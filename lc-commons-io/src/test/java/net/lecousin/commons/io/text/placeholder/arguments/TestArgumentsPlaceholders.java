@@ -2,14 +2,27 @@ package net.lecousin.commons.io.text.placeholder.arguments;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 
 import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
 
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.bytes.memory.ByteArrayIO;
+import net.lecousin.commons.io.chars.memory.CharArray;
+import net.lecousin.commons.io.chars.memory.CharArrayIO;
 import net.lecousin.commons.io.text.AbstractTextParserTest;
 import net.lecousin.commons.io.text.TextParser;
 import net.lecousin.commons.io.text.placeholder.PlaceholderElement;
+import net.lecousin.commons.io.text.placeholder.PlaceholderTemplate;
 import net.lecousin.commons.io.text.placeholder.PlaceholderTextParser;
 import net.lecousin.commons.test.TestCase.NoInput;
 
@@ -35,6 +48,11 @@ public class TestArgumentsPlaceholders extends AbstractTextParserTest<List<Place
 			testCase("{", List.of(9), "{"),
 			testCase("}", List.of(9), "}"),
 			testCase("hello \\{{1}} {{1}}.", List.of(9), "hello {{1}} 9."),
+			testCase("{{1}}/{{2}}/{{3}}", List.of(1L, "\u00e9t\u00e9", new StringBuilder("x")), "1/\u00e9t\u00e9/x"),
+			testCase("\u00e9{{1}}\u20ac", Arrays.asList((Object) null), "\u00e9null\u20ac"),
+			testCase("\ud83d\ude00{{1}}\ud83d\ude00", List.of("\ud83d\ude01"), "\ud83d\ude00\ud83d\ude01\ud83d\ude00"),
+			testCase("{{1}}", List.of("\u007f\u0080\u07ff\u0800\uffff"), "\u007f\u0080\u07ff\u0800\uffff"),
+			testCase("x{{1}}y", List.of("\ud800a\udc00b\ud800"), "x\ud800a\udc00b\ud800y"),
 			
 			testCase("{{if:{{1}}={{2}};yes;no}}", List.of(10, 20), "no"),
 			testCase("{{if:{{1}}={{2}};yes;no}}", List.of(10, 10), "yes"),
@@ -89,6 +107,9 @@ public class TestArgumentsPlaceholders extends AbstractTextParserTest<List<Place
 			
 			testCase("{{if:{{1}};yes={{2}}!;no={{3}}?}}", List.of("true", 7, 9), "yes=7!"),
 			testCase("{{if:{{1}};yes={{2}}!;no={{3}}?}}", List.of("false", 7, 9), "no=9?"),
+			testCase("a{{if:{{1}};b{{if:{{2}};c;d}}e;f{{3}}g}}h", List.of("true", "true", 9), "abceh"),
+			testCase("a{{if:{{1}};b{{if:{{2}};c;d}}e;f{{3}}g}}h", List.of("true", "false", 9), "abdeh"),
+			testCase("a{{if:{{1}};b{{if:{{2}};c;d}}e;f{{3}}g}}h", List.of("false", "true", 9), "af9gh"),
 			
 			testCase("{{if:12<37;ok;wrong}}", List.of(10, 1), "ok"),
 			testCase("{{if:12<37;;}}", List.of(10, 1), ""),
@@ -96,6 +117,11 @@ public class TestArgumentsPlaceholders extends AbstractTextParserTest<List<Place
 			testCase("{{if:12<37;hey {{wrong:invalid}};}}", List.of(10, 1), "hey "),
 			testCase("{{if:12<37;hey {{wrong:invalid}} {{wrong:invalid}} {{wrong:invalid}};}}", List.of(10, 1), "hey   "),
 			
+			testCase("{{if:a=a;{{1}};no}}", List.of(10, 1), "10"),
+			testCase("{{if:a!=a;{{1}};n{{2}}o}}", List.of(10, 1), "n1o"),
+			testCase("{{IF:{{1}};yes;no}}", List.of("true"), "yes"),
+			testCase("{{If:{{1}};yes;no}}", List.of("false"), "no"),
+			
 			testCase("hello {{unknown:wrong}} world", List.of(9), "hello  world"),
 			
 			testCase("{{}}", List.of(9), ""),
@@ -110,7 +136,109 @@ public class TestArgumentsPlaceholders extends AbstractTextParserTest<List<Place
 			placeholders -> {
 				assertThat(PlaceholderElement.resolveList(placeholders, arguments)).isEqualTo(expected);
 				placeholders.toString();
+				PlaceholderTemplate<List<Object>> template = PlaceholderTemplate.compile(placeholders);
+				assertThat(template.render(arguments)).isEqualTo(expected);
+				StringBuilder s = new StringBuilder("prefix");
+				template.render(arguments, s);
+				assertThat(s).hasToString("prefix" + expected);
+				try {
+					CharArrayIO.Appendable chars = new CharArray(new char[0]).asAppendableCharsIO();
+					template.render(arguments, chars);
+					char[] c = new char[(int) chars.size()];
+					chars.readCharsFullyAt(0, c);
+					assertThat(new String(c)).isEqualTo(expected);
+					ByteArrayIO.Appendable bytes = new ByteArray(new byte[0]).asAppendableBytesIO();
+					template.renderUtf8(arguments, bytes);
+					byte[] b = new byte[(int) bytes.size()];
+					bytes.readBytesFullyAt(0, b);
+					assertThat(b).isEqualTo(expected.getBytes(StandardCharsets.UTF_8));
+					for (int chunkSize : new int[] { 1, 3, PlaceholderTemplate.DEFAULT_CHUNK_SIZE }) {
+						chars = new CharArray(new char[0]).asAppendableCharsIO();
+						template.render(arguments, chars, chunkSize);
+						c = new char[(int) chars.size()];
+						chars.readCharsFullyAt(0, c);
+						assertThat(new String(c)).isEqualTo(expected);
+						for (Charset charset : List.of(StandardCharsets.UTF_8, StandardCharsets.UTF_16, StandardCharsets.ISO_8859_1)) {
+							bytes = new ByteArray(new byte[0]).asAppendableBytesIO();
+							template.render(arguments, bytes, charset, chunkSize);
+							b = new byte[(int) bytes.size()];
+							bytes.readBytesFullyAt(0, b);
+							assertThat(b).isEqualTo(expected.getBytes(charset));
+						}
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				PlaceholderTemplate<List<Object>>.Renderer renderer = template.renderer(arguments);
+				StringBuilder rendered = new StringBuilder();
+				CharBuffer buffer = CharBuffer.allocate(2);
+				int nb;
+				while ((nb = renderer.fill(buffer)) > 0) {
+					assertThat(nb).isEqualTo(buffer.position());
+					rendered.append(buffer.flip());
+					buffer.clear();
+				}
+				assertThat(nb).isEqualTo(-1);
+				assertThat(renderer.isDone()).isTrue();
+				assertThat(rendered).hasToString(expected);
+				template.toString();
 			}
 		);
 	}
+	
+	@Test
+	void testRenderLargeDocument() throws IOException {
+		StringBuilder input = new StringBuilder();
+		StringBuilder expected = new StringBuilder();
+		List<Object> arguments = new ArrayList<>();
+		arguments.add("\u00e9t\u00e9 \ud83d\ude00");
+		arguments.add("x".repeat(PlaceholderTemplate.DEFAULT_CHUNK_SIZE * 2 + 1));
+		for (int i = 0; i < 5000; ++i) {
+			input.append("line ").append(i).append(" \u20ac{{1}}{{if:").append(i % 100).append("=0;{{2}};}}\n");
+			expected.append("line ").append(i).append(" \u20ac").append(arguments.get(0)).append(i % 100 == 0 ? arguments.get(1) : "").append('\n');
+		}
+		TextParser<ArgumentsPlaceholder.Compiled> parser = ArgumentsPlaceholder.Compiled.parser();
+		parser.parse(CharBuffer.wrap(input));
+		ArgumentsPlaceholder.Compiled compiled = parser.endOfInput();
+		PlaceholderTemplate<List<Object>> template = compiled.getTemplate();
+		CharArrayIO.Appendable chars = new CharArray(new char[0]).asAppendableCharsIO();
+		template.render(arguments, chars);
+		char[] c = new char[(int) chars.size()];
+		chars.readCharsFullyAt(0, c);
+		assertThat(new String(c)).isEqualTo(expected.toString());
+		for (Charset charset : List.of(StandardCharsets.UTF_8, StandardCharsets.UTF_16BE)) {
+			ByteArrayIO.Appendable bytes = new ByteArray(new byte[0]).asAppendableBytesIO();
+			template.render(arguments, bytes, charset, 1000);
+			byte[] b = new byte[(int) bytes.size()];
+			bytes.readBytesFullyAt(0, b);
+			assertThat(new String(b, charset)).isEqualTo(expected.toString());
+		}
+		ByteArrayIO.Appendable bytes = new ByteArray(new byte[0]).asAppendableBytesIO();
+		template.renderUtf8(arguments, bytes);
+		byte[] b = new byte[(int) bytes.size()];
+		bytes.readBytesFullyAt(0, b);
+		assertThat(new String(b, StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+	}
+	
+	@Test
+	void testManyPlaceholders() throws IOException {
+		int nb = 70000;
+		StringBuilder expected = new StringBuilder();
+		TextParser<ArgumentsPlaceholder.Compiled> parser = ArgumentsPlaceholder.Compiled.parser();
+		for (int i = 0; i < nb; ++i) {
+			parser.parse(CharBuffer.wrap("{{1}}"));
+			expected.append("a");
+		}
+		parser.parse(CharBuffer.wrap("{{if:{{1}}=a;yes;no}}{{if:{{1}}=b;yes;no}}"));
+		expected.append("yesno");
+		PlaceholderTemplate<List<Object>> template = parser.endOfInput().getTemplate();
+		assertThat(template.getNbInstructions()).isGreaterThan(nb);
+		List<Object> arguments = List.of("a");
+		assertThat(template.render(arguments)).isEqualTo(expected.toString());
+		ByteArrayIO.Appendable bytes = new ByteArray(new byte[0]).asAppendableBytesIO();
+		template.renderUtf8(arguments, bytes);
+		byte[] b = new byte[(int) bytes.size()];
+		bytes.readBytesFullyAt(0, b);
+		assertThat(new String(b, StandardCharsets.UTF_8)).isEqualTo(expected.toString());
+	}
 }
@@ -0,0 +1,48 @@
+package net.lecousin.commons.io.text.placeholder.arguments;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.CharBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.text.TextParser;
+import net.lecousin.commons.io.text.placeholder.PlaceholderElement;
+import net.lecousin.commons.io.text.placeholder.PlaceholderStringElement;
+
+class TestFunctionPlaceholderHandler {
+
+	private static class FunctionCount extends FunctionPlaceholderHandler {
+		@Override
+		public String getName() {
+			return "testCount";
+		}
+
+		@Override
+		public PlaceholderElement<? super List<Object>> create(List<List<PlaceholderElement<? super List<Object>>>> arguments) {
+			return new PlaceholderStringElement(Integer.toString(arguments.size()));
+		}
+	}
+
+	@Test
+	void testRegistry() throws Exception {
+		assertThat(FunctionPlaceholderHandler.get("IF")).containsInstanceOf(FunctionIf.class);
+		assertThat(FunctionPlaceholderHandler.get("testcount")).isEmpty();
+		FunctionPlaceholderHandler.register(new FunctionCount());
+		try {
+			assertThat(FunctionPlaceholderHandler.get("TESTCOUNT")).containsInstanceOf(FunctionCount.class);
+			TextParser<ArgumentsPlaceholder.Compiled> parser = ArgumentsPlaceholder.Compiled.parser();
+			parser.parse(CharBuffer.wrap("[{{TestCount:a;b{{1}}c;d}}]"));
+			assertThat(parser.endOfInput().resolve(List.of("x"))).isEqualTo("[3]");
+			FunctionPlaceholderHandler.refresh();
+			assertThat(FunctionPlaceholderHandler.get("testCount")).containsInstanceOf(FunctionCount.class);
+			assertThat(FunctionPlaceholderHandler.get("if")).containsInstanceOf(FunctionIf.class);
+		} finally {
+			FunctionPlaceholderHandler.unregister("testCount");
+		}
+		assertThat(FunctionPlaceholderHandler.get("testcount")).isEmpty();
+		assertThat(FunctionPlaceholderHandler.get("if")).containsInstanceOf(FunctionIf.class);
+	}
+
+}
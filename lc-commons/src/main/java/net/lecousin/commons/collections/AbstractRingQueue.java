@@ -0,0 +1,185 @@
+package net.lecousin.commons.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import net.lecousin.commons.exceptions.LimitExceededException;
+
+/**
+ * Lock-free bounded queue, using an array as a ring buffer.
+ * <p>
+ * The capacity is rounded up to the next power of 2, and null elements are not accepted.
+ * Blocking operations ({@link #put(Object)}, {@link #take()}, and the ones with a timeout) do not use locks,
+ * but a {@link WaitStrategy} between attempts.
+ * </p>
+ * <p>
+ * The methods {@link #size()}, {@link #iterator()} and the ones based on them are only estimations while
+ * other threads are modifying the queue. Elements can only be removed from the head of the queue:
+ * {@link #remove(Object)} and the iterator's remove are not supported.
+ * </p>
+ * @param <T> type of elements
+ */
+public abstract class AbstractRingQueue<T> extends RingQueueFields.ConsumerPadding<T> implements BlockingQueue<T> {
+
+	/** Maximum capacity. */
+	public static final int MAXIMUM_CAPACITY = 0x40000000;
+
+	/** Access to the elements of the buffer. */
+	protected static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+	protected final Object[] buffer;
+	protected final int mask;
+	protected final WaitStrategy waitStrategy;
+
+	/** Constructor.
+	 * @param capacity capacity, rounded up to the next power of 2
+	 * @param waitStrategy strategy used by blocking operations
+	 */
+	protected AbstractRingQueue(int capacity, WaitStrategy waitStrategy) {
+		LimitExceededException.checkWithNonNegative(capacity, MAXIMUM_CAPACITY, "capacity", "MAXIMUM_CAPACITY");
+		int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.buffer = new Object[size];
+		this.mask = size - 1;
+		this.waitStrategy = waitStrategy;
+	}
+
+	/** @return the capacity of this queue. */
+	public int getCapacity() {
+		return buffer.length;
+	}
+
+	/** @return the strategy used by blocking operations. */
+	public WaitStrategy getWaitStrategy() {
+		return waitStrategy;
+	}
+
+	@Override
+	public int size() {
+		long after = getConsumerIndex();
+		while (true) {
+			long before = after;
+			long p = getProducerIndex();
+			after = getConsumerIndex();
+			if (before == after)
+				return (int) Math.max(0, Math.min(p - after, buffer.length));
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return getConsumerIndex() >= getProducerIndex();
+	}
+
+	@Override
+	public int remainingCapacity() {
+		return buffer.length - size();
+	}
+
+	/** Insert as many elements as possible, without waiting.
+	 * @param elements elements to insert
+	 * @param off offset of the first element to insert
+	 * @param len number of elements to insert
+	 * @return the number of inserted elements, which may be less than <code>len</code> if the queue is full
+	 */
+	public int offerAll(T[] elements, int off, int len) {
+		for (int i = 0; i < len; ++i)
+			if (!offer(elements[off + i]))
+				return i;
+		return len;
+	}
+
+	/** Remove up to <code>maxElements</code> elements, without waiting, and give them to the given consumer.
+	 * @param consumer receives the removed elements in order
+	 * @param maxElements maximum number of elements to remove
+	 * @return the number of removed elements
+	 */
+	public int drain(Consumer<? super T> consumer, int maxElements) {
+		int nb = 0;
+		while (nb < maxElements) {
+			T e = poll();
+			if (e == null) break;
+			nb++;
+			consumer.accept(e);
+		}
+		return nb;
+	}
+
+	@Override
+	public int drainTo(Collection<? super T> c) {
+		return drain(c::add, Integer.MAX_VALUE);
+	}
+
+	@Override
+	public int drainTo(Collection<? super T> c, int maxElements) {
+		return drain(c::add, maxElements);
+	}
+
+	@Override
+	public void put(T e) throws InterruptedException {
+		for (int attempt = 0; !offer(e); ++attempt) {
+			if (Thread.interrupted()) throw new InterruptedException();
+			waitStrategy.idle(attempt);
+		}
+	}
+
+	@Override
+	public boolean offer(T e, long timeout, TimeUnit unit) throws InterruptedException {
+		if (offer(e)) return true;
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (int attempt = 0; ; ++attempt) {
+			if (Thread.interrupted()) throw new InterruptedException();
+			if (System.nanoTime() - deadline >= 0) return false;
+			waitStrategy.idle(attempt);
+			if (offer(e)) return true;
+		}
+	}
+
+	@Override
+	public T take() throws InterruptedException {
+		for (int attempt = 0; ; ++attempt) {
+			T e = poll();
+			if (e != null) return e;
+			if (Thread.interrupted()) throw new InterruptedException();
+			waitStrategy.idle(attempt);
+		}
+	}
+
+	@Override
+	public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+		T e = poll();
+		if (e != null) return e;
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		for (int attempt = 0; ; ++attempt) {
+			if (Thread.interrupted()) throw new InterruptedException();
+			if (System.nanoTime() - deadline >= 0) return null;
+			waitStrategy.idle(attempt);
+			e = poll();
+			if (e != null) return e;
+		}
+	}
+
+	/** Return an iterator on a snapshot of the elements currently in the queue.
+	 * The snapshot may be inconsistent if other threads are modifying the queue.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public Iterator<T> iterator() {
+		long c = getConsumerIndex();
+		long p = getProducerIndex();
+		List<T> list = new ArrayList<>((int) Math.max(0, Math.min(p - c, buffer.length)));
+		for (long i = c; i < p && i - c < buffer.length; ++i) {
+			Object e = ELEMENT.getAcquire(buffer, (int) i & mask);
+			if (e != null) list.add((T) e);
+		}
+		return Collections.unmodifiableList(list).iterator();
+	}
+
+}
@@ -27,7 +27,11 @@ import net.lecousin.commons.exceptions.NegativeValueException;
  * (no need to copy elements as in a classical array).
  * </p>
  * <p>
- * When full, its size is increased by half of the current size.
+ * When full, its size is increased by half of the current size, except if it is bounded.
+ * </p>
+ * <p>
+ * A bounded instance, created with {@link #bounded(int)}, keeps a fixed capacity: when full, adding an element
+ * at the end overwrites the first (oldest) element, and adding an element at the beginning overwrites the last element.
  * </p>
  * <p>
  * It is not thread-safe.
@@ -68,14 +72,35 @@ public class CyclicArray<T> implements Deque<T> {
 		array = new Object[initSize];
 	}
 	
+	/** Create a bounded array, with a fixed capacity.
+	 * @param <T> type of elements
+	 * @param capacity capacity, at least 1
+	 * @return the bounded array
+	 */
+	public static <T> CyclicArray<T> bounded(int capacity) {
+		NegativeValueException.check(capacity, "capacity");
+		if (capacity < 1) capacity = 1;
+		CyclicArray<T> a = new CyclicArray<>(0);
+		a.array = new Object[capacity];
+		a.minSize = capacity;
+		a.bounded = true;
+		return a;
+	}
+	
 	private Object[] array;
 	/** First element index (except if empty: start == end). */
 	private int start = 0;
 	/** Index of next element to insert, or -1 if the array is full. */
 	private int end = 0;
 	private int minSize;
+	private boolean bounded = false;
+	
+	/** @return true if this array has a fixed capacity, and overwrites elements when full. */
+	public boolean isBounded() {
+		return bounded;
+	}
 	
-	/** @return true if the array is fully used, in other words if adding a new item will cause the array to grow. */
+	/** @return true if the array is fully used, in other words if adding a new item will cause the array to grow, or to overwrite an element if bounded. */
 	public boolean isFull() {
 		return end == -1;
 	}
@@ -92,7 +117,15 @@ public class CyclicArray<T> implements Deque<T> {
 	
 	@Override
 	public void addLast(T element) {
-		if (end == -1) increase();
+		if (end == -1) {
+			if (bounded) {
+				// overwrite the first element, which becomes the last one
+				array[start] = element;
+				if (++start == array.length) start = 0;
+				return;
+			}
+			increase();
+		}
 		array[end++] = element;
 		if (end == array.length)
 			end = 0;
@@ -102,7 +135,15 @@ public class CyclicArray<T> implements Deque<T> {
 	
 	@Override
 	public void addFirst(T e) {
-		if (end == -1) increase();
+		if (end == -1) {
+			if (bounded) {
+				// overwrite the last element, which becomes the first one
+				start = dec(start, array.length);
+				array[start] = e;
+				return;
+			}
+			increase();
+		}
 		if ((start = dec(start, array.length)) == end)
 			end = -1;
 		array[start] = e;
@@ -119,6 +160,10 @@ public class CyclicArray<T> implements Deque<T> {
 	public boolean addAll(Collection<? extends T> elements) {
 		int nb = elements.size();
 		if (nb == 0) return false;
+		if (bounded) {
+			for (T e : elements) addLast(e);
+			return true;
+		}
 		int a = end == -1 ? 0 :
 				end < start ? start - end :
 				start + (array.length - end);
@@ -359,8 +404,10 @@ public class CyclicArray<T> implements Deque<T> {
 	
 	/** Resize the capacity of this array.
 	 * @param newSize new size
+	 * @throws UnsupportedOperationException if this array is bounded
 	 */
 	public void resize(int newSize) {
+		if (bounded) throw new UnsupportedOperationException("A bounded array cannot be resized");
 		if (newSize < array.length) {
 			// decrease asked => check minimum
 			if (newSize < minSize)
@@ -378,8 +425,11 @@ public class CyclicArray<T> implements Deque<T> {
 		decrease(newSize);
 	}
 	
-	/** Decrease the capacity of this array if needed (if less than half of the array is used). */
+	/** Decrease the capacity of this array if needed (if less than half of the array is used).
+	 * A bounded array is never decreased.
+	 */
 	public void decreaseIfNeeded() {
+		if (bounded) return;
 		int s = size();
 		int newSize = array.length - (array.length >> 1);
 		if (s >= newSize)
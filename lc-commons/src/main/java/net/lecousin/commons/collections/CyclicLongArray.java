@@ -0,0 +1,395 @@
+package net.lecousin.commons.collections;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.LongConsumer;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+
+/**
+ * Same as {@link CyclicArray} but for primitive long values, avoiding boxing.
+ * <p>
+ * When full, its size is increased by half of the current size, except if it is bounded.
+ * </p>
+ * <p>
+ * A bounded instance, created with {@link #bounded(int)}, keeps a fixed capacity: when full, adding an element
+ * at the end overwrites the first (oldest) element, and adding an element at the beginning overwrites the last element.
+ * This is typically used for sliding windows.
+ * </p>
+ * <p>
+ * It is not thread-safe.
+ * </p>
+ */
+public class CyclicLongArray {
+
+	private static final String ERROR_MESSAGE_EMPTY_COLLECTION = "Collection is empty";
+
+	/** Initialize with a size of 5. */
+	public CyclicLongArray() {
+		this(CyclicArray.MINIMUM_SIZE, CyclicArray.MINIMUM_SIZE);
+	}
+
+	/** Initialize with the given initial size.
+	 * @param initSize initial size
+	 */
+	public CyclicLongArray(int initSize) {
+		this(initSize, initSize);
+	}
+
+	/** Initialize with the given initial size.
+	 * @param initSize initial size
+	 * @param minSize minimum size
+	 */
+	public CyclicLongArray(int initSize, int minSize) {
+		NegativeValueException.check(initSize, "initSize");
+		if (minSize < CyclicArray.MINIMUM_SIZE) minSize = CyclicArray.MINIMUM_SIZE;
+		if (initSize < minSize) initSize = minSize;
+		this.minSize = minSize;
+		array = new long[initSize];
+	}
+
+	/** Create a bounded array, with a fixed capacity.
+	 * @param capacity capacity, at least 1
+	 * @return the bounded array
+	 */
+	public static CyclicLongArray bounded(int capacity) {
+		NegativeValueException.check(capacity, "capacity");
+		if (capacity < 1) capacity = 1;
+		CyclicLongArray a = new CyclicLongArray(0);
+		a.array = new long[capacity];
+		a.minSize = capacity;
+		a.bounded = true;
+		return a;
+	}
+
+	private long[] array;
+	/** First element index (except if empty: start == end). */
+	private int start = 0;
+	/** Index of next element to insert, or -1 if the array is full. */
+	private int end = 0;
+	private int minSize;
+	private boolean bounded = false;
+
+	/** @return true if this array has a fixed capacity, and overwrites elements when full. */
+	public boolean isBounded() {
+		return bounded;
+	}
+
+	/** @return true if the array is fully used, in other words if adding a new item will cause the array to grow, or to overwrite an element if bounded. */
+	public boolean isFull() {
+		return end == -1;
+	}
+
+	/** @return the current capacity of the array. */
+	public int getCapacity() {
+		return array.length;
+	}
+
+	/** @return the remaining number of items that can be added before the array needs to be increased. */
+	public int getNbAvailableSlots() {
+		return array.length - size();
+	}
+
+	/** @return the number of elements. */
+	public int size() {
+		if (end == -1) return array.length;
+		if (start == end) return 0;
+		if (end > start) return end - start;
+		return array.length - start + end;
+	}
+
+	/** @return true if this array is empty. */
+	public boolean isEmpty() {
+		return start == end;
+	}
+
+	/** Add an element at the end.
+	 * @param value element to add
+	 */
+	public void addLast(long value) {
+		if (end == -1) {
+			if (bounded) {
+				// overwrite the first element, which becomes the last one
+				array[start] = value;
+				if (++start == array.length) start = 0;
+				return;
+			}
+			increase();
+		}
+		array[end++] = value;
+		if (end == array.length)
+			end = 0;
+		if (end == start)
+			end = -1;
+	}
+
+	/** Add an element at the beginning.
+	 * @param value element to add
+	 */
+	public void addFirst(long value) {
+		if (end == -1) {
+			if (bounded) {
+				// overwrite the last element, which becomes the first one
+				start = dec(start, array.length);
+				array[start] = value;
+				return;
+			}
+			increase();
+		}
+		start = dec(start, array.length);
+		if (start == end)
+			end = -1;
+		array[start] = value;
+	}
+
+	private static int dec(int v, int last) {
+		if (--v >= 0)
+			return v;
+		return last - 1;
+	}
+
+	/** Add elements at the end.
+	 * @param values elements to add
+	 * @param off offset of the first element to add
+	 * @param len number of elements to add
+	 */
+	public void addAll(long[] values, int off, int len) {
+		if (len <= 0) return;
+		if (bounded && len >= array.length) {
+			// only the last elements are kept
+			System.arraycopy(values, off + len - array.length, array, 0, array.length);
+			start = 0;
+			end = -1;
+			return;
+		}
+		int nb = size();
+		if (!bounded && array.length - nb < len) {
+			resize(array.length + (len - (array.length - nb)) + CyclicArray.MINIMUM_INCREASE);
+		}
+		// copy in up to 2 segments, from the insertion index then from the beginning of the array
+		int pos = end == -1 ? start : end;
+		int first = Math.min(len, array.length - pos);
+		System.arraycopy(values, off, array, pos, first);
+		if (first < len)
+			System.arraycopy(values, off + first, array, 0, len - first);
+		int newEnd = pos + len;
+		if (newEnd >= array.length) newEnd -= array.length;
+		if (nb + len >= array.length) {
+			// full, and if bounded the oldest elements have been overwritten
+			start = newEnd;
+			end = -1;
+		} else {
+			end = newEnd;
+		}
+	}
+
+	/** Add elements at the end.
+	 * @param values elements to add
+	 */
+	public void addAll(long... values) {
+		addAll(values, 0, values.length);
+	}
+
+	/** Remove the first element.
+	 * @return the removed element
+	 * @throws NoSuchElementException if empty
+	 */
+	public long removeFirst() {
+		if (end == start) throw new NoSuchElementException(ERROR_MESSAGE_EMPTY_COLLECTION);
+		if (end == -1) end = start;
+		long e = array[start];
+		if (++start == array.length) start = 0;
+		return e;
+	}
+
+	/** Remove up to <code>len</code> elements from the beginning, and copy them into the given array.
+	 * @param buf array to fill
+	 * @param off offset in the array
+	 * @param len maximum number of elements to remove
+	 * @return the number of elements removed
+	 */
+	public int removeFirst(long[] buf, int off, int len) {
+		int nb = Math.min(len, size());
+		if (nb <= 0) return 0;
+		int first = Math.min(nb, array.length - start);
+		System.arraycopy(array, start, buf, off, first);
+		if (first < nb)
+			System.arraycopy(array, 0, buf, off + first, nb - first);
+		if (end == -1) end = start;
+		start += nb;
+		if (start >= array.length) start -= array.length;
+		return nb;
+	}
+
+	/** Remove the last element.
+	 * @return the removed element
+	 * @throws NoSuchElementException if empty
+	 */
+	public long removeLast() {
+		if (end == start) throw new NoSuchElementException(ERROR_MESSAGE_EMPTY_COLLECTION);
+		if (end == -1) end = start;
+		if (end == 0) end = array.length;
+		return array[--end];
+	}
+
+	/** @return the first element.
+	 * @throws NoSuchElementException if empty
+	 */
+	public long getFirst() {
+		if (end == start) throw new NoSuchElementException(ERROR_MESSAGE_EMPTY_COLLECTION);
+		return array[start];
+	}
+
+	/** @return the last element.
+	 * @throws NoSuchElementException if empty
+	 */
+	public long getLast() {
+		if (end == start) throw new NoSuchElementException(ERROR_MESSAGE_EMPTY_COLLECTION);
+		int i = (end == -1 ? start : end) - 1;
+		if (i < 0) i = array.length - 1;
+		return array[i];
+	}
+
+	private int index(int index) {
+		NegativeValueException.check(index, "index");
+		int s = size();
+		if (index >= s) throw new NoSuchElementException("Index " + index + ", Size = " + s);
+		int i = start + index;
+		if (i >= array.length) i -= array.length;
+		return i;
+	}
+
+	/** @return the element at the given index.
+	 * @param index index
+	 * @throws NoSuchElementException in case there is no element at the given index
+	 * @throws NegativeValueException if index is negative
+	 */
+	public long get(int index) {
+		return array[index(index)];
+	}
+
+	/** Replace the element at the given index.
+	 * @param index index
+	 * @param value new value
+	 * @throws NoSuchElementException in case there is no element at the given index
+	 * @throws NegativeValueException if index is negative
+	 */
+	public void set(int index, long value) {
+		array[index(index)] = value;
+	}
+
+	/** @return true if the given value is contained in this array.
+	 * @param value the value to search
+	 */
+	public boolean contains(long value) {
+		int nb = size();
+		for (int pos = 0, i = start; pos < nb; ++pos) {
+			if (array[i] == value) return true;
+			if (++i == array.length) i = 0;
+		}
+		return false;
+	}
+
+	/** Remove all elements. */
+	public void clear() {
+		start = end = 0;
+	}
+
+	/** Call the given consumer on each element, from the first to the last, without allocating an iterator.
+	 * @param consumer consumer
+	 */
+	public void forEach(LongConsumer consumer) {
+		int nb = size();
+		for (int pos = 0, i = start; pos < nb; ++pos) {
+			consumer.accept(array[i]);
+			if (++i == array.length) i = 0;
+		}
+	}
+
+	/** @return an iterator on the elements, from the first to the last. */
+	public PrimitiveIterator.OfLong iterator() {
+		return new PrimitiveIterator.OfLong() {
+			private int pos = 0;
+
+			@Override
+			public boolean hasNext() {
+				return pos < size();
+			}
+
+			@Override
+			public long nextLong() {
+				if (pos >= size()) throw new NoSuchElementException();
+				int i = start + pos;
+				if (i >= array.length) i -= array.length;
+				pos++;
+				return array[i];
+			}
+		};
+	}
+
+	/** @return a new array containing the elements, from the first to the last. */
+	public long[] toArray() {
+		long[] a = new long[size()];
+		copyTo(a);
+		return a;
+	}
+
+	private int copyTo(long[] a) {
+		int nb = size();
+		if (nb == 0) return 0;
+		if (end > start) {
+			System.arraycopy(array, start, a, 0, nb);
+		} else {
+			int first = array.length - start;
+			System.arraycopy(array, start, a, 0, first);
+			System.arraycopy(array, 0, a, first, nb - first);
+		}
+		return nb;
+	}
+
+	private void increase() {
+		int newSize = array.length;
+		newSize = newSize + (newSize >> 1);
+		if (newSize < array.length + CyclicArray.MINIMUM_INCREASE) newSize = array.length + CyclicArray.MINIMUM_INCREASE;
+		setArray(new long[newSize]);
+	}
+
+	private void setArray(long[] a) {
+		int nb = copyTo(a);
+		array = a;
+		start = 0;
+		end = nb == a.length ? -1 : nb;
+	}
+
+	/** Resize the capacity of this array.
+	 * @param newSize new size
+	 * @throws UnsupportedOperationException if this array is bounded
+	 */
+	public void resize(int newSize) {
+		if (bounded) throw new UnsupportedOperationException("A bounded array cannot be resized");
+		if (newSize < array.length) {
+			// decrease asked => check minimum
+			if (newSize < minSize)
+				newSize = minSize; // cannot go beyond minSize
+			int s = size();
+			if (newSize < s)
+				newSize = s; // cannot go beyond the current number of elements
+		}
+		if (newSize == array.length)
+			return; // no change
+		setArray(new long[newSize]);
+	}
+
+	/** Decrease the capacity of this array if needed (if less than half of the array is used).
+	 * A bounded array is never decreased.
+	 */
+	public void decreaseIfNeeded() {
+		if (bounded) return;
+		int s = size();
+		int newSize = array.length - (array.length >> 1);
+		if (s >= newSize)
+			return;
+		resize(newSize);
+	}
+
+}
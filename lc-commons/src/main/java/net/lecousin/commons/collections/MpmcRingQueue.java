@@ -0,0 +1,99 @@
+package net.lecousin.commons.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+
+/**
+ * Lock-free bounded queue for multiple producer threads and multiple consumer threads.
+ * <p>
+ * Each slot of the buffer has a sequence number telling if it is ready to be written by a producer,
+ * or to be read by a consumer. Producers and consumers claim a slot with a compare-and-set on their index,
+ * then publish the new sequence of the slot.
+ * </p>
+ * @param <T> type of elements
+ */
+public class MpmcRingQueue<T> extends AbstractRingQueue<T> {
+
+	private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+	private final long[] sequences;
+
+	/** Constructor with a {@link WaitStrategy#BACK_OFF} wait strategy.
+	 * @param capacity capacity, rounded up to the next power of 2, and at least 2
+	 */
+	public MpmcRingQueue(int capacity) {
+		this(capacity, WaitStrategy.BACK_OFF);
+	}
+
+	/** Constructor.
+	 * @param capacity capacity, rounded up to the next power of 2, and at least 2
+	 * @param waitStrategy strategy used by blocking operations
+	 */
+	public MpmcRingQueue(int capacity, WaitStrategy waitStrategy) {
+		// with a single slot, the sequence of a consumed slot would be the same as the one of a published slot
+		super(capacity == 0 || capacity == 1 ? 2 : capacity, waitStrategy);
+		sequences = new long[buffer.length];
+		for (int i = 0; i < sequences.length; ++i)
+			sequences[i] = i;
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e);
+		long p = getProducerIndex();
+		while (true) {
+			int i = (int) p & mask;
+			long diff = (long) SEQUENCE.getAcquire(sequences, i) - p;
+			if (diff == 0) {
+				if (casProducerIndex(p, p + 1)) {
+					buffer[i] = e;
+					SEQUENCE.setRelease(sequences, i, p + 1);
+					return true;
+				}
+			} else if (diff < 0) {
+				// the slot has not yet been consumed: full
+				return false;
+			}
+			p = getProducerIndex();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T poll() {
+		long c = getConsumerIndex();
+		while (true) {
+			int i = (int) c & mask;
+			long diff = (long) SEQUENCE.getAcquire(sequences, i) - (c + 1);
+			if (diff == 0) {
+				if (casConsumerIndex(c, c + 1)) {
+					T e = (T) buffer[i];
+					buffer[i] = null;
+					SEQUENCE.setRelease(sequences, i, c + buffer.length);
+					return e;
+				}
+			} else if (diff < 0) {
+				// the slot has not yet been published: empty
+				return null;
+			}
+			c = getConsumerIndex();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T peek() {
+		while (true) {
+			long c = getConsumerIndex();
+			int i = (int) c & mask;
+			long diff = (long) SEQUENCE.getAcquire(sequences, i) - (c + 1);
+			if (diff < 0) return null;
+			if (diff == 0) {
+				Object e = ELEMENT.getAcquire(buffer, i);
+				if (e != null && getConsumerIndex() == c) return (T) e;
+			}
+		}
+	}
+
+}
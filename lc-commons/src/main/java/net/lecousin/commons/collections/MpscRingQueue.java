@@ -0,0 +1,117 @@
+package net.lecousin.commons.collections;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free bounded queue for multiple producer threads and a single consumer thread.
+ * <p>
+ * Producers claim slots with a compare-and-set on the producer index, then publish the element in the slot.
+ * The single consumer does not need any compare-and-set. {@link #offerAll(Object[], int, int)} claims all
+ * the slots it can with a single compare-and-set.
+ * </p>
+ * <p>
+ * Using it with several consumers concurrently leads to unpredictable results.
+ * </p>
+ * @param <T> type of elements
+ */
+public class MpscRingQueue<T> extends AbstractRingQueue<T> {
+
+	/** Constructor with a {@link WaitStrategy#BACK_OFF} wait strategy.
+	 * @param capacity capacity, rounded up to the next power of 2
+	 */
+	public MpscRingQueue(int capacity) {
+		this(capacity, WaitStrategy.BACK_OFF);
+	}
+
+	/** Constructor.
+	 * @param capacity capacity, rounded up to the next power of 2
+	 * @param waitStrategy strategy used by blocking operations
+	 */
+	public MpscRingQueue(int capacity, WaitStrategy waitStrategy) {
+		super(capacity, waitStrategy);
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e);
+		long p;
+		do {
+			p = getProducerIndex();
+			if (p - getConsumerIndex() >= buffer.length) return false;
+		} while (!casProducerIndex(p, p + 1));
+		ELEMENT.setRelease(buffer, (int) p & mask, e);
+		return true;
+	}
+
+	@Override
+	public int offerAll(T[] elements, int off, int len) {
+		for (int i = 0; i < len; ++i)
+			Objects.requireNonNull(elements[off + i]);
+		long p;
+		int nb;
+		do {
+			p = getProducerIndex();
+			nb = (int) Math.min(len, buffer.length - (p - getConsumerIndex()));
+			if (nb <= 0) return 0;
+		} while (!casProducerIndex(p, p + nb));
+		for (int i = 0; i < nb; ++i)
+			ELEMENT.setRelease(buffer, (int) (p + i) & mask, elements[off + i]);
+		return nb;
+	}
+
+	/** Get the element at the given consumer index, waiting for it if a producer claimed the slot but did not yet publish it.
+	 * @return the element, or null if the queue is empty.
+	 */
+	private Object getElement(long c, int i) {
+		Object e = ELEMENT.getAcquire(buffer, i);
+		if (e != null) return e;
+		if (c >= getProducerIndex()) return null;
+		do {
+			Thread.onSpinWait();
+			e = ELEMENT.getAcquire(buffer, i);
+		} while (e == null);
+		return e;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T poll() {
+		long c = getConsumerIndexPlain();
+		int i = (int) c & mask;
+		Object e = getElement(c, i);
+		if (e == null) return null;
+		buffer[i] = null;
+		setConsumerIndexRelease(c + 1);
+		return (T) e;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T peek() {
+		long c = getConsumerIndexPlain();
+		return (T) getElement(c, (int) c & mask);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int drain(Consumer<? super T> consumer, int maxElements) {
+		long c = getConsumerIndexPlain();
+		int done = 0;
+		try {
+			while (done < maxElements) {
+				int i = (int) (c + done) & mask;
+				Object e = ELEMENT.getAcquire(buffer, i);
+				if (e == null) break;
+				buffer[i] = null;
+				done++;
+				consumer.accept((T) e);
+			}
+		} finally {
+			if (done > 0)
+				setConsumerIndexRelease(c + done);
+		}
+		return done;
+	}
+
+}
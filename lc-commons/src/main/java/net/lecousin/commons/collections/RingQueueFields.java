@@ -0,0 +1,142 @@
+package net.lecousin.commons.collections;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+
+/**
+ * Producer and consumer indexes of ring queues.
+ * <p>
+ * They are declared in a hierarchy of classes, with padding fields between them, so that they are
+ * not in the same cache line: producers and consumers do not invalidate each other's cache (false sharing).
+ * </p>
+ */
+@SuppressWarnings({"unused", "squid:S1068"}) // padding fields
+final class RingQueueFields {
+
+	private RingQueueFields() {
+		// no instance
+	}
+
+	abstract static class ProducerPadding<T> extends AbstractQueue<T> {
+		private long p00;
+		private long p01;
+		private long p02;
+		private long p03;
+		private long p04;
+		private long p05;
+		private long p06;
+		private long p07;
+		private long p08;
+		private long p09;
+		private long p10;
+		private long p11;
+		private long p12;
+		private long p13;
+		private long p14;
+		private long p15;
+	}
+
+	abstract static class ProducerIndex<T> extends ProducerPadding<T> {
+		private static final VarHandle PRODUCER_INDEX;
+
+		static {
+			try {
+				PRODUCER_INDEX = MethodHandles.lookup().findVarHandle(ProducerIndex.class, "producerIndex", long.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private volatile long producerIndex;
+		/** Last known value of the consumer index, only used when there is a single producer. */
+		protected long consumerIndexCache;
+
+		protected final long getProducerIndex() {
+			return producerIndex;
+		}
+
+		protected final long getProducerIndexPlain() {
+			return (long) PRODUCER_INDEX.get(this);
+		}
+
+		protected final void setProducerIndexRelease(long value) {
+			PRODUCER_INDEX.setRelease(this, value);
+		}
+
+		protected final boolean casProducerIndex(long expected, long value) {
+			return PRODUCER_INDEX.compareAndSet(this, expected, value);
+		}
+	}
+
+	abstract static class MiddlePadding<T> extends ProducerIndex<T> {
+		private long p00;
+		private long p01;
+		private long p02;
+		private long p03;
+		private long p04;
+		private long p05;
+		private long p06;
+		private long p07;
+		private long p08;
+		private long p09;
+		private long p10;
+		private long p11;
+		private long p12;
+		private long p13;
+		private long p14;
+		private long p15;
+	}
+
+	abstract static class ConsumerIndex<T> extends MiddlePadding<T> {
+		private static final VarHandle CONSUMER_INDEX;
+
+		static {
+			try {
+				CONSUMER_INDEX = MethodHandles.lookup().findVarHandle(ConsumerIndex.class, "consumerIndex", long.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private volatile long consumerIndex;
+		/** Last known value of the producer index, only used when there is a single consumer. */
+		protected long producerIndexCache;
+
+		protected final long getConsumerIndex() {
+			return consumerIndex;
+		}
+
+		protected final long getConsumerIndexPlain() {
+			return (long) CONSUMER_INDEX.get(this);
+		}
+
+		protected final void setConsumerIndexRelease(long value) {
+			CONSUMER_INDEX.setRelease(this, value);
+		}
+
+		protected final boolean casConsumerIndex(long expected, long value) {
+			return CONSUMER_INDEX.compareAndSet(this, expected, value);
+		}
+	}
+
+	abstract static class ConsumerPadding<T> extends ConsumerIndex<T> {
+		private long p00;
+		private long p01;
+		private long p02;
+		private long p03;
+		private long p04;
+		private long p05;
+		private long p06;
+		private long p07;
+		private long p08;
+		private long p09;
+		private long p10;
+		private long p11;
+		private long p12;
+		private long p13;
+		private long p14;
+		private long p15;
+	}
+
+}
@@ -0,0 +1,116 @@
+package net.lecousin.commons.collections;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Lock-free bounded queue for a single producer thread and a single consumer thread.
+ * <p>
+ * Each side only writes its own index, and caches the last known index of the other side,
+ * so most operations do not need to access the cache line written by the other thread.
+ * Batch operations {@link #offerAll(Object[], int, int)} and {@link #drain(Consumer, int)} publish their
+ * index only once.
+ * </p>
+ * <p>
+ * Using it with several producers or several consumers concurrently leads to unpredictable results.
+ * </p>
+ * @param <T> type of elements
+ */
+public class SpscRingQueue<T> extends AbstractRingQueue<T> {
+
+	/** Constructor with a {@link WaitStrategy#BACK_OFF} wait strategy.
+	 * @param capacity capacity, rounded up to the next power of 2
+	 */
+	public SpscRingQueue(int capacity) {
+		this(capacity, WaitStrategy.BACK_OFF);
+	}
+
+	/** Constructor.
+	 * @param capacity capacity, rounded up to the next power of 2
+	 * @param waitStrategy strategy used by blocking operations
+	 */
+	public SpscRingQueue(int capacity, WaitStrategy waitStrategy) {
+		super(capacity, waitStrategy);
+	}
+
+	private int availableToProduce(long p, int needed) {
+		long available = buffer.length - (p - consumerIndexCache);
+		if (available < needed) {
+			consumerIndexCache = getConsumerIndex();
+			available = buffer.length - (p - consumerIndexCache);
+		}
+		return (int) available;
+	}
+
+	private int availableToConsume(long c, int needed) {
+		long available = producerIndexCache - c;
+		if (available < needed) {
+			producerIndexCache = getProducerIndex();
+			available = producerIndexCache - c;
+		}
+		return (int) available;
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e);
+		long p = getProducerIndexPlain();
+		if (availableToProduce(p, 1) <= 0) return false;
+		buffer[(int) p & mask] = e;
+		setProducerIndexRelease(p + 1);
+		return true;
+	}
+
+	@Override
+	public int offerAll(T[] elements, int off, int len) {
+		long p = getProducerIndexPlain();
+		int nb = Math.min(len, availableToProduce(p, len));
+		if (nb <= 0) return 0;
+		for (int i = 0; i < nb; ++i)
+			buffer[(int) (p + i) & mask] = Objects.requireNonNull(elements[off + i]);
+		setProducerIndexRelease(p + nb);
+		return nb;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T poll() {
+		long c = getConsumerIndexPlain();
+		if (availableToConsume(c, 1) <= 0) return null;
+		int i = (int) c & mask;
+		T e = (T) buffer[i];
+		buffer[i] = null;
+		setConsumerIndexRelease(c + 1);
+		return e;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T peek() {
+		long c = getConsumerIndexPlain();
+		if (availableToConsume(c, 1) <= 0) return null;
+		return (T) buffer[(int) c & mask];
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int drain(Consumer<? super T> consumer, int maxElements) {
+		long c = getConsumerIndexPlain();
+		int nb = Math.min(maxElements, availableToConsume(c, maxElements));
+		int done = 0;
+		try {
+			while (done < nb) {
+				int i = (int) (c + done) & mask;
+				T e = (T) buffer[i];
+				buffer[i] = null;
+				done++;
+				consumer.accept(e);
+			}
+		} finally {
+			if (done > 0)
+				setConsumerIndexRelease(c + done);
+		}
+		return done;
+	}
+
+}
@@ -0,0 +1,51 @@
+package net.lecousin.commons.collections;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Strategy to wait when an operation cannot be performed immediately,
+ * for example when a {@link AbstractRingQueue ring queue} is full for a producer or empty for a consumer.
+ * <p>
+ * The method {@link #idle(int)} is called repeatedly with an increasing number of attempts,
+ * starting at 0, until the operation can be performed. Implementations must be thread-safe.
+ * </p>
+ */
+// CHECKSTYLE DISABLE: MagicNumber
+@FunctionalInterface
+public interface WaitStrategy {
+
+	/** Wait before the next attempt.
+	 * @param attempt number of previous unsuccessful attempts, starting at 0
+	 */
+	void idle(int attempt);
+
+	/** Busy spin: lowest latency, but consumes a CPU while waiting. */
+	WaitStrategy BUSY_SPIN = attempt -> Thread.onSpinWait();
+
+	/** Yield the current thread at each attempt. */
+	WaitStrategy YIELDING = attempt -> Thread.yield();
+
+	/** Spin 100 times, then yield 10 times, then park up to 1 millisecond. */
+	WaitStrategy BACK_OFF = backOff(100, 10, 1000000L);
+
+	/** Create a strategy which first spins, then yields, then parks the thread with an increasing duration.
+	 * @param spins number of attempts using a busy spin
+	 * @param yields number of attempts yielding the thread, after spinning
+	 * @param maxParkNanos maximum duration of a park, in nanoseconds
+	 * @return the wait strategy
+	 */
+	static WaitStrategy backOff(int spins, int yields, long maxParkNanos) {
+		int yieldsEnd = spins + yields;
+		return attempt -> {
+			if (attempt < spins) {
+				Thread.onSpinWait();
+			} else if (attempt < yieldsEnd) {
+				Thread.yield();
+			} else {
+				int shift = Math.min(attempt - yieldsEnd, 20);
+				LockSupport.parkNanos(Math.min(maxParkNanos, 1000L << shift));
+			}
+		};
+	}
+
+}
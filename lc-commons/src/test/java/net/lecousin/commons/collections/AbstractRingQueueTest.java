@@ -0,0 +1,201 @@
+package net.lecousin.commons.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.exceptions.LimitExceededException;
+import net.lecousin.commons.exceptions.NegativeValueException;
+
+public abstract class AbstractRingQueueTest {
+
+	protected abstract AbstractRingQueue<Integer> createQueue(int capacity);
+
+	protected abstract int getNbProducers();
+
+	protected abstract int getNbConsumers();
+
+	protected int getMinimumCapacity() {
+		return 1;
+	}
+
+	@Test
+	void testCapacity() {
+		assertThat(createQueue(0).getCapacity()).isEqualTo(getMinimumCapacity());
+		assertThat(createQueue(1).getCapacity()).isEqualTo(getMinimumCapacity());
+		assertThat(createQueue(5).getCapacity()).isEqualTo(8);
+		assertThat(createQueue(16).getCapacity()).isEqualTo(16);
+		assertThatThrownBy(() -> createQueue(-1)).isInstanceOf(NegativeValueException.class);
+		assertThatThrownBy(() -> createQueue(Integer.MAX_VALUE)).isInstanceOf(LimitExceededException.class);
+	}
+
+	@Test
+	void testMinimumCapacity() {
+		AbstractRingQueue<Integer> q = createQueue(1);
+		for (int i = 0; i < q.getCapacity(); ++i)
+			assertThat(q.offer(i)).isTrue();
+		assertThat(q.offer(-1)).isFalse();
+		for (int i = 0; i < q.getCapacity(); ++i)
+			assertThat(q.poll()).isEqualTo(i);
+		assertThat(q.poll()).isNull();
+		assertThat(q.offer(10)).isTrue();
+		assertThat(q.poll()).isEqualTo(10);
+	}
+
+	@Test
+	void testSingleThread() {
+		AbstractRingQueue<Integer> q = createQueue(8);
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.poll()).isNull();
+		assertThat(q.peek()).isNull();
+		assertThat(q.iterator().hasNext()).isFalse();
+		assertThatThrownBy(() -> q.offer(null)).isInstanceOf(NullPointerException.class);
+
+		for (int round = 0; round < 5; ++round) {
+			for (int i = 0; i < 8; ++i)
+				assertThat(q.offer(i)).isTrue();
+			assertThat(q.offer(8)).isFalse();
+			assertThat(q.size()).isEqualTo(8);
+			assertThat(q.remainingCapacity()).isZero();
+			assertThat(q).containsExactly(0, 1, 2, 3, 4, 5, 6, 7);
+			assertThatThrownBy(() -> q.iterator().remove()).isInstanceOf(UnsupportedOperationException.class);
+			for (int i = 0; i < 5; ++i) {
+				assertThat(q.peek()).isEqualTo(i);
+				assertThat(q.poll()).isEqualTo(i);
+			}
+			assertThat(q.size()).isEqualTo(3);
+			assertThat(q.offerAll(new Integer[] { 10, 11, 12, 13, 14, 15, 16 }, 1, 6)).isEqualTo(5);
+			assertThat(q).containsExactly(5, 6, 7, 11, 12, 13, 14, 15);
+			List<Integer> list = new ArrayList<>();
+			assertThat(q.drainTo(list, 2)).isEqualTo(2);
+			assertThat(list).containsExactly(5, 6);
+			assertThat(q.drainTo(list)).isEqualTo(6);
+			assertThat(list).containsExactly(5, 6, 7, 11, 12, 13, 14, 15);
+			assertThat(q.isEmpty()).isTrue();
+			assertThat(q.drainTo(list)).isZero();
+			q.add(1);
+			q.clear();
+			assertThat(q.isEmpty()).isTrue();
+		}
+	}
+
+	@Test
+	void testBlockingOperations() throws Exception {
+		AbstractRingQueue<Integer> q = createQueue(2);
+		assertThat(q.poll(10, TimeUnit.MILLISECONDS)).isNull();
+		q.put(1);
+		q.put(2);
+		assertThat(q.offer(3, 10, TimeUnit.MILLISECONDS)).isFalse();
+		assertThat(q.take()).isEqualTo(1);
+		assertThat(q.offer(3, 10, TimeUnit.MILLISECONDS)).isTrue();
+		assertThat(q.poll(10, TimeUnit.MILLISECONDS)).isEqualTo(2);
+
+		// put blocks until the consumer takes an element
+		CountDownLatch done = new CountDownLatch(1);
+		Thread producer = new Thread(() -> {
+			try {
+				q.put(4);
+				q.put(5);
+				done.countDown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+		assertThat(done.await(100, TimeUnit.MILLISECONDS)).isFalse();
+		assertThat(q.take()).isEqualTo(3);
+		assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+		assertThat(q.take()).isEqualTo(4);
+		assertThat(q.take()).isEqualTo(5);
+
+		Thread.currentThread().interrupt();
+		assertThatThrownBy(q::take).isInstanceOf(InterruptedException.class);
+	}
+
+	@Test
+	void testConcurrent() throws Exception {
+		int nbPerProducer = 100000;
+		int nbProducers = getNbProducers();
+		int nbConsumers = getNbConsumers();
+		AbstractRingQueue<Integer> q = createQueue(64);
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		AtomicInteger received = new AtomicInteger();
+		boolean[] found = new boolean[nbPerProducer * nbProducers];
+		List<Thread> threads = new ArrayList<>();
+		for (int p = 0; p < nbProducers; ++p) {
+			int producer = p;
+			threads.add(new Thread(() -> {
+				try {
+					Integer[] batch = new Integer[10];
+					for (int i = 0; i < nbPerProducer; ) {
+						if ((i % 1000) == 0 && i + batch.length <= nbPerProducer) {
+							for (int j = 0; j < batch.length; ++j)
+								batch[j] = producer * nbPerProducer + i + j;
+							int off = 0;
+							while (off < batch.length)
+								off += q.offerAll(batch, off, batch.length - off);
+							i += batch.length;
+						} else {
+							q.put(producer * nbPerProducer + i);
+							i++;
+						}
+					}
+				} catch (Throwable t) {
+					error.set(t);
+				}
+			}));
+		}
+		for (int c = 0; c < nbConsumers; ++c) {
+			int consumer = c;
+			threads.add(new Thread(() -> {
+				try {
+					int[] last = new int[nbProducers];
+					for (int i = 0; i < nbProducers; ++i) last[i] = -1;
+					List<Integer> batch = new ArrayList<>();
+					while (received.get() < found.length) {
+						batch.clear();
+						if ((consumer % 2) == 0) {
+							Integer e = q.poll(10, TimeUnit.MILLISECONDS);
+							if (e != null) batch.add(e);
+						} else {
+							q.drainTo(batch, 7);
+						}
+						for (Integer e : batch) {
+							int producer = e.intValue() / nbPerProducer;
+							int index = e.intValue() % nbPerProducer;
+							// elements from a producer are received in order by a consumer
+							assertThat(index).isGreaterThan(last[producer]);
+							last[producer] = index;
+							synchronized (found) {
+								assertThat(found[e.intValue()]).isFalse();
+								found[e.intValue()] = true;
+							}
+							received.incrementAndGet();
+						}
+					}
+				} catch (Throwable t) {
+					error.set(t);
+				}
+			}));
+		}
+		for (Thread t : threads) t.start();
+		for (Thread t : threads) {
+			t.join(60000);
+			assertThat(t.isAlive()).isFalse();
+		}
+		assertThat(error.get()).isNull();
+		assertThat(received.get()).isEqualTo(found.length);
+		for (int i = 0; i < found.length; ++i)
+			assertThat(found[i]).isTrue();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+}
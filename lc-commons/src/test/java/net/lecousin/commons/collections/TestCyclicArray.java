@@ -695,6 +695,35 @@ class TestCyclicArray implements TestDeque<Integer, CyclicArray<Integer>> {
 		q.resize(8);
 	}
 	
+	@Test
+	void testBounded() {
+		CyclicArray<Integer> q = CyclicArray.bounded(3);
+		Assertions.assertTrue(q.isBounded());
+		Assertions.assertEquals(3, q.getCapacity());
+		q.add(1);
+		q.add(2);
+		q.add(3);
+		Assertions.assertTrue(q.isFull());
+		q.add(4);
+		Assertions.assertEquals(3, q.getCapacity());
+		Assertions.assertEquals(Arrays.asList(2, 3, 4), Arrays.asList(q.toArray(new Integer[0])));
+		q.addFirst(0);
+		Assertions.assertEquals(Arrays.asList(0, 2, 3), Arrays.asList(q.toArray(new Integer[0])));
+		q.addAll(Arrays.asList(5, 6, 7, 8));
+		Assertions.assertEquals(Arrays.asList(6, 7, 8), Arrays.asList(q.toArray(new Integer[0])));
+		Assertions.assertEquals(6, q.removeFirst());
+		Assertions.assertFalse(q.isFull());
+		q.decreaseIfNeeded();
+		Assertions.assertEquals(3, q.getCapacity());
+		q.add(9);
+		q.add(10);
+		Assertions.assertEquals(Arrays.asList(8, 9, 10), Arrays.asList(q.toArray(new Integer[0])));
+		Assertions.assertEquals(10, q.getLast());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> q.resize(10));
+		Assertions.assertEquals(1, CyclicArray.bounded(0).getCapacity());
+		Assertions.assertThrows(NegativeValueException.class, () -> CyclicArray.bounded(-1));
+	}
+	
 	@Override
 	public void checkEmptyCollection(CyclicArray<Integer> c) {
 		TestDeque.super.checkEmptyCollection(c);
@@ -0,0 +1,67 @@
+package net.lecousin.commons.collections;
+
+import java.io.ByteArrayOutputStream;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TestCyclicByteArray {
+
+	@Test
+	void testAddRemove() {
+		CyclicByteArray a = new CyclicByteArray();
+		Assertions.assertTrue(a.isEmpty());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.removeFirst());
+		for (int i = 0; i < 100; ++i)
+			a.addLast((byte) i);
+		for (int i = 0; i < 30; ++i)
+			Assertions.assertEquals((byte) i, a.removeFirst());
+		for (int i = 29; i >= 0; --i)
+			a.addFirst((byte) i);
+		Assertions.assertEquals(100, a.size());
+		Assertions.assertEquals((byte) 99, a.removeLast());
+		Assertions.assertTrue(a.contains((byte) 98));
+		Assertions.assertFalse(a.contains((byte) 99));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		a.forEach(out::write);
+		byte[] bytes = out.toByteArray();
+		Assertions.assertArrayEquals(a.toArray(), bytes);
+		for (int i = 0; i < 99; ++i)
+			Assertions.assertEquals((byte) i, bytes[i]);
+		byte[] buf = new byte[200];
+		Assertions.assertEquals(99, a.removeFirst(buf, 1, 200));
+		Assertions.assertEquals((byte) 98, buf[99]);
+		Assertions.assertTrue(a.isEmpty());
+	}
+
+	@Test
+	void testBounded() {
+		CyclicByteArray a = CyclicByteArray.bounded(4);
+		a.addAll(new byte[] { 1, 2, 3, 4, 5, 6 });
+		Assertions.assertArrayEquals(new byte[] { 3, 4, 5, 6 }, a.toArray());
+		a.addFirst((byte) 0);
+		Assertions.assertArrayEquals(new byte[] { 0, 3, 4, 5 }, a.toArray());
+		Assertions.assertEquals(4, a.getCapacity());
+		a.removeFirst();
+		a.addAll(new byte[] { 7, 8, 9 });
+		Assertions.assertArrayEquals(new byte[] { 5, 7, 8, 9 }, a.toArray());
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> a.resize(10));
+		Assertions.assertEquals(4, a.getCapacity());
+	}
+
+	@Test
+	void testBulk() {
+		CyclicByteArray a = new CyclicByteArray(5);
+		a.addAll(new byte[] { 1, 2, 3, 4 });
+		a.removeFirst();
+		a.removeFirst();
+		a.addAll(new byte[] { 5, 6, 7 });
+		Assertions.assertEquals(5, a.getCapacity());
+		Assertions.assertTrue(a.isFull());
+		Assertions.assertArrayEquals(new byte[] { 3, 4, 5, 6, 7 }, a.toArray());
+		a.addAll(new byte[] { 8, 9 });
+		Assertions.assertArrayEquals(new byte[] { 3, 4, 5, 6, 7, 8, 9 }, a.toArray());
+	}
+
+}
@@ -0,0 +1,171 @@
+package net.lecousin.commons.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+
+class TestCyclicIntArray {
+
+	@Test
+	void testEmpty() {
+		CyclicIntArray a = new CyclicIntArray();
+		Assertions.assertTrue(a.isEmpty());
+		Assertions.assertFalse(a.isFull());
+		Assertions.assertFalse(a.isBounded());
+		Assertions.assertEquals(0, a.size());
+		Assertions.assertEquals(5, a.getNbAvailableSlots());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.removeFirst());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.removeLast());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.getFirst());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.getLast());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.get(0));
+		Assertions.assertThrows(NegativeValueException.class, () -> a.get(-1));
+		Assertions.assertFalse(a.contains(0));
+		Assertions.assertFalse(a.iterator().hasNext());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.iterator().nextInt());
+		Assertions.assertEquals(0, a.toArray().length);
+		Assertions.assertEquals(0, a.removeFirst(new int[10], 0, 10));
+		Assertions.assertThrows(NegativeValueException.class, () -> new CyclicIntArray(-1));
+	}
+
+	@Test
+	void testAddRemove() {
+		CyclicIntArray a = new CyclicIntArray(5);
+		for (int i = 0; i < 100; ++i) {
+			a.addLast(i);
+			Assertions.assertEquals(i, a.getLast());
+			Assertions.assertEquals(0, a.getFirst());
+		}
+		Assertions.assertEquals(100, a.size());
+		for (int i = 0; i < 100; ++i)
+			Assertions.assertEquals(i, a.get(i));
+		for (int i = 0; i < 50; ++i)
+			Assertions.assertEquals(i, a.removeFirst());
+		for (int i = 99; i >= 90; --i)
+			Assertions.assertEquals(i, a.removeLast());
+		Assertions.assertEquals(40, a.size());
+		for (int i = 49; i >= 0; --i)
+			a.addFirst(i);
+		Assertions.assertEquals(90, a.size());
+		int[] array = a.toArray();
+		for (int i = 0; i < 90; ++i)
+			Assertions.assertEquals(i, array[i]);
+		Assertions.assertTrue(a.contains(89));
+		Assertions.assertFalse(a.contains(90));
+		a.set(10, -10);
+		Assertions.assertEquals(-10, a.get(10));
+		List<Integer> list = new ArrayList<>();
+		a.forEach(list::add);
+		Assertions.assertEquals(90, list.size());
+		Assertions.assertEquals(-10, list.get(10).intValue());
+		PrimitiveIterator.OfInt it = a.iterator();
+		for (int i = 0; i < 90; ++i)
+			Assertions.assertEquals(i == 10 ? -10 : i, it.nextInt());
+		Assertions.assertFalse(it.hasNext());
+		a.clear();
+		Assertions.assertTrue(a.isEmpty());
+	}
+
+	@Test
+	void testBulk() {
+		CyclicIntArray a = new CyclicIntArray(5);
+		a.addAll(1, 2, 3);
+		Assertions.assertEquals(1, a.removeFirst());
+		Assertions.assertEquals(2, a.removeFirst());
+		int[] values = new int[20];
+		for (int i = 0; i < values.length; ++i) values[i] = i + 4;
+		a.addAll(values, 0, values.length);
+		Assertions.assertEquals(21, a.size());
+		int[] buf = new int[30];
+		Assertions.assertEquals(10, a.removeFirst(buf, 5, 10));
+		for (int i = 0; i < 10; ++i)
+			Assertions.assertEquals(i + 3, buf[5 + i]);
+		Assertions.assertEquals(11, a.removeFirst(buf, 0, 30));
+		for (int i = 0; i < 11; ++i)
+			Assertions.assertEquals(i + 13, buf[i]);
+		Assertions.assertTrue(a.isEmpty());
+		// wrapping bulk removal
+		a = new CyclicIntArray(5);
+		a.addAll(1, 2, 3, 4);
+		a.removeFirst();
+		a.removeFirst();
+		a.removeFirst();
+		a.addAll(5, 6, 7, 8);
+		Assertions.assertTrue(a.isFull());
+		Assertions.assertEquals(4, a.removeFirst(buf, 0, 4));
+		Assertions.assertArrayEquals(new int[] { 4, 5, 6, 7 }, Arrays.copyOf(buf, 4));
+		// wrapping bulk add, without growing
+		a = new CyclicIntArray(6);
+		a.addAll(1, 2, 3, 4);
+		a.removeFirst();
+		a.removeFirst();
+		a.removeFirst();
+		a.addAll(5, 6, 7, 8);
+		Assertions.assertEquals(6, a.getCapacity());
+		Assertions.assertFalse(a.isFull());
+		Assertions.assertArrayEquals(new int[] { 4, 5, 6, 7, 8 }, a.toArray());
+		a.addAll(new int[] { 0, 9, 0 }, 1, 1);
+		Assertions.assertTrue(a.isFull());
+		Assertions.assertEquals(9, a.getLast());
+		a.addAll(new int[0]);
+		a.addAll(10, 11);
+		Assertions.assertArrayEquals(new int[] { 4, 5, 6, 7, 8, 9, 10, 11 }, a.toArray());
+	}
+
+	@Test
+	void testResize() {
+		CyclicIntArray a = new CyclicIntArray(5, 5);
+		for (int i = 0; i < 20; ++i)
+			a.addLast(i);
+		int capacity = a.getCapacity();
+		for (int i = 0; i < 17; ++i)
+			a.removeFirst();
+		a.decreaseIfNeeded();
+		Assertions.assertTrue(a.getCapacity() < capacity);
+		a.resize(1);
+		Assertions.assertEquals(5, a.getCapacity());
+		Assertions.assertArrayEquals(new int[] { 17, 18, 19 }, a.toArray());
+		a.resize(50);
+		Assertions.assertEquals(50, a.getCapacity());
+		Assertions.assertArrayEquals(new int[] { 17, 18, 19 }, a.toArray());
+	}
+
+	@Test
+	void testBounded() {
+		CyclicIntArray a = CyclicIntArray.bounded(3);
+		Assertions.assertTrue(a.isBounded());
+		a.addAll(1, 2, 3);
+		Assertions.assertTrue(a.isFull());
+		a.addLast(4);
+		Assertions.assertEquals(3, a.getCapacity());
+		Assertions.assertArrayEquals(new int[] { 2, 3, 4 }, a.toArray());
+		a.addFirst(0);
+		Assertions.assertArrayEquals(new int[] { 0, 2, 3 }, a.toArray());
+		a.addAll(5, 6, 7, 8);
+		Assertions.assertArrayEquals(new int[] { 6, 7, 8 }, a.toArray());
+		Assertions.assertEquals(8, a.getLast());
+		Assertions.assertEquals(6, a.removeFirst());
+		a.decreaseIfNeeded();
+		Assertions.assertEquals(3, a.getCapacity());
+		// overflow by less than the capacity, wrapping
+		a.addAll(9, 10);
+		Assertions.assertArrayEquals(new int[] { 8, 9, 10 }, a.toArray());
+		a.addAll(11, 12);
+		Assertions.assertArrayEquals(new int[] { 10, 11, 12 }, a.toArray());
+		a.addLast(13);
+		Assertions.assertArrayEquals(new int[] { 11, 12, 13 }, a.toArray());
+		CyclicIntArray b = a;
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> b.resize(10));
+		Assertions.assertEquals(3, a.getCapacity());
+		Assertions.assertEquals(1, CyclicIntArray.bounded(0).getCapacity());
+		Assertions.assertThrows(NegativeValueException.class, () -> CyclicIntArray.bounded(-1));
+	}
+
+}
@@ -0,0 +1,171 @@
+package net.lecousin.commons.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+
+class TestCyclicLongArray {
+
+	@Test
+	void testEmpty() {
+		CyclicLongArray a = new CyclicLongArray();
+		Assertions.assertTrue(a.isEmpty());
+		Assertions.assertFalse(a.isFull());
+		Assertions.assertFalse(a.isBounded());
+		Assertions.assertEquals(0, a.size());
+		Assertions.assertEquals(5, a.getNbAvailableSlots());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.removeFirst());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.removeLast());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.getFirst());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.getLast());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.get(0));
+		Assertions.assertThrows(NegativeValueException.class, () -> a.get(-1));
+		Assertions.assertFalse(a.contains(0));
+		Assertions.assertFalse(a.iterator().hasNext());
+		Assertions.assertThrows(NoSuchElementException.class, () -> a.iterator().nextLong());
+		Assertions.assertEquals(0, a.toArray().length);
+		Assertions.assertEquals(0, a.removeFirst(new long[10], 0, 10));
+		Assertions.assertThrows(NegativeValueException.class, () -> new CyclicLongArray(-1));
+	}
+
+	@Test
+	void testAddRemove() {
+		CyclicLongArray a = new CyclicLongArray(5);
+		for (long i = 0; i < 100; ++i) {
+			a.addLast(i);
+			Assertions.assertEquals(i, a.getLast());
+			Assertions.assertEquals(0, a.getFirst());
+		}
+		Assertions.assertEquals(100, a.size());
+		for (int i = 0; i < 100; ++i)
+			Assertions.assertEquals(i, a.get(i));
+		for (long i = 0; i < 50; ++i)
+			Assertions.assertEquals(i, a.removeFirst());
+		for (long i = 99; i >= 90; --i)
+			Assertions.assertEquals(i, a.removeLast());
+		Assertions.assertEquals(40, a.size());
+		for (long i = 49; i >= 0; --i)
+			a.addFirst(i);
+		Assertions.assertEquals(90, a.size());
+		long[] array = a.toArray();
+		for (int i = 0; i < 90; ++i)
+			Assertions.assertEquals(i, array[i]);
+		Assertions.assertTrue(a.contains(89));
+		Assertions.assertFalse(a.contains(90));
+		a.set(10, -10);
+		Assertions.assertEquals(-10, a.get(10));
+		List<Long> list = new ArrayList<>();
+		a.forEach(list::add);
+		Assertions.assertEquals(90, list.size());
+		Assertions.assertEquals(-10L, list.get(10).longValue());
+		PrimitiveIterator.OfLong it = a.iterator();
+		for (int i = 0; i < 90; ++i)
+			Assertions.assertEquals(i == 10 ? -10 : i, it.nextLong());
+		Assertions.assertFalse(it.hasNext());
+		a.clear();
+		Assertions.assertTrue(a.isEmpty());
+	}
+
+	@Test
+	void testBulk() {
+		CyclicLongArray a = new CyclicLongArray(5);
+		a.addAll(1, 2, 3);
+		Assertions.assertEquals(1, a.removeFirst());
+		Assertions.assertEquals(2, a.removeFirst());
+		long[] values = new long[20];
+		for (int i = 0; i < values.length; ++i) values[i] = i + 4;
+		a.addAll(values, 0, values.length);
+		Assertions.assertEquals(21, a.size());
+		long[] buf = new long[30];
+		Assertions.assertEquals(10, a.removeFirst(buf, 5, 10));
+		for (int i = 0; i < 10; ++i)
+			Assertions.assertEquals(i + 3, buf[5 + i]);
+		Assertions.assertEquals(11, a.removeFirst(buf, 0, 30));
+		for (int i = 0; i < 11; ++i)
+			Assertions.assertEquals(i + 13, buf[i]);
+		Assertions.assertTrue(a.isEmpty());
+		// wrapping bulk removal
+		a = new CyclicLongArray(5);
+		a.addAll(1, 2, 3, 4);
+		a.removeFirst();
+		a.removeFirst();
+		a.removeFirst();
+		a.addAll(5, 6, 7, 8);
+		Assertions.assertTrue(a.isFull());
+		Assertions.assertEquals(4, a.removeFirst(buf, 0, 4));
+		Assertions.assertArrayEquals(new long[] { 4, 5, 6, 7 }, Arrays.copyOf(buf, 4));
+		// wrapping bulk add, without growing
+		a = new CyclicLongArray(6);
+		a.addAll(1, 2, 3, 4);
+		a.removeFirst();
+		a.removeFirst();
+		a.removeFirst();
+		a.addAll(5, 6, 7, 8);
+		Assertions.assertEquals(6, a.getCapacity());
+		Assertions.assertFalse(a.isFull());
+		Assertions.assertArrayEquals(new long[] { 4, 5, 6, 7, 8 }, a.toArray());
+		a.addAll(new long[] { 0, 9, 0 }, 1, 1);
+		Assertions.assertTrue(a.isFull());
+		Assertions.assertEquals(9, a.getLast());
+		a.addAll(new long[0]);
+		a.addAll(10, 11);
+		Assertions.assertArrayEquals(new long[] { 4, 5, 6, 7, 8, 9, 10, 11 }, a.toArray());
+	}
+
+	@Test
+	void testResize() {
+		CyclicLongArray a = new CyclicLongArray(5, 5);
+		for (long i = 0; i < 20; ++i)
+			a.addLast(i);
+		int capacity = a.getCapacity();
+		for (int i = 0; i < 17; ++i)
+			a.removeFirst();
+		a.decreaseIfNeeded();
+		Assertions.assertTrue(a.getCapacity() < capacity);
+		a.resize(1);
+		Assertions.assertEquals(5, a.getCapacity());
+		Assertions.assertArrayEquals(new long[] { 17, 18, 19 }, a.toArray());
+		a.resize(50);
+		Assertions.assertEquals(50, a.getCapacity());
+		Assertions.assertArrayEquals(new long[] { 17, 18, 19 }, a.toArray());
+	}
+
+	@Test
+	void testBounded() {
+		CyclicLongArray a = CyclicLongArray.bounded(3);
+		Assertions.assertTrue(a.isBounded());
+		a.addAll(1, 2, 3);
+		Assertions.assertTrue(a.isFull());
+		a.addLast(4);
+		Assertions.assertEquals(3, a.getCapacity());
+		Assertions.assertArrayEquals(new long[] { 2, 3, 4 }, a.toArray());
+		a.addFirst(0);
+		Assertions.assertArrayEquals(new long[] { 0, 2, 3 }, a.toArray());
+		a.addAll(5, 6, 7, 8);
+		Assertions.assertArrayEquals(new long[] { 6, 7, 8 }, a.toArray());
+		Assertions.assertEquals(8, a.getLast());
+		Assertions.assertEquals(6, a.removeFirst());
+		a.decreaseIfNeeded();
+		Assertions.assertEquals(3, a.getCapacity());
+		// overflow by less than the capacity, wrapping
+		a.addAll(9, 10);
+		Assertions.assertArrayEquals(new long[] { 8, 9, 10 }, a.toArray());
+		a.addAll(11, 12);
+		Assertions.assertArrayEquals(new long[] { 10, 11, 12 }, a.toArray());
+		a.addLast(13);
+		Assertions.assertArrayEquals(new long[] { 11, 12, 13 }, a.toArray());
+		CyclicLongArray b = a;
+		Assertions.assertThrows(UnsupportedOperationException.class, () -> b.resize(10));
+		Assertions.assertEquals(3, a.getCapacity());
+		Assertions.assertEquals(1, CyclicLongArray.bounded(0).getCapacity());
+		Assertions.assertThrows(NegativeValueException.class, () -> CyclicLongArray.bounded(-1));
+	}
+
+}
@@ -0,0 +1,61 @@
+package net.lecousin.commons.collections;
+
+public class TestRingQueues {
+
+	public static class TestSpscRingQueue extends AbstractRingQueueTest {
+		@Override
+		protected AbstractRingQueue<Integer> createQueue(int capacity) {
+			return new SpscRingQueue<>(capacity);
+		}
+
+		@Override
+		protected int getNbProducers() {
+			return 1;
+		}
+
+		@Override
+		protected int getNbConsumers() {
+			return 1;
+		}
+	}
+
+	public static class TestMpscRingQueue extends AbstractRingQueueTest {
+		@Override
+		protected AbstractRingQueue<Integer> createQueue(int capacity) {
+			return new MpscRingQueue<>(capacity);
+		}
+
+		@Override
+		protected int getNbProducers() {
+			return 4;
+		}
+
+		@Override
+		protected int getNbConsumers() {
+			return 1;
+		}
+	}
+
+	public static class TestMpmcRingQueue extends AbstractRingQueueTest {
+		@Override
+		protected AbstractRingQueue<Integer> createQueue(int capacity) {
+			return new MpmcRingQueue<>(capacity, WaitStrategy.YIELDING);
+		}
+
+		@Override
+		protected int getMinimumCapacity() {
+			return 2;
+		}
+
+		@Override
+		protected int getNbProducers() {
+			return 3;
+		}
+
+		@Override
+		protected int getNbConsumers() {
+			return 3;
+		}
+	}
+
+}
@@ -7,6 +7,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -561,6 +562,27 @@ public interface ReactiveBytesIO extends ReactiveIO {
 			.then();
 		}
 		
+		/**
+		 * Write all bytes from all the given buffers, in order.<br/>
+		 * If it cannot write all bytes because end is reached, EOFException is thrown.
+		 * <p>
+		 * An IO able to write several buffers in a single operation, such as a file, writes all of them at once.
+		 * </p>
+		 * 
+		 * @param buffers the buffers to write
+		 * @return empty on success, or<ul>
+		 *  <li> ClosedChannelException if this IO is already closed</li>
+		 *  <li> NullPointerException if buffers is null</li>
+		 *  <li> EOFException if all bytes cannot be written because end is reached</li>
+		 *  <li> IOException in case an error occurred while writing</li>
+		 * </ul>
+		 */
+		default Mono<Void> writeBytesFully(ByteBuffer[] buffers) {
+			return ReactiveIOChecks.deferNotClosedAnd(this,
+				() -> ExceptionsUtils.nonNullChecker(buffers, IOChecks.FIELD_BUFFERS),
+				() -> writeBytesFully(Arrays.asList(buffers)));
+		}
+		
 		/**
 		 * Subscribe to the given Flux, and write all bytes from all emitted buffers.
 		 * 
@@ -826,6 +848,27 @@ public interface ReactiveBytesIO extends ReactiveIO {
 				.then();
 			}
 			
+			/**
+			 * Write all bytes at the given position from all the given buffers, in order.<br/>
+			 * If it cannot write all bytes because end is reached, EOFException is thrown.
+			 * 
+			 * @param pos position
+			 * @param buffers the buffers to write
+			 * @return empty on success, or<ul>
+			 *  <li> ClosedChannelException if this IO is already closed</li>
+			 *  <li> NegativeValueException if pos is negative</li>
+			 *  <li> NullPointerException if buffers is null</li>
+			 *  <li> EOFException if all bytes cannot be written because end is reached</li>
+			 *  <li> IOException in case an error occurred while writing</li>
+			 * </ul>
+			 */
+			default Mono<Void> writeBytesFullyAt(long pos, ByteBuffer[] buffers) {
+				return ReactiveIOChecks.deferNotClosedAnd(this,
+					() -> NegativeValueException.checker(pos, IOChecks.FIELD_POS)
+						.or(() -> ExceptionsUtils.nonNullChecker(buffers, IOChecks.FIELD_BUFFERS)),
+					() -> writeBytesFullyAt(pos, Arrays.asList(buffers)));
+			}
+			
 			/** @return a Writable view of this IO. */
 			default ReactiveBytesIO.Writable asWritableBytesIO() {
 				return ReactiveBytesIOView.Writable.of(this);
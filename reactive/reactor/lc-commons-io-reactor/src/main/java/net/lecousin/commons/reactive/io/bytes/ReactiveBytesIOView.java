@@ -275,6 +275,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 			return io.writeBytesFully(buffers);
 		}
 
+		@Override
+		public Mono<Void> writeBytesFully(ByteBuffer[] buffers) {
+			return io.writeBytesFully(buffers);
+		}
+
 		@Override
 		public Mono<Void> writeBytesFully(byte[] buf, int off, int len) {
 			return io.writeBytesFully(buf, off, len);
@@ -363,6 +368,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 				return io.writeBytesFully(buffers);
 			}
 
+			@Override
+			public Mono<Void> writeBytesFully(ByteBuffer[] buffers) {
+				return io.writeBytesFully(buffers);
+			}
+
 			@Override
 			public Mono<Void> writeBytesFully(byte[] buf, int off, int len) {
 				return io.writeBytesFully(buf, off, len);
@@ -413,6 +423,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 				return io.writeBytesFullyAt(pos, buffers);
 			}
 
+			@Override
+			public Mono<Void> writeBytesFullyAt(long pos, ByteBuffer[] buffers) {
+				return io.writeBytesFullyAt(pos, buffers);
+			}
+
 			
 			/** Writable and Seekable and Resizable view of a ReactiveBytesIO. */
 			public static class Resizable extends ReactiveBytesIOView<ReactiveBytesIO.Writable.Seekable> implements ReactiveBytesIO.Writable.Seekable.Resizable {
@@ -496,6 +511,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 					return io.writeBytesFully(buffers);
 				}
 
+				@Override
+				public Mono<Void> writeBytesFully(ByteBuffer[] buffers) {
+					return io.writeBytesFully(buffers);
+				}
+
 				@Override
 				public Mono<Void> writeBytesFully(byte[] buf, int off, int len) {
 					return io.writeBytesFully(buf, off, len);
@@ -545,6 +565,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 				public Mono<Void> writeBytesFullyAt(long pos, List<ByteBuffer> buffers) {
 					return io.writeBytesFullyAt(pos, buffers);
 				}
+
+				@Override
+				public Mono<Void> writeBytesFullyAt(long pos, ByteBuffer[] buffers) {
+					return io.writeBytesFullyAt(pos, buffers);
+				}
 				
 			}
 			
@@ -719,6 +744,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 			return io.writeBytesFully(buffers);
 		}
 
+		@Override
+		public Mono<Void> writeBytesFully(ByteBuffer[] buffers) {
+			return io.writeBytesFully(buffers);
+		}
+
 		@Override
 		public Mono<Void> writeBytesFully(byte[] buf, int off, int len) {
 			return io.writeBytesFully(buf, off, len);
@@ -768,6 +798,11 @@ public class ReactiveBytesIOView<T extends ReactiveBytesIO> extends ReactiveIOVi
 		public Mono<Void> writeBytesFullyAt(long pos, List<ByteBuffer> buffers) {
 			return io.writeBytesFullyAt(pos, buffers);
 		}
+
+		@Override
+		public Mono<Void> writeBytesFullyAt(long pos, ByteBuffer[] buffers) {
+			return io.writeBytesFullyAt(pos, buffers);
+		}
 		
 	}
 }
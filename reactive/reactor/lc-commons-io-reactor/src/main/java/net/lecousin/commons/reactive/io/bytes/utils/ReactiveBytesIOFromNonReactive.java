@@ -315,6 +315,11 @@ public interface ReactiveBytesIOFromNonReactive {
 			return delegateVoid(() -> ((BytesIO.Writable) io).writeBytesFully(buffers));
 		}
 
+		@Override
+		public Mono<Void> writeBytesFully(ByteBuffer[] buffers) {
+			return delegateVoid(() -> ((BytesIO.Writable) io).writeBytesFully(buffers));
+		}
+
 		@Override
 		public Mono<Void> writeBytesFully(byte[] buf, int off, int len) {
 			return delegateVoid(() -> ((BytesIO.Writable) io).writeBytesFully(buf, off, len));
@@ -365,6 +370,11 @@ public interface ReactiveBytesIOFromNonReactive {
 			return delegateVoid(() -> ((BytesIO.Writable.Seekable) io).writeBytesFullyAt(pos, buffers));
 		}
 
+		@Override
+		public Mono<Void> writeBytesFullyAt(long pos, ByteBuffer[] buffers) {
+			return delegateVoid(() -> ((BytesIO.Writable.Seekable) io).writeBytesFullyAt(pos, buffers));
+		}
+
 	}
 	
 }
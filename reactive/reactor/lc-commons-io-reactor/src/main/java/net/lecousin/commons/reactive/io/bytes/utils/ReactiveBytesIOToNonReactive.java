@@ -295,6 +295,11 @@ public interface ReactiveBytesIOToNonReactive {
 			nonReactive(((ReactiveBytesIO.Writable.Seekable) io).writeBytesFullyAt(pos, buffers));
 		}
 
+		@Override
+		public void writeBytesFullyAt(long pos, ByteBuffer[] buffers) throws IOException {
+			nonReactive(((ReactiveBytesIO.Writable.Seekable) io).writeBytesFullyAt(pos, buffers));
+		}
+
 		@Override
 		public void writeByte(byte value) throws IOException {
 			nonReactive(((ReactiveBytesIO.Writable) io).writeByte(value));
@@ -325,6 +330,11 @@ public interface ReactiveBytesIOToNonReactive {
 			nonReactive(((ReactiveBytesIO.Writable) io).writeBytesFully(buffers));
 		}
 
+		@Override
+		public void writeBytesFully(ByteBuffer[] buffers) throws IOException {
+			nonReactive(((ReactiveBytesIO.Writable) io).writeBytesFully(buffers));
+		}
+
 		@Override
 		public void writeBytesFully(byte[] buf, int off, int len) throws IOException {
 			nonReactive(((ReactiveBytesIO.Writable) io).writeBytesFully(buf, off, len));
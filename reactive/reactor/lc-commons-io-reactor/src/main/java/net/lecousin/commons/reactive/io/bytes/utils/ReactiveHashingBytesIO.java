@@ -0,0 +1,197 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.zip.Checksum;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.bytes.utils.HashingBytesIO;
+import net.lecousin.commons.reactive.io.ReactiveIOChecks;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+import net.lecousin.commons.reactive.io.utils.AbstractReactiveDecoratorIO;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pass-through ReactiveBytesIO updating a hash (a {@link Checksum} such as CRC32C, or a {@link MessageDigest} such as SHA-256)
+ * with the bytes read from or written to the underlying IO, the reactive counterpart of {@link HashingBytesIO}.
+ * <p>
+ * Bytes skipped on a Readable are read to be included in the hash.
+ * </p>
+ */
+public interface ReactiveHashingBytesIO {
+
+	/**
+	 * Create a Readable updating the given checksum.
+	 * @param io IO to read
+	 * @param checksum checksum to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static ReactiveHashingBytesIO.Readable<Checksum> readable(ReactiveBytesIO.Readable io, Checksum checksum, boolean closeIoOnClose) {
+		return new Readable<>(io, checksum, Checksum::update, closeIoOnClose);
+	}
+
+	/**
+	 * Create a Readable updating the given digest.
+	 * @param io IO to read
+	 * @param digest digest to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static ReactiveHashingBytesIO.Readable<MessageDigest> readable(ReactiveBytesIO.Readable io, MessageDigest digest, boolean closeIoOnClose) {
+		return new Readable<>(io, digest, MessageDigest::update, closeIoOnClose);
+	}
+
+	/**
+	 * Create a Writable updating the given checksum.
+	 * @param io IO to write to
+	 * @param checksum checksum to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static ReactiveHashingBytesIO.Writable<Checksum> writable(ReactiveBytesIO.Writable io, Checksum checksum, boolean closeIoOnClose) {
+		return new Writable<>(io, checksum, Checksum::update, closeIoOnClose);
+	}
+
+	/**
+	 * Create a Writable updating the given digest.
+	 * @param io IO to write to
+	 * @param digest digest to update
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static ReactiveHashingBytesIO.Writable<MessageDigest> writable(ReactiveBytesIO.Writable io, MessageDigest digest, boolean closeIoOnClose) {
+		return new Writable<>(io, digest, MessageDigest::update, closeIoOnClose);
+	}
+
+	/** @return the hash being updated, which may be a Checksum or a MessageDigest. */
+	Object getHash();
+
+	/** Base class, updating the hash.
+	 * @param <H> type of hash
+	 * @param <I> type of IO
+	 */
+	abstract class AbstractReactiveHashingBytesIO<H, I extends ReactiveBytesIO> extends AbstractReactiveDecoratorIO<I> implements ReactiveHashingBytesIO {
+
+		protected final H hash;
+		protected final BiConsumer<H, ByteBuffer> updater;
+
+		protected AbstractReactiveHashingBytesIO(I io, H hash, BiConsumer<H, ByteBuffer> updater, boolean closeIoOnClose) {
+			super(io, closeIoOnClose);
+			this.hash = Objects.requireNonNull(hash, "hash");
+			this.updater = Objects.requireNonNull(updater, "updater");
+		}
+
+		@Override
+		public H getHash() {
+			return hash;
+		}
+
+		protected void update(byte b) {
+			updater.accept(hash, ByteBuffer.wrap(new byte[] { b }));
+		}
+
+		protected void update(ByteBuffer buffer, int from, int to) {
+			HashingBytesIO.update(hash, updater, buffer, from, to);
+		}
+	}
+
+	/** Readable updating a hash with the bytes read.
+	 * @param <H> type of hash
+	 */
+	class Readable<H> extends AbstractReactiveHashingBytesIO<H, ReactiveBytesIO.Readable> implements ReactiveBytesIO.Readable {
+
+		private static final int SKIP_BUFFER_SIZE = 8192;
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param hash hash to update
+		 * @param updater function updating the hash with the remaining bytes of a buffer
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Readable(ReactiveBytesIO.Readable io, H hash, BiConsumer<H, ByteBuffer> updater, boolean closeIoOnClose) {
+			super(io, hash, updater, closeIoOnClose);
+		}
+
+		@Override
+		public Mono<Byte> readByte() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> io.readByte().doOnNext(this::update));
+		}
+
+		@Override
+		public Mono<Integer> readBytes(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				int p = buffer.position();
+				return io.readBytes(buffer).doOnNext(nb -> update(buffer, p, p + nb));
+			});
+		}
+
+		@Override
+		public Mono<ByteBuffer> readBytesFully(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				int p = buffer.position();
+				return io.readBytesFully(buffer).doOnNext(b -> update(b, p, b.position()));
+			});
+		}
+
+		@Override
+		public Mono<ByteBuffer> readBuffer() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> io.readBuffer().doOnNext(b -> update(b, b.position(), b.limit())));
+		}
+
+		@Override
+		public Mono<Long> skipUpTo(long toSkip) {
+			return ReactiveIOChecks.deferNotClosedAnd(this, () -> NegativeValueException.checker(toSkip, "toSkip"), () -> {
+				if (toSkip == 0) return Mono.just(0L);
+				return readBytes(ByteBuffer.allocate((int) Math.min(SKIP_BUFFER_SIZE, toSkip))).map(Integer::longValue);
+			});
+		}
+	}
+
+	/** Writable updating a hash with the bytes written.
+	 * @param <H> type of hash
+	 */
+	class Writable<H> extends AbstractReactiveHashingBytesIO<H, ReactiveBytesIO.Writable> implements ReactiveBytesIO.Writable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param hash hash to update
+		 * @param updater function updating the hash with the remaining bytes of a buffer
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Writable(ReactiveBytesIO.Writable io, H hash, BiConsumer<H, ByteBuffer> updater, boolean closeIoOnClose) {
+			super(io, hash, updater, closeIoOnClose);
+		}
+
+		@Override
+		public Mono<Void> writeByte(byte value) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> io.writeByte(value).doOnSuccess(v -> update(value)));
+		}
+
+		@Override
+		public Mono<Integer> writeBytes(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				int p = buffer.position();
+				return io.writeBytes(buffer).doOnNext(nb -> update(buffer, p, p + nb));
+			});
+		}
+
+		@Override
+		public Mono<Void> writeBytesFully(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				int p = buffer.position();
+				return io.writeBytesFully(buffer).doOnSuccess(v -> update(buffer, p, buffer.position()));
+			});
+		}
+
+		@Override
+		public Mono<Void> flush() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> io.flush());
+		}
+	}
+
+}
@@ -0,0 +1,306 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.utils.IOMetrics;
+import net.lecousin.commons.io.utils.IOMetrics.Operation;
+import net.lecousin.commons.reactive.io.ReactiveIOChecks;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+import net.lecousin.commons.reactive.io.utils.AbstractReactiveDecoratorIO;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveBytesIO recording {@link IOMetrics} of the operations on an underlying IO,
+ * the reactive counterpart of {@link net.lecousin.commons.io.bytes.utils.InstrumentedBytesIO}.
+ * <p>
+ * The latency of an operation is measured from the subscription to the completion of the returned Mono.
+ * </p>
+ * <p>
+ * A seekable IO instrumented with {@link #readableSeekable(ReactiveBytesIO.Readable.Seekable, IOMetrics, boolean)} or
+ * {@link #writableSeekable(ReactiveBytesIO.Writable.Seekable, IOMetrics, boolean)} remains seekable, and its positional
+ * operations and seeks are recorded too.
+ * </p>
+ */
+public interface ReactiveInstrumentedBytesIO {
+
+	/**
+	 * Create an instrumented Readable.
+	 * @param io IO to read
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static ReactiveInstrumentedBytesIO.Readable readable(ReactiveBytesIO.Readable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new Readable(io, metrics, closeIoOnClose);
+	}
+
+	/**
+	 * Create an instrumented Writable.
+	 * @param io IO to write to
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static ReactiveInstrumentedBytesIO.Writable writable(ReactiveBytesIO.Writable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new Writable(io, metrics, closeIoOnClose);
+	}
+
+	/**
+	 * Create an instrumented Readable.Seekable.
+	 * @param io IO to read
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable.Seekable
+	 */
+	static ReactiveInstrumentedBytesIO.ReadableSeekable readableSeekable(ReactiveBytesIO.Readable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new ReadableSeekable(io, metrics, closeIoOnClose);
+	}
+
+	/**
+	 * Create an instrumented Writable.Seekable.
+	 * @param io IO to write to
+	 * @param metrics metrics to record
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable.Seekable
+	 */
+	static ReactiveInstrumentedBytesIO.WritableSeekable writableSeekable(ReactiveBytesIO.Writable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+		return new WritableSeekable(io, metrics, closeIoOnClose);
+	}
+
+	/** @return the metrics being recorded. */
+	IOMetrics getMetrics();
+
+	/** Base class.
+	 * @param <I> type of IO
+	 */
+	abstract class AbstractReactiveInstrumentedBytesIO<I extends ReactiveBytesIO> extends AbstractReactiveDecoratorIO<I> implements ReactiveInstrumentedBytesIO {
+
+		protected final IOMetrics metrics;
+
+		protected AbstractReactiveInstrumentedBytesIO(I io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, closeIoOnClose);
+			this.metrics = Objects.requireNonNull(metrics, "metrics");
+		}
+
+		@Override
+		public IOMetrics getMetrics() {
+			return metrics;
+		}
+
+		/**
+		 * Measure an operation.
+		 * @param <T> type of result
+		 * @param op operation
+		 * @param requested number of bytes requested
+		 * @param operation supplier of the operation
+		 * @param transferred function giving the number of bytes transferred from the result, which may be null if the Mono is empty
+		 * @return the measured operation
+		 */
+		protected <T> Mono<T> measure(Operation op, long requested, Supplier<Mono<T>> operation, ToLongFunction<T> transferred) {
+			long start = System.nanoTime();
+			return operation.get()
+				.doOnSuccess(result -> metrics.recordSuccess(op, start, requested, transferred.applyAsLong(result)))
+				.doOnError(e -> metrics.recordError(op, start));
+		}
+	}
+
+	/** Instrumented Readable. */
+	class Readable extends AbstractReactiveInstrumentedBytesIO<ReactiveBytesIO.Readable> implements ReactiveBytesIO.Readable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Readable(ReactiveBytesIO.Readable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		@Override
+		public Mono<Byte> readByte() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.READ_BYTE, 1, io::readByte, b -> 1));
+		}
+
+		@Override
+		public Mono<Integer> readBytes(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer,
+				() -> measure(Operation.READ_BYTES, buffer.remaining(), () -> io.readBytes(buffer), nb -> nb != null ? nb : 0));
+		}
+
+		@Override
+		public Mono<ByteBuffer> readBytesFully(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				int requested = buffer.remaining();
+				return measure(Operation.READ_BYTES_FULLY, requested, () -> io.readBytesFully(buffer), b -> requested);
+			});
+		}
+
+		@Override
+		public Mono<ByteBuffer> readBuffer() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> {
+				long start = System.nanoTime();
+				return io.readBuffer()
+					.doOnSuccess(b -> {
+						int nb = b != null ? b.remaining() : 0;
+						metrics.recordSuccess(Operation.READ_BUFFER, start, nb, nb);
+					})
+					.doOnError(e -> metrics.recordError(Operation.READ_BUFFER, start));
+			});
+		}
+
+		@Override
+		public Mono<Long> skipUpTo(long toSkip) {
+			return ReactiveIOChecks.deferNotClosedAnd(this, () -> NegativeValueException.checker(toSkip, "toSkip"),
+				() -> measure(Operation.SKIP, toSkip, () -> io.skipUpTo(toSkip), nb -> nb != null ? nb : 0));
+		}
+	}
+
+	/** Instrumented Writable. */
+	class Writable extends AbstractReactiveInstrumentedBytesIO<ReactiveBytesIO.Writable> implements ReactiveBytesIO.Writable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Writable(ReactiveBytesIO.Writable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		@Override
+		public Mono<Void> writeByte(byte value) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.WRITE_BYTE, 1, () -> io.writeByte(value), v -> 1));
+		}
+
+		@Override
+		public Mono<Integer> writeBytes(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer,
+				() -> measure(Operation.WRITE_BYTES, buffer.remaining(), () -> io.writeBytes(buffer), nb -> nb != null ? nb : 0));
+		}
+
+		@Override
+		public Mono<Void> writeBytesFully(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				int requested = buffer.remaining();
+				return measure(Operation.WRITE_BYTES_FULLY, requested, () -> io.writeBytesFully(buffer), v -> requested);
+			});
+		}
+
+		@Override
+		public Mono<Void> flush() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.FLUSH, 0, io::flush, v -> 0));
+		}
+	}
+
+	/** Instrumented Readable.Seekable. */
+	class ReadableSeekable extends Readable implements ReactiveBytesIO.Readable.Seekable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public ReadableSeekable(ReactiveBytesIO.Readable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		private ReactiveBytesIO.Readable.Seekable seekable() {
+			return (ReactiveBytesIO.Readable.Seekable) io;
+		}
+
+		@Override
+		public Mono<Long> position() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> seekable().position());
+		}
+
+		@Override
+		public Mono<Long> size() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> seekable().size());
+		}
+
+		@Override
+		public Mono<Long> seek(SeekFrom from, long offset) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.SEEK, 0, () -> seekable().seek(from, offset), p -> 0));
+		}
+
+		@Override
+		public Mono<Byte> readByteAt(long pos) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.READ_BYTE_AT, 1, () -> seekable().readByteAt(pos), b -> 1));
+		}
+
+		@Override
+		public Mono<Integer> readBytesAt(long pos, ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, pos, buffer,
+				() -> measure(Operation.READ_BYTES_AT, buffer.remaining(), () -> seekable().readBytesAt(pos, buffer), nb -> nb != null ? nb : 0));
+		}
+
+		@Override
+		public Mono<ByteBuffer> readBytesFullyAt(long pos, ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, pos, buffer, () -> {
+				int requested = buffer.remaining();
+				return measure(Operation.READ_BYTES_FULLY_AT, requested, () -> seekable().readBytesFullyAt(pos, buffer), b -> requested);
+			});
+		}
+	}
+
+	/** Instrumented Writable.Seekable. */
+	class WritableSeekable extends Writable implements ReactiveBytesIO.Writable.Seekable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param metrics metrics to record
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public WritableSeekable(ReactiveBytesIO.Writable.Seekable io, IOMetrics metrics, boolean closeIoOnClose) {
+			super(io, metrics, closeIoOnClose);
+		}
+
+		private ReactiveBytesIO.Writable.Seekable seekable() {
+			return (ReactiveBytesIO.Writable.Seekable) io;
+		}
+
+		@Override
+		public Mono<Long> position() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> seekable().position());
+		}
+
+		@Override
+		public Mono<Long> size() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> seekable().size());
+		}
+
+		@Override
+		public Mono<Long> seek(SeekFrom from, long offset) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.SEEK, 0, () -> seekable().seek(from, offset), p -> 0));
+		}
+
+		@Override
+		public Mono<Void> writeByteAt(long pos, byte value) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> measure(Operation.WRITE_BYTE_AT, 1, () -> seekable().writeByteAt(pos, value), v -> 1));
+		}
+
+		@Override
+		public Mono<Integer> writeBytesAt(long pos, ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, pos, buffer,
+				() -> measure(Operation.WRITE_BYTES_AT, buffer.remaining(), () -> seekable().writeBytesAt(pos, buffer), nb -> nb != null ? nb : 0));
+		}
+
+		@Override
+		public Mono<Void> writeBytesFullyAt(long pos, ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, pos, buffer, () -> {
+				int requested = buffer.remaining();
+				return measure(Operation.WRITE_BYTES_FULLY_AT, requested, () -> seekable().writeBytesFullyAt(pos, buffer), v -> requested);
+			});
+		}
+	}
+
+}
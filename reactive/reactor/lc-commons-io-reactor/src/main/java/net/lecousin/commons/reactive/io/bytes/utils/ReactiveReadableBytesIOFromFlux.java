@@ -2,12 +2,9 @@ package net.lecousin.commons.reactive.io.bytes.utils;
 
 import java.io.EOFException;
 import java.nio.ByteBuffer;
-import java.util.concurrent.CompletableFuture;
-
-import org.reactivestreams.Subscriber;
-import org.reactivestreams.Subscription;
 
 import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.reactive.FluxPrefetcher;
 import net.lecousin.commons.reactive.io.AbstractReactiveIO;
 import net.lecousin.commons.reactive.io.ReactiveIOChecks;
 import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
@@ -18,76 +15,44 @@ import reactor.core.scheduler.Schedulers;
 
 /**
  * Create a readable I/O from a Flux of ByteBuffer.<br/>
- * This I/O request buffers to the Flux on-demand, and do not buffer data in advance.
+ * Buffers are requested to the Flux on the first read, then a few buffers are requested in advance,
+ * between a low and a high watermark, so the Flux can produce the next buffers while the current one is consumed.
  */
 public class ReactiveReadableBytesIOFromFlux extends AbstractReactiveIO implements ReactiveBytesIO.Readable {
 	
-	private CompletableFuture<Subscription> subscription = new CompletableFuture<>();
-	private CompletableFuture<ByteBuffer> nextBuffer = null;
-	private boolean end = false;
-	private Throwable error = null;
+	/** Default maximum number of buffers requested in advance. */
+	public static final int DEFAULT_HIGH_WATERMARK = 4;
+	/** Default number of buffers requested in advance under which new buffers are requested. */
+	public static final int DEFAULT_LOW_WATERMARK = 1;
+	
+	private final FluxPrefetcher<ByteBuffer> prefetcher;
+	private ByteBuffer current = null;
 
 	/**
-	 * Constructor.
+	 * Constructor with default watermarks.
 	 * @param flux flux providing buffers
 	 */
 	public ReactiveReadableBytesIOFromFlux(Flux<ByteBuffer> flux) {
-		flux.subscribe(new Subscriber<>() {
-			@Override
-			public void onSubscribe(Subscription s) {
-				if (subscription.isCancelled())
-					s.cancel();
-				else
-					subscription.complete(s);
-			}
-			
-			public void onNext(ByteBuffer buffer) {
-				nextBuffer.complete(buffer);
-			}
-			
-			@Override
-			public void onError(Throwable t) {
-				error = t;
-				if (!subscription.isDone())
-					subscription.completeExceptionally(t);
-				if (nextBuffer != null && !nextBuffer.isDone())
-					nextBuffer.completeExceptionally(t);
-			}
-			
-			@Override
-			public void onComplete() {
-				end = true;
-				if (nextBuffer != null)
-					nextBuffer.complete(null);
-			}
-		});
+		this(flux, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+	}
+
+	/**
+	 * Constructor.
+	 * @param flux flux providing buffers
+	 * @param lowWatermark when the number of buffers requested and not yet consumed falls to this value, more buffers are requested
+	 * @param highWatermark maximum number of buffers requested and not yet consumed
+	 */
+	public ReactiveReadableBytesIOFromFlux(Flux<ByteBuffer> flux, int lowWatermark, int highWatermark) {
+		this.prefetcher = new FluxPrefetcher<>(flux, lowWatermark, highWatermark);
 	}
 
-	
-	@SuppressWarnings({"java:S1181", "java:S2142"})
 	private Mono<ByteBuffer> needData() {
-		if (nextBuffer == null) {
-			if (end) return Mono.empty();
-			if (error != null) return Mono.error(error);
-			return Mono.fromFuture(subscription)
-				.flatMap(s -> {
-					nextBuffer = new CompletableFuture<>();
-					s.request(1);
-					return Mono.fromFuture(nextBuffer);
-				});
-		}
-		try {
-			ByteBuffer b = nextBuffer.get();
-			if (b == null)
-				return Mono.empty();
-			if (!b.hasRemaining()) {
-				nextBuffer = null;
-				return needData();
-			}
+		if (current != null) return Mono.just(current);
+		return prefetcher.next().flatMap(b -> {
+			if (!b.hasRemaining()) return needData();
+			current = b;
 			return Mono.just(b);
-		} catch (Throwable t) {
-			return Mono.error(t);
-		}
+		});
 	}
 	
 	@Override
@@ -95,19 +60,11 @@ public class ReactiveReadableBytesIOFromFlux extends AbstractReactiveIO implemen
 		return Schedulers.parallel();
 	}
 
-	@SuppressWarnings({"java:S2142"})
 	@Override
 	public Mono<Void> closeInternal() {
 		return Mono.fromRunnable(() -> {
-			if (subscription == null) return;
-			if (!subscription.isDone())
-				subscription.cancel(false);
-			try {
-				subscription.get().cancel();
-			} catch (Exception e) {
-				// nothing
-			}
-			subscription = null;
+			prefetcher.cancel();
+			current = null;
 		});
 	}
 
@@ -117,7 +74,7 @@ public class ReactiveReadableBytesIOFromFlux extends AbstractReactiveIO implemen
 		return ReactiveIOChecks.deferNotClosed(this, () ->
 			needData()
 			.map(b -> {
-				nextBuffer = null; // completely consumed
+				current = null; // completely consumed
 				return b;
 			})
 		);
@@ -130,7 +87,7 @@ public class ReactiveReadableBytesIOFromFlux extends AbstractReactiveIO implemen
 		.map(b -> {
 			byte value = b.get();
 			if (!b.hasRemaining())
-				nextBuffer = null; // completely consumed
+				current = null; // completely consumed
 			return value;
 		})
 		.switchIfEmpty(Mono.error(new EOFException()))
@@ -153,7 +110,7 @@ public class ReactiveReadableBytesIOFromFlux extends AbstractReactiveIO implemen
 					return l2;
 				}
 				buffer.put(b);
-				nextBuffer = null; // completely consumed
+				current = null; // completely consumed
 				return l;
 			})
 			.switchIfEmpty(Mono.just(-1));
@@ -167,7 +124,7 @@ public class ReactiveReadableBytesIOFromFlux extends AbstractReactiveIO implemen
 			return needData().map(b -> {
 				int r = b.remaining();
 				if (toSkip >= r) {
-					nextBuffer = null; // completely consumed
+					current = null; // completely consumed
 					return (long) r;
 				}
 				b.position(b.position() + (int) toSkip);
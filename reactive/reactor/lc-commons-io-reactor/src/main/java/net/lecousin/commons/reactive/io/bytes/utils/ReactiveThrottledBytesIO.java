@@ -0,0 +1,183 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Objects;
+
+import net.lecousin.commons.exceptions.NegativeValueException;
+import net.lecousin.commons.io.utils.IOThrottle;
+import net.lecousin.commons.reactive.io.ReactiveIOChecks;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+import net.lecousin.commons.reactive.io.utils.AbstractReactiveDecoratorIO;
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveBytesIO limiting the throughput of an underlying IO using an {@link IOThrottle},
+ * the reactive counterpart of {@link net.lecousin.commons.io.bytes.utils.ThrottledBytesIO}.
+ * <p>
+ * Operations are delayed, without blocking any thread, until the throttle allows them, so the scheduler of the
+ * underlying IO stays available for other IOs while waiting. Operations on a buffer, and skips, are limited to the burst
+ * of the throttle, and skipped bytes are counted as transferred bytes.
+ * </p>
+ */
+public interface ReactiveThrottledBytesIO {
+
+	/**
+	 * Create a throttled Readable.
+	 * @param io IO to read
+	 * @param throttle throttle to apply
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Readable
+	 */
+	static ReactiveThrottledBytesIO.Readable readable(ReactiveBytesIO.Readable io, IOThrottle throttle, boolean closeIoOnClose) {
+		return new Readable(io, throttle, closeIoOnClose);
+	}
+
+	/**
+	 * Create a throttled Writable.
+	 * @param io IO to write to
+	 * @param throttle throttle to apply
+	 * @param closeIoOnClose if true, the given IO will be closed when the returned IO is closed
+	 * @return the Writable
+	 */
+	static ReactiveThrottledBytesIO.Writable writable(ReactiveBytesIO.Writable io, IOThrottle throttle, boolean closeIoOnClose) {
+		return new Writable(io, throttle, closeIoOnClose);
+	}
+
+	/** @return the throttle applied. */
+	IOThrottle getThrottle();
+
+	/** Base class.
+	 * @param <I> type of IO
+	 */
+	abstract class AbstractReactiveThrottledBytesIO<I extends ReactiveBytesIO> extends AbstractReactiveDecoratorIO<I> implements ReactiveThrottledBytesIO {
+
+		protected final IOThrottle throttle;
+
+		protected AbstractReactiveThrottledBytesIO(I io, IOThrottle throttle, boolean closeIoOnClose) {
+			super(io, closeIoOnClose);
+			this.throttle = Objects.requireNonNull(throttle, "throttle");
+		}
+
+		@Override
+		public IOThrottle getThrottle() {
+			return throttle;
+		}
+
+		/** @return a Mono completing when the throttle allows a new operation. */
+		protected Mono<Void> delay() {
+			return Mono.defer(() -> {
+				long delay = throttle.getDelayNanos();
+				if (delay <= 0) return Mono.empty();
+				return Mono.delay(Duration.ofNanos(delay)).then(delay());
+			});
+		}
+
+		/**
+		 * Apply the throttle to an operation on a buffer, limiting the buffer to the burst of the throttle.
+		 * <p>
+		 * The limit of the buffer is restored whatever the outcome, including a cancellation, and before the result
+		 * is given, so the caller can continue with the buffer.
+		 * </p>
+		 * @param buffer buffer of the operation
+		 * @param operation operation
+		 * @return the throttled operation
+		 */
+		protected Mono<Integer> throttleBuffer(ByteBuffer buffer, Mono<Integer> operation) {
+			return delay().then(Mono.using(
+				() -> {
+					int limit = buffer.limit();
+					buffer.limit(buffer.position() + throttle.limit(buffer.remaining()));
+					return limit;
+				},
+				limit -> operation,
+				buffer::limit,
+				true
+			)).doOnNext(nb -> throttle.consume(Math.max(nb, 0)));
+		}
+	}
+
+	/** Throttled Readable. */
+	class Readable extends AbstractReactiveThrottledBytesIO<ReactiveBytesIO.Readable> implements ReactiveBytesIO.Readable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to read
+		 * @param throttle throttle to apply
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Readable(ReactiveBytesIO.Readable io, IOThrottle throttle, boolean closeIoOnClose) {
+			super(io, throttle, closeIoOnClose);
+		}
+
+		@Override
+		public Mono<Byte> readByte() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> {
+				ReactiveBytesIO.Readable i = io;
+				return delay().then(Mono.defer(i::readByte)).doOnNext(b -> throttle.consume(1));
+			});
+		}
+
+		@Override
+		public Mono<Integer> readBytes(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				ReactiveBytesIO.Readable i = io;
+				return throttleBuffer(buffer, Mono.defer(() -> i.readBytes(buffer)));
+			});
+		}
+
+		@Override
+		public Mono<ByteBuffer> readBuffer() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> {
+				ReactiveBytesIO.Readable i = io;
+				return delay().then(Mono.defer(i::readBuffer)).doOnSuccess(b -> throttle.consume(b != null ? b.remaining() : 0));
+			});
+		}
+
+		@Override
+		public Mono<Long> skipUpTo(long toSkip) {
+			return ReactiveIOChecks.deferNotClosedAnd(this, () -> NegativeValueException.checker(toSkip, "toSkip"), () -> {
+				if (toSkip == 0) return Mono.just(0L);
+				ReactiveBytesIO.Readable i = io;
+				return delay().then(Mono.defer(() -> i.skipUpTo(throttle.limit((int) Math.min(toSkip, Integer.MAX_VALUE)))))
+					.doOnNext(nb -> throttle.consume(Math.max(nb, 0)));
+			});
+		}
+	}
+
+	/** Throttled Writable. */
+	class Writable extends AbstractReactiveThrottledBytesIO<ReactiveBytesIO.Writable> implements ReactiveBytesIO.Writable {
+
+		/**
+		 * Constructor.
+		 * @param io IO to write to
+		 * @param throttle throttle to apply
+		 * @param closeIoOnClose if true, the given IO will be closed when this IO is closed
+		 */
+		public Writable(ReactiveBytesIO.Writable io, IOThrottle throttle, boolean closeIoOnClose) {
+			super(io, throttle, closeIoOnClose);
+		}
+
+		@Override
+		public Mono<Void> writeByte(byte value) {
+			return ReactiveIOChecks.deferNotClosed(this, () -> {
+				ReactiveBytesIO.Writable i = io;
+				return delay().then(Mono.defer(() -> i.writeByte(value))).doOnSuccess(v -> throttle.consume(1));
+			});
+		}
+
+		@Override
+		public Mono<Integer> writeBytes(ByteBuffer buffer) {
+			return ReactiveIOChecks.deferByteBuffer(this, buffer, () -> {
+				ReactiveBytesIO.Writable i = io;
+				return throttleBuffer(buffer, Mono.defer(() -> i.writeBytes(buffer)));
+			});
+		}
+
+		@Override
+		public Mono<Void> flush() {
+			return ReactiveIOChecks.deferNotClosed(this, () -> io.flush());
+		}
+	}
+
+}
@@ -0,0 +1,405 @@
+package net.lecousin.commons.reactive.io.files;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.lecousin.commons.io.bytes.data.BytesDataIO;
+import net.lecousin.commons.io.bytes.file.FileIO;
+import net.lecousin.commons.io.bytes.memory.BufferedReadableBytesDataIO;
+import net.lecousin.commons.io.bytes.memory.BufferedWritableBytesDataIO;
+import net.lecousin.commons.reactive.MonoUtils;
+import net.lecousin.commons.reactive.io.files.ReactiveFileTreeWalkerByDirectory.DirectoryContent;
+import net.lecousin.commons.reactive.io.files.scheduler.FileAccessSchedulerProvider;
+import net.lecousin.commons.reactive.io.files.scheduler.FileAccessSchedulerProvider.Priority;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Snapshot of a directory tree, keeping the size and last modification time of each file and directory.
+ * <p>
+ * A first snapshot is taken using {@link #take(Path)}, based on {@link ReactiveFileTreeWalkerByDirectory}.
+ * Then {@link #refresh()} creates a new snapshot, re-using the content of the directories whose last modification
+ * time did not change: for those directories, only the attributes of their sub-directories are read again.<br/>
+ * Because the modification time of a directory only changes when an entry is added, removed or renamed,
+ * a modification of the content of an existing file is not detected unless the file or its directory is given
+ * to {@link #refresh(Collection)}, typically from the events of a WatchService.
+ * </p>
+ * <p>
+ * The method {@link #diff(ReactiveFileTreeSnapshot)} compares 2 snapshots, skipping directories which are shared
+ * by the 2 snapshots because they did not change.
+ * </p>
+ * <p>
+ * A snapshot can be persisted in a compact binary format using {@link #writeTo(BytesDataIO.Writable)} or {@link #save(Path)},
+ * and read back using {@link #readFrom(BytesDataIO.Readable)} or {@link #load(Path)}.
+ * </p>
+ */
+public final class ReactiveFileTreeSnapshot {
+
+	private static final int FORMAT_MAGIC = 0x4C435453;
+	private static final int FORMAT_VERSION = 1;
+	private static final int MAX_STRING_LENGTH = 0xFFFF;
+	private static final long NOT_LISTED = -1;
+	private static final Path EMPTY_PATH = Path.of("");
+
+	/** File or directory. */
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class Entry {
+		private final String name;
+		private final long size;
+		private final long lastModified;
+
+		/** @return true if this entry is a directory. */
+		public boolean isDirectory() {
+			return false;
+		}
+	}
+
+	/** Directory. */
+	@Getter
+	public static final class Directory extends Entry {
+		private final Map<String, Entry> files;
+		private final Map<String, Directory> subDirectories;
+
+		private Directory(String name, long size, long lastModified, Map<String, Entry> files, Map<String, Directory> subDirectories) {
+			super(name, size, lastModified);
+			this.files = Collections.unmodifiableMap(files);
+			this.subDirectories = Collections.unmodifiableMap(subDirectories);
+		}
+
+		@Override
+		public boolean isDirectory() {
+			return true;
+		}
+	}
+
+	/** Type of change. */
+	public enum ChangeType {
+		/** The entry exists only in the new snapshot. */
+		ADDED,
+		/** The entry exists only in the previous snapshot. */
+		REMOVED,
+		/** The file exists in both snapshots, but its size or last modification time changed. */
+		MODIFIED
+	}
+
+	/** Change between 2 snapshots. */
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	public static final class Change {
+		private final ChangeType type;
+		private final Path relativePath;
+		/** Entry in the previous snapshot, null if added. */
+		private final Entry previous;
+		/** Entry in the new snapshot, null if removed. */
+		private final Entry current;
+	}
+
+	@Getter
+	private final Path root;
+	@Getter
+	private final Directory rootDirectory;
+
+	private ReactiveFileTreeSnapshot(Path root, Directory rootDirectory) {
+		this.root = root;
+		this.rootDirectory = rootDirectory;
+	}
+
+	/**
+	 * Take a snapshot of the given directory.
+	 * @param root root directory
+	 * @return the snapshot
+	 */
+	public static Mono<ReactiveFileTreeSnapshot> take(Path root) {
+		return readAttributes(root).flatMap(rootAttributes ->
+			ReactiveFileTreeWalkerByDirectory.walk(root)
+			.collectMap(DirectoryContent::getRelativePath)
+			.map(contents -> new ReactiveFileTreeSnapshot(root, build("", rootAttributes, EMPTY_PATH, contents)))
+		);
+	}
+
+	private static Directory build(String name, BasicFileAttributes attributes, Path relativePath, Map<Path, DirectoryContent> contents) {
+		DirectoryContent content = contents.get(relativePath);
+		Map<String, Entry> files = new HashMap<>();
+		Map<String, Directory> subDirectories = new HashMap<>();
+		if (content != null) {
+			content.getFiles().forEach((n, e) -> files.put(n, new Entry(n, e.getAttrs().size(), e.getAttrs().lastModifiedTime().toMillis())));
+			content.getSubDirectories().forEach((n, e) -> subDirectories.put(n, build(n, e.getAttrs(), e.getRelativePath(), contents)));
+		}
+		// in case of error, the directory will be listed again on next refresh
+		long lastModified = content != null && content.getErrors().isEmpty() ? attributes.lastModifiedTime().toMillis() : NOT_LISTED;
+		return new Directory(name, attributes.size(), lastModified, files, subDirectories);
+	}
+
+	/**
+	 * Create a new snapshot of the same root directory, listing only directories which changed since this snapshot.
+	 * @return the new snapshot
+	 */
+	public Mono<ReactiveFileTreeSnapshot> refresh() {
+		return refresh(Collections.emptyList());
+	}
+
+	/**
+	 * Create a new snapshot of the same root directory, listing only directories which changed since this snapshot,
+	 * and the directories containing the given paths.
+	 * @param changedPaths paths known to be changed, absolute or relative to the root directory
+	 * @return the new snapshot
+	 */
+	public Mono<ReactiveFileTreeSnapshot> refresh(Collection<Path> changedPaths) {
+		Set<Path> forced = new HashSet<>();
+		Path absoluteRoot = root.toAbsolutePath();
+		for (Path p : changedPaths) {
+			Path relative = (p.isAbsolute() ? absoluteRoot.relativize(p) : p).normalize();
+			if (relative.startsWith("..")) continue;
+			forced.add(relative);
+			Path parent = relative.getParent();
+			forced.add(parent != null ? parent : EMPTY_PATH);
+		}
+		return readAttributes(root)
+			.flatMap(attributes -> refreshDirectory(root, EMPTY_PATH, attributes, rootDirectory, forced))
+			.map(dir -> new ReactiveFileTreeSnapshot(root, dir));
+	}
+
+	private static Mono<Directory> refreshDirectory(Path realPath, Path relativePath, BasicFileAttributes attributes, Directory previous, Set<Path> forced) {
+		String name = relativePath.getFileName() != null ? relativePath.getFileName().toString() : "";
+		long lastModified = attributes.lastModifiedTime().toMillis();
+		if (previous != null && previous.getLastModified() == lastModified && !forced.contains(relativePath))
+			return refreshSubDirectories(realPath, relativePath, attributes, previous, forced);
+		return ReactiveFileTreeWalkerByDirectory.listDirectoryContent(realPath, relativePath, Priority.BULK)
+		.flatMap(content -> {
+			Map<String, Entry> files = new HashMap<>();
+			content.getFiles().forEach((n, e) -> {
+				Entry file = previous != null ? previous.files.get(n) : null;
+				long size = e.getAttrs().size();
+				long fileLastModified = e.getAttrs().lastModifiedTime().toMillis();
+				if (file == null || file.getSize() != size || file.getLastModified() != fileLastModified)
+					file = new Entry(n, size, fileLastModified);
+				files.put(n, file);
+			});
+			return Flux.fromIterable(content.getSubDirectories().values())
+				.flatMap(e -> refreshDirectory(e.getRealPath(), e.getRelativePath(), e.getAttrs(),
+					previous != null ? previous.subDirectories.get(e.getRealPath().getFileName().toString()) : null, forced))
+				.collectMap(Entry::getName)
+				.map(subDirectories -> new Directory(name, attributes.size(), content.getErrors().isEmpty() ? lastModified : NOT_LISTED, files, subDirectories));
+		});
+	}
+
+	private static Mono<Directory> refreshSubDirectories(Path realPath, Path relativePath, BasicFileAttributes attributes, Directory previous, Set<Path> forced) {
+		// the content of the directory did not change, but sub-directories may have changed
+		return Flux.fromIterable(previous.subDirectories.values())
+			.flatMap(sub -> {
+				Path subPath = realPath.resolve(sub.getName());
+				return readAttributes(subPath)
+					.filter(BasicFileAttributes::isDirectory)
+					.flatMap(subAttributes -> refreshDirectory(subPath, relativePath.resolve(sub.getName()), subAttributes, sub, forced))
+					.onErrorResume(IOException.class, e -> Mono.empty());
+			})
+			.collectList()
+			.map(subDirectories -> {
+				boolean complete = subDirectories.size() == previous.subDirectories.size();
+				boolean same = complete && previous.getSize() == attributes.size();
+				for (Directory d : subDirectories)
+					if (previous.subDirectories.get(d.getName()) != d) {
+						same = false;
+						break;
+					}
+				if (same)
+					return previous;
+				Map<String, Directory> map = new HashMap<>();
+				for (Directory d : subDirectories)
+					map.put(d.getName(), d);
+				// if a sub-directory cannot be read anymore, the directory will be listed again on next refresh
+				return new Directory(previous.getName(), attributes.size(), complete ? previous.getLastModified() : NOT_LISTED, previous.files, map);
+			});
+	}
+
+	private static Mono<BasicFileAttributes> readAttributes(Path path) {
+		// scanning a tree is a background operation, it should not delay the other accesses to the device
+		return Mono.fromCallable(() -> Files.readAttributes(path, BasicFileAttributes.class))
+			.subscribeOn(FileAccessSchedulerProvider.get().getFileAccessScheduler(path, Priority.BULK))
+			.publishOn(Schedulers.parallel());
+	}
+
+	/**
+	 * Compare this snapshot with a previous one.<br/>
+	 * When a directory is added or removed, a change is emitted for the directory, followed by a change for each of its content.
+	 * A directory which is shared by both snapshots is skipped.
+	 *
+	 * @param previous previous snapshot
+	 * @return changes
+	 */
+	public Flux<Change> diff(ReactiveFileTreeSnapshot previous) {
+		return Flux.defer(() -> diffDirectory(previous.rootDirectory, rootDirectory, EMPTY_PATH));
+	}
+
+	private static Flux<Change> diffDirectory(Directory before, Directory after, Path relativePath) {
+		if (before == after)
+			return Flux.empty();
+		List<Change> changes = new ArrayList<>();
+		for (Entry file : before.files.values()) {
+			Entry now = after.files.get(file.getName());
+			if (now == null)
+				changes.add(new Change(ChangeType.REMOVED, relativePath.resolve(file.getName()), file, null));
+			else if (now.getSize() != file.getSize() || now.getLastModified() != file.getLastModified())
+				changes.add(new Change(ChangeType.MODIFIED, relativePath.resolve(file.getName()), file, now));
+		}
+		for (Entry file : after.files.values())
+			if (!before.files.containsKey(file.getName()))
+				changes.add(new Change(ChangeType.ADDED, relativePath.resolve(file.getName()), null, file));
+		List<Flux<Change>> subDirectories = new ArrayList<>();
+		for (Directory dir : before.subDirectories.values()) {
+			Directory now = after.subDirectories.get(dir.getName());
+			Path path = relativePath.resolve(dir.getName());
+			if (now == null)
+				subDirectories.add(all(dir, path, ChangeType.REMOVED));
+			else
+				subDirectories.add(Flux.defer(() -> diffDirectory(dir, now, path)));
+		}
+		for (Directory dir : after.subDirectories.values())
+			if (!before.subDirectories.containsKey(dir.getName()))
+				subDirectories.add(all(dir, relativePath.resolve(dir.getName()), ChangeType.ADDED));
+		return Flux.concat(Flux.fromIterable(changes), Flux.concat(subDirectories));
+	}
+
+	private static Flux<Change> all(Directory dir, Path relativePath, ChangeType type) {
+		return Flux.concat(
+			Mono.fromSupplier(() -> change(type, relativePath, dir)),
+			Flux.fromIterable(dir.files.values()).map(file -> change(type, relativePath.resolve(file.getName()), file)),
+			Flux.fromIterable(dir.subDirectories.values()).concatMap(sub -> all(sub, relativePath.resolve(sub.getName()), type))
+		);
+	}
+
+	private static Change change(ChangeType type, Path relativePath, Entry entry) {
+		if (type == ChangeType.ADDED)
+			return new Change(type, relativePath, null, entry);
+		return new Change(type, relativePath, entry, null);
+	}
+
+	/**
+	 * Write this snapshot.
+	 * @param output where to write
+	 * @throws IOException in case of error writing, or if a path or a name is longer than 65535 bytes in UTF-8
+	 */
+	public void writeTo(BytesDataIO.Writable output) throws IOException {
+		output.writeInteger(FORMAT_MAGIC);
+		output.writeUnsignedByte(FORMAT_VERSION);
+		writeString(output, root.toString());
+		writeDirectory(output, rootDirectory);
+	}
+
+	private static void writeDirectory(BytesDataIO.Writable output, Directory dir) throws IOException {
+		output.writeLong(dir.getSize());
+		output.writeLong(dir.getLastModified());
+		output.writeInteger(dir.files.size());
+		for (Entry file : dir.files.values()) {
+			writeString(output, file.getName());
+			output.writeLong(file.getSize());
+			output.writeLong(file.getLastModified());
+		}
+		output.writeInteger(dir.subDirectories.size());
+		for (Directory sub : dir.subDirectories.values()) {
+			writeString(output, sub.getName());
+			writeDirectory(output, sub);
+		}
+	}
+
+	private static void writeString(BytesDataIO.Writable output, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > MAX_STRING_LENGTH)
+			throw new IOException("Path too long to be written in a file tree snapshot: " + bytes.length + " bytes");
+		output.writeUnsigned2Bytes(bytes.length);
+		output.writeBytesFully(bytes);
+	}
+
+	/**
+	 * Read a snapshot previously written using {@link #writeTo(BytesDataIO.Writable)}.
+	 * @param input where to read
+	 * @return the snapshot
+	 * @throws IOException in case of error reading, or if the input is not a valid snapshot
+	 */
+	public static ReactiveFileTreeSnapshot readFrom(BytesDataIO.Readable input) throws IOException {
+		if (input.readInteger() != FORMAT_MAGIC)
+			throw new IOException("Invalid file tree snapshot");
+		int version = input.readUnsignedByte();
+		if (version != FORMAT_VERSION)
+			throw new IOException("Unsupported file tree snapshot version: " + version);
+		Path root = Path.of(readString(input));
+		return new ReactiveFileTreeSnapshot(root, readDirectory(input, ""));
+	}
+
+	private static Directory readDirectory(BytesDataIO.Readable input, String name) throws IOException {
+		long size = input.readLong();
+		long lastModified = input.readLong();
+		int nb = input.readInteger();
+		Map<String, Entry> files = new HashMap<>();
+		for (int i = 0; i < nb; ++i) {
+			String fileName = readString(input);
+			files.put(fileName, new Entry(fileName, input.readLong(), input.readLong()));
+		}
+		nb = input.readInteger();
+		Map<String, Directory> subDirectories = new HashMap<>();
+		for (int i = 0; i < nb; ++i) {
+			String dirName = readString(input);
+			subDirectories.put(dirName, readDirectory(input, dirName));
+		}
+		return new Directory(name, size, lastModified, files, subDirectories);
+	}
+
+	private static String readString(BytesDataIO.Readable input) throws IOException {
+		byte[] bytes = new byte[input.readUnsigned2Bytes()];
+		input.readBytesFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Save this snapshot into the given file.
+	 * @param file file to write, created or truncated
+	 * @return empty on success
+	 */
+	public Mono<Void> save(Path file) {
+		return MonoUtils.fromFailableRunnable(() -> {
+			try (FileIO.Writable.Appendable io = new FileIO.Writable.Appendable(file,
+				Set.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING))) {
+				BufferedWritableBytesDataIO<FileIO.Writable.Appendable> output = new BufferedWritableBytesDataIO<>(io, false);
+				writeTo(output);
+				output.flush();
+				output.close();
+			}
+		})
+		.subscribeOn(FileAccessSchedulerProvider.get().getFileAccessScheduler(file))
+		.publishOn(Schedulers.parallel());
+	}
+
+	/**
+	 * Load a snapshot from the given file.
+	 * @param file file previously written using {@link #save(Path)}
+	 * @return the snapshot
+	 */
+	public static Mono<ReactiveFileTreeSnapshot> load(Path file) {
+		return Mono.fromCallable(() -> {
+			try (FileIO.Readable io = new FileIO.Readable(file);
+				BufferedReadableBytesDataIO input = new BufferedReadableBytesDataIO(io, false)) {
+				return readFrom(input);
+			}
+		})
+		.subscribeOn(FileAccessSchedulerProvider.get().getFileAccessScheduler(file))
+		.publishOn(Schedulers.parallel());
+	}
+
+}
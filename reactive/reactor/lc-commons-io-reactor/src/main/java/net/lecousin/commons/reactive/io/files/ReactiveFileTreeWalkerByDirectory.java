@@ -12,9 +12,11 @@ import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import net.lecousin.commons.reactive.io.files.scheduler.FileAccessSchedulerProvider;
+import net.lecousin.commons.reactive.io.files.scheduler.FileAccessSchedulerProvider.Priority;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 
 /**
@@ -71,9 +73,17 @@ public final class ReactiveFileTreeWalkerByDirectory {
 		}).then();
 	}
 	
-	private static Mono<DirectoryContent> listDirectoryContent(Path realPath, Path relativePath) {
+	static Mono<DirectoryContent> listDirectoryContent(Path realPath, Path relativePath) {
+		return listDirectoryContent(realPath, relativePath, FileAccessSchedulerProvider.get().getFileAccessScheduler(realPath));
+	}
+	
+	static Mono<DirectoryContent> listDirectoryContent(Path realPath, Path relativePath, Priority priority) {
+		return listDirectoryContent(realPath, relativePath, FileAccessSchedulerProvider.get().getFileAccessScheduler(realPath, priority));
+	}
+	
+	private static Mono<DirectoryContent> listDirectoryContent(Path realPath, Path relativePath, Scheduler scheduler) {
 		return Mono.fromSupplier(() -> listDirectoryContentInDedicatedScheduler(realPath, relativePath))
-			.subscribeOn(FileAccessSchedulerProvider.get().getFileAccessScheduler(realPath))
+			.subscribeOn(scheduler)
 			.publishOn(Schedulers.parallel());
 	}
 	
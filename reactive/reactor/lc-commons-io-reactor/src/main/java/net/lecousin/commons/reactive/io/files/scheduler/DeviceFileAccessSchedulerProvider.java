@@ -0,0 +1,359 @@
+package net.lecousin.commons.reactive.io.files.scheduler;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Implementation creating a pool of threads by device, a device being identified by its {@link FileStore}.
+ * <p>
+ * The device of a directory is resolved once, then cached, so the mapping is not evaluated again on each call.
+ * The number of threads of each pool depends on the type of device: by default a single thread for rotational
+ * drives (where concurrent accesses only add seeks), and several threads for solid state drives.
+ * </p>
+ * <p>
+ * The tasks submitted for a same file are executed one at a time, in submission order, whatever their priority,
+ * as done by a single thread scheduler: an IO can rely on it to keep its position consistent.
+ * Only tasks on different files are executed in parallel. The schedulers of the most recently used files are cached,
+ * so a file keeps the same schedulers while it is in use.
+ * </p>
+ * <p>
+ * Files waiting for a thread are ordered by the {@link FileAccessSchedulerProvider.Priority priority} of their next task,
+ * then by submission order, so interactive operations are executed before bulk operations waiting on the same device.
+ * The number of queued tasks by device is available through {@link #getStatistics()}.
+ * </p>
+ * <p>
+ * Note that the returned schedulers do not support delayed tasks.
+ * </p>
+ */
+@Slf4j
+public class DeviceFileAccessSchedulerProvider implements FileAccessSchedulerProvider {
+
+	/** Type of device. */
+	public enum DeviceType {
+		/** Hard disk drive. */
+		ROTATIONAL,
+		/** Solid state drive, or memory file system. */
+		SOLID_STATE,
+		/** The type of device cannot be determined. */
+		UNKNOWN
+	}
+
+	/** Statistics of a device. */
+	@Getter
+	@AllArgsConstructor
+	public static class DeviceStatistics {
+		private String name;
+		private DeviceType type;
+		private int threads;
+		private int activeThreads;
+		private Map<Priority, Long> queuedTasks;
+		private long completedTasks;
+
+		/** @return the total number of tasks waiting for a thread on this device. */
+		public long getQueueDepth() {
+			return queuedTasks.values().stream().mapToLong(Long::longValue).sum();
+		}
+	}
+
+	private static final int MAX_CACHED_DIRECTORIES = 10000;
+	private static final int MAX_CACHED_FILES = 10000;
+	private static final int CACHE_INITIAL_CAPACITY = 16;
+	private static final float CACHE_LOAD_FACTOR = 0.75f;
+	private static final long THREAD_KEEP_ALIVE_SECONDS = 60;
+	private static final int DEFAULT_SOLID_STATE_MAX_THREADS = 8;
+	private static final Path SYS_BLOCK = Path.of("/sys/class/block");
+
+	private final int rotationalThreads;
+	private final int solidStateThreads;
+	private final int unknownThreads;
+	private final Map<FileStore, Device> devices = new ConcurrentHashMap<>();
+	private final Map<Path, Device> directories = lruCache(MAX_CACHED_DIRECTORIES);
+	private final Map<Path, FileQueue> files = lruCache(MAX_CACHED_FILES);
+	private final Device defaultDevice;
+
+	/** Constructor with default number of threads: 1 for rotational and unknown devices, up to 8 for solid state drives. */
+	public DeviceFileAccessSchedulerProvider() {
+		this(1, Math.min(DEFAULT_SOLID_STATE_MAX_THREADS, Runtime.getRuntime().availableProcessors()), 1);
+	}
+
+	/**
+	 * Constructor.
+	 * @param rotationalThreads number of threads for each rotational device
+	 * @param solidStateThreads number of threads for each solid state device
+	 * @param unknownThreads number of threads for each device with unknown type, and for paths without device
+	 */
+	public DeviceFileAccessSchedulerProvider(int rotationalThreads, int solidStateThreads, int unknownThreads) {
+		this.rotationalThreads = Math.max(1, rotationalThreads);
+		this.solidStateThreads = Math.max(1, solidStateThreads);
+		this.unknownThreads = Math.max(1, unknownThreads);
+		defaultDevice = new Device("default", DeviceType.UNKNOWN, this.unknownThreads);
+	}
+
+	@Override
+	public Scheduler getFileAccessScheduler(Path path) {
+		return getFileAccessScheduler(path, Priority.NORMAL);
+	}
+
+	@Override
+	public Scheduler getFileAccessScheduler(Path path, Priority priority) {
+		Path absolute = path.toAbsolutePath().normalize();
+		FileQueue queue = files.get(absolute);
+		if (queue == null) {
+			Device device = getDevice(absolute);
+			synchronized (files) {
+				queue = files.computeIfAbsent(absolute, p -> new FileQueue(device));
+			}
+		}
+		return queue.schedulers.get(priority);
+	}
+
+	private static <K, V> Map<K, V> lruCache(int maxSize) {
+		return Collections.synchronizedMap(new LinkedHashMap<>(CACHE_INITIAL_CAPACITY, CACHE_LOAD_FACTOR, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > maxSize;
+			}
+		});
+	}
+
+	/** @return statistics of each device used so far. */
+	public List<DeviceStatistics> getStatistics() {
+		List<DeviceStatistics> list = new ArrayList<>(devices.size() + 1);
+		list.add(defaultDevice.getStatistics());
+		for (Device device : devices.values())
+			list.add(device.getStatistics());
+		return list;
+	}
+
+	private Device getDevice(Path absolute) {
+		Path dir = absolute.getParent();
+		if (dir == null) dir = absolute;
+		Device device = directories.get(dir);
+		if (device != null)
+			return device;
+		device = resolveDevice(dir);
+		directories.put(dir, device);
+		return device;
+	}
+
+	private Device resolveDevice(Path dir) {
+		// the file may not exist yet, use the first existing parent
+		Path p = dir;
+		while (p != null && !Files.exists(p))
+			p = p.getParent();
+		if (p == null)
+			return defaultDevice;
+		try {
+			FileStore store = Files.getFileStore(p);
+			return devices.computeIfAbsent(store, this::createDevice);
+		} catch (IOException e) {
+			log.debug("Unable to get FileStore for {}", p, e);
+			return defaultDevice;
+		}
+	}
+
+	private Device createDevice(FileStore store) {
+		DeviceType type = detectDeviceType(store);
+		int nbThreads = getNumberOfThreads(type);
+		log.info("File access on device {} ({}) with {} thread(s)", store, type, nbThreads);
+		return new Device(store.toString(), type, nbThreads);
+	}
+
+	/**
+	 * Detect the type of device.<br/>
+	 * On Linux, the type is determined using <code>/sys/class/block/&lt;device&gt;/queue/rotational</code>.
+	 * Memory file systems (tmpfs, ramfs) are considered as solid state.
+	 *
+	 * @param store file store
+	 * @return the type of device
+	 */
+	protected DeviceType detectDeviceType(FileStore store) {
+		String fsType = store.type();
+		if ("tmpfs".equals(fsType) || "ramfs".equals(fsType))
+			return DeviceType.SOLID_STATE;
+		String name = store.name();
+		name = name.substring(name.lastIndexOf('/') + 1);
+		if (name.isEmpty() || !Files.isDirectory(SYS_BLOCK))
+			return DeviceType.UNKNOWN;
+		try {
+			Path dev = SYS_BLOCK.resolve(name);
+			if (!Files.isDirectory(dev))
+				return DeviceType.UNKNOWN;
+			dev = dev.toRealPath();
+			Path rotational = dev.resolve("queue").resolve("rotational");
+			if (!Files.exists(rotational))
+				// partition: the queue is on the parent device
+				rotational = dev.getParent().resolve("queue").resolve("rotational");
+			if (!Files.exists(rotational))
+				return DeviceType.UNKNOWN;
+			return Files.readString(rotational).trim().equals("0") ? DeviceType.SOLID_STATE : DeviceType.ROTATIONAL;
+		} catch (IOException e) {
+			log.debug("Unable to detect device type of {}", store, e);
+			return DeviceType.UNKNOWN;
+		}
+	}
+
+	/**
+	 * @param type type of device
+	 * @return the number of threads to use for a device of the given type
+	 */
+	protected int getNumberOfThreads(DeviceType type) {
+		switch (type) {
+		case ROTATIONAL: return rotationalThreads;
+		case SOLID_STATE: return solidStateThreads;
+		default: return unknownThreads;
+		}
+	}
+
+	private static final class Device {
+		private final String name;
+		private final DeviceType type;
+		private final ThreadPoolExecutor pool;
+		private final AtomicLong sequence = new AtomicLong();
+		private final Map<Priority, LongAdder> queued = new EnumMap<>(Priority.class);
+
+		private Device(String name, DeviceType type, int nbThreads) {
+			this.name = name;
+			this.type = type;
+			AtomicInteger threadCount = new AtomicInteger();
+			pool = new ThreadPoolExecutor(nbThreads, nbThreads, THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new PriorityBlockingQueue<>(), r -> {
+				Thread t = new Thread(r, "File Access on " + name + " #" + threadCount.incrementAndGet());
+				t.setDaemon(true);
+				return t;
+			});
+			pool.allowCoreThreadTimeOut(true);
+			for (Priority priority : Priority.values())
+				queued.put(priority, new LongAdder());
+		}
+
+		private void execute(Runnable task, Priority priority) {
+			pool.execute(new PrioritizedTask(task, priority.ordinal(), sequence.getAndIncrement()));
+		}
+
+		private DeviceStatistics getStatistics() {
+			Map<Priority, Long> queuedTasks = new EnumMap<>(Priority.class);
+			queued.forEach((priority, counter) -> queuedTasks.put(priority, counter.sum()));
+			return new DeviceStatistics(name, type, pool.getMaximumPoolSize(), pool.getActiveCount(), queuedTasks, pool.getCompletedTaskCount());
+		}
+	}
+
+	/** Tasks of a file, executed one at a time on the pool of its device. */
+	private static final class FileQueue {
+		private final Device device;
+		private final ArrayDeque<QueuedTask> tasks = new ArrayDeque<>();
+		private boolean scheduled = false;
+		private final Map<Priority, Scheduler> schedulers = new EnumMap<>(Priority.class);
+
+		private FileQueue(Device device) {
+			this.device = device;
+			for (Priority priority : Priority.values())
+				schedulers.put(priority, Schedulers.fromExecutor(task -> execute(task, priority)));
+		}
+
+		private void execute(Runnable task, Priority priority) {
+			device.queued.get(priority).increment();
+			synchronized (tasks) {
+				tasks.add(new QueuedTask(task, priority));
+				if (scheduled) return;
+				scheduled = true;
+			}
+			device.execute(this::runNext, priority);
+		}
+
+		private void runNext() {
+			QueuedTask next;
+			synchronized (tasks) {
+				next = tasks.poll();
+			}
+			device.queued.get(next.priority).decrement();
+			try {
+				next.task.run();
+			} finally {
+				scheduleNext();
+			}
+		}
+
+		private void scheduleNext() {
+			Priority priority;
+			synchronized (tasks) {
+				QueuedTask next = tasks.peek();
+				if (next == null) {
+					scheduled = false;
+					return;
+				}
+				priority = next.priority;
+			}
+			// go back to the device queue, so other files waiting for a thread get their turn
+			device.execute(this::runNext, priority);
+		}
+	}
+
+	private static final class QueuedTask {
+		private final Runnable task;
+		private final Priority priority;
+
+		private QueuedTask(Runnable task, Priority priority) {
+			this.task = task;
+			this.priority = priority;
+		}
+	}
+
+	private static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+		private final Runnable task;
+		private final int priority;
+		private final long sequence;
+
+		private PrioritizedTask(Runnable task, int priority, long sequence) {
+			this.task = task;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public void run() {
+			task.run();
+		}
+
+		@Override
+		public int compareTo(PrioritizedTask o) {
+			if (priority != o.priority)
+				return priority - o.priority;
+			return Long.compare(sequence, o.sequence);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return this == obj;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this);
+		}
+	}
+
+}
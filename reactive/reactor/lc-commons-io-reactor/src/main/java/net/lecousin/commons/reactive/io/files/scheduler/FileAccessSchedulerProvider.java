@@ -16,6 +16,28 @@ public interface FileAccessSchedulerProvider {
 	 */
 	Scheduler getFileAccessScheduler(Path path);
 	
+	/**
+	 * Return the scheduler to use for the given priority.<br/>
+	 * By default, the priority is ignored and {@link #getFileAccessScheduler(Path)} is returned.
+	 * 
+	 * @param path file
+	 * @param priority priority of the operations
+	 * @return the scheduler to use
+	 */
+	default Scheduler getFileAccessScheduler(Path path, Priority priority) {
+		return getFileAccessScheduler(path);
+	}
+	
+	/** Priority class of file access operations. */
+	enum Priority {
+		/** Operations a user or a request is waiting for. */
+		INTERACTIVE,
+		/** Default priority. */
+		NORMAL,
+		/** Background operations such as large copies. */
+		BULK
+	}
+	
 	/**
 	 * @return the singleton instance configured
 	 */
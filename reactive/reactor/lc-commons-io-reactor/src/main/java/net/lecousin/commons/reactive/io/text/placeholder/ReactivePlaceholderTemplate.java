@@ -0,0 +1,53 @@
+package net.lecousin.commons.reactive.io.text.placeholder;
+
+import java.nio.CharBuffer;
+
+import net.lecousin.commons.io.text.placeholder.PlaceholderTemplate;
+import reactor.core.publisher.Flux;
+
+/** Render placeholder templates, the reactive way. */
+public final class ReactivePlaceholderTemplate {
+
+	private ReactivePlaceholderTemplate() {
+		// no instance
+	}
+
+	/**
+	 * Render a template into a flux of chunks of {@link PlaceholderTemplate#DEFAULT_CHUNK_SIZE} characters.
+	 * @param <T> type of input to resolve the placeholders
+	 * @param template template to render
+	 * @param resolveWith input
+	 * @return the flux of chunks
+	 * @see #render(PlaceholderTemplate, Object, int)
+	 */
+	public static <T> Flux<CharBuffer> render(PlaceholderTemplate<T> template, T resolveWith) {
+		return render(template, resolveWith, PlaceholderTemplate.DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Render a template into a flux of chunks.
+	 * <p>
+	 * The chunks are rendered on demand, so the placeholders are resolved only when the subscriber requests more data,
+	 * and each subscription renders the template again. Each chunk is a new buffer owned by the subscriber.
+	 * </p>
+	 * @param <T> type of input to resolve the placeholders
+	 * @param template template to render
+	 * @param resolveWith input
+	 * @param chunkSize maximum number of characters in a chunk
+	 * @return the flux of chunks
+	 */
+	public static <T> Flux<CharBuffer> render(PlaceholderTemplate<T> template, T resolveWith, int chunkSize) {
+		if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+		return Flux.generate(
+			() -> template.renderer(resolveWith),
+			(renderer, sink) -> {
+				CharBuffer chunk = CharBuffer.allocate(chunkSize);
+				if (renderer.fill(chunk) > 0) sink.next(chunk.flip());
+				// complete together with the last chunk, without waiting for more demand
+				if (renderer.isDone()) sink.complete();
+				return renderer;
+			}
+		);
+	}
+
+}
@@ -0,0 +1,43 @@
+package net.lecousin.commons.reactive.io.utils;
+
+import java.util.Objects;
+
+import net.lecousin.commons.reactive.io.AbstractReactiveIO;
+import net.lecousin.commons.reactive.io.ReactiveIO;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Abstract class for a reactive IO forwarding its operations to another IO, adding a behavior such as a hash,
+ * a throttle or metrics, the reactive counterpart of {@link net.lecousin.commons.io.utils.AbstractDecoratorIO}.
+ * @param <I> type of decorated IO
+ */
+public abstract class AbstractReactiveDecoratorIO<I extends ReactiveIO> extends AbstractReactiveIO {
+
+	protected I io;
+	private final boolean closeIoOnClose;
+
+	protected AbstractReactiveDecoratorIO(I io, boolean closeIoOnClose) {
+		this.io = Objects.requireNonNull(io, "io");
+		this.closeIoOnClose = closeIoOnClose;
+	}
+
+	@Override
+	protected Mono<Void> closeInternal() {
+		return Mono.defer(() -> {
+			if (io == null) return Mono.empty();
+			I i = io;
+			io = null;
+			if (closeIoOnClose) return i.close();
+			return Mono.empty();
+		});
+	}
+
+	@Override
+	public Scheduler getScheduler() {
+		if (io == null) return Schedulers.parallel();
+		return io.getScheduler();
+	}
+
+}
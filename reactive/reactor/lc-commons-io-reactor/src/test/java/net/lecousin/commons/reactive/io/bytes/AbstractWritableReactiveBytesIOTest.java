@@ -296,6 +296,34 @@ public abstract class AbstractWritableReactiveBytesIOTest implements TestCasesPr
 		StepVerifier.create(io.writeBytesFully(List.of(ByteBuffer.allocate(0), ByteBuffer.allocate(0)))).expectError(ClosedChannelException.class).verify();
 	}
 	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void writeFullyByteBufferArray(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<?, ?>> ioSupplier) throws Exception {
+		WritableTestCase<?, ?> ioTuple = ioSupplier.apply(toWrite.length);
+		ReactiveBytesIO.Writable io = ioTuple.getIo();
+
+		StepVerifier.create(io.writeBytesFully((ByteBuffer[]) null)).expectError(NullPointerException.class).verify();
+		StepVerifier.create(io.writeBytesFully(new ByteBuffer[0])).verifyComplete();
+		StepVerifier.create(io.writeBytesFully(new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) })).verifyComplete();
+
+		int step = toWrite.length > 10000 ? 1111 : 3;
+		for (int i = 0; i < toWrite.length; i += 3 * step) {
+			int l1 = Math.min(step, toWrite.length - i);
+			int l2 = Math.min(2 * step, toWrite.length - i - l1);
+			io.writeBytesFully(new ByteBuffer[] { ByteBuffer.wrap(toWrite, i, l1), ByteBuffer.allocate(0), ByteBuffer.wrap(toWrite, i + l1, l2) }).block();
+		}
+
+		if (!(io instanceof ReactiveIO.Writable.Appendable))
+			StepVerifier.create(io.writeBytesFully(new ByteBuffer[] { ByteBuffer.allocate(1) })).expectError(EOFException.class).verify();
+
+		io.flush().block();
+		checkWrittenData(io, ioTuple.getObject(), toWrite);
+		
+		io.close().block();
+		StepVerifier.create(io.writeBytesFully(new ByteBuffer[] { ByteBuffer.allocate(1) })).expectError(ClosedChannelException.class).verify();
+		StepVerifier.create(io.writeBytesFully(new ByteBuffer[0])).expectError(ClosedChannelException.class).verify();
+	}
+	
 	@ParameterizedTest(name = "{0}")
 	@ArgumentsSource(RandomContentTestCasesProvider.class)
 	void writeFullyByteBufferFlux(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<?, ?>> ioSupplier) throws Exception {
@@ -315,6 +315,33 @@ public abstract class AbstractWritableSeekableReactiveBytesIOTest implements Tes
 	}
 	
 	
+	@ParameterizedTest(name = "{0}")
+	@ArgumentsSource(RandomContentTestCasesProvider.class)
+	void writeBytesFullyAtBufferArray(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<? extends ReactiveBytesIO.Writable.Seekable, ?>> ioSupplier) throws Exception {
+		WritableTestCase<? extends ReactiveBytesIO.Writable.Seekable, ?> ioTuple = ioSupplier.apply(toWrite.length);
+		ReactiveBytesIO.Writable.Seekable io = ioTuple.getIo();
+
+		StepVerifier.create(io.writeBytesFullyAt(0, (ByteBuffer[]) null)).expectError(NullPointerException.class).verify();
+		StepVerifier.create(io.writeBytesFullyAt(-1, new ByteBuffer[0])).expectError(NegativeValueException.class).verify();
+		StepVerifier.create(io.writeBytesFullyAt(0, new ByteBuffer[] { ByteBuffer.allocate(0), ByteBuffer.allocate(0) })).verifyComplete();
+
+		int step = toWrite.length > 10000 ? 1111 : 3;
+		for (int i = 0; i < toWrite.length; i += 3 * step) {
+			int l1 = Math.min(step, toWrite.length - i);
+			int l2 = Math.min(2 * step, toWrite.length - i - l1);
+			io.writeBytesFullyAt(i, new ByteBuffer[] { ByteBuffer.wrap(toWrite, i, l1), ByteBuffer.allocate(0), ByteBuffer.wrap(toWrite, i + l1, l2) }).block();
+		}
+
+		if (!(io instanceof ReactiveIO.Writable.Appendable))
+			StepVerifier.create(io.writeBytesFullyAt(toWrite.length, new ByteBuffer[] { ByteBuffer.allocate(1) })).expectError(EOFException.class).verify();
+
+		io.flush().block();
+		checkWrittenData(io, ioTuple.getObject(), toWrite);
+		
+		io.close().block();
+		StepVerifier.create(io.writeBytesFullyAt(0, new ByteBuffer[] { ByteBuffer.allocate(1) })).expectError(ClosedChannelException.class).verify();
+	}
+	
 	@ParameterizedTest(name = "{0}")
 	@ArgumentsSource(RandomContentTestCasesProvider.class)
 	void writeByteBufferAt(String displayName, byte[] toWrite, Function<Integer, WritableTestCase<? extends ReactiveBytesIO.Writable.Seekable, ?>> ioSupplier) throws Exception {
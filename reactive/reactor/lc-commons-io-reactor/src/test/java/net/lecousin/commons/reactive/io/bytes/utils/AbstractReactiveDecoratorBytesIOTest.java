@@ -0,0 +1,59 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.reactive.io.bytes.AbstractReadableReactiveBytesIOTest;
+import net.lecousin.commons.reactive.io.bytes.AbstractWritableReactiveBytesIOTest;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+import net.lecousin.commons.test.TestCase;
+
+/** Tests of a ReactiveBytesIO decorating a ByteArrayIO. */
+public abstract class AbstractReactiveDecoratorBytesIOTest {
+
+	public abstract static class Readable extends AbstractReadableReactiveBytesIOTest {
+
+		protected abstract String getName();
+
+		protected abstract ReactiveBytesIO.Readable decorate(ReactiveBytesIO.Readable io);
+
+		@Override
+		public List<? extends TestCase<byte[], ReactiveBytesIO.Readable>> getTestCases() {
+			return List.of(
+				new TestCase<>(getName() + " over ByteArrayIO", data -> decorate(ReactiveBytesIO.fromByteArray(new ByteArray(data)).asReadableBytesIO()))
+			);
+		}
+	}
+
+	public abstract static class Writable extends AbstractWritableReactiveBytesIOTest {
+
+		protected abstract String getName();
+
+		protected abstract ReactiveBytesIO.Writable decorate(ReactiveBytesIO.Writable io);
+
+		/** Check the decorator once the data has been written, by default nothing is checked. */
+		protected void checkDecorator(ReactiveBytesIO.Writable io, byte[] expected) throws Exception {
+			// nothing by default
+		}
+
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends ReactiveBytesIO.Writable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>(getName() + " over ByteArrayIO", size -> {
+					ByteArray ba = new ByteArray(new byte[size]);
+					return new WritableTestCase<>(decorate(ReactiveBytesIO.fromByteArray(ba).asWritableBytesIO()), ba);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(ReactiveBytesIO.Writable io, Object object, byte[] expected) throws Exception {
+			ByteArray ba = (ByteArray) object;
+			Assertions.assertArrayEquals(expected, ba.getArray());
+			checkDecorator(io, expected);
+		}
+	}
+
+}
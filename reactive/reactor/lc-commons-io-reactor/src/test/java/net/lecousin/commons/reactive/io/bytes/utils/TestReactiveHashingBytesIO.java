@@ -0,0 +1,81 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Random;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+
+public class TestReactiveHashingBytesIO {
+
+	private static long crc32c(byte[] data) {
+		CRC32C crc = new CRC32C();
+		crc.update(data);
+		return crc.getValue();
+	}
+
+	public static class TestReadable extends AbstractReactiveDecoratorBytesIOTest.Readable {
+		@Override
+		protected String getName() {
+			return "CRC32C";
+		}
+
+		@Override
+		protected ReactiveBytesIO.Readable decorate(ReactiveBytesIO.Readable io) {
+			return ReactiveHashingBytesIO.readable(io, new CRC32C(), true);
+		}
+	}
+
+	public static class TestWritable extends AbstractReactiveDecoratorBytesIOTest.Writable {
+		@Override
+		protected String getName() {
+			return "CRC32C";
+		}
+
+		@Override
+		protected ReactiveBytesIO.Writable decorate(ReactiveBytesIO.Writable io) {
+			return ReactiveHashingBytesIO.writable(io, new CRC32C(), true);
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		protected void checkDecorator(ReactiveBytesIO.Writable io, byte[] expected) {
+			assertThat(((ReactiveHashingBytesIO.Writable<Checksum>) io).getHash().getValue()).isEqualTo(crc32c(expected));
+		}
+	}
+
+	public static class TestHash {
+
+		@Test
+		void testReadAndWriteWithDigest() throws Exception {
+			byte[] data = new byte[100000];
+			new Random(42).nextBytes(data);
+			ReactiveHashingBytesIO.Readable<MessageDigest> in = ReactiveHashingBytesIO.readable(ReactiveBytesIO.fromByteArray(new ByteArray(data)).asReadableBytesIO(), MessageDigest.getInstance("SHA-256"), true);
+			ByteArray out = new ByteArray(new byte[0]);
+			ReactiveHashingBytesIO.Writable<MessageDigest> outIO = ReactiveHashingBytesIO.writable(ReactiveBytesIO.fromByteArrayAppendable(out), MessageDigest.getInstance("SHA-256"), true);
+			in.readByte().flatMap(outIO::writeByte).block();
+			in.skipFully(999).block();
+			in.readBytesFully(ByteBuffer.allocate(1000)).flatMap(b -> outIO.writeBytesFully(b.flip())).block();
+			ByteBuffer b;
+			while ((b = in.readBuffer().block()) != null)
+				outIO.writeBytesFully(b).block();
+			in.close().block();
+			outIO.close().block();
+			byte[] expected = MessageDigest.getInstance("SHA-256").digest(data);
+			assertThat(in.getHash().digest()).isEqualTo(expected);
+			MessageDigest written = MessageDigest.getInstance("SHA-256");
+			written.update(data, 0, 1);
+			written.update(data, 1000, data.length - 1000);
+			assertThat(outIO.getHash().digest()).isEqualTo(written.digest());
+		}
+
+	}
+
+}
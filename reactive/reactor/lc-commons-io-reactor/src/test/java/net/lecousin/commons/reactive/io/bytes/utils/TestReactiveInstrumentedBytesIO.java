@@ -0,0 +1,141 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.EOFException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.IO.Seekable.SeekFrom;
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.utils.IOMetrics;
+import net.lecousin.commons.io.utils.IOMetrics.Operation;
+import net.lecousin.commons.reactive.io.bytes.AbstractReadableSeekableReactiveBytesIOTest;
+import net.lecousin.commons.reactive.io.bytes.AbstractWritableReactiveBytesIOTest.WritableTestCase;
+import net.lecousin.commons.reactive.io.bytes.AbstractWritableSeekableReactiveBytesIOTest;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+import net.lecousin.commons.test.TestCase;
+import reactor.test.StepVerifier;
+
+public class TestReactiveInstrumentedBytesIO {
+
+	public static class TestReadable extends AbstractReactiveDecoratorBytesIOTest.Readable {
+		@Override
+		protected String getName() {
+			return "ReactiveInstrumentedBytesIO";
+		}
+
+		@Override
+		protected ReactiveBytesIO.Readable decorate(ReactiveBytesIO.Readable io) {
+			return ReactiveInstrumentedBytesIO.readable(io, new IOMetrics("test"), true);
+		}
+	}
+
+	public static class TestWritable extends AbstractReactiveDecoratorBytesIOTest.Writable {
+		@Override
+		protected String getName() {
+			return "ReactiveInstrumentedBytesIO";
+		}
+
+		@Override
+		protected ReactiveBytesIO.Writable decorate(ReactiveBytesIO.Writable io) {
+			return ReactiveInstrumentedBytesIO.writable(io, new IOMetrics("test"), true);
+		}
+
+		@Override
+		protected void checkDecorator(ReactiveBytesIO.Writable io, byte[] expected) {
+			assertThat(((ReactiveInstrumentedBytesIO) io).getMetrics().getBytesWritten()).isEqualTo(expected.length);
+		}
+	}
+
+	public static class TestReadableSeekable extends AbstractReadableSeekableReactiveBytesIOTest {
+		@Override
+		public List<? extends TestCase<byte[], ReactiveBytesIO.Readable.Seekable>> getTestCases() {
+			return List.of(
+				new TestCase<>("ReactiveInstrumentedBytesIO over ByteArrayIO", data -> ReactiveInstrumentedBytesIO.readableSeekable(ReactiveBytesIO.fromByteArray(new ByteArray(data)).asReadableSeekableBytesIO(), new IOMetrics("test"), true))
+			);
+		}
+	}
+
+	public static class TestWritableSeekable extends AbstractWritableSeekableReactiveBytesIOTest {
+		@Override
+		public List<? extends TestCase<Integer, WritableTestCase<? extends ReactiveBytesIO.Writable.Seekable, ?>>> getTestCases() {
+			return List.of(
+				new TestCase<>("ReactiveInstrumentedBytesIO over ByteArrayIO", size -> {
+					ByteArray b = new ByteArray(new byte[size]);
+					return new WritableTestCase<>(ReactiveInstrumentedBytesIO.writableSeekable(ReactiveBytesIO.fromByteArray(b).asWritableSeekableBytesIO(), new IOMetrics("test"), true), b);
+				})
+			);
+		}
+
+		@Override
+		protected void checkWrittenData(ReactiveBytesIO.Writable.Seekable io, Object object, byte[] expected) throws Exception {
+			Assertions.assertArrayEquals(expected, ((ByteArray) object).getArray());
+		}
+	}
+
+	public static class TestMetrics {
+
+		@Test
+		void testMetrics() {
+			IOMetrics metrics = new IOMetrics("test");
+			ReactiveInstrumentedBytesIO.Readable in = ReactiveInstrumentedBytesIO.readable(ReactiveBytesIO.fromByteArray(new ByteArray(new byte[1000])).asReadableBytesIO(), metrics, true);
+			ReactiveInstrumentedBytesIO.Writable out = ReactiveInstrumentedBytesIO.writable(ReactiveBytesIO.fromByteArray(new ByteArray(new byte[1000])).asWritableBytesIO(), metrics, true);
+			in.readByte().flatMap(out::writeByte).block();
+			in.readBytesFully(ByteBuffer.allocate(99)).flatMap(b -> out.writeBytesFully(b.flip())).block();
+			in.skipUpTo(100).block();
+			ByteBuffer b = in.readBuffer().block();
+			out.writeBytes(b).block();
+			out.flush().block();
+			StepVerifier.create(in.readByte()).expectError(EOFException.class).verify();
+			in.close().block();
+			out.close().block();
+
+			assertThat(metrics.getBytesRead()).isEqualTo(1000);
+			assertThat(metrics.getBytesWritten()).isEqualTo(900);
+			assertThat(metrics.get(Operation.READ_BYTE).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTE).getErrors()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTES_FULLY).getSizes().getSum()).isEqualTo(99);
+			assertThat(metrics.get(Operation.SKIP).getSizes().getSum()).isEqualTo(100);
+			assertThat(metrics.get(Operation.READ_BUFFER).getSizes().getSum()).isEqualTo(800);
+			assertThat(metrics.get(Operation.WRITE_BYTE).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.WRITE_BYTES_FULLY).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.WRITE_BYTES).getUtilization()).isEqualTo(1);
+			assertThat(metrics.get(Operation.FLUSH).getCount()).isEqualTo(1);
+		}
+
+		@Test
+		void testSeekableMetrics() {
+			IOMetrics metrics = new IOMetrics("seekable");
+			ReactiveBytesIO.ReadWrite data = ReactiveBytesIO.fromByteArray(new ByteArray(new byte[1000]));
+			ReactiveInstrumentedBytesIO.ReadableSeekable in = ReactiveInstrumentedBytesIO.readableSeekable(data.asReadableSeekableBytesIO(), metrics, false);
+			ReactiveInstrumentedBytesIO.WritableSeekable out = ReactiveInstrumentedBytesIO.writableSeekable(data.asWritableSeekableBytesIO(), metrics, false);
+			out.writeByteAt(10, (byte) 1).block();
+			out.writeBytesFullyAt(20, ByteBuffer.allocate(30)).block();
+			assertThat(out.writeBytesAt(900, ByteBuffer.allocate(200)).block()).isEqualTo(100);
+			assertThat(in.seek(SeekFrom.START, 500).block()).isEqualTo(500);
+			assertThat(in.readByteAt(10).block()).isEqualTo((byte) 1);
+			assertThat(in.position().block()).isEqualTo(500);
+			in.readBytesFullyAt(20, ByteBuffer.allocate(30)).block();
+			assertThat(in.readBytesAt(950, ByteBuffer.allocate(100)).block()).isEqualTo(50);
+			StepVerifier.create(in.readByteAt(1000)).expectError(EOFException.class).verify();
+			in.close().block();
+			out.close().block();
+
+			assertThat(metrics.getBytesWritten()).isEqualTo(131);
+			assertThat(metrics.getBytesRead()).isEqualTo(81);
+			assertThat(metrics.get(Operation.WRITE_BYTE_AT).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.WRITE_BYTES_FULLY_AT).getSizes().getSum()).isEqualTo(30);
+			assertThat(metrics.get(Operation.WRITE_BYTES_AT).getUtilization()).isEqualTo(0.5);
+			assertThat(metrics.get(Operation.SEEK).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTE_AT).getErrors()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTES_FULLY_AT).getCount()).isEqualTo(1);
+			assertThat(metrics.get(Operation.READ_BYTES_AT).getSizes().getSum()).isEqualTo(50);
+		}
+
+	}
+
+}
@@ -2,6 +2,7 @@ package net.lecousin.commons.reactive.io.bytes.utils;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -10,6 +11,8 @@ import net.lecousin.commons.reactive.io.bytes.AbstractReadableReactiveBytesIOTes
 import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
 import net.lecousin.commons.reactive.io.bytes.file.ReactiveFileIO;
 import net.lecousin.commons.test.TestCase;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
 public class TestReactiveReadableBytesIOFromFlux extends AbstractReadableReactiveBytesIOTest {
 
@@ -29,7 +32,15 @@ public class TestReactiveReadableBytesIOFromFlux extends AbstractReadableReactiv
 			} catch (IOException e) {
 				throw new RuntimeException(e);
 			}
-		}));
+		}), new TestCase<>("Small buffers without prefetch", data -> new ReactiveReadableBytesIOFromFlux(smallBuffers(data), 0, 1)),
+		new TestCase<>("Small buffers with large prefetch", data -> new ReactiveReadableBytesIOFromFlux(smallBuffers(data), 8, 32)));
+	}
+	
+	private static Flux<ByteBuffer> smallBuffers(byte[] data) {
+		// include empty buffers, and publish on another thread
+		return Flux.range(0, data.length / 997 + 2)
+			.map(i -> i * 997 >= data.length ? ByteBuffer.allocate(0) : ByteBuffer.wrap(data, i * 997, Math.min(997, data.length - i * 997)).slice())
+			.publishOn(Schedulers.parallel(), 2);
 	}
 	
 }
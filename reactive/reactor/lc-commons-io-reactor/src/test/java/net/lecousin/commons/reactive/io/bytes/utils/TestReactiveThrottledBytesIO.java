@@ -0,0 +1,108 @@
+package net.lecousin.commons.reactive.io.bytes.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.bytes.memory.ByteArray;
+import net.lecousin.commons.io.utils.IOThrottle;
+import net.lecousin.commons.io.utils.TokenBucket;
+import net.lecousin.commons.reactive.io.bytes.ReactiveBytesIO;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class TestReactiveThrottledBytesIO {
+
+	private static IOThrottle fastThrottle() {
+		return new IOThrottle(new TokenBucket(1L << 40, 4096), new TokenBucket(1L << 30, 100));
+	}
+
+	public static class TestReadable extends AbstractReactiveDecoratorBytesIOTest.Readable {
+		@Override
+		protected String getName() {
+			return "ReactiveThrottledBytesIO";
+		}
+
+		@Override
+		protected ReactiveBytesIO.Readable decorate(ReactiveBytesIO.Readable io) {
+			return ReactiveThrottledBytesIO.readable(io, fastThrottle(), true);
+		}
+	}
+
+	public static class TestWritable extends AbstractReactiveDecoratorBytesIOTest.Writable {
+		@Override
+		protected String getName() {
+			return "ReactiveThrottledBytesIO";
+		}
+
+		@Override
+		protected ReactiveBytesIO.Writable decorate(ReactiveBytesIO.Writable io) {
+			return ReactiveThrottledBytesIO.writable(io, fastThrottle(), true);
+		}
+	}
+
+	public static class TestThrottle {
+
+		@Test
+		void testTransferDelayedWithoutBlocking() throws Exception {
+			IOThrottle throttle = IOThrottle.bytesPerSecond(100000, 10000);
+			ReactiveThrottledBytesIO.Readable in = ReactiveThrottledBytesIO.readable(ReactiveBytesIO.fromByteArray(new ByteArray(new byte[50000])).asReadableBytesIO(), throttle, true);
+			ByteArray out = new ByteArray(new byte[50000]);
+			long start = System.nanoTime();
+			Mono<byte[]> read = in.readBytesFully(new byte[50000]);
+			// the Mono is assembled without waiting
+			assertThat(System.nanoTime() - start).isLessThan(300_000_000L);
+			byte[] data = read.block();
+			ReactiveBytesIO.fromByteArray(out).asWritableBytesIO().writeBytesFully(data).block();
+			long elapsed = System.nanoTime() - start;
+			// burst of 10000, then 40000 at 100000/s
+			assertThat(elapsed).isGreaterThanOrEqualTo(300_000_000L);
+			assertThat(throttle.getBytesBucket().get().getConsumed()).isEqualTo(50000);
+			in.close().block();
+		}
+
+		@Test
+		void testSharedOperationsPerSecond() {
+			IOThrottle throttle = IOThrottle.operationsPerSecond(50, 5);
+			ReactiveThrottledBytesIO.Readable in = ReactiveThrottledBytesIO.readable(ReactiveBytesIO.fromByteArray(new ByteArray(new byte[20])).asReadableBytesIO(), throttle, true);
+			ReactiveThrottledBytesIO.Writable out = ReactiveThrottledBytesIO.writable(ReactiveBytesIO.fromByteArray(new ByteArray(new byte[20])).asWritableBytesIO(), throttle, true);
+			long start = System.nanoTime();
+			for (int i = 0; i < 10; ++i)
+				in.readByte().flatMap(out::writeByte).block();
+			long elapsed = System.nanoTime() - start;
+			// 20 operations: burst of 5, then 15 at 50/s
+			assertThat(elapsed).isGreaterThanOrEqualTo(250_000_000L);
+			assertThat(throttle.getOperationsBucket().get().getConsumed()).isEqualTo(20);
+			in.close().block();
+			out.close().block();
+		}
+
+
+		@Test
+		void testCancelRestoresBufferLimit() {
+			IOThrottle throttle = IOThrottle.bytesPerSecond(1000, 10);
+			ReactiveThrottledBytesIO.Readable in = ReactiveThrottledBytesIO.readable(new ReactiveReadableBytesIOFromFlux(Flux.never()), throttle, true);
+			ByteBuffer buffer = ByteBuffer.allocate(100);
+			Disposable read = in.readBytes(buffer).subscribe();
+			// the read is pending, with the buffer limited to the burst
+			assertThat(buffer.limit()).isEqualTo(10);
+			read.dispose();
+			assertThat(buffer.limit()).isEqualTo(100);
+			assertThat(throttle.getBytesBucket().get().getConsumed()).isZero();
+		}
+
+		@Test
+		void testSkipConsumesTokens() {
+			IOThrottle throttle = IOThrottle.bytesPerSecond(1000000, 100);
+			ReactiveThrottledBytesIO.Readable in = ReactiveThrottledBytesIO.readable(ReactiveBytesIO.fromByteArray(new ByteArray(new byte[1000])).asReadableBytesIO(), throttle, true);
+			assertThat(in.skipUpTo(500).block()).isEqualTo(100);
+			assertThat(throttle.getBytesBucket().get().getConsumed()).isEqualTo(100);
+			in.close().block();
+		}
+
+	}
+
+}
@@ -0,0 +1,73 @@
+package net.lecousin.commons.reactive.io.files;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.reactive.io.files.ReactiveFileTreeSnapshot.Change;
+import net.lecousin.commons.reactive.io.files.ReactiveFileTreeSnapshot.ChangeType;
+
+class TestReactiveFileTreeSnapshot {
+
+	@Test
+	void test() throws Exception {
+		Path root = Files.createTempDirectory("test-lc-reactive-snapshot");
+		Path file1 = Files.createFile(root.resolve("file1"));
+		Path dir1 = Files.createDirectory(root.resolve("dir1"));
+		Files.createFile(dir1.resolve("file2"));
+		Path dir2 = Files.createDirectory(dir1.resolve("dir2"));
+		Path dir3 = Files.createDirectory(root.resolve("dir3"));
+		Files.createFile(dir3.resolve("file3"));
+
+		ReactiveFileTreeSnapshot snapshot1 = ReactiveFileTreeSnapshot.take(root).block();
+		assertThat(snapshot1.getRootDirectory().getFiles()).containsOnlyKeys("file1");
+		assertThat(snapshot1.getRootDirectory().getSubDirectories()).containsOnlyKeys("dir1", "dir3");
+		assertThat(snapshot1.getRootDirectory().getSubDirectories().get("dir1").getSubDirectories()).containsOnlyKeys("dir2");
+
+		// nothing changed
+		ReactiveFileTreeSnapshot snapshot2 = snapshot1.refresh().block();
+		assertThat(snapshot2.getRootDirectory()).isSameAs(snapshot1.getRootDirectory());
+		assertThat(snapshot2.diff(snapshot1).collectList().block()).isEmpty();
+
+		// add a file in a sub-directory, remove a directory
+		Files.createFile(dir2.resolve("file4"));
+		Files.delete(dir3.resolve("file3"));
+		Files.delete(dir3);
+		ReactiveFileTreeSnapshot snapshot3 = snapshot2.refresh().block();
+		List<Change> changes = snapshot3.diff(snapshot2).collectList().block();
+		assertThat(changes).hasSize(3)
+		.anyMatch(c -> c.getType() == ChangeType.ADDED && c.getRelativePath().equals(Path.of("dir1", "dir2", "file4")) && c.getPrevious() == null)
+		.anyMatch(c -> c.getType() == ChangeType.REMOVED && c.getRelativePath().equals(Path.of("dir3")) && c.getPrevious().isDirectory())
+		.anyMatch(c -> c.getType() == ChangeType.REMOVED && c.getRelativePath().equals(Path.of("dir3", "file3")) && c.getCurrent() == null);
+
+		// modify file content: not detected unless given
+		Files.writeString(file1, "hello");
+		Files.setLastModifiedTime(file1, FileTime.fromMillis(System.currentTimeMillis() + 10000));
+		Files.setLastModifiedTime(root, FileTime.fromMillis(snapshot3.getRootDirectory().getLastModified()));
+		ReactiveFileTreeSnapshot snapshot4 = snapshot3.refresh().block();
+		assertThat(snapshot4.diff(snapshot3).collectList().block()).isEmpty();
+		snapshot4 = snapshot3.refresh(List.of(file1)).block();
+		changes = snapshot4.diff(snapshot3).collectList().block();
+		assertThat(changes).hasSize(1);
+		assertThat(changes.get(0).getType()).isEqualTo(ChangeType.MODIFIED);
+		assertThat(changes.get(0).getCurrent().getSize()).isEqualTo(5);
+
+		// save and load
+		Path saved = Files.createTempFile("test-lc-reactive-snapshot", ".bin");
+		snapshot4.save(saved).block();
+		ReactiveFileTreeSnapshot loaded = ReactiveFileTreeSnapshot.load(saved).block();
+		assertThat(loaded.getRoot()).isEqualTo(root);
+		assertThat(loaded.diff(snapshot4).collectList().block()).isEmpty();
+		assertThat(snapshot4.diff(loaded).collectList().block()).isEmpty();
+		assertThat(loaded.getRootDirectory().getSubDirectories().get("dir1").getSubDirectories().get("dir2").getFiles()).containsOnlyKeys("file4");
+		Files.delete(saved);
+
+		ReactiveFiles.deleteDirectoryWithContent(root).block();
+	}
+
+}
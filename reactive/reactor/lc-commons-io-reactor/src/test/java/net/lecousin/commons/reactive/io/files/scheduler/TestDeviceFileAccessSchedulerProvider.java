@@ -0,0 +1,103 @@
+package net.lecousin.commons.reactive.io.files.scheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.reactive.io.files.scheduler.FileAccessSchedulerProvider.Priority;
+import reactor.core.scheduler.Scheduler;
+
+class TestDeviceFileAccessSchedulerProvider {
+
+	@Test
+	void testSchedulerByFile() throws Exception {
+		DeviceFileAccessSchedulerProvider provider = new DeviceFileAccessSchedulerProvider();
+		Path dir = Files.createTempDirectory("test-lc-scheduler");
+		try {
+			Scheduler s1 = provider.getFileAccessScheduler(dir.resolve("file1"));
+			assertThat(provider.getFileAccessScheduler(dir.resolve("file1"))).isSameAs(s1);
+			assertThat(provider.getFileAccessScheduler(dir.resolve("sub").resolve("..").resolve("file1"))).isSameAs(s1);
+			assertThat(provider.getFileAccessScheduler(dir.resolve("file1"), Priority.NORMAL)).isSameAs(s1);
+			assertThat(provider.getFileAccessScheduler(dir.resolve("file1"), Priority.BULK)).isNotSameAs(s1);
+			assertThat(provider.getFileAccessScheduler(dir.resolve("file2"))).isNotSameAs(s1);
+			provider.getFileAccessScheduler(dir.resolve("not-existing").resolve("file3"));
+			assertThat(provider.getStatistics()).hasSizeGreaterThanOrEqualTo(2);
+		} finally {
+			Files.delete(dir);
+		}
+	}
+
+	@Test
+	void testSameFileInOrder() throws Exception {
+		DeviceFileAccessSchedulerProvider provider = new DeviceFileAccessSchedulerProvider(4, 4, 4);
+		Path file = Files.createTempFile("test-lc-scheduler", "order");
+		try {
+			List<Integer> executed = Collections.synchronizedList(new LinkedList<>());
+			AtomicInteger running = new AtomicInteger();
+			AtomicInteger maxRunning = new AtomicInteger();
+			CountDownLatch done = new CountDownLatch(100);
+			for (int i = 0; i < 100; ++i) {
+				int index = i;
+				Priority priority = Priority.values()[i % Priority.values().length];
+				provider.getFileAccessScheduler(file, priority).schedule(() -> {
+					maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+					executed.add(index);
+					running.decrementAndGet();
+					done.countDown();
+				});
+			}
+			assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(maxRunning.get()).isEqualTo(1);
+			for (int i = 0; i < 100; ++i)
+				assertThat(executed.get(i)).isEqualTo(i);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	void testPriority() throws Exception {
+		DeviceFileAccessSchedulerProvider provider = new DeviceFileAccessSchedulerProvider(1, 1, 1);
+		Path dir = Files.createTempDirectory("test-lc-scheduler");
+		try {
+			List<Priority> executed = Collections.synchronizedList(new LinkedList<>());
+			CountDownLatch started = new CountDownLatch(1);
+			CountDownLatch blocker = new CountDownLatch(1);
+			CountDownLatch done = new CountDownLatch(4);
+			provider.getFileAccessScheduler(dir.resolve("blocker"), Priority.NORMAL).schedule(() -> {
+				started.countDown();
+				try {
+					blocker.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				done.countDown();
+			});
+			assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+			for (Priority p : new Priority[] { Priority.BULK, Priority.NORMAL, Priority.INTERACTIVE })
+				provider.getFileAccessScheduler(dir.resolve(p.name()), p).schedule(() -> {
+					executed.add(p);
+					done.countDown();
+				});
+			var stats = provider.getStatistics().stream().filter(s -> s.getQueueDepth() > 0).findFirst();
+			assertThat(stats).isPresent();
+			assertThat(stats.get().getQueueDepth()).isEqualTo(3);
+			assertThat(stats.get().getQueuedTasks()).containsEntry(Priority.BULK, 1L);
+			blocker.countDown();
+			assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+			assertThat(executed).containsExactly(Priority.INTERACTIVE, Priority.NORMAL, Priority.BULK);
+		} finally {
+			Files.delete(dir);
+		}
+	}
+
+}
@@ -0,0 +1,65 @@
+package net.lecousin.commons.reactive.io.text.placeholder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.CharBuffer;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import net.lecousin.commons.io.text.TextParser;
+import net.lecousin.commons.io.text.placeholder.PlaceholderTemplate;
+import net.lecousin.commons.io.text.placeholder.arguments.ArgumentsPlaceholder;
+import reactor.test.StepVerifier;
+
+class TestReactivePlaceholderTemplate {
+
+	private static PlaceholderTemplate<List<Object>> compile(String input) {
+		TextParser<ArgumentsPlaceholder.Compiled> parser = ArgumentsPlaceholder.Compiled.parser();
+		parser.parse(CharBuffer.wrap(input));
+		return parser.endOfInput().getTemplate();
+	}
+
+	@Test
+	void testRender() {
+		PlaceholderTemplate<List<Object>> template = compile("hello {{1}}, {{if:{{2}};welcome;bye}} \ud83d\ude00!");
+		List<Object> arguments = List.of("world", "true");
+		String expected = "hello world, welcome \ud83d\ude00!";
+		for (int chunkSize : new int[] { 1, 2, 5, 1000 }) {
+			StringBuilder s = new StringBuilder();
+			StepVerifier.create(ReactivePlaceholderTemplate.render(template, arguments, chunkSize))
+				.thenConsumeWhile(chunk -> {
+					assertThat(chunk.remaining()).isBetween(1, chunkSize);
+					s.append(chunk);
+					return true;
+				})
+				.verifyComplete();
+			assertThat(s).hasToString(expected);
+		}
+		assertThat(ReactivePlaceholderTemplate.render(template, arguments).map(CharBuffer::toString).collectList().block())
+			.containsExactly(expected);
+	}
+
+	@Test
+	void testBackpressure() {
+		PlaceholderTemplate<List<Object>> template = compile("abcdefghij{{1}}");
+		StepVerifier.create(ReactivePlaceholderTemplate.render(template, List.of("klm"), 4), 1)
+			.assertNext(chunk -> assertThat(chunk.toString()).isEqualTo("abcd"))
+			.thenRequest(2)
+			.assertNext(chunk -> assertThat(chunk.toString()).isEqualTo("efgh"))
+			.assertNext(chunk -> assertThat(chunk.toString()).isEqualTo("ijkl"))
+			.thenRequest(1)
+			.assertNext(chunk -> assertThat(chunk.toString()).isEqualTo("m"))
+			.verifyComplete();
+	}
+
+	@Test
+	void testEmpty() {
+		StepVerifier.create(ReactivePlaceholderTemplate.render(compile(""), List.of())).verifyComplete();
+		PlaceholderTemplate<List<Object>> template = compile("a");
+		List<Object> arguments = List.of();
+		assertThatThrownBy(() -> ReactivePlaceholderTemplate.render(template, arguments, 0)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,178 @@
+package net.lecousin.commons.reactive;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import net.lecousin.commons.collections.SpscRingQueue;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Pull elements one by one from a Flux, requesting them in advance.
+ * <p>
+ * The Flux is subscribed immediately, but no element is requested until the first call to {@link #next()}.
+ * Then up to <code>highWatermark</code> elements are requested, and each time the number of elements requested
+ * and not yet consumed falls to <code>lowWatermark</code>, new elements are requested to go back to
+ * <code>highWatermark</code>, similar to the prefetch of {@link Flux#publishOn(reactor.core.scheduler.Scheduler, int)}.
+ * </p>
+ * <p>
+ * Received elements are stored in a lock-free single-producer single-consumer queue, so when elements are
+ * available, getting the next one is only a poll in the queue.
+ * {@link #next()} must be called by a single consumer at a time: the Mono returned by a call must be terminated
+ * before the next call.
+ * </p>
+ * <p>
+ * If the Mono returned by {@link #next()} is cancelled while an element is being given to it, the element is
+ * discarded by Reactor: it is put back in front of the queue so the next call gets it and no element is lost.
+ * </p>
+ * @param <T> type of element
+ */
+public class FluxPrefetcher<T> {
+
+	/** Default high watermark. */
+	public static final int DEFAULT_HIGH_WATERMARK = 16;
+	/** Default low watermark. */
+	public static final int DEFAULT_LOW_WATERMARK = 4;
+
+	private final int highWatermark;
+	private final int replenish;
+	private final SpscRingQueue<T> queue;
+	private final AtomicReference<MonoSink<T>> waiting = new AtomicReference<>();
+	private final AtomicReference<T> requeued = new AtomicReference<>();
+	private final AtomicBoolean initialRequestDone = new AtomicBoolean(false);
+	private volatile Subscription subscription;
+	private volatile boolean started = false;
+	private volatile boolean cancelled = false;
+	private volatile boolean done = false;
+	private Throwable error = null;
+	private int consumed = 0;
+
+	/**
+	 * Constructor.
+	 * @param input Flux of elements
+	 * @param lowWatermark when the number of elements requested and not yet consumed falls to this value, more elements are requested
+	 * @param highWatermark maximum number of elements requested and not yet consumed
+	 */
+	public FluxPrefetcher(Flux<T> input, int lowWatermark, int highWatermark) {
+		if (highWatermark <= 0) throw new IllegalArgumentException("highWatermark must be positive: " + highWatermark);
+		if (lowWatermark < 0 || lowWatermark >= highWatermark)
+			throw new IllegalArgumentException("lowWatermark must be between 0 and highWatermark - 1: " + lowWatermark);
+		this.highWatermark = highWatermark;
+		this.replenish = highWatermark - lowWatermark;
+		this.queue = new SpscRingQueue<>(highWatermark);
+		input.subscribe(new Subscriber<>() {
+			@Override
+			public void onSubscribe(Subscription s) {
+				subscription = s;
+				if (cancelled) s.cancel();
+				else requestInitial();
+			}
+
+			@Override
+			public void onNext(T item) {
+				if (!queue.offer(item))
+					throw new IllegalStateException("More elements received than requested");
+				deliver();
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				error = t;
+				done = true;
+				deliver();
+			}
+
+			@Override
+			public void onComplete() {
+				done = true;
+				deliver();
+			}
+		});
+	}
+
+	/**
+	 * Constructor with default watermarks.
+	 * @param input Flux of elements
+	 */
+	public FluxPrefetcher(Flux<T> input) {
+		this(input, DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK);
+	}
+
+	/**
+	 * Get the next element.
+	 * @return the next element, empty if the Flux is completed, or an error if the Flux failed
+	 */
+	public Mono<T> next() {
+		return Mono.<T>create(sink -> {
+			if (!started) {
+				started = true;
+				requestInitial();
+			}
+			if (tryDeliver(sink)) return;
+			waiting.set(sink);
+			sink.onCancel(() -> waiting.compareAndSet(sink, null));
+			// an element or the end may have been received before the sink was registered
+			deliver();
+		}).doOnDiscard(Object.class, this::requeue);
+	}
+
+	/**
+	 * Cancel the subscription to the Flux. Elements already received remain available, then {@link #next()}
+	 * completes empty, including a call waiting for an element.
+	 */
+	public void cancel() {
+		cancelled = true;
+		Subscription s = subscription;
+		if (s != null) s.cancel();
+		deliver();
+	}
+
+	private void requestInitial() {
+		Subscription s = subscription;
+		if (s != null && started && !cancelled && initialRequestDone.compareAndSet(false, true))
+			s.request(highWatermark);
+	}
+
+	/** Give an element or the end to the waiting sink, if any. */
+	private void deliver() {
+		MonoSink<T> sink;
+		while ((sink = waiting.getAndSet(null)) != null) {
+			if (tryDeliver(sink)) return;
+			waiting.set(sink);
+			// check again, in case an element was received while the sink was not registered
+			if (queue.isEmpty() && requeued.get() == null && !done && !cancelled) return;
+		}
+	}
+
+	private boolean tryDeliver(MonoSink<T> sink) {
+		boolean end = done || cancelled;
+		T item = requeued.getAndSet(null);
+		if (item == null) {
+			item = queue.poll();
+			if (item != null && ++consumed >= replenish) {
+				if (!cancelled) subscription.request(consumed);
+				consumed = 0;
+			}
+		}
+		if (item != null) {
+			sink.success(item);
+			return true;
+		}
+		if (!end) return false;
+		if (error != null) sink.error(error);
+		else sink.success();
+		return true;
+	}
+
+	/** Put back an element given to a sink which was cancelled, so the next call gets it. */
+	@SuppressWarnings("unchecked")
+	private void requeue(Object item) {
+		requeued.set((T) item);
+		deliver();
+	}
+
+}
@@ -0,0 +1,139 @@
+package net.lecousin.commons.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+class TestFluxPrefetcher {
+
+	@Test
+	void testRequests() {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+		Flux<Integer> flux = Flux.range(0, 20).doOnRequest(requests::add);
+		FluxPrefetcher<Integer> prefetcher = new FluxPrefetcher<>(flux, 2, 6);
+		assertThat(requests).isEmpty();
+		assertThat(prefetcher.next().block()).isZero();
+		assertThat(requests).containsExactly(6L);
+		for (int i = 1; i < 4; ++i)
+			assertThat(prefetcher.next().block()).isEqualTo(i);
+		assertThat(requests).containsExactly(6L, 4L);
+		for (int i = 4; i < 20; ++i)
+			assertThat(prefetcher.next().block()).isEqualTo(i);
+		assertThat(prefetcher.next().block()).isNull();
+		assertThat(prefetcher.next().block()).isNull();
+		assertThat(requests.stream().mapToLong(Long::longValue).sum()).isLessThanOrEqualTo(20 + 6);
+	}
+
+	@Test
+	void testOneByOne() {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+		Flux<Integer> flux = Flux.range(0, 3).doOnRequest(requests::add);
+		FluxPrefetcher<Integer> prefetcher = new FluxPrefetcher<>(flux, 0, 1);
+		assertThat(prefetcher.next().block()).isZero();
+		assertThat(prefetcher.next().block()).isEqualTo(1);
+		assertThat(prefetcher.next().block()).isEqualTo(2);
+		assertThat(prefetcher.next().block()).isNull();
+		assertThat(requests).allMatch(r -> r == 1L);
+	}
+
+	@Test
+	void testAsynchronousProducer() {
+		int nb = 20000;
+		Flux<Integer> flux = Flux.range(0, nb).publishOn(Schedulers.parallel(), 3);
+		for (int[] watermarks : new int[][] { { 0, 1 }, { 1, 4 }, { 3, 4 }, { 16, 64 } }) {
+			FluxPrefetcher<Integer> prefetcher = new FluxPrefetcher<>(flux, watermarks[0], watermarks[1]);
+			List<Integer> received = new ArrayList<>(nb);
+			Integer i;
+			while ((i = prefetcher.next().block()) != null)
+				received.add(i);
+			assertThat(received).hasSize(nb);
+			for (int j = 0; j < nb; ++j)
+				assertThat(received.get(j)).isEqualTo(j);
+		}
+	}
+
+	@Test
+	void testErrorAfterElements() {
+		Flux<Integer> flux = Flux.concat(Flux.range(0, 5), Flux.error(new IllegalStateException("error")));
+		FluxPrefetcher<Integer> prefetcher = new FluxPrefetcher<>(flux, 1, 3);
+		for (int i = 0; i < 5; ++i)
+			assertThat(prefetcher.next().block()).isEqualTo(i);
+		assertThatThrownBy(() -> prefetcher.next().block()).isInstanceOf(IllegalStateException.class).hasMessage("error");
+		assertThatThrownBy(() -> prefetcher.next().block()).isInstanceOf(IllegalStateException.class).hasMessage("error");
+	}
+
+	@Test
+	void testCancel() {
+		List<String> signals = new CopyOnWriteArrayList<>();
+		Flux<Long> flux = Flux.interval(Duration.ofMillis(10)).doOnCancel(() -> signals.add("cancel"));
+		FluxPrefetcher<Long> prefetcher = new FluxPrefetcher<>(flux, 1, 2);
+		assertThat(prefetcher.next().block()).isZero();
+		prefetcher.cancel();
+		assertThat(signals).containsExactly("cancel");
+		
+		FluxPrefetcher<Integer> notStarted = new FluxPrefetcher<>(Flux.range(0, 10).doOnCancel(() -> signals.add("cancel2")));
+		notStarted.cancel();
+		assertThat(signals).containsExactly("cancel", "cancel2");
+	}
+
+	@Test
+	void testNextAfterCancel() throws Exception {
+		FluxPrefetcher<Integer> prefetcher = new FluxPrefetcher<>(Flux.range(0, 3).concatWith(Flux.never()), 1, 4);
+		assertThat(prefetcher.next().block()).isZero();
+		assertThat(prefetcher.next().block()).isEqualTo(1);
+		assertThat(prefetcher.next().block()).isEqualTo(2);
+		CompletableFuture<Integer> pending = prefetcher.next().toFuture();
+		assertThat(pending).isNotDone();
+		prefetcher.cancel();
+		assertThat(pending.get(10, TimeUnit.SECONDS)).isNull();
+		assertThat(prefetcher.next().block(Duration.ofSeconds(10))).isNull();
+
+		FluxPrefetcher<Integer> withElements = new FluxPrefetcher<>(Flux.range(0, 3).concatWith(Flux.never()), 1, 4);
+		assertThat(withElements.next().block()).isZero();
+		withElements.cancel();
+		assertThat(withElements.next().block()).isEqualTo(1);
+		assertThat(withElements.next().block()).isEqualTo(2);
+		assertThat(withElements.next().block(Duration.ofSeconds(10))).isNull();
+	}
+
+	@Test
+	void testElementGivenToCancelledNextIsRequeued() {
+		FluxPrefetcher<Integer> prefetcher = new FluxPrefetcher<>(Flux.range(0, 3), 1, 4);
+		assertThat(prefetcher.next().block()).isZero();
+		// the element is given to the sink before any request, then discarded when the subscriber cancels
+		BaseSubscriber<Integer> noRequest = new BaseSubscriber<>() {
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				// do not request
+			}
+		};
+		prefetcher.next().subscribe(noRequest);
+		noRequest.dispose();
+		assertThat(prefetcher.next().block()).isEqualTo(1);
+		assertThat(prefetcher.next().block()).isEqualTo(2);
+		assertThat(prefetcher.next().block()).isNull();
+	}
+
+	@Test
+	void testInvalidWatermarks() {
+		Flux<Integer> flux = Flux.empty();
+		assertThatThrownBy(() -> new FluxPrefetcher<>(flux, 0, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new FluxPrefetcher<>(flux, 2, 2)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> new FluxPrefetcher<>(flux, -1, 2)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -24,6 +24,15 @@ class TestFluxToSupplier {
 		assertThat(test.get().block()).isNull();
 	}
 
+	@Test
+	void testWithWatermarks() {
+		Flux<Integer> flux = Flux.range(0, 100).delayElements(Duration.ofMillis(1));
+		FluxToSupplier<Integer> test = new FluxToSupplier<>(flux, 0, 1);
+		for (int i = 0; i < 100; ++i)
+			assertThat(test.get().block()).isEqualTo(i);
+		assertThat(test.get().block()).isNull();
+	}
+
 	@Test
 	void testDelayed() {
 		Flux<Integer> flux = Flux.fromIterable(Arrays.asList(10, 7, 9, 36)).delayElements(Duration.ofMillis(100));